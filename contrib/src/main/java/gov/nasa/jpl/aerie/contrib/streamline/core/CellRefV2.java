@@ -53,6 +53,12 @@ public final class CellRefV2 {
         cell.dynamics = ErrorCatchingMonad.map(cell.initialDynamics, d ->
             expiring(d.data().step(cell.elapsedTime), d.expiry().minus(cell.elapsedTime)));
       }
+
+      @Override
+      public boolean isCopyOnWrite() {
+        // Cells are only ever modified by apply and step above, so readers can share them.
+        return true;
+      }
     });
   }
 
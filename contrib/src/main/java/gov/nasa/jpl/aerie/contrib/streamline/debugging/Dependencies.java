@@ -2,39 +2,43 @@ package gov.nasa.jpl.aerie.contrib.streamline.debugging;
 
 import java.util.*;
 
-import static java.util.Collections.newSetFromMap;
 import static java.util.stream.Collectors.joining;
 
 public final class Dependencies {
   private Dependencies() {}
 
-  // Use a WeakHashMap so that describing a thing's dependencies
+  // Use weak keys so that describing a thing's dependencies
   // doesn't prevent it from being garbage-collected.
-  private static final WeakHashMap<Object, Set<Object>> DEPENDENCIES = new WeakHashMap<>();
-  private static final WeakHashMap<Object, Set<Object>> DEPENDENTS = new WeakHashMap<>();
+  // Both registries are thread-safe, so simulations may run concurrently.
+  private static final WeakIdentityRegistry<Object, WeakIdentityRegistry<Object, Boolean>> DEPENDENCIES = new WeakIdentityRegistry<>();
+  private static final WeakIdentityRegistry<Object, WeakIdentityRegistry<Object, Boolean>> DEPENDENTS = new WeakIdentityRegistry<>();
   private static final String ANONYMOUS_NAME = "...";
 
   /**
    * Register that dependent depends on dependency.
    */
   public static void addDependency(Object dependent, Object dependency) {
-    // Use WeakSet = newSetFromMap + WeakHashMap, to only weakly reference dependencies.
-    DEPENDENCIES.computeIfAbsent(dependent, $ -> newSetFromMap(new WeakHashMap<>())).add(dependency);
-    DEPENDENTS.computeIfAbsent(dependency, $ -> newSetFromMap(new WeakHashMap<>())).add(dependent);
+    // Use weak registries as sets, to only weakly reference dependencies.
+    DEPENDENCIES.computeIfAbsent(dependent, $ -> new WeakIdentityRegistry<>()).put(dependency, true);
+    DEPENDENTS.computeIfAbsent(dependency, $ -> new WeakIdentityRegistry<>()).put(dependent, true);
   }
 
   /**
-   * Get all registered dependencies of dependent.
+   * Get a snapshot of all registered dependencies of dependent.
    */
   public static Set<Object> getDependencies(Object dependent) {
-    return DEPENDENCIES.getOrDefault(dependent, Set.of());
+    return keysOf(DEPENDENCIES.get(dependent));
   }
 
   /**
-   * Get all registered dependents of dependency.
+   * Get a snapshot of all registered dependents of dependency.
    */
   public static Set<Object> getDependents(Object dependency) {
-    return DEPENDENTS.getOrDefault(dependency, Set.of());
+    return keysOf(DEPENDENTS.get(dependency));
+  }
+
+  private static Set<Object> keysOf(WeakIdentityRegistry<Object, Boolean> registry) {
+    return registry == null ? Set.of() : registry.keys();
   }
 
   /**
@@ -58,7 +62,7 @@ public final class Dependencies {
    * @param elideAnonymousNodes When true, remove anonymous nodes and replace them with their dependencies.
    */
   public static String describeDependencyGraph(boolean elideAnonymousNodes) {
-    return describeDependencyGraph(DEPENDENCIES.keySet(), elideAnonymousNodes);
+    return describeDependencyGraph(DEPENDENCIES.keys(), elideAnonymousNodes);
   }
 
   /**
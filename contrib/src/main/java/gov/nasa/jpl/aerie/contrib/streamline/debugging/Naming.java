@@ -25,8 +25,10 @@ import java.util.stream.IntStream;
 public final class Naming {
   private Naming() {}
 
-  // Use a WeakHashMap so that naming a thing doesn't prevent it from being garbage-collected.
-  private static final WeakHashMap<Object, Function<NamingContext, Optional<String>>> NAMES = new WeakHashMap<>();
+  // Use weak keys so that naming a thing doesn't prevent it from being garbage-collected.
+  // Names are keyed by reference, so things from different simulations never share names,
+  // and the registry is thread-safe, so simulations may run concurrently.
+  private static final WeakIdentityRegistry<Object, Function<NamingContext, Optional<String>>> NAMES = new WeakIdentityRegistry<>();
 
   private record NamingContext(Set<Object> visited, Function<Object, Optional<String>> anonymousName) {
     NamingContext visit(Object thing) {
@@ -92,7 +94,9 @@ public final class Naming {
   private static Optional<String> getName(Object thing, NamingContext context) {
     return context.visited.contains(thing)
             ? context.anonymousName.apply(thing)
-            : NAMES.getOrDefault(thing, ctx -> ctx.anonymousName.apply(thing)).apply(context.visit(thing));
+            : Optional.ofNullable(NAMES.get(thing))
+                      .orElse(ctx -> ctx.anonymousName.apply(thing))
+                      .apply(context.visit(thing));
   }
 
   public static String argsFormat(Collection<?> collection) {
@@ -0,0 +1,102 @@
+package gov.nasa.jpl.aerie.contrib.streamline.debugging;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static java.util.Comparator.comparingLong;
+
+/**
+ * Call statistics collected by {@link Profiling} over a single simulation.
+ *
+ * <p>
+ *   Each streamline {@link gov.nasa.jpl.aerie.contrib.streamline.modeling.Registrar} creates its own profiler,
+ *   so statistics aren't shared between simulations, including simulations running concurrently in one JVM.
+ *   Statistics may be accrued from any thread.
+ * </p>
+ */
+public final class Profiler {
+  public enum Category {
+    Resources(SORT_BY_OWN_NANOS),
+    // Conditions and effects are usually quick to evaluate, but trigger tasks and resource computation.
+    // Therefore, calls are more important than time taken directly.
+    Conditions(SORT_BY_CALLS_MADE),
+    Tasks(SORT_BY_OWN_NANOS),
+    Effects(SORT_BY_CALLS_MADE);
+
+    private final Comparator<ProfilingReport.CallStatistics> order;
+
+    Category(Comparator<ProfilingReport.CallStatistics> order) {
+      this.order = order;
+    }
+  }
+
+  private static final Comparator<ProfilingReport.CallStatistics> SORT_BY_CALLS_MADE =
+      comparingLong(c -> -c.callsMade());
+  private static final Comparator<ProfilingReport.CallStatistics> SORT_BY_OWN_NANOS =
+      comparingLong(c -> -c.ownNanos());
+
+  private final long startTime = System.nanoTime();
+  private final Map<Category, ConcurrentHashMap<String, CallStats>> stats = new EnumMap<>(Category.class);
+  // Cumulative count of profiled nanoseconds, used to account for nested profiled calls.
+  // Nested calls always run on the thread making the outer call, so each thread keeps its own count.
+  private final ThreadLocal<long[]> cumulativeProfiledTime = ThreadLocal.withInitial(() -> new long[1]);
+
+  public Profiler() {
+    for (var category : Category.values()) {
+      this.stats.put(category, new ConcurrentHashMap<>());
+    }
+  }
+
+  <R> R accrue(Category category, String name, Supplier<R> call) {
+    final var callStats = this.stats.get(category).computeIfAbsent(name, $ -> new CallStats());
+    final var cumulative = this.cumulativeProfiledTime.get();
+
+    long startCumulative = cumulative[0];
+    long start = System.nanoTime();
+    try {
+      return call.get();
+    } finally {
+      long end = System.nanoTime();
+      long endCumulative = cumulative[0];
+
+      long totalNanosInThisCall = end - start;
+      long totalNanosInSubCalls = endCumulative - startCumulative;
+      long ownNanosInThisCall = totalNanosInThisCall - totalNanosInSubCalls;
+
+      callStats.callsMade.increment();
+      callStats.totalNanos.add(totalNanosInThisCall);
+      callStats.ownNanos.add(ownNanosInThisCall);
+      cumulative[0] += ownNanosInThisCall;
+    }
+  }
+
+  /**
+   * Summarize the statistics collected so far.
+   */
+  public ProfilingReport report() {
+    final var calls = new EnumMap<Category, List<ProfilingReport.CallStatistics>>(Category.class);
+    for (var entry : this.stats.entrySet()) {
+      final var statistics = new ArrayList<ProfilingReport.CallStatistics>();
+      entry.getValue().forEach((name, callStats) -> statistics.add(callStats.snapshot(name)));
+      statistics.sort(entry.getKey().order);
+      calls.put(entry.getKey(), List.copyOf(statistics));
+    }
+    return new ProfilingReport(System.nanoTime() - this.startTime, calls);
+  }
+
+  private static final class CallStats {
+    private final LongAdder callsMade = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder ownNanos = new LongAdder();
+
+    ProfilingReport.CallStatistics snapshot(String name) {
+      return new ProfilingReport.CallStatistics(name, this.callsMade.sum(), this.totalNanos.sum(), this.ownNanos.sum());
+    }
+  }
+}
@@ -5,23 +5,21 @@ import gov.nasa.jpl.aerie.merlin.framework.Condition;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Unit;
 
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 import static gov.nasa.jpl.aerie.contrib.streamline.debugging.Naming.*;
-import static java.lang.Math.*;
-import static java.util.Comparator.comparingLong;
 
 /**
  * Functions for profiling resources and conditions
  *
  * <p>
- *   WARNING! Profiling tools use static variables
- *   that are not re-initialized when the simulation restarts.
- *   This may give inconsistent or erroneous output in unit tests or scheduling.
+ *   Statistics are collected by the {@link Profiler} given when the profiled thing is created,
+ *   or by the current simulation's profiler if none is given.
+ *   Each simulation gets a new profiler when it is initialized, which its streamline
+ *   {@link gov.nasa.jpl.aerie.contrib.streamline.modeling.Registrar} also uses for the resources it profiles,
+ *   so statistics from earlier simulations are not reported with later ones.
  *   <p><em>Do not depend on profiling data for model behavior!</em></p>
  * </p>
  * <p>
@@ -42,33 +40,45 @@ import static java.util.Comparator.comparingLong;
 public final class Profiling {
   private Profiling() {}
 
-  private static final long overallStartTime = System.nanoTime();
+  private static volatile Profiler SIMULATION_PROFILER = new Profiler();
 
   /**
-   * Cumulative count of profiled nanoseconds, used to account for nested profiled calls.
+   * Start a new profiler for the simulation being initialized.
+   * This is called when constructing a {@link gov.nasa.jpl.aerie.contrib.streamline.modeling.Registrar},
+   * and does not need to be called directly by the model.
+   *
+   * <p>
+   *   Things profiled without an explicit profiler report to the profiler current when they were created.
+   *   If two simulations are initialized concurrently, things created during that overlap may report to either.
+   * </p>
    */
-  private static long cumulativeProfiledTime = 0;
-
-  private static final Map<String, CallStats> resourceSamples = new HashMap<>();
-  private static final Map<String, CallStats> conditionEvaluations = new HashMap<>();
-  private static final Map<String, CallStats> taskExecutions = new HashMap<>();
-  private static final Map<String, CallStats> effectsEmitted = new HashMap<>();
+  public static void init() {
+    SIMULATION_PROFILER = new Profiler();
+  }
 
-  private static final Comparator<CallStats> SORT_BY_CALLS_MADE = comparingLong(c -> -c.callsMade);
-  private static final Comparator<CallStats> SORT_BY_OWN_NANOS = comparingLong(c -> -c.ownNanos);
+  /**
+   * Get the profiler of the most recently initialized simulation,
+   * which collects statistics for things profiled without an explicit profiler.
+   */
+  public static Profiler currentProfiler() {
+    return SIMULATION_PROFILER;
+  }
 
   public static <D> Resource<D> profile(Resource<D> resource) {
     return profile(null, resource);
   }
 
   public static <D> Resource<D> profile(String name, Resource<D> resource) {
+    return profile(currentProfiler(), name, resource);
+  }
+
+  public static <D> Resource<D> profile(Profiler profiler, String name, Resource<D> resource) {
     Resource<D> result = new Resource<>() {
       private final Supplier<String> name$ = computeName(name, this);
 
       @Override
       public ErrorCatching<Expiring<D>> getDynamics() {
-        return resourceSamples.computeIfAbsent(name$.get(), k -> new CallStats())
-                .accrue(resource::getDynamics);
+        return profiler.accrue(Profiler.Category.Resources, name$.get(), resource::getDynamics);
       }
     };
     assignName("Resource", result, name, resource);
@@ -80,6 +90,10 @@ public final class Profiling {
   }
 
   public static <D extends Dynamics<?, D>> MutableResource<D> profile(String name, MutableResource<D> resource) {
+    return profile(currentProfiler(), name, resource);
+  }
+
+  public static <D extends Dynamics<?, D>> MutableResource<D> profile(Profiler profiler, String name, MutableResource<D> resource) {
     MutableResource<D> result = new MutableResource<>() {
       private final Supplier<String> name$ = computeName(name, this);
 
@@ -90,8 +104,7 @@ public final class Profiling {
 
       @Override
       public ErrorCatching<Expiring<D>> getDynamics() {
-        return resourceSamples.computeIfAbsent(name$.get(), k -> new CallStats())
-                .accrue(resource::getDynamics);
+        return profiler.accrue(Profiler.Category.Resources, name$.get(), resource::getDynamics);
       }
     };
     assignName("MutableResource", result, name, resource);
@@ -103,12 +116,16 @@ public final class Profiling {
   }
 
   public static Condition profile(String name, Condition condition) {
+    return profile(currentProfiler(), name, condition);
+  }
+
+  public static Condition profile(Profiler profiler, String name, Condition condition) {
     Condition result = new Condition() {
       private final Supplier<String> name$ = computeName(name, this);
 
       @Override
       public Optional<Duration> nextSatisfied(boolean positive, Duration atEarliest, Duration atLatest) {
-        return accrue(conditionEvaluations, name$.get(), () -> condition.nextSatisfied(positive, atEarliest, atLatest));
+        return profiler.accrue(Profiler.Category.Conditions, name$.get(), () -> condition.nextSatisfied(positive, atEarliest, atLatest));
       }
     };
     assignName("Condition", result, name, condition);
@@ -120,7 +137,11 @@ public final class Profiling {
   }
 
   public static Supplier<Condition> profile(String name, Supplier<Condition> conditionSupplier) {
-    return () -> profile(name, conditionSupplier.get());
+    return profile(currentProfiler(), name, conditionSupplier);
+  }
+
+  public static Supplier<Condition> profile(Profiler profiler, String name, Supplier<Condition> conditionSupplier) {
+    return () -> profile(profiler, name, conditionSupplier.get());
   }
 
   public static Runnable profile(Runnable task) {
@@ -128,7 +149,12 @@ public final class Profiling {
   }
 
   public static Runnable profile(String name, Runnable task) {
-    return () -> profileTask(name, () -> { task.run(); return Unit.UNIT; });
+    return profile(currentProfiler(), name, task);
+  }
+
+  public static Runnable profile(Profiler profiler, String name, Runnable task) {
+    final var profiledTask = profileTask(profiler, name, () -> { task.run(); return Unit.UNIT; });
+    return profiledTask::get;
   }
 
   public static <R> Supplier<R> profileTask(Supplier<R> task) {
@@ -136,12 +162,16 @@ public final class Profiling {
   }
 
   public static <R> Supplier<R> profileTask(String name, Supplier<R> task) {
+    return profileTask(currentProfiler(), name, task);
+  }
+
+  public static <R> Supplier<R> profileTask(Profiler profiler, String name, Supplier<R> task) {
     Supplier<R> result = new Supplier<>() {
       private final Supplier<String> name$ = computeName(name, this);
 
       @Override
       public R get() {
-        return accrue(taskExecutions, name$.get(), task);
+        return profiler.accrue(Profiler.Category.Tasks, name$.get(), task);
       }
     };
     assignName("Task", result, name, task);
@@ -149,10 +179,14 @@ public final class Profiling {
   }
 
   public static <D extends Dynamics<?, D>> MutableResource<D> profileEffects(MutableResource<D> resource) {
+    return profileEffects(currentProfiler(), resource);
+  }
+
+  public static <D extends Dynamics<?, D>> MutableResource<D> profileEffects(Profiler profiler, MutableResource<D> resource) {
     MutableResource<D> result = new MutableResource<>() {
       @Override
       public void emit(DynamicsEffect<D> effect) {
-        resource.emit(x -> accrue(effectsEmitted, getName(this, null), () -> effect.apply(x)));
+        resource.emit(x -> profiler.accrue(Profiler.Category.Effects, getName(this, null), () -> effect.apply(x)));
       }
 
       @Override
@@ -170,139 +204,21 @@ public final class Profiling {
             : () -> getName(profiledThing, null);
   }
 
-  private static long ANONYMOUS_ID = 0;
+  private static final AtomicLong ANONYMOUS_ID = new AtomicLong();
   private static void assignName(String typeName, Object profiledThing, String explicitName, Object originalThing) {
     if (explicitName == null) {
-      name(profiledThing, typeName + (ANONYMOUS_ID++) + " = %s", originalThing);
+      name(profiledThing, typeName + ANONYMOUS_ID.getAndIncrement() + " = %s", originalThing);
     } else {
       name(profiledThing, explicitName);
     }
   }
 
-  private static <R> R accrue(Map<String, CallStats> statsMap, String name, Supplier<R> call) {
-    return statsMap.computeIfAbsent(name, k -> new CallStats()).accrue(call);
-  }
-
+  /**
+   * Print the statistics collected by the most recently initialized simulation's profiler.
+   *
+   * @see Profiler#report()
+   */
   public static void dump() {
-    long overallElapsedNanos = System.nanoTime() - overallStartTime;
-    System.out.printf("Overall time: %d ms%n", overallElapsedNanos / 1_000_000);
-    if (!resourceSamples.isEmpty()) {
-      System.out.println("Profiled resources:");
-      dumpSampleMap(resourceSamples, overallElapsedNanos, SORT_BY_OWN_NANOS);
-    }
-    if (!conditionEvaluations.isEmpty()) {
-      // Conditions are usually quick to evaluate, but trigger tasks and resource computation.
-      // Therefore, calls are more important than time taken directly.
-      System.out.println("Profiled conditions:");
-      dumpSampleMap(conditionEvaluations, overallElapsedNanos, SORT_BY_CALLS_MADE);
-    }
-    if (!taskExecutions.isEmpty()) {
-      System.out.println("Profiled tasks:");
-      dumpSampleMap(taskExecutions, overallElapsedNanos, SORT_BY_OWN_NANOS);
-    }
-    if (!effectsEmitted.isEmpty()) {
-      System.out.println("Profiled effects:");
-      // Effects are usually quick to evaluate, but trigger tasks and resource computation.
-      // Therefore, calls are more important than time taken directly.
-      dumpSampleMap(effectsEmitted, overallElapsedNanos, SORT_BY_CALLS_MADE);
-    }
-  }
-
-  private static final int MAX_NAME_LENGTH = 60;
-  private static void dumpSampleMap(Map<String, CallStats> map, long overallElapsedNanos, Comparator<CallStats> sortBy) {
-    final var nameLength = min(MAX_NAME_LENGTH, max(5, map.keySet().stream().mapToInt(String::length).max().orElse(1)));
-    final var totalCalls = map.values().stream().mapToLong(c1 -> c1.callsMade).sum();
-    final var totalNanos = map.values().stream().mapToLong(c1 -> c1.ownNanos).sum();
-    final var callsLength = max(5, String.valueOf(totalCalls).length());
-    final var millisLength = max(7, String.valueOf(totalNanos / 1_000_000).length());
-    final var titleFormat =
-        "  %-" + nameLength + "s  |"
-        + "  %" + callsLength + "s %7s  |"
-        + "  %" + millisLength + "s %7s  |"
-        + "  %" + millisLength + "s %7s %7s %7s"
-        + "%n";
-    final var lineFormat =
-        "  %-" + nameLength + "s  |"
-        + "  %" + callsLength + "d  %5.1f%%  |"
-        + "  %" + millisLength + "d  %5.1f%%  |"
-        + "  %" + millisLength + "d  %5.1f%%  %5.1f%%  %5.1f%%"
-        + "%n";
-    System.out.printf(
-        titleFormat,
-        "Name",
-        "Calls",
-        "%Total",
-        "Call ms",
-        "%All",
-        "Self ms",
-        "%Call",
-        "%Total",
-        "%All");
-    System.out.printf(
-        lineFormat,
-        "Total",
-        totalCalls,
-        100.0,
-        // Adding up "total" times isn't sensible, since it multiple-counts time
-        0,
-        Double.NaN,
-        // Adding up "self" times gives total profiled time
-        totalNanos / 1_000_000,
-        100.0,
-        100.0,
-        100.0 * totalNanos / overallElapsedNanos);
-    map.entrySet()
-       .stream()
-       .sorted((a, b) -> sortBy.compare(a.getValue(), b.getValue()))
-       .forEachOrdered(entry -> {
-         var stats = entry.getValue();
-         System.out.printf(
-             lineFormat,
-             fit(entry.getKey(), nameLength),
-             stats.callsMade,
-             100.0 * stats.callsMade / totalCalls,
-             stats.totalNanos / 1_000_000,
-             100.0 * stats.totalNanos / overallElapsedNanos,
-             stats.ownNanos / 1_000_000,
-             100.0 * stats.ownNanos / stats.totalNanos,
-             100.0 * stats.ownNanos / totalNanos,
-             100.0 * stats.ownNanos / overallElapsedNanos);
-       });
-  }
-
-  private static final String TRUNCATED_INDICATOR = " ...";
-  private static String fit(String s, int maxNameLength) {
-    return s.length() <= maxNameLength
-            ? s
-            : s.substring(0, maxNameLength - TRUNCATED_INDICATOR.length()) + TRUNCATED_INDICATOR;
-  }
-
-  private static final class CallStats {
-    public long callsMade = 0;
-    public long totalNanos = 0;
-    public long ownNanos = 0;
-
-    public void accrue(Runnable call) {
-      accrue(() -> { call.run(); return Unit.UNIT; });
-    }
-
-    public <R> R accrue(Supplier<R> call) {
-      long startCumulative = cumulativeProfiledTime;
-      long start = System.nanoTime();
-      var result = call.get();
-      long end = System.nanoTime();
-      long endCumulative = cumulativeProfiledTime;
-
-      long totalNanosInThisCall = end - start;
-      long totalNanosInSubCalls = endCumulative - startCumulative;
-      long ownNanosInThisCall = totalNanosInThisCall - totalNanosInSubCalls;
-
-      ++callsMade;
-      totalNanos += totalNanosInThisCall;
-      ownNanos += ownNanosInThisCall;
-      cumulativeProfiledTime += ownNanosInThisCall;
-
-      return result;
-    }
+    System.out.print(currentProfiler().report().format());
   }
 }
@@ -0,0 +1,98 @@
+package gov.nasa.jpl.aerie.contrib.streamline.debugging;
+
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * A summary of the call statistics collected by a {@link Profiler}.
+ *
+ * @param overallNanos the time elapsed since the profiler was created.
+ * @param calls the statistics for each profiled name in each category, most significant first.
+ */
+public record ProfilingReport(long overallNanos, Map<Profiler.Category, List<CallStatistics>> calls) {
+  /**
+   * @param callsMade the number of profiled calls made.
+   * @param totalNanos the time spent in these calls, including nested profiled calls.
+   * @param ownNanos the time spent in these calls, excluding nested profiled calls.
+   */
+  public record CallStatistics(String name, long callsMade, long totalNanos, long ownNanos) {}
+
+  /**
+   * Render this report as a set of human-readable tables, one per non-empty category.
+   */
+  public String format() {
+    final var builder = new StringBuilder();
+    builder.append("Overall time: %d ms%n".formatted(this.overallNanos / 1_000_000));
+    for (var entry : this.calls.entrySet()) {
+      if (entry.getValue().isEmpty()) continue;
+      builder.append("Profiled %s:%n".formatted(entry.getKey().name().toLowerCase()));
+      formatTable(builder, entry.getValue());
+    }
+    return builder.toString();
+  }
+
+  private static final int MAX_NAME_LENGTH = 60;
+  private void formatTable(StringBuilder builder, List<CallStatistics> statistics) {
+    final var nameLength = min(MAX_NAME_LENGTH, max(5, statistics.stream().mapToInt(c -> c.name().length()).max().orElse(1)));
+    final var totalCalls = statistics.stream().mapToLong(CallStatistics::callsMade).sum();
+    final var totalNanos = statistics.stream().mapToLong(CallStatistics::ownNanos).sum();
+    final var callsLength = max(5, String.valueOf(totalCalls).length());
+    final var millisLength = max(7, String.valueOf(totalNanos / 1_000_000).length());
+    final var titleFormat =
+        "  %-" + nameLength + "s  |"
+        + "  %" + callsLength + "s %7s  |"
+        + "  %" + millisLength + "s %7s  |"
+        + "  %" + millisLength + "s %7s %7s %7s"
+        + "%n";
+    final var lineFormat =
+        "  %-" + nameLength + "s  |"
+        + "  %" + callsLength + "d  %5.1f%%  |"
+        + "  %" + millisLength + "d  %5.1f%%  |"
+        + "  %" + millisLength + "d  %5.1f%%  %5.1f%%  %5.1f%%"
+        + "%n";
+    builder.append(titleFormat.formatted(
+        "Name",
+        "Calls",
+        "%Total",
+        "Call ms",
+        "%All",
+        "Self ms",
+        "%Call",
+        "%Total",
+        "%All"));
+    builder.append(lineFormat.formatted(
+        "Total",
+        totalCalls,
+        100.0,
+        // Adding up "total" times isn't sensible, since it multiple-counts time
+        0,
+        Double.NaN,
+        // Adding up "self" times gives total profiled time
+        totalNanos / 1_000_000,
+        100.0,
+        100.0,
+        100.0 * totalNanos / this.overallNanos));
+    for (var stats : statistics) {
+      builder.append(lineFormat.formatted(
+          fit(stats.name(), nameLength),
+          stats.callsMade(),
+          100.0 * stats.callsMade() / totalCalls,
+          stats.totalNanos() / 1_000_000,
+          100.0 * stats.totalNanos() / this.overallNanos,
+          stats.ownNanos() / 1_000_000,
+          100.0 * stats.ownNanos() / stats.totalNanos(),
+          100.0 * stats.ownNanos() / totalNanos,
+          100.0 * stats.ownNanos() / this.overallNanos));
+    }
+  }
+
+  private static final String TRUNCATED_INDICATOR = " ...";
+  private static String fit(String s, int maxNameLength) {
+    return s.length() <= maxNameLength
+            ? s
+            : s.substring(0, maxNameLength - TRUNCATED_INDICATOR.length()) + TRUNCATED_INDICATOR;
+  }
+}
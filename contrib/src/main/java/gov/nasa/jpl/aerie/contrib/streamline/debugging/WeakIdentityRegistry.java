@@ -0,0 +1,103 @@
+package gov.nasa.jpl.aerie.contrib.streamline.debugging;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A thread-safe map from objects, compared by reference, to values.
+ *
+ * <p>
+ *   Like a {@link java.util.WeakHashMap}, keys are only weakly referenced,
+ *   so registering a value for an object doesn't prevent that object from being garbage-collected.
+ *   Entries for collected keys are purged as the map is used.
+ * </p>
+ */
+final class WeakIdentityRegistry<K, V> {
+  private final ConcurrentHashMap<Object, V> entries = new ConcurrentHashMap<>();
+  private final ReferenceQueue<K> collectedKeys = new ReferenceQueue<>();
+
+  V get(K key) {
+    return this.entries.get(new LookupKey(key));
+  }
+
+  void put(K key, V value) {
+    purge();
+    this.entries.put(new WeakKey<>(key, this.collectedKeys), value);
+  }
+
+  V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+    final var existing = get(key);
+    if (existing != null) return existing;
+    purge();
+    return this.entries.computeIfAbsent(new WeakKey<>(key, this.collectedKeys), $ -> mappingFunction.apply(key));
+  }
+
+  /**
+   * Get a snapshot of the keys that have not yet been collected.
+   */
+  @SuppressWarnings("unchecked")
+  Set<K> keys() {
+    final Set<K> result = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (var key : this.entries.keySet()) {
+      var referent = ((WeakKey<K>) key).get();
+      if (referent != null) result.add(referent);
+    }
+    return result;
+  }
+
+  private void purge() {
+    for (var key = this.collectedKeys.poll(); key != null; key = this.collectedKeys.poll()) {
+      this.entries.remove(key);
+    }
+  }
+
+  // Both kinds of key hash by the identity of their referent, and are equal when they refer to the same object.
+  // A collected key is only equal to itself, which is enough to remove its entry once it's been enqueued.
+  private interface IdentityKey {
+    Object referent();
+  }
+
+  private static final class WeakKey<K> extends WeakReference<K> implements IdentityKey {
+    private final int hash;
+
+    WeakKey(K key, ReferenceQueue<K> queue) {
+      super(key, queue);
+      this.hash = System.identityHashCode(key);
+    }
+
+    @Override
+    public Object referent() {
+      return get();
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) return true;
+      if (!(other instanceof IdentityKey key)) return false;
+      var referent = get();
+      return referent != null && referent == key.referent();
+    }
+  }
+
+  private record LookupKey(Object referent) implements IdentityKey {
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(this.referent);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof IdentityKey key && this.referent == key.referent();
+    }
+  }
+}
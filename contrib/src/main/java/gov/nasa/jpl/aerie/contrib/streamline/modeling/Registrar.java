@@ -8,6 +8,9 @@ import gov.nasa.jpl.aerie.contrib.streamline.core.Resource;
 import gov.nasa.jpl.aerie.contrib.streamline.core.Resources;
 import gov.nasa.jpl.aerie.contrib.streamline.core.monads.ThinResourceMonad;
 import gov.nasa.jpl.aerie.contrib.streamline.debugging.Logging;
+import gov.nasa.jpl.aerie.contrib.streamline.debugging.Profiler;
+import gov.nasa.jpl.aerie.contrib.streamline.debugging.Profiling;
+import gov.nasa.jpl.aerie.contrib.streamline.debugging.ProfilingReport;
 import gov.nasa.jpl.aerie.contrib.streamline.modeling.discrete.Discrete;
 import gov.nasa.jpl.aerie.contrib.streamline.modeling.discrete.monads.DiscreteResourceMonad;
 import gov.nasa.jpl.aerie.contrib.streamline.modeling.linear.Linear;
@@ -39,8 +42,9 @@ public class Registrar {
   private final gov.nasa.jpl.aerie.merlin.framework.Registrar baseRegistrar;
   private boolean trace = false;
   private boolean profile = false;
+  private final Profiler profiler;
   private final ErrorBehavior errorBehavior;
-  private final MutableResource<Discrete<Integer>> numberOfErrors = discreteResource(0);
+  private final MutableResource<Discrete<Integer>> numberOfErrors;
 
   public enum ErrorBehavior {
     /**
@@ -57,8 +61,11 @@ public class Registrar {
   public Registrar(final gov.nasa.jpl.aerie.merlin.framework.Registrar baseRegistrar, final ErrorBehavior errorBehavior) {
     Resources.init();
     Logging.init(baseRegistrar);
+    Profiling.init();
+    this.profiler = Profiling.currentProfiler();
     this.baseRegistrar = baseRegistrar;
     this.errorBehavior = errorBehavior;
+    this.numberOfErrors = discreteResource(0);
 
     discrete("numberOfErrors", numberOfErrors, new IntegerValueMapper());
   }
@@ -79,6 +86,22 @@ public class Registrar {
     profile = false;
   }
 
+  /**
+   * Get the profiler collecting this simulation's statistics.
+   * Things profiled without an explicit profiler while this simulation is initialized also report to it.
+   */
+  public Profiler profiler() {
+    return profiler;
+  }
+
+  /**
+   * Summarize the statistics collected so far for the resources profiled by this registrar,
+   * and for anything else profiled with {@link #profiler()}.
+   */
+  public ProfilingReport profilingReport() {
+    return profiler.report();
+  }
+
   public <Value> void discrete(final String name, final Resource<Discrete<Value>> resource, final ValueMapper<Value> mapper) {
     name(resource, name);
     var debugResource = debug(name, resource);
@@ -107,7 +130,7 @@ public class Registrar {
 
   private <D> Resource<D> debug(String name, Resource<D> resource) {
     var tracedResource = trace ? trace(resource) : resource;
-    return profile ? profile(tracedResource) : tracedResource;
+    return profile ? profile(profiler, null, tracedResource) : tracedResource;
   }
 
   private <D extends Dynamics<?, D>> void logErrors(String name, Resource<D> resource) {
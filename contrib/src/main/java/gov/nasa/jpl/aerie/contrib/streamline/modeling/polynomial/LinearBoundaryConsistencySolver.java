@@ -31,8 +31,6 @@ import static gov.nasa.jpl.aerie.contrib.streamline.modeling.polynomial.Polynomi
 import static gov.nasa.jpl.aerie.contrib.streamline.modeling.polynomial.PolynomialResources.*;
 import static gov.nasa.jpl.aerie.contrib.streamline.modeling.polynomial.PolynomialResources.subtract;
 import static gov.nasa.jpl.aerie.merlin.framework.ModelActions.*;
-import static java.util.function.Function.identity;
-import static java.util.stream.Collectors.toMap;
 
 /**
  * Special methods for setting up a substepping resource solver
@@ -46,10 +44,8 @@ import static java.util.stream.Collectors.toMap;
  * </p>
  */
 public final class LinearBoundaryConsistencySolver {
-  private final List<Resource<Polynomial>> drivenTerms = new LinkedList<>();
-  private final List<Variable> variables = new LinkedList<>();
-  private final List<DirectionalConstraint> constraints = new LinkedList<>();
-  private final Map<Variable, Set<DirectionalConstraint>> neighboringConstraints = new HashMap<>();
+  private final List<Variable> variables = new ArrayList<>();
+  private final List<DirectionalConstraint> constraints = new ArrayList<>();
 
   public LinearBoundaryConsistencySolver(String name) {
     name(this, name);
@@ -57,17 +53,19 @@ public final class LinearBoundaryConsistencySolver {
     spawn(contextualized(name + " solving", () -> {
       // Don't solve for the first time until sim starts.
       // This ensures all variables are initialized and all constraints are declared.
-      buildNeighboringConstraints();
-      solve();
-      // After that, solve whenever any of the driven terms change
-      // OR a solved variable changes (which can only happen when it expires)
-      whenever(
-          contextualized(name + " resolving condition", () -> Stream.concat(
-              drivenTerms.stream(),
-              variables.stream().map(Variable::resource))
-                      .map(Resources::dynamicsChange)
-                      .reduce(Condition.FALSE, (c1, c2) -> c1.or(c2))),
-          this::solve);
+      for (var component : compile()) {
+        solve(component);
+        // After that, solve a component whenever any of its driven terms change
+        // OR one of its solved variables changes (which can only happen when it expires).
+        // Components share no variables, so re-solving one can't change the solution for any other.
+        whenever(
+            contextualized(name + " resolving condition", () -> Stream.concat(
+                component.drivenTerms.stream(),
+                Arrays.stream(component.variables).map(Variable::resource))
+                        .map(Resources::dynamicsChange)
+                        .reduce(Condition.FALSE, (c1, c2) -> c1.or(c2))),
+            () -> solve(component));
+      }
     }));
   }
 
@@ -85,35 +83,158 @@ public final class LinearBoundaryConsistencySolver {
 
   public void declare(GeneralConstraint constraint) {
     var normalizedConstraint = constraint.normalize();
-    drivenTerms.add(normalizedConstraint.drivenTerm);
     constraints.addAll(normalizedConstraint.standardize());
     // The solver depends on the normalized driven term, which will depend on any driven terms in the general constraint,
     // because any change in any driven term could trigger the solver.
     addDependency(this, normalizedConstraint.drivenTerm);
   }
 
-  private void buildNeighboringConstraints() {
-    for (var variable : variables) {
-      neighboringConstraints.put(variable, new HashSet<>());
+  /**
+   * Split the declared variables and constraints into independent components,
+   * and index each component's constraints by the variables driving them.
+   */
+  private List<Component> compile() {
+    // Union-find over variables, joining every pair of variables which appear in the same constraint.
+    final int[] parent = new int[variables.size()];
+    for (int i = 0; i < parent.length; ++i) {
+      parent[i] = i;
+      variables.get(i).index = i;
     }
     for (var constraint : constraints) {
       for (var drivingVariable : constraint.drivingVariables) {
-        neighboringConstraints.get(drivingVariable).add(constraint);
+        parent[find(parent, indexOf(constraint.constrainedVariable))] = find(parent, indexOf(drivingVariable));
       }
     }
+
+    // Keep variables in declaration order within each component, since selection policies are applied in that order.
+    final Map<Integer, List<Variable>> componentVariables = new LinkedHashMap<>();
+    for (int i = 0; i < parent.length; ++i) {
+      componentVariables.computeIfAbsent(find(parent, i), $ -> new ArrayList<>()).add(variables.get(i));
+    }
+    final Map<Integer, List<DirectionalConstraint>> componentConstraints = new HashMap<>();
+    for (var constraint : constraints) {
+      componentConstraints.computeIfAbsent(find(parent, constraint.constrainedVariable.index), $ -> new ArrayList<>()).add(constraint);
+    }
+
+    final var result = new ArrayList<Component>(componentVariables.size());
+    for (var entry : componentVariables.entrySet()) {
+      result.add(new Component(entry.getValue(), componentConstraints.getOrDefault(entry.getKey(), List.of())));
+    }
+    return result;
+  }
+
+  private static int find(int[] parent, int i) {
+    while (parent[i] != i) {
+      parent[i] = parent[parent[i]];
+      i = parent[i];
+    }
+    return i;
+  }
+
+  private int indexOf(Variable variable) {
+    if (variable.index < 0 || variable.index >= variables.size() || variables.get(variable.index) != variable) {
+      throw new IllegalStateException(
+          "LinearBoundaryConsistencySolver %s has a constraint on %s, which was not created by this solver".formatted(
+              getName(this).orElseThrow(), variable));
+    }
+    return variable.index;
   }
 
-  private void solve() {
-    final var domains = variables.stream().collect(toMap(identity(), Domain::new));
-    final Queue<DirectionalConstraint> remainingConstraints = new LinkedList<>(constraints);
-    DirectionalConstraint constraint;
+  /**
+   * A set of variables connected by constraints, independent of all other variables in the solver.
+   *
+   * <p>
+   *   Variables and constraints are numbered within the component.
+   *   The constraints driven by variable i are
+   *   {@code constraints[neighbors[neighborsStart[i]]]} through {@code constraints[neighbors[neighborsStart[i + 1] - 1]]}.
+   * </p>
+   */
+  private static final class Component {
+    private final Variable[] variables;
+    private final DirectionalConstraint[] constraints;
+    private final int[] neighborsStart;
+    private final int[] neighbors;
+    private final List<Resource<Polynomial>> drivenTerms;
+
+    Component(List<Variable> variables, List<DirectionalConstraint> constraints) {
+      this.variables = variables.toArray(Variable[]::new);
+      this.constraints = constraints.toArray(DirectionalConstraint[]::new);
+      for (int i = 0; i < this.variables.length; ++i) this.variables[i].index = i;
+
+      this.neighborsStart = new int[this.variables.length + 1];
+      for (var constraint : this.constraints) {
+        for (var drivingVariable : constraint.drivingVariables) ++neighborsStart[drivingVariable.index + 1];
+      }
+      for (int i = 0; i < this.variables.length; ++i) neighborsStart[i + 1] += neighborsStart[i];
+      this.neighbors = new int[neighborsStart[this.variables.length]];
+      final int[] next = Arrays.copyOf(neighborsStart, this.variables.length);
+      for (int c = 0; c < this.constraints.length; ++c) {
+        for (var drivingVariable : this.constraints[c].drivingVariables) neighbors[next[drivingVariable.index]++] = c;
+      }
+
+      final Set<Resource<Polynomial>> drivenTerms = Collections.newSetFromMap(new IdentityHashMap<>());
+      for (var constraint : this.constraints) drivenTerms.add(constraint.drivenTerm);
+      this.drivenTerms = List.copyOf(drivenTerms);
+    }
+  }
+
+  /**
+   * A FIFO queue of constraint indices, holding each constraint at most once.
+   */
+  private static final class ConstraintQueue {
+    // Since each constraint is queued at most once, a ring buffer with one slot per constraint never overflows.
+    private final int[] ring;
+    private final boolean[] queued;
+    private int head = 0;
+    private int size = 0;
+
+    ConstraintQueue(int constraintCount) {
+      this.ring = new int[Math.max(1, constraintCount)];
+      this.queued = new boolean[constraintCount];
+    }
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    void add(int constraint) {
+      if (queued[constraint]) return;
+      queued[constraint] = true;
+      ring[(head + size) % ring.length] = constraint;
+      ++size;
+    }
+
+    /** Queue every constraint driven by the given variable. */
+    void addNeighbors(Component component, int variable) {
+      for (int n = component.neighborsStart[variable]; n < component.neighborsStart[variable + 1]; ++n) {
+        add(component.neighbors[n]);
+      }
+    }
+
+    int poll() {
+      final int constraint = ring[head];
+      head = (head + 1) % ring.length;
+      --size;
+      queued[constraint] = false;
+      return constraint;
+    }
+  }
+
+  private void solve(Component component) {
+    final var variables = component.variables;
+    final var constraints = component.constraints;
+    final var domains = new Domain[variables.length];
+    for (int i = 0; i < variables.length; ++i) domains[i] = new Domain(variables[i]);
+    final var remainingConstraints = new ConstraintQueue(constraints.length);
+    for (int c = 0; c < constraints.length; ++c) remainingConstraints.add(c);
+    // No variable before this index is unsolved, unless a constraint changes its domain.
+    int firstUnsolvedCandidate = 0;
     try {
-      // While we either have constraints to apply or domains to solve...
-      while (!remainingConstraints.isEmpty() || domains.values().stream().anyMatch(Domain::isUnsolved)) {
+      while (true) {
         // Apply all constraints through simple arc consistency
-        while ((constraint = remainingConstraints.poll()) != null) {
-          var V = constraint.constrainedVariable;
-          var D = domains.get(V);
+        while (!remainingConstraints.isEmpty()) {
+          var constraint = constraints[remainingConstraints.poll()];
+          var D = domains[constraint.constrainedVariable.index];
           var newBound = constraint.bound.apply(domains);
           boolean domainChanged = switch (constraint.comparison) {
             case LessThanOrEquals -> D.restrictUpper(newBound);
@@ -125,38 +246,29 @@ public final class LinearBoundaryConsistencySolver {
                   "LinearBoundaryConsistencySolver %s failed. Domain for %s is empty: [%s, %s]".formatted(
                       getName(this).orElseThrow(), D.variable, D.lowerBound, D.upperBound));
             }
-            for (DirectionalConstraint constraintToAdd : neighboringConstraints.get(D.variable)) {
-              if (!remainingConstraints.contains(constraintToAdd)) {
-                remainingConstraints.add(constraintToAdd);
-              }
-            }
+            firstUnsolvedCandidate = Math.min(firstUnsolvedCandidate, D.variable.index);
+            remainingConstraints.addNeighbors(component, D.variable.index);
           }
         }
         // If that didn't fully solve all variables, choose the first unsolved variable
         // and use the selection policy to pick a solution arbitrarily, then restart arc consistency.
-        variables
-            .stream()
-            .map(domains::get)
-            .filter(Domain::isUnsolved)
-            .findFirst()
-            .ifPresent(D -> {
-              D.lowerBound = D.upperBound = D.variable.selectionPolicy.apply(D);
-              remainingConstraints.addAll(neighboringConstraints.get(D.variable));
-            });
+        while (firstUnsolvedCandidate < domains.length && !domains[firstUnsolvedCandidate].isUnsolved()) {
+          ++firstUnsolvedCandidate;
+        }
+        if (firstUnsolvedCandidate == domains.length) break;
+        var D = domains[firstUnsolvedCandidate];
+        D.lowerBound = D.upperBound = D.variable.selectionPolicy.apply(D);
+        remainingConstraints.addNeighbors(component, firstUnsolvedCandidate);
       }
       // All domains are solved and non-empty, emit solution
       // Expiry for entire solution is taken as a whole:
-      Expiry solutionExpiry = variables
-          .stream()
-          .map(v -> {
-            var D = domains.get(v);
-            return D.lowerBound.expiry().or(D.upperBound.expiry());
-          })
+      Expiry solutionExpiry = Arrays.stream(domains)
+          .map(D -> D.lowerBound.expiry().or(D.upperBound.expiry()))
           .reduce(Expiry.NEVER, Expiry::or);
-      for (var v : variables) {
+      for (var D : domains) {
         // Overwrite failures if we recover
-        var result = success(expiring(domains.get(v).lowerBound.data(), solutionExpiry));
-        v.resource.emit($ -> result);
+        var result = success(expiring(D.lowerBound.data(), solutionExpiry));
+        D.variable.resource.emit($ -> result);
       }
     } catch (Exception e) {
       // Solving failed, so populate all outputs with the failure.
@@ -174,6 +286,8 @@ public final class LinearBoundaryConsistencySolver {
   public static final class Variable {
     private final MutableResource<Polynomial> resource;
     private final Function<Domain, Expiring<Polynomial>> selectionPolicy;
+    // Position of this variable within its solver's component, assigned when the solver compiles its constraints.
+    private int index = -1;
 
     public Variable(
         String name,
@@ -312,7 +426,7 @@ public final class LinearBoundaryConsistencySolver {
         var result = drivenTerm.getDynamics().getOrThrow();
         for (var drivingVariable : drivingVariables) {
           var scale = controlledTerm.get(drivingVariable);
-          var domain = domains.get(drivingVariable);
+          var domain = domains[drivingVariable.index];
           var useLowerBound = (scale > 0) == (c == LessThanOrEquals);
           var domainBound = ExpiringMonad.map(
               useLowerBound ? domain.lowerBound() : domain.upperBound(),
@@ -320,7 +434,7 @@ public final class LinearBoundaryConsistencySolver {
           result = ExpiringMonad.map(result, domainBound, Polynomial::add);
         }
         return ExpiringMonad.map(result, polynomial(inverseScale)::multiply);
-      }, drivingVariables));
+      }, drivingVariables, drivenTerm));
     }
   }
 
@@ -329,14 +443,21 @@ public final class LinearBoundaryConsistencySolver {
   private static final class DirectionalConstraint {
     private final Variable constrainedVariable;
     private final InequalityComparison comparison;
-    private final Function<Map<Variable, ? extends Domain>, Expiring<Polynomial>> bound;
+    private final Function<Domain[], Expiring<Polynomial>> bound;
     private final Set<Variable> drivingVariables;
-
-    private DirectionalConstraint(Variable constrainedVariable, InequalityComparison comparison, Function<Map<Variable, ? extends Domain>, Expiring<Polynomial>> bound, Set<Variable> drivingVariables) {
+    private final Resource<Polynomial> drivenTerm;
+
+    private DirectionalConstraint(
+        Variable constrainedVariable,
+        InequalityComparison comparison,
+        Function<Domain[], Expiring<Polynomial>> bound,
+        Set<Variable> drivingVariables,
+        Resource<Polynomial> drivenTerm) {
       this.constrainedVariable = constrainedVariable;
       this.comparison = comparison;
       this.bound = bound;
       this.drivingVariables = drivingVariables;
+      this.drivenTerm = drivenTerm;
     }
 
     public Variable constrainedVariable() {
@@ -347,7 +468,10 @@ public final class LinearBoundaryConsistencySolver {
       return comparison;
     }
 
-    public Function<Map<Variable, ? extends Domain>, Expiring<Polynomial>> bound() {
+    /**
+     * Computes the bound on the constrained variable, given the domains of a component indexed by variable index.
+     */
+    public Function<Domain[], Expiring<Polynomial>> bound() {
       return bound;
     }
 
@@ -355,9 +479,6 @@ public final class LinearBoundaryConsistencySolver {
       return drivingVariables;
     }
 
-    // *Don't* override hashCode and equals - we want to use object identity here instead of value equality.
-    // This makes it more performant during solving to check whether a constraint is already in the queue to be propagated.
-
     @Override
     public String toString() {
       return "DirectionalConstraint[" +
@@ -10,9 +10,10 @@ import org.apache.commons.math3.analysis.solvers.LaguerreSolver;
 import org.apache.commons.math3.complex.Complex;
 
 import java.util.Arrays;
+import java.util.Optional;
 import java.util.function.BiPredicate;
 import java.util.function.Predicate;
-import java.util.stream.Stream;
+import java.util.stream.DoubleStream;
 
 import static gov.nasa.jpl.aerie.contrib.streamline.core.Expiring.expiring;
 import static gov.nasa.jpl.aerie.contrib.streamline.core.Expiry.NEVER;
@@ -162,7 +163,7 @@ public record Polynomial(double[] coefficients) implements Dynamics<Double, Poly
   private Expiry findExpiryNearRoot(Predicate<Duration> expires) {
     Duration root, start, end;
     try {
-      var t$ = findFutureRoots().findFirst();
+      var t$ = findFirstFutureRoot();
       if (t$.isEmpty()) return NEVER;
       root = t$.get();
 
@@ -264,31 +265,45 @@ public record Polynomial(double[] coefficients) implements Dynamics<Double, Poly
   }
 
   /**
-   * Finds all roots of this function in the future
+   * Finds the first root of this function in the future
    */
-  private Stream<Duration> findFutureRoots() {
+  private Optional<Duration> findFirstFutureRoot() {
     // TODO: In some sense, isn't having an infinite coefficient the same as a vertical line,
     //   hence the same as having a root at x = 0?
     //   Unless the value itself is non-finite, that is...
     // If this polynomial can never have a root, fail immediately
     if (this.isNonFinite() || this.isConstant()) {
-      return Stream.empty();
+      return Optional.empty();
     }
 
     if (coefficients[0] == 0.0) {
-      return Stream.of(ZERO);
+      return Optional.of(ZERO);
     }
 
     // If the polynomial is linear, solve it analytically for performance
     if (this.degree() <= 1) {
       double t = -getCoefficient(0) / getCoefficient(1);
       if (t >= -ABSOLUTE_ACCURACY_FOR_DURATIONS / 2 && t <= MAX_SECONDS_FOR_DURATION) {
-        return Stream.of(Duration.roundNearest(t, SECOND));
+        return Optional.of(Duration.roundNearest(t, SECOND));
       } else {
-        return Stream.empty();
+        return Optional.empty();
       }
     }
 
+    return ROOT_CACHE.computeIfAbsent(this, Polynomial::solveFirstFutureRoot);
+  }
+
+  private Optional<Duration> solveFirstFutureRoot() {
+    double t = PolynomialRoots.firstRoot(
+        coefficients, -ABSOLUTE_ACCURACY_FOR_DURATIONS / 2, MAX_SECONDS_FOR_DURATION, ABSOLUTE_ACCURACY_FOR_DURATIONS);
+    if (Double.isNaN(t)) {
+      // The closed forms and Sturm sequences couldn't handle this polynomial, so find all its roots instead.
+      t = findFutureRootsByLaguerre().min().orElse(PolynomialRoots.NO_ROOT);
+    }
+    return t == PolynomialRoots.NO_ROOT ? Optional.empty() : Optional.of(Duration.roundNearest(t, SECOND));
+  }
+
+  private DoubleStream findFutureRootsByLaguerre() {
     // Condition the problem by dividing through by the first coefficient:
     double[] conditionedCoefficients = Arrays.stream(coefficients).map(c -> c / coefficients[0]).toArray();
     // Defining epsilon keeps the Laguerre solver faster and more stable for poorly-behaved polynomials.
@@ -297,11 +312,10 @@ public record Polynomial(double[] coefficients) implements Dynamics<Double, Poly
             .solveAllComplex(conditionedCoefficients, 0);
     return Arrays.stream(solutions)
                  .filter(solution -> Math.abs(solution.getImaginary()) < epsilon)
-                 .map(Complex::getReal)
-                 .filter(t -> t >= -ABSOLUTE_ACCURACY_FOR_DURATIONS / 2 && t <= MAX_SECONDS_FOR_DURATION)
-                 .sorted()
-                 .map(t -> Duration.roundNearest(t, SECOND));
+                 .mapToDouble(Complex::getReal)
+                 .filter(t -> t >= -ABSOLUTE_ACCURACY_FOR_DURATIONS / 2 && t <= MAX_SECONDS_FOR_DURATION);
   }
+  static final RootCache ROOT_CACHE = new RootCache(4096);
   private static final double ABSOLUTE_ACCURACY_FOR_DURATIONS = EPSILON.ratioOver(SECOND);
   private static final double MAX_SECONDS_FOR_DURATION = Duration.MAX_VALUE.ratioOver(SECOND);
 
@@ -0,0 +1,322 @@
+package gov.nasa.jpl.aerie.contrib.streamline.modeling.polynomial;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.max;
+import static java.lang.Math.ulp;
+
+/**
+ * Finds the first real root of a polynomial in an interval, without finding all of its complex roots.
+ *
+ * <p>
+ *   Quadratics and cubics are solved in closed form, then polished with Newton's method.
+ *   Higher degrees isolate the first root by bisection, counting roots in each half with a Sturm sequence.
+ * </p>
+ *
+ * <p>
+ *   Coefficients are given from least to most significant, as in {@link Polynomial}.
+ *   Callers must ensure all coefficients are finite, the constant and leading coefficients are non-zero,
+ *   and the degree is at least 2.
+ * </p>
+ */
+final class PolynomialRoots {
+  /** Returned when there is no root in the requested interval. */
+  static final double NO_ROOT = Double.POSITIVE_INFINITY;
+  /** Returned when the polynomial is too poorly conditioned for these methods. */
+  static final double FAILED = Double.NaN;
+
+  // Rounding error tolerated in a discriminant, as a multiple of the ulp of the terms it's computed from.
+  private static final double DISCRIMINANT_ULPS = 8;
+  // Remainder coefficients this small relative to the dividend are taken to be rounding error.
+  private static final double STURM_RELATIVE_TOLERANCE = 1e-11;
+  // Rounding error tolerated when deciding a critical point touches zero, as a multiple of the ulp per coefficient.
+  private static final double TANGENT_ULPS = 16;
+  private static final int NEWTON_POLISHING_STEPS = 3;
+
+  private PolynomialRoots() {}
+
+  /**
+   * Find the smallest real root of a polynomial in [lower, upper].
+   *
+   * @param coefficients polynomial coefficients, from least to most significant
+   * @param lower the start of the interval to search
+   * @param upper the end of the interval to search
+   * @param resolution the width below which a root is considered isolated
+   * @return the first root in the interval, {@link #NO_ROOT} if there is none,
+   *         or {@link #FAILED} if it could not be determined.
+   */
+  static double firstRoot(double[] coefficients, double lower, double upper, double resolution) {
+    return switch (coefficients.length - 1) {
+      case 2 -> firstOf(quadraticRoots(coefficients[0], coefficients[1], coefficients[2]), coefficients, lower, upper);
+      case 3 -> firstOf(cubicRoots(coefficients[0], coefficients[1], coefficients[2], coefficients[3]), coefficients, lower, upper);
+      default -> firstRootBySturmBisection(coefficients, lower, upper, resolution);
+    };
+  }
+
+  private static double firstOf(double[] roots, double[] coefficients, double lower, double upper) {
+    double result = NO_ROOT;
+    for (var root : roots) {
+      if (!Double.isFinite(root)) return FAILED;
+      root = polish(coefficients, root);
+      if (root >= lower && root <= upper && root < result) result = root;
+    }
+    return result;
+  }
+
+  /**
+   * Real roots of c + bt + at^2, computed without cancellation between b and the square root of the discriminant.
+   * A discriminant which is negative only by rounding error is treated as a double root.
+   */
+  static double[] quadraticRoots(double c, double b, double a) {
+    // The fused multiply-add avoids rounding b^2 before subtracting 4ac.
+    final double fourAC = 4 * a * c;
+    double discriminant = Math.fma(b, b, -fourAC);
+    final double tolerance = DISCRIMINANT_ULPS * (ulp(b * b) + ulp(fourAC));
+    if (discriminant < -tolerance) return new double[0];
+    if (discriminant < 0) discriminant = 0;
+    // Since c != 0, q != 0 as well.
+    final double q = -0.5 * (b + Math.copySign(Math.sqrt(discriminant), b));
+    return new double[] { q / a, c / q };
+  }
+
+  /**
+   * Real roots of d + ct + bt^2 + at^3, computed from the depressed cubic x^3 + px + q with t = x - b / 3a.
+   * A discriminant which is zero up to rounding error is treated as a repeated root.
+   */
+  static double[] cubicRoots(double d, double c, double b, double a) {
+    b /= a;
+    c /= a;
+    d /= a;
+    final double shift = b / 3;
+    final double p = c - b * shift;
+    final double q = d - shift * c + 2 * shift * shift * shift;
+    // Bound the rounding error in p and q by the terms they were computed from, since those terms may cancel.
+    final double errorP = DISCRIMINANT_ULPS * ulp(max(abs(c), abs(b * shift)));
+    final double errorQ = DISCRIMINANT_ULPS * ulp(max(abs(d), max(abs(shift * c), abs(2 * shift * shift * shift))));
+
+    final double halfQ = q / 2;
+    final double thirdP = p / 3;
+    final double discriminant = halfQ * halfQ + thirdP * thirdP * thirdP;
+    final double tolerance = abs(halfQ) * errorQ + thirdP * thirdP * errorP
+                             + DISCRIMINANT_ULPS * ulp(max(halfQ * halfQ, abs(thirdP * thirdP * thirdP)));
+
+    if (discriminant > tolerance) {
+      // One real root. Choose the cube root with the larger magnitude to avoid cancellation.
+      final double u = Math.cbrt(-halfQ - Math.copySign(Math.sqrt(discriminant), halfQ));
+      final double v = u == 0 ? 0 : -thirdP / u;
+      return new double[] { u + v - shift };
+    } else if (discriminant < -tolerance) {
+      // Three distinct real roots; p < 0 here, so the trigonometric form applies.
+      final double m = 2 * Math.sqrt(-thirdP);
+      final double cosine = Math.clamp((3 * q) / (2 * p) * Math.sqrt(-3 / p), -1.0, 1.0);
+      final double theta = Math.acos(cosine) / 3;
+      return new double[] {
+          m * Math.cos(theta) - shift,
+          m * Math.cos(theta - 2 * Math.PI / 3) - shift,
+          m * Math.cos(theta - 4 * Math.PI / 3) - shift
+      };
+    } else if (abs(p) <= errorP) {
+      // Triple root
+      return new double[] { Math.cbrt(-q) - shift };
+    } else {
+      // One simple root and one double root
+      return new double[] { 3 * q / p - shift, -3 * q / (2 * p) - shift };
+    }
+  }
+
+  /**
+   * Refine a root with a few Newton steps, keeping only steps that reduce the residual.
+   * Closed-form roots can lose several digits to cancellation; this recovers most of them.
+   */
+  private static double polish(double[] coefficients, double root) {
+    double residual = abs(evaluate(coefficients, root));
+    for (int i = 0; i < NEWTON_POLISHING_STEPS && residual > 0; ++i) {
+      final double slope = evaluateDerivative(coefficients, root);
+      if (slope == 0) break;
+      final double next = root - evaluate(coefficients, root) / slope;
+      final double nextResidual = abs(evaluate(coefficients, next));
+      if (!(nextResidual < residual)) break;
+      root = next;
+      residual = nextResidual;
+    }
+    return root;
+  }
+
+  private static double firstRootBySturmBisection(double[] coefficients, double lower, double upper, double resolution) {
+    final double crossing = firstSturmRoot(coefficients, lower, upper, resolution);
+    if (Double.isNaN(crossing)) return FAILED;
+
+    // Rounding error in the Sturm sequence usually hides repeated roots, where the polynomial touches zero without crossing.
+    // Those are also roots of the derivative, so check each critical point before the first root found.
+    final double[] derivative = derivative(coefficients);
+    final double end = Math.min(crossing, upper);
+    double start = lower;
+    while (start <= end) {
+      final double critical = firstRoot(derivative, start, end, resolution);
+      // Give up on finding tangent roots if the derivative fails, rather than failing altogether.
+      if (!(critical <= end)) break;
+      if (abs(evaluate(coefficients, critical)) <= evaluationError(coefficients, critical)) return critical;
+      start = Math.max(critical + resolution, Math.nextUp(critical));
+    }
+    return crossing;
+  }
+
+  private static double firstSturmRoot(double[] coefficients, double lower, double upper, double resolution) {
+    // Cauchy's bound: every root t satisfies |t| <= 1 + max |c_i / c_n|.
+    // Clamping to it keeps evaluation finite for intervals reaching far beyond any root.
+    final double leading = coefficients[coefficients.length - 1];
+    double bound = 0;
+    for (int i = 0; i < coefficients.length - 1; ++i) bound = max(bound, abs(coefficients[i] / leading));
+    bound += 1;
+    if (!Double.isFinite(bound)) return FAILED;
+
+    double lo = max(lower, -bound);
+    double hi = Math.min(upper, bound);
+    if (lo > hi) return NO_ROOT;
+
+    final var sequence = sturmSequence(coefficients);
+    if (sequence == null) return FAILED;
+
+    // Sign changes at lo minus sign changes at hi counts the distinct roots in (lo, hi].
+    final int changesAtLo = signChanges(sequence, lo);
+    final int changesAtHi = signChanges(sequence, hi);
+    if (changesAtLo < 0 || changesAtHi < 0) return FAILED;
+    // An odd number of roots must change the sign of the polynomial, and vice versa, up to repeated roots.
+    // When the Sturm sequence disagrees, rounding error has made it unreliable.
+    final double signAtLo = Math.signum(evaluate(coefficients, lo));
+    final boolean crosses = signAtLo != Math.signum(evaluate(coefficients, hi));
+    if (crosses != ((changesAtLo - changesAtHi) % 2 != 0)) return FAILED;
+    if (changesAtLo == changesAtHi) return NO_ROOT;
+
+    while (hi - lo > resolution) {
+      final double mid = lo + (hi - lo) / 2;
+      if (mid <= lo || mid >= hi) break;
+      final int changesAtMid = signChanges(sequence, mid);
+      if (changesAtMid < 0) return FAILED;
+      // A sign change in the polynomial itself is certain evidence of a root, whatever the Sturm count says.
+      if (changesAtLo > changesAtMid || Math.signum(evaluate(coefficients, mid)) != signAtLo) {
+        hi = mid;
+      } else {
+        lo = mid;
+      }
+    }
+    return polishWithin(coefficients, lo, hi);
+  }
+
+  /**
+   * Refine a root isolated in (lo, hi] by Newton's method, falling back to the midpoint if Newton leaves the interval.
+   */
+  private static double polishWithin(double[] coefficients, double lo, double hi) {
+    final double midpoint = lo + (hi - lo) / 2;
+    final double polished = polish(coefficients, midpoint);
+    return polished >= lo && polished <= hi ? polished : midpoint;
+  }
+
+  /**
+   * Build the Sturm sequence p, p', -rem(p, p'), ... with each polynomial scaled to unit maximum coefficient.
+   * Scaling by a positive factor doesn't change any signs, and keeps the remainders well-scaled.
+   *
+   * @return the sequence, or null if a non-finite coefficient appeared
+   */
+  static List<double[]> sturmSequence(double[] coefficients) {
+    final var sequence = new ArrayList<double[]>();
+    double[] previous = normalized(coefficients);
+    double[] current = normalized(derivative(coefficients));
+    if (previous == null || current == null) return null;
+    sequence.add(previous);
+    sequence.add(current);
+    while (current.length > 1) {
+      final double[] remainder = negatedRemainder(previous, current);
+      if (remainder == null) break;
+      final double[] next = normalized(remainder);
+      if (next == null) return null;
+      sequence.add(next);
+      previous = current;
+      current = next;
+    }
+    return sequence;
+  }
+
+  /**
+   * Count the sign changes in a Sturm sequence evaluated at t, ignoring zeros.
+   *
+   * @return the count, or -1 if the evaluation was not finite
+   */
+  static int signChanges(List<double[]> sequence, double t) {
+    int changes = 0;
+    double lastSign = 0;
+    for (var polynomial : sequence) {
+      final double value = evaluate(polynomial, t);
+      if (Double.isNaN(value)) return -1;
+      final double sign = Math.signum(value);
+      if (sign == 0) continue;
+      if (lastSign != 0 && sign != lastSign) ++changes;
+      lastSign = sign;
+    }
+    return changes;
+  }
+
+  /**
+   * Computes the negation of the remainder of dividend / divisor, dropping leading coefficients lost to rounding.
+   *
+   * @return the negated remainder, or null if it's zero up to rounding error
+   */
+  private static double[] negatedRemainder(double[] dividend, double[] divisor) {
+    final double[] remainder = dividend.clone();
+    final int divisorDegree = divisor.length - 1;
+    final double divisorLeading = divisor[divisorDegree];
+    for (int k = remainder.length - 1; k >= divisorDegree; --k) {
+      final double factor = remainder[k] / divisorLeading;
+      for (int j = 0; j <= divisorDegree; ++j) {
+        remainder[k - divisorDegree + j] -= factor * divisor[j];
+      }
+      remainder[k] = 0;
+    }
+
+    // Both polynomials are normalized, so 1 is the scale of the terms cancelled here.
+    int length = divisorDegree;
+    while (length > 0 && abs(remainder[length - 1]) <= STURM_RELATIVE_TOLERANCE) --length;
+    if (length == 0) return null;
+    final double[] result = new double[length];
+    for (int i = 0; i < length; ++i) result[i] = -remainder[i];
+    return result;
+  }
+
+  private static double[] normalized(double[] coefficients) {
+    double scale = 0;
+    for (var c : coefficients) scale = max(scale, abs(c));
+    if (!(scale > 0) || !Double.isFinite(scale)) return null;
+    final double[] result = new double[coefficients.length];
+    for (int i = 0; i < coefficients.length; ++i) result[i] = coefficients[i] / scale;
+    return result;
+  }
+
+  private static double[] derivative(double[] coefficients) {
+    final double[] result = new double[coefficients.length - 1];
+    for (int i = 1; i < coefficients.length; ++i) result[i - 1] = coefficients[i] * i;
+    return result;
+  }
+
+  /**
+   * A bound on the rounding error when evaluating a polynomial at t.
+   */
+  private static double evaluationError(double[] coefficients, double t) {
+    double scale = 0;
+    for (int i = coefficients.length - 1; i >= 0; --i) scale = scale * abs(t) + abs(coefficients[i]);
+    return TANGENT_ULPS * coefficients.length * ulp(scale);
+  }
+
+  static double evaluate(double[] coefficients, double t) {
+    double result = 0;
+    for (int i = coefficients.length - 1; i >= 0; --i) result = Math.fma(result, t, coefficients[i]);
+    return result;
+  }
+
+  private static double evaluateDerivative(double[] coefficients, double t) {
+    double result = 0;
+    for (int i = coefficients.length - 1; i >= 1; --i) result = Math.fma(result, t, i * coefficients[i]);
+    return result;
+  }
+}
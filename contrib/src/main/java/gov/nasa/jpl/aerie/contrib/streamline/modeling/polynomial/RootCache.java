@@ -0,0 +1,48 @@
+package gov.nasa.jpl.aerie.contrib.streamline.modeling.polynomial;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Remembers the first future root of recently solved polynomials, evicting the least recently used when full.
+ *
+ * <p>
+ *   Comparisons are re-evaluated whenever either side changes, so the same difference polynomial is often solved repeatedly.
+ *   Polynomials are solved outside the lock, so two threads may occasionally solve the same one; both get the same answer.
+ * </p>
+ */
+final class RootCache {
+  private final Map<Polynomial, Optional<Duration>> roots;
+
+  RootCache(final int capacity) {
+    this.roots = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<Polynomial, Optional<Duration>> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  Optional<Duration> computeIfAbsent(final Polynomial polynomial, final Function<Polynomial, Optional<Duration>> solve) {
+    synchronized (this.roots) {
+      final var cached = this.roots.get(polynomial);
+      if (cached != null) return cached;
+    }
+    final var result = solve.apply(polynomial);
+    synchronized (this.roots) {
+      // Copy the coefficients, since the array in the given record could be modified by the caller who built it.
+      this.roots.put(new Polynomial(polynomial.coefficients().clone()), result);
+    }
+    return result;
+  }
+
+  boolean contains(final Polynomial polynomial) {
+    synchronized (this.roots) {
+      return this.roots.containsKey(polynomial);
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package gov.nasa.jpl.aerie.contrib.streamline.debugging;
+
+import gov.nasa.jpl.aerie.contrib.streamline.core.Resource;
+import gov.nasa.jpl.aerie.contrib.streamline.core.Resources;
+import gov.nasa.jpl.aerie.contrib.streamline.modeling.discrete.Discrete;
+import gov.nasa.jpl.aerie.merlin.driver.DirectiveTypeRegistry;
+import gov.nasa.jpl.aerie.merlin.driver.MissionModelBuilder;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationDriver;
+import gov.nasa.jpl.aerie.merlin.framework.InitializationContext;
+import gov.nasa.jpl.aerie.merlin.framework.ModelActions;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Unit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static gov.nasa.jpl.aerie.contrib.streamline.core.Resources.currentValue;
+import static gov.nasa.jpl.aerie.contrib.streamline.modeling.discrete.DiscreteResources.discreteResource;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProfilerTest {
+  @Test
+  void profilers_collect_statistics_independently() {
+    var first = new Profiler();
+    var second = new Profiler();
+    first.accrue(Profiler.Category.Resources, "a", () -> 1);
+    first.accrue(Profiler.Category.Resources, "a", () -> 2);
+    second.accrue(Profiler.Category.Resources, "a", () -> 3);
+
+    assertEquals(2, first.report().calls().get(Profiler.Category.Resources).getFirst().callsMade());
+    assertEquals(1, second.report().calls().get(Profiler.Category.Resources).getFirst().callsMade());
+    assertTrue(first.report().calls().get(Profiler.Category.Tasks).isEmpty());
+  }
+
+  @Test
+  void profiled_things_report_to_the_profiler_they_were_given() {
+    var profiler = new Profiler();
+    var ran = new AtomicInteger();
+    var task = Profiling.profile(profiler, "task", (Runnable) ran::incrementAndGet);
+    task.run();
+    task.run();
+
+    assertEquals(2, ran.get());
+    var tasks = profiler.report().calls().get(Profiler.Category.Tasks);
+    assertEquals(1, tasks.size());
+    assertEquals("task", tasks.getFirst().name());
+    assertEquals(2, tasks.getFirst().callsMade());
+  }
+
+  @Test
+  void simulations_in_a_row_do_not_share_statistics() {
+    var first = simulateSampling(3);
+    var second = simulateSampling(2);
+
+    assertEquals(3, first.calls().get(Profiler.Category.Resources).getFirst().callsMade());
+    assertEquals(2, second.calls().get(Profiler.Category.Resources).getFirst().callsMade());
+  }
+
+  /** Simulate a model which profiles a resource without an explicit profiler, then samples it some number of times. */
+  private static ProfilingReport simulateSampling(int samples) {
+    var builder = new MissionModelBuilder();
+    var profiler = new Profiler[1];
+    Resource<Discrete<Integer>> resource = InitializationContext.initializing(builder, () -> {
+      Resources.init();
+      Profiling.init();
+      profiler[0] = Profiling.currentProfiler();
+      return Profiling.profile("resource", discreteResource(0));
+    });
+    var model = builder.build(Unit.UNIT, new DirectiveTypeRegistry<>(Map.of()));
+    SimulationDriver.simulateTask(model, ModelActions.threaded(() -> {
+      for (int i = 0; i < samples; ++i) currentValue(resource);
+    }));
+    return profiler[0].report();
+  }
+
+  @Test
+  void nested_calls_are_excluded_from_own_time() {
+    var profiler = new Profiler();
+    profiler.accrue(Profiler.Category.Tasks, "outer", () ->
+        profiler.accrue(Profiler.Category.Resources, "inner", () -> {
+          var end = System.nanoTime() + 5_000_000;
+          while (System.nanoTime() < end) Thread.onSpinWait();
+          return 0;
+        }));
+
+    var report = profiler.report();
+    var outer = report.calls().get(Profiler.Category.Tasks).getFirst();
+    var inner = report.calls().get(Profiler.Category.Resources).getFirst();
+    assertTrue(outer.totalNanos() >= inner.totalNanos());
+    assertTrue(outer.ownNanos() < inner.ownNanos());
+  }
+
+  @Test
+  void statistics_accrue_from_many_threads() throws Exception {
+    var profiler = new Profiler();
+    var threads = 8;
+    var callsPerThread = 10_000;
+    try (var executor = Executors.newFixedThreadPool(threads)) {
+      List<Future<?>> results = new ArrayList<>();
+      for (int i = 0; i < threads; ++i) {
+        results.add(executor.submit(() -> {
+          for (int j = 0; j < callsPerThread; ++j) {
+            profiler.accrue(Profiler.Category.Conditions, "c" + (j % 4), () -> 0);
+          }
+        }));
+      }
+      for (var result : results) result.get();
+    }
+
+    var conditions = profiler.report().calls().get(Profiler.Category.Conditions);
+    assertEquals(4, conditions.size());
+    assertEquals(
+        (long) threads * callsPerThread,
+        conditions.stream().mapToLong(ProfilingReport.CallStatistics::callsMade).sum());
+  }
+}
@@ -228,6 +228,48 @@ class LinearBoundaryConsistencySolverTest {
     }
   }
 
+  @Nested
+  @ExtendWith(MerlinExtension.class)
+  @TestInstance(Lifecycle.PER_CLASS)
+  class IndependentComponents {
+    MutableResource<Polynomial> upperBoundOnA = resource(polynomial(10));
+    MutableResource<Polynomial> upperBoundOnB = resource(polynomial(20));
+    MutableResource<Polynomial> lowerBoundOnB = resource(polynomial(0));
+    Resource<Polynomial> a, b;
+
+    public IndependentComponents() {
+      Resources.init();
+
+      // a and b share a solver, but no constraint relates them.
+      var solver = new LinearBoundaryConsistencySolver("IndependentComponents");
+      var a = solver.variable("a", Domain::upperBound);
+      var b = solver.variable("b", Domain::upperBound);
+      this.a = a.resource();
+      this.b = b.resource();
+      solver.declare(lx(a), LessThanOrEquals, lx(upperBoundOnA));
+      solver.declare(lx(b), LessThanOrEquals, lx(upperBoundOnB));
+      solver.declare(lx(b), GreaterThanOrEquals, lx(lowerBoundOnB));
+    }
+
+    @Test
+    void components_are_solved_separately() {
+      set(upperBoundOnA, polynomial(10, -1));
+      settle();
+      assertEquals(polynomial(10, -1), currentData(a));
+      assertEquals(polynomial(20), currentData(b));
+      // b's solution doesn't depend on a's bounds, so it doesn't share their expiry.
+      assertEquals(Expiry.NEVER, b.getDynamics().getOrThrow().expiry());
+    }
+
+    @Test
+    void failures_are_confined_to_their_component() {
+      set(lowerBoundOnB, polynomial(30));
+      settle();
+      assertInstanceOf(ErrorCatching.Failure.class, b.getDynamics());
+      assertEquals(polynomial(10), currentData(a));
+    }
+  }
+
   static void settle() {
     delay(ZERO);
     delay(ZERO);
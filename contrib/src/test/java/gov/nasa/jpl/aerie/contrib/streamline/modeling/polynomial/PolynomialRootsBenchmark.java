@@ -0,0 +1,70 @@
+package gov.nasa.jpl.aerie.contrib.streamline.modeling.polynomial;
+
+import org.apache.commons.math3.analysis.solvers.LaguerreSolver;
+import org.apache.commons.math3.complex.Complex;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Measures the time taken to find the first future root of random polynomials of each degree,
+ * using {@link PolynomialRoots} and using the Laguerre solver to find every root.
+ */
+public class PolynomialRootsBenchmark {
+  private static final double LOWER = -5e-7;
+  private static final double UPPER = 9.2e12;
+  private static final double RESOLUTION = 1e-6;
+
+  private static double[][] randomPolynomials(int degree, int count) {
+    final var random = new Random(degree);
+    final var result = new double[count][];
+    for (int i = 0; i < count; ++i) {
+      double[] coefficients = { 1 };
+      for (int j = 0; j < degree; ++j) {
+        final double root = (random.nextDouble() - 0.3) * 1000;
+        final double[] next = new double[coefficients.length + 1];
+        for (int k = 0; k < coefficients.length; ++k) {
+          next[k] -= root * coefficients[k];
+          next[k + 1] += coefficients[k];
+        }
+        coefficients = next;
+      }
+      result[i] = coefficients;
+    }
+    return result;
+  }
+
+  private static double laguerreFirstRoot(double[] coefficients) {
+    final double[] conditioned = Arrays.stream(coefficients).map(c -> c / coefficients[0]).toArray();
+    final double epsilon = 2 * Arrays.stream(conditioned).map(Math::ulp).max().orElseThrow();
+    final Complex[] solutions = new LaguerreSolver(0, RESOLUTION, epsilon).solveAllComplex(conditioned, 0);
+    return Arrays.stream(solutions)
+        .filter(solution -> Math.abs(solution.getImaginary()) < epsilon)
+        .mapToDouble(Complex::getReal)
+        .filter(t -> t >= LOWER && t <= UPPER)
+        .min()
+        .orElse(PolynomialRoots.NO_ROOT);
+  }
+
+  private static void run(int degree) {
+    final var polynomials = randomPolynomials(degree, 20_000);
+
+    var checksum = 0.0;
+    var before = System.nanoTime();
+    for (var p : polynomials) checksum += laguerreFirstRoot(p);
+    final var laguerreElapsed = System.nanoTime() - before;
+
+    before = System.nanoTime();
+    for (var p : polynomials) checksum -= PolynomialRoots.firstRoot(p, LOWER, UPPER, RESOLUTION);
+    final var directElapsed = System.nanoTime() - before;
+
+    System.out.println("Degree %d: Laguerre %.1f ms, first root %.1f ms (difference %.3g)".formatted(
+        degree, laguerreElapsed / 1e6, directElapsed / 1e6, checksum));
+  }
+
+  public static void main(String[] args) {
+    for (var i = 0; i < 3; i++) {
+      for (int degree = 2; degree <= 6; ++degree) run(degree);
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package gov.nasa.jpl.aerie.contrib.streamline.modeling.polynomial;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static gov.nasa.jpl.aerie.contrib.streamline.modeling.polynomial.PolynomialRoots.NO_ROOT;
+import static gov.nasa.jpl.aerie.contrib.streamline.modeling.polynomial.PolynomialRoots.firstRoot;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PolynomialRootsTest {
+  private static final double LOWER = -5e-7;
+  private static final double UPPER = 9.2e12;
+  private static final double RESOLUTION = 1e-6;
+
+  private static double first(double... coefficients) {
+    return firstRoot(coefficients, LOWER, UPPER, RESOLUTION);
+  }
+
+  /** Build the coefficients of the product of (t - root) over all given roots. */
+  private static double[] withRoots(double... roots) {
+    double[] result = { 1 };
+    for (var root : roots) result = multiply(result, new double[] { -root, 1 });
+    return result;
+  }
+
+  private static double[] multiply(double[] p, double[] q) {
+    final double[] result = new double[p.length + q.length - 1];
+    for (int i = 0; i < p.length; ++i) {
+      for (int j = 0; j < q.length; ++j) {
+        result[i + j] += p[i] * q[j];
+      }
+    }
+    return result;
+  }
+
+  private static void assertRoot(double expected, double actual) {
+    assertEquals(expected, actual, RESOLUTION * Math.max(1, Math.abs(expected)));
+  }
+
+  @Test
+  void quadratic_finds_first_future_root() {
+    assertRoot(2, first(withRoots(-3, 2)));
+    assertRoot(2, first(withRoots(5, 2)));
+    assertEquals(NO_ROOT, first(withRoots(-3, -2)));
+  }
+
+  @Test
+  void quadratic_without_real_roots_has_no_root() {
+    // t^2 - 2t + 2 has roots 1 +/- i
+    assertEquals(NO_ROOT, first(2, -2, 1));
+  }
+
+  @Test
+  void quadratic_avoids_cancellation_for_small_roots() {
+    // Naively, -b + sqrt(b^2 - 4ac) loses every digit of the small root here.
+    assertRoot(1e-3, first(withRoots(1e-3, 1e9)));
+  }
+
+  @Test
+  void quadratic_tangent_root_is_found() {
+    assertRoot(3, first(withRoots(3, 3)));
+    assertRoot(0.1, first(withRoots(0.1, 0.1)));
+  }
+
+  @Test
+  void cubic_finds_first_future_root() {
+    assertRoot(1, first(withRoots(-2, 1, 4)));
+    assertRoot(0.5, first(withRoots(7, 0.5, 100)));
+    assertEquals(NO_ROOT, first(withRoots(-2, -1, -4)));
+  }
+
+  @Test
+  void cubic_with_one_real_root() {
+    // (t - 2)(t^2 + 1)
+    assertRoot(2, first(multiply(withRoots(2), new double[] { 1, 0, 1 })));
+    // (t + 2)(t^2 + 1)
+    assertEquals(NO_ROOT, first(multiply(withRoots(-2), new double[] { 1, 0, 1 })));
+  }
+
+  @Test
+  void cubic_repeated_roots_are_found() {
+    assertRoot(2, first(withRoots(2, 2, 5)));
+    assertRoot(2, first(withRoots(5, 2, 2)));
+    assertRoot(1.5, first(withRoots(1.5, 1.5, 1.5)));
+  }
+
+  @Test
+  void higher_degrees_find_first_future_root() {
+    assertRoot(0.25, first(withRoots(-1, 0.25, 3, 40)));
+    assertRoot(12, first(withRoots(-7, -1, 12, 12.5, 900)));
+    assertEquals(NO_ROOT, first(withRoots(-7, -6, -5, -4, -3, -2)));
+  }
+
+  @Test
+  void higher_degrees_skip_complex_roots() {
+    // (t^2 + 1)^2 (t - 10)
+    var squared = multiply(new double[] { 1, 0, 1 }, new double[] { 1, 0, 1 });
+    assertRoot(10, first(multiply(squared, withRoots(10))));
+    assertEquals(NO_ROOT, first(squared));
+  }
+
+  @Test
+  void higher_degree_tangent_root_is_found() {
+    assertRoot(4, first(withRoots(-1, 4, 4, 9)));
+  }
+
+  @Test
+  void roots_beyond_interval_are_ignored() {
+    assertEquals(NO_ROOT, first(withRoots(-1, 1e13)));
+    assertEquals(NO_ROOT, first(withRoots(-1, -2, 1e13, 2e13)));
+  }
+
+  @Test
+  void random_polynomials_agree_with_their_roots() {
+    final var random = new Random(0);
+    for (int trial = 0; trial < 10_000; ++trial) {
+      final int degree = 2 + random.nextInt(5);
+      final double[] roots = new double[degree];
+      double expected = NO_ROOT;
+      for (int i = 0; i < degree; ++i) {
+        roots[i] = (random.nextDouble() - 0.3) * Math.pow(10, random.nextInt(5) - 1);
+        if (roots[i] > LOWER + RESOLUTION) expected = Math.min(expected, roots[i]);
+      }
+      final double actual = first(withRoots(roots));
+      if (Double.isNaN(actual)) continue;
+      if (expected == NO_ROOT) {
+        assertEquals(NO_ROOT, actual);
+      } else {
+        // Clustered roots are ill-conditioned, so accept any true root near the expected one.
+        final double tolerance = 1e-4 * Math.max(1, Math.abs(expected));
+        boolean matchesSomeRoot = false;
+        for (var root : roots) matchesSomeRoot |= Math.abs(root - actual) <= tolerance;
+        assertTrue(matchesSomeRoot && actual <= expected + tolerance,
+                   "Expected " + expected + " but found " + actual);
+      }
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package gov.nasa.jpl.aerie.contrib.streamline.modeling.polynomial;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static gov.nasa.jpl.aerie.contrib.streamline.modeling.polynomial.Polynomial.polynomial;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.SECOND;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RootCacheTest {
+  /** A solver which records every polynomial it's asked to solve, and finds a root at its constant term, in seconds. */
+  private static final class CountingSolver implements Function<Polynomial, Optional<Duration>> {
+    final List<Polynomial> solved = new ArrayList<>();
+
+    @Override
+    public Optional<Duration> apply(final Polynomial polynomial) {
+      solved.add(polynomial);
+      return Optional.of(Duration.roundNearest(polynomial.getCoefficient(0), SECOND));
+    }
+  }
+
+  @Test
+  void repeated_solves_hit_the_cache() {
+    final var cache = new RootCache(4);
+    final var solver = new CountingSolver();
+    final var p = polynomial(2, 0, 1);
+
+    final var first = cache.computeIfAbsent(p, solver);
+    final var second = cache.computeIfAbsent(polynomial(2, 0, 1), solver);
+
+    assertEquals(Optional.of(Duration.of(2, SECOND)), first);
+    assertEquals(first, second);
+    assertEquals(List.of(p), solver.solved);
+  }
+
+  @Test
+  void least_recently_used_polynomial_is_evicted() {
+    final var cache = new RootCache(2);
+    final var solver = new CountingSolver();
+    final var a = polynomial(1, 0, 1);
+    final var b = polynomial(2, 0, 1);
+    final var c = polynomial(3, 0, 1);
+
+    cache.computeIfAbsent(a, solver);
+    cache.computeIfAbsent(b, solver);
+    cache.computeIfAbsent(a, solver);
+    cache.computeIfAbsent(c, solver);
+
+    assertTrue(cache.contains(a));
+    assertFalse(cache.contains(b));
+    assertTrue(cache.contains(c));
+    assertEquals(List.of(a, b, c), solver.solved);
+  }
+
+  @Test
+  void cached_entries_are_not_affected_by_later_changes_to_coefficients() {
+    final var cache = new RootCache(2);
+    final var coefficients = new double[] { 1, 0, 1 };
+    cache.computeIfAbsent(new Polynomial(coefficients), new CountingSolver());
+    coefficients[0] = 5;
+
+    assertTrue(cache.contains(polynomial(1, 0, 1)));
+  }
+
+  @Test
+  void repeated_comparisons_reuse_the_cached_root() {
+    // t^3 - 3.375 has its only real root at 1.5 seconds.
+    final var p = polynomial(-3.375, 0, 0, 1);
+    final var zero = polynomial(0);
+
+    final var first = p.greaterThan(zero);
+    assertTrue(Polynomial.ROOT_CACHE.contains(p.subtract(zero)));
+    final var second = p.greaterThan(zero);
+
+    assertEquals(first.expiry(), second.expiry());
+    assertEquals(Duration.roundNearest(1.5, SECOND), first.expiry().value().orElseThrow().minus(Duration.EPSILON));
+  }
+}
@@ -0,0 +1,4 @@
+drop trigger notify_directive_validation_workers on merlin.activity_directive_validations;
+drop function merlin.notify_directive_validation_workers();
+
+call migrations.mark_migration_rolled_back('12');
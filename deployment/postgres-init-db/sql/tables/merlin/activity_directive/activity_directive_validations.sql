@@ -25,3 +25,24 @@ comment on column merlin.activity_directive_validations.last_modified_arguments_
   'The time at which these argument validations were last modified.';
 comment on column merlin.activity_directive_validations.validations is e''
   'The argument validations extracted from an activity directive.';
+
+create function merlin.notify_directive_validation_workers()
+returns trigger
+security definer
+language plpgsql as $$
+begin
+  -- identical notifications raised within one transaction are delivered once,
+  -- so bulk inserts into a plan only wake the validation workers a single time
+  perform pg_notify('activity_directive_validation', '' || new.plan_id);
+  return null;
+end
+$$;
+
+create trigger notify_directive_validation_workers
+  after insert or update of status on merlin.activity_directive_validations
+  for each row
+  when (new.status = 'pending')
+  execute function merlin.notify_directive_validation_workers();
+
+comment on trigger notify_directive_validation_workers on merlin.activity_directive_validations is e''
+  'Notifies the validation workers on the activity_directive_validation channel whenever a directive needs validating.';
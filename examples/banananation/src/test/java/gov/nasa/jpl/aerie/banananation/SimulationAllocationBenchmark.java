@@ -0,0 +1,49 @@
+package gov.nasa.jpl.aerie.banananation;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.types.ActivityDirective;
+import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
+import gov.nasa.jpl.aerie.types.SerializedActivity;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Measures the bytes allocated and time taken by simulating a day of banananation activities,
+ * for comparing the cost of reading cells across changes to the simulation engine.
+ */
+public class SimulationAllocationBenchmark {
+  private static final com.sun.management.ThreadMXBean threads =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private static Map<ActivityDirectiveId, ActivityDirective> schedule(final int activities) {
+    final var schedule = new HashMap<ActivityDirectiveId, ActivityDirective>();
+    final var spacing = Duration.DAY.dividedBy(activities);
+    for (var i = 0; i < activities; i++) {
+      final var activity = (i % 2 == 0)
+          ? new SerializedActivity("BiteBanana", Map.of("biteSize", SerializedValue.of(0.1)))
+          : new SerializedActivity("GrowBanana", Map.of(
+              "quantity", SerializedValue.of(1),
+              "growingDuration", SerializedValue.of(spacing.in(Duration.MICROSECONDS))));
+      schedule.put(new ActivityDirectiveId(i), new ActivityDirective(spacing.times(i), activity, null, true));
+    }
+    return schedule;
+  }
+
+  public static void main(String[] args) {
+    final var activities = 2_000;
+    final var schedule = schedule(activities);
+
+    for (var i = 0; i < 5; i++) {
+      final var bytesBefore = threads.getTotalThreadAllocatedBytes();
+      final var before = System.nanoTime();
+      SimulationUtility.simulate(schedule, Duration.DAY);
+      final var elapsed = System.nanoTime() - before;
+      final var bytes = threads.getTotalThreadAllocatedBytes() - bytesBefore;
+
+      System.out.println("Simulated %d activities: %.1f MB allocated, %.1f ms".formatted(activities, bytes / 1e6, elapsed / 1e6));
+    }
+  }
+}
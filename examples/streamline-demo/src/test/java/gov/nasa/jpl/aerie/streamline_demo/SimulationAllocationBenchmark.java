@@ -0,0 +1,65 @@
+package gov.nasa.jpl.aerie.streamline_demo;
+
+import gov.nasa.jpl.aerie.merlin.driver.DirectiveTypeRegistry;
+import gov.nasa.jpl.aerie.merlin.driver.MissionModel;
+import gov.nasa.jpl.aerie.merlin.driver.MissionModelBuilder;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationDriver;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.streamline_demo.generated.GeneratedModelType;
+import gov.nasa.jpl.aerie.types.ActivityDirective;
+import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
+import gov.nasa.jpl.aerie.types.SerializedActivity;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Measures the bytes allocated and time taken by simulating a day of rate changes on the streamline demo,
+ * whose resources are held in copy-on-write cells, for comparing the cost of reading cells across changes
+ * to the simulation engine.
+ */
+public class SimulationAllocationBenchmark {
+  private static final com.sun.management.ThreadMXBean threads =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private static MissionModel<Mission> missionModel(final Instant start) {
+    final var builder = new MissionModelBuilder();
+    final var factory = new GeneratedModelType();
+    final var registry = DirectiveTypeRegistry.extract(factory);
+    final var model = factory.instantiate(start, new Configuration(), builder);
+    return builder.build(model, registry);
+  }
+
+  private static Map<ActivityDirectiveId, ActivityDirective> schedule(final int activities) {
+    final var buckets = ChangeDesiredRate.Bucket.values();
+    final var schedule = new HashMap<ActivityDirectiveId, ActivityDirective>();
+    final var spacing = Duration.DAY.dividedBy(activities);
+    for (var i = 0; i < activities; i++) {
+      final var activity = new SerializedActivity("ChangeDesiredRate", Map.of(
+          "bucket", SerializedValue.of(buckets[i % buckets.length].name()),
+          "rate", SerializedValue.of((i % 7) - 3.0)));
+      schedule.put(new ActivityDirectiveId(i), new ActivityDirective(spacing.times(i), activity, null, true));
+    }
+    return schedule;
+  }
+
+  public static void main(String[] args) {
+    final var activities = 2_000;
+    final var schedule = schedule(activities);
+    final var start = Instant.EPOCH;
+
+    for (var i = 0; i < 5; i++) {
+      final var model = missionModel(start);
+      final var bytesBefore = threads.getTotalThreadAllocatedBytes();
+      final var before = System.nanoTime();
+      SimulationDriver.simulate(model, schedule, start, Duration.DAY, start, Duration.DAY, () -> false);
+      final var elapsed = System.nanoTime() - before;
+      final var bytes = threads.getTotalThreadAllocatedBytes() - bytesBefore;
+
+      System.out.println("Simulated %d activities: %.1f MB allocated, %.1f ms".formatted(activities, bytes / 1e6, elapsed / 1e6));
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package gov.nasa.jpl.aerie.merlin.driver;
 
 import gov.nasa.jpl.aerie.merlin.driver.engine.SimulationEngine;
+import gov.nasa.jpl.aerie.merlin.driver.engine.SimulationProfiler;
 import gov.nasa.jpl.aerie.merlin.driver.engine.SpanException;
 import gov.nasa.jpl.aerie.merlin.driver.engine.SpanId;
 import gov.nasa.jpl.aerie.merlin.driver.resources.InMemorySimulationResourceManager;
@@ -17,7 +18,9 @@ import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -37,6 +40,11 @@ public class CheckpointSimulationDriver {
 
   /**
    * Selects the best cached engine for simulating a given plan.
+   *
+   * Scheduled directives are matched to identical directives of each cached engine through a hash index of the cached
+   * directives, and the minimum start times of anchored directives are memoized along their anchor chains, so the cost
+   * of the selection is linear in the total number of directives.
+   *
    * @param schedule the schedule/plan
    * @param cachedEngines a list of cached engines
    * @return the best cached engine as well as the map of corresponding activity ids for this engine
@@ -47,35 +55,45 @@ public class CheckpointSimulationDriver {
       final Duration planDuration
   ) {
     Optional<CachedSimulationEngine> bestCandidate = Optional.empty();
-    final Map<ActivityDirectiveId, ActivityDirectiveId> correspondenceMap = new HashMap<>();
-    final var minimumStartTimes = getMinimumStartTimes(schedule, planDuration);
+    Map<ActivityDirectiveId, ActivityDirectiveId> bestCorrespondenceMap = Map.of();
+    // hash every scheduled directive once, rather than once per cached engine
+    final var scheduledKeys = new ArrayList<Pair<ActivityDirectiveId, DirectiveKey>>(schedule.size());
+    for (final var activity : schedule.entrySet()) {
+      scheduledKeys.add(Pair.of(activity.getKey(), new DirectiveKey(activity.getValue())));
+    }
+    final var minimumStartTimes = new HashMap<ActivityDirectiveId, Duration>();
+    // the checkpoints of one simulation run share the same directives, which only need to be indexed once
+    final var cachedIndices = new IdentityHashMap<Map<ActivityDirectiveId, ActivityDirective>, Map<DirectiveKey, DirectiveGroup>>();
     for (final var cachedEngine : cachedEngines) {
       if (bestCandidate.isPresent() && cachedEngine.endsAt().noLongerThan(bestCandidate.get().endsAt()))
         continue;
 
-      final var activityDirectivesInCache = new HashMap<>(cachedEngine.activityDirectives());
+      final var activityDirectivesInCache = cachedIndices.computeIfAbsent(
+          cachedEngine.activityDirectives(),
+          CheckpointSimulationDriver::indexDirectives);
+      // the number of directives of each group matched so far, each cached directive being matched at most once
+      final var matchedInGroup = new int[activityDirectivesInCache.size()];
       // Find the invalidation time
       var invalidationTime = Duration.MAX_VALUE;
-      final var scheduledActivities = new HashMap<>(schedule);
-      for (final var activity : scheduledActivities.entrySet()) {
-        final var entryToRemove = activityDirectivesInCache.entrySet()
-                                                           .stream()
-                                                           .filter(e -> e.getValue().equals(activity.getValue()))
-                                                           .findFirst();
-        if (entryToRemove.isPresent()) {
-          final var entry = entryToRemove.get();
-          activityDirectivesInCache.remove(entry.getKey());
-          correspondenceMap.put(activity.getKey(), entry.getKey());
+      final var correspondenceMap = new HashMap<ActivityDirectiveId, ActivityDirectiveId>();
+      for (final var activity : scheduledKeys) {
+        final var group = activityDirectivesInCache.get(activity.getValue());
+        if (group != null && matchedInGroup[group.slot()] < group.ids().size()) {
+          correspondenceMap.put(activity.getKey(), group.ids().get(matchedInGroup[group.slot()]++));
         } else {
-          invalidationTime = min(invalidationTime, minimumStartTimes.get(activity.getKey()));
+          invalidationTime = min(invalidationTime, getMinimumStartTime(activity.getKey(), schedule::get, minimumStartTimes, planDuration));
         }
       }
-      final var allActs = new HashMap<ActivityDirectiveId, ActivityDirective>();
-      allActs.putAll(cachedEngine.activityDirectives());
-      allActs.putAll(scheduledActivities);
-      final var minimumStartTimeOfActsInCache = getMinimumStartTimes(allActs, planDuration);
-      for (final var activity : activityDirectivesInCache.entrySet()) {
-        invalidationTime = min(invalidationTime, minimumStartTimeOfActsInCache.get(activity.getKey()));
+      // cached directives left unmatched are anchored within the union of both schedules, the plan's taking precedence
+      final Function<ActivityDirectiveId, ActivityDirective> allActs = id -> {
+        final var scheduled = schedule.get(id);
+        return (scheduled != null) ? scheduled : cachedEngine.activityDirectives().get(id);
+      };
+      final var minimumStartTimeOfActsInCache = new HashMap<ActivityDirectiveId, Duration>();
+      for (final var group : activityDirectivesInCache.values()) {
+        for (var i = matchedInGroup[group.slot()]; i < group.ids().size(); i++) {
+          invalidationTime = min(invalidationTime, getMinimumStartTime(group.ids().get(i), allActs, minimumStartTimeOfActsInCache, planDuration));
+        }
       }
       // (1) cachedEngine ends strictly after bestCandidate as per first line of this loop
       // and they both end  before the invalidation time: (2) the bestCandidate has already passed its invalidation time
@@ -83,15 +101,53 @@ public class CheckpointSimulationDriver {
       // (1) + (3) -> cachedEngine is strictly better than bestCandidate
       if (cachedEngine.endsAt().shorterThan(invalidationTime)) {
         bestCandidate = Optional.of(cachedEngine);
+        bestCorrespondenceMap = correspondenceMap;
       }
     }
 
     bestCandidate.ifPresent(cachedSimulationEngine -> LOGGER.info("Re-using simulation engine at "
                                                                   + cachedSimulationEngine.endsAt()));
-    return bestCandidate.map(cachedSimulationEngine -> Pair.of(cachedSimulationEngine, correspondenceMap));
+    final var correspondence = bestCorrespondenceMap;
+    return bestCandidate.map(cachedSimulationEngine -> Pair.of(cachedSimulationEngine, correspondence));
   }
 
+  /**
+   * An activity directive along with its precomputed hash code, so that directives with large arguments are only hashed
+   * once however many times they are looked up.
+   */
+  private record DirectiveKey(ActivityDirective directive, int hash) {
+    DirectiveKey(final ActivityDirective directive) {
+      this(directive, directive.hashCode());
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) return true;
+      if (!(o instanceof DirectiveKey other)) return false;
+      return this.hash == other.hash && (this.directive == other.directive || this.directive.equals(other.directive));
+    }
 
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+  }
+
+  /**
+   * The ids of identical directives, in iteration order, along with the position of the group in its index.
+   */
+  private record DirectiveGroup(int slot, List<ActivityDirectiveId> ids) {}
+
+  private static Map<DirectiveKey, DirectiveGroup> indexDirectives(final Map<ActivityDirectiveId, ActivityDirective> directives) {
+    final var index = new HashMap<DirectiveKey, DirectiveGroup>();
+    for (final var activity : directives.entrySet()) {
+      index
+          .computeIfAbsent(new DirectiveKey(activity.getValue()), $ -> new DirectiveGroup(index.size(), new ArrayList<>(1)))
+          .ids()
+          .add(activity.getKey());
+    }
+    return index;
+  }
 
   public static Function<SimulationState, Boolean> desiredCheckpoints(final List<Duration> desiredCheckpoints) {
     return simulationState -> {
@@ -109,31 +165,46 @@ public class CheckpointSimulationDriver {
     return simulationState -> stoppingCondition.apply(simulationState) || simulationState.nextTime.equals(MAX_VALUE);
   }
 
-  private static Map<ActivityDirectiveId, Duration> getMinimumStartTimes(
-      final Map<ActivityDirectiveId, ActivityDirective> schedule,
+  /**
+   * For an anchored activity, its minimum start time is the sum of all startOffsets in its anchor chain
+   * (plus the plan duration if the root is anchored to plan end).
+   * If it's a start anchor chain (as in, all anchors have anchoredToStart set to true),
+   * this will give you its exact start time, but if there are any end-time anchors, this will give you the minimum time the activity could start at.
+   *
+   * @param directives the directives of the schedule, by id
+   * @param minimumStartTimes the minimum start times computed so far, which are reused and extended with those of every
+   *                          directive in the activity's anchor chain
+   */
+  private static Duration getMinimumStartTime(
+      final ActivityDirectiveId activityId,
+      final Function<ActivityDirectiveId, ActivityDirective> directives,
+      final Map<ActivityDirectiveId, Duration> minimumStartTimes,
       final Duration planDuration)
   {
-    //For an anchored activity, it's minimum invalidationTime would be the sum of all startOffsets in its anchor chain
-    // (plus or minus the plan duration depending on whether the root is anchored to plan start or plan end).
-    // If it's a start anchor chain (as in, all anchors have anchoredToStart set to true),
-    // this will give you its exact start time, but if there are any end-time anchors, this will give you the minimum time the activity could start at.
-    final var minimumStartTimes = new HashMap<ActivityDirectiveId, Duration>();
-    for (final var activity : schedule.entrySet()) {
-      var curInChain = activity;
-      var curSum = ZERO;
-      while (true) {
-        if (curInChain.getValue().anchorId() == null) {
-          curSum = curSum.plus(curInChain.getValue().startOffset());
-          curSum = !curInChain.getValue().anchoredToStart() ? curSum.plus(planDuration) : curSum;
-          minimumStartTimes.put(activity.getKey(), curSum);
-          break;
-        } else {
-          curSum = curSum.plus(curInChain.getValue().startOffset());
-          curInChain = Map.entry(curInChain.getValue().anchorId(), schedule.get(curInChain.getValue().anchorId()));
-        }
+    // walk up the anchor chain until reaching its root or an activity whose minimum start time is already known
+    final var chain = new ArrayList<ActivityDirectiveId>();
+    var curInChain = activityId;
+    Duration curSum;
+    while (true) {
+      final var known = minimumStartTimes.get(curInChain);
+      if (known != null) {
+        curSum = known;
+        break;
+      }
+      chain.add(curInChain);
+      final var directive = directives.apply(curInChain);
+      if (directive.anchorId() == null) {
+        curSum = !directive.anchoredToStart() ? planDuration : ZERO;
+        break;
       }
+      curInChain = directive.anchorId();
+    }
+    // then walk back down, recording the minimum start time of every activity on the way
+    for (var i = chain.size() - 1; i >= 0; i--) {
+      curSum = curSum.plus(directives.apply(chain.get(i)).startOffset());
+      minimumStartTimes.put(chain.get(i), curSum);
     }
-    return minimumStartTimes;
+    return curSum;
   }
 
   public record SimulationState(
@@ -183,6 +254,9 @@ public class CheckpointSimulationDriver {
     var engine = duplicationIsOk ? cachedEngine.simulationEngine().duplicate() : cachedEngine.simulationEngine();
     final var resourceManager = duplicationIsOk ? new InMemorySimulationResourceManager(cachedEngine.resourceManager()) : cachedEngine.resourceManager();
     engine.unscheduleAfter(cachedEngine.endsAt());
+    engine.setCellSnapshotInterval(configuration.cellSnapshotInterval());
+    // Work done before the cached engine was saved is not profiled again.
+    final var profiler = SimulationProfiler.attachIfEnabled(engine, missionModel.getTopics());
 
     /* The current real time. */
     var elapsedTime = Duration.max(ZERO, cachedEngine.endsAt());
@@ -262,6 +336,8 @@ public class CheckpointSimulationDriver {
                 configuration);
 
             engine = engine.duplicate();
+            // Later simulations resuming the cached engine attach their own profiler, if any.
+            newCachedEngine.simulationEngine().setObserver(null);
         }
 
         //break before changing the state of the engine
@@ -320,7 +396,12 @@ public class CheckpointSimulationDriver {
     } catch (Throwable ex) {
       elapsedTime = engine.getElapsedTime();
       throw new SimulationException(elapsedTime, simulationStartTime, ex);
+    } finally {
+      // The engine may be in the cache, so it must not keep reporting to this simulation's profiler.
+      final var lastEngine = engine;
+      profiler.ifPresent($ -> $.finish(lastEngine));
     }
+    LOGGER.debug("Topic invalidation statistics: {}", engine.getInvalidationMetrics());
     return new SimulationResultsComputerInputs(
         engine,
         simulationStartTime,
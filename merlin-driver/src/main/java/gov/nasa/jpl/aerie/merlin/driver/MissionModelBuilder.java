@@ -113,7 +113,7 @@ public final class MissionModelBuilder implements Initializer {
           evaluator,
           initialState));
 
-      return new EngineCellId<>(topic, query);
+      return new EngineCellId<>(topic, query, cellType.isCopyOnWrite());
     }
 
     @Override
@@ -0,0 +1,67 @@
+package gov.nasa.jpl.aerie.merlin.driver;
+
+import gov.nasa.jpl.aerie.types.ActivityInstance;
+import gov.nasa.jpl.aerie.types.ActivityInstanceId;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Orders the activity instances of simulation results such that every instance comes after its parent,
+ * as needed to store them where each instance references its parent by foreign key.
+ */
+public final class ParentFirstOrder {
+  private ParentFirstOrder() {}
+
+  /**
+   * Order the ids of simulated and unfinished activities such that every activity comes after its parent.
+   *
+   * @see #of(Map)
+   */
+  public static List<ActivityInstanceId> of(
+      final Map<ActivityInstanceId, ActivityInstance> simulatedActivities,
+      final Map<ActivityInstanceId, UnfinishedActivity> unfinishedActivities)
+  {
+    final var parentIds = new HashMap<ActivityInstanceId, Optional<ActivityInstanceId>>(
+        simulatedActivities.size() + unfinishedActivities.size());
+    unfinishedActivities.forEach((id, activity) -> parentIds.put(id, Optional.ofNullable(activity.parentId())));
+    simulatedActivities.forEach((id, activity) -> parentIds.put(id, Optional.ofNullable(activity.parentId())));
+    return of(parentIds);
+  }
+
+  /**
+   * Order ids such that every id comes after its parent, in time linear in the number of ids.
+   * An id whose parent is absent from the map is ordered as a root.
+   *
+   * @param parentIds a map from each id to the id of its parent, if any
+   * @return the ids, with every id after its parent
+   * @throws IllegalArgumentException if the parents form a cycle
+   */
+  public static <Id> List<Id> of(final Map<Id, Optional<Id>> parentIds) {
+    final var children = new HashMap<Id, List<Id>>();
+    final var worklist = new ArrayDeque<Id>();
+    for (final var entry : parentIds.entrySet()) {
+      final var parentId = entry.getValue();
+      if (parentId.isPresent() && parentIds.containsKey(parentId.get())) {
+        children.computeIfAbsent(parentId.get(), $ -> new ArrayList<>()).add(entry.getKey());
+      } else {
+        worklist.add(entry.getKey());
+      }
+    }
+
+    final var order = new ArrayList<Id>(parentIds.size());
+    while (!worklist.isEmpty()) {
+      final var id = worklist.poll();
+      order.add(id);
+      worklist.addAll(children.getOrDefault(id, List.of()));
+    }
+    if (order.size() != parentIds.size()) {
+      throw new IllegalArgumentException("Cycle detected among the parents of activity instances");
+    }
+    return order;
+  }
+}
@@ -1,6 +1,7 @@
 package gov.nasa.jpl.aerie.merlin.driver;
 
 import gov.nasa.jpl.aerie.merlin.driver.engine.SimulationEngine;
+import gov.nasa.jpl.aerie.merlin.driver.engine.SimulationProfiler;
 import gov.nasa.jpl.aerie.merlin.driver.engine.SpanException;
 import gov.nasa.jpl.aerie.merlin.driver.resources.InMemorySimulationResourceManager;
 import gov.nasa.jpl.aerie.merlin.driver.resources.SimulationResourceManager;
@@ -14,17 +15,21 @@ import gov.nasa.jpl.aerie.types.ActivityDirective;
 import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
 import gov.nasa.jpl.aerie.types.SerializedActivity;
 import org.apache.commons.lang3.tuple.Pair;
-import java.util.ArrayList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 public final class SimulationDriver {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SimulationDriver.class);
+
   public static <Model> SimulationResults simulate(
       final MissionModel<Model> missionModel,
       final Map<ActivityDirectiveId, ActivityDirective> schedule,
@@ -65,7 +70,10 @@ public final class SimulationDriver {
       // Specify a topic on which tasks can log the activity they're associated with.
       final var activityTopic = new Topic<ActivityDirectiveId>();
 
+      final var profiler = SimulationProfiler.attachIfEnabled(engine, missionModel.getTopics());
+
       try {
+        final var startupStart = System.nanoTime();
         engine.init(missionModel.getResources(), missionModel.getDaemon());
 
         // Get all activities as close as possible to absolute time
@@ -92,6 +100,7 @@ public final class SimulationDriver {
             engine,
             activityTopic
         );
+        final var simulationStart = System.nanoTime();
 
         // Drive the engine until we're out of time or until simulation is canceled.
         // TERMINATION: Actually, we might never break if real time never progresses forward.
@@ -108,6 +117,11 @@ public final class SimulationDriver {
           }
           simulationExtentConsumer.accept(engine.getElapsedTime());
         }
+        LOGGER.info(
+            "Started simulation of {} directives in {} ms, then simulated for {} ms",
+            schedule.size(),
+            (simulationStart - startupStart) / 1_000_000,
+            (System.nanoTime() - simulationStart) / 1_000_000);
 
       } catch (SpanException ex) {
         // Swallowing the spanException as the internal `spanId` is not user meaningful info.
@@ -126,6 +140,8 @@ public final class SimulationDriver {
         throw new SimulationException(engine.getElapsedTime(), simulationStartTime, ex);
       }
 
+      profiler.ifPresent($ -> $.log(engine));
+
       final var topics = missionModel.getTopics();
       return engine.computeResults(simulationStartTime, activityTopic, topics, resourceManager);
     }
@@ -167,47 +183,39 @@ public final class SimulationDriver {
       // Nothing to simulate
       return;
     }
+    final var directiveIds = StartOffsetReducer.anchorOrder(resolved);
+
+    // Instantiating a directive only depends on its arguments, so directives are instantiated in parallel.
+    final var tasks = new ConcurrentHashMap<ActivityDirectiveId, TaskFactory<?>>(directiveIds.size());
+    directiveIds.parallelStream().forEach(directiveId -> tasks.put(
+        directiveId,
+        deserializeActivity(missionModel, schedule.get(directiveId).serializedActivity())));
+
+    // Build the task of each directive after the tasks of the directives depending on it,
+    // walking the anchor tree from its leaves rather than recursing down each chain.
+    final var taskFactories = new HashMap<ActivityDirectiveId, TaskFactory<Unit>>(directiveIds.size());
+    for (final var directiveId : directiveIds.reversed()) {
+      final var dependents = resolved
+          .getOrDefault(directiveId, List.of())
+          .stream()
+          .map(pair -> new Dependent(pair.getRight(), taskFactories.remove(pair.getLeft())))
+          .toList();
+      taskFactories.put(directiveId, makeTaskFactory(directiveId, tasks.get(directiveId), dependents, activityTopic));
+    }
+
     for (final Pair<ActivityDirectiveId, Duration> directivePair : resolved.get(null)) {
-      final var directiveId = directivePair.getLeft();
-      final var startOffset = directivePair.getRight();
-      final var serializedDirective = schedule.get(directiveId).serializedActivity();
-
-      final TaskFactory<?> task = deserializeActivity(missionModel, serializedDirective);
-
-      engine.scheduleTask(startOffset, makeTaskFactory(
-          directiveId,
-          task,
-          schedule,
-          resolved,
-          missionModel,
-          activityTopic
-      ));
+      engine.scheduleTask(directivePair.getRight(), taskFactories.get(directivePair.getLeft()));
     }
   }
 
-  private static <Model, Output> TaskFactory<Unit> makeTaskFactory(
+  private record Dependent(Duration offset, TaskFactory<?> task) {}
+
+  private static <Output> TaskFactory<Unit> makeTaskFactory(
       final ActivityDirectiveId directiveId,
       final TaskFactory<Output> taskFactory,
-      final Map<ActivityDirectiveId, ActivityDirective> schedule,
-      final HashMap<ActivityDirectiveId, List<Pair<ActivityDirectiveId, Duration>>> resolved,
-      final MissionModel<Model> missionModel,
+      final List<Dependent> dependents,
       final Topic<ActivityDirectiveId> activityTopic
   ) {
-    record Dependent(Duration offset, TaskFactory<?> task) {}
-
-    final List<Dependent> dependents = new ArrayList<>();
-    for (final var pair : resolved.getOrDefault(directiveId, List.of())) {
-      dependents.add(new Dependent(
-          pair.getRight(),
-          makeTaskFactory(
-              pair.getLeft(),
-              deserializeActivity(missionModel, schedule.get(pair.getLeft()).serializedActivity()),
-              schedule,
-              resolved,
-              missionModel,
-              activityTopic)));
-    }
-
     return executor -> {
       final var task = taskFactory.create(executor);
       return Task
@@ -1,13 +1,27 @@
 package gov.nasa.jpl.aerie.merlin.driver;
 
+import gov.nasa.jpl.aerie.merlin.driver.timeline.LiveCells;
 import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
 import gov.nasa.jpl.aerie.types.MissionModelId;
 
 import java.time.Instant;
 import java.util.Map;
 
+/**
+ * @param cellSnapshotInterval how many layers of duplicated engines may pass between retained copies of a cell;
+ *                             see {@link LiveCells}.
+ */
 public record SimulationEngineConfiguration(
     Map<String, SerializedValue> simulationConfiguration,
     Instant simStartTime,
-    MissionModelId missionModelId
-) {}
+    MissionModelId missionModelId,
+    int cellSnapshotInterval
+) {
+  public SimulationEngineConfiguration(
+      final Map<String, SerializedValue> simulationConfiguration,
+      final Instant simStartTime,
+      final MissionModelId missionModelId)
+  {
+    this(simulationConfiguration, simStartTime, missionModelId, LiveCells.DEFAULT_SNAPSHOT_INTERVAL);
+  }
+}
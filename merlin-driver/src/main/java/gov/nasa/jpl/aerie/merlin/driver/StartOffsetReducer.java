@@ -5,10 +5,12 @@ import gov.nasa.jpl.aerie.types.ActivityDirective;
 import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.RecursiveTask;
 
 
@@ -16,9 +18,12 @@ public class StartOffsetReducer extends RecursiveTask<HashMap<ActivityDirectiveI
   private final Duration planDuration;
   private final Map<ActivityDirectiveId, ActivityDirective> completeMapOfDirectives;
   private final Map<ActivityDirectiveId, ActivityDirective> activityDirectivesToProcess;
+  // Net offsets already computed by any of the tasks, so that each anchor chain is only walked once
+  private final Map<ActivityDirectiveId, Pair<ActivityDirectiveId, Duration>> netOffsets;
 
   public StartOffsetReducer(Duration planDuration, Map<ActivityDirectiveId, ActivityDirective> activityDirectives){
     this.planDuration = planDuration;
+    this.netOffsets = new ConcurrentHashMap<>();
     if(activityDirectives == null) {
       this.completeMapOfDirectives = Map.of();
       this.activityDirectivesToProcess = Map.of();
@@ -31,15 +36,17 @@ public class StartOffsetReducer extends RecursiveTask<HashMap<ActivityDirectiveI
   private StartOffsetReducer(
       Duration planDuration,
       Map<ActivityDirectiveId, ActivityDirective> activityDirectives,
-      Map<ActivityDirectiveId, ActivityDirective> allActivityDirectives){
+      Map<ActivityDirectiveId, ActivityDirective> allActivityDirectives,
+      Map<ActivityDirectiveId, Pair<ActivityDirectiveId, Duration>> netOffsets){
     this.planDuration = planDuration;
     this.activityDirectivesToProcess = activityDirectives;
     this.completeMapOfDirectives = allActivityDirectives;
+    this.netOffsets = netOffsets;
   }
 
   /**
-   * The complexity of compute() is ~O(NL), where N is the number of activities and L is the length of the longest chain
-   * In general, we expect L to be small.
+   * The complexity of compute() is ~O(N), where N is the number of activities, as the net offset of every activity
+   * in an anchor chain is remembered the first time the chain is walked.
    */
   @Override
   public HashMap<ActivityDirectiveId, List<Pair<ActivityDirectiveId, Duration>>> compute() {
@@ -61,8 +68,8 @@ public class StartOffsetReducer extends RecursiveTask<HashMap<ActivityDirectiveI
       (count<(activityDirectivesToProcess.size()/2) ? leftDirectivesToProcess : rightDirectivesToProcess).put(entry.getKey(), entry.getValue());
       count++;
     }
-    final var left = new StartOffsetReducer(planDuration, leftDirectivesToProcess, completeMapOfDirectives);
-    final var right = new StartOffsetReducer(planDuration, rightDirectivesToProcess, completeMapOfDirectives);
+    final var left = new StartOffsetReducer(planDuration, leftDirectivesToProcess, completeMapOfDirectives, netOffsets);
+    final var right = new StartOffsetReducer(planDuration, rightDirectivesToProcess, completeMapOfDirectives, netOffsets);
     right.fork();
     // join step
     final var leftReturn = left.compute();
@@ -99,22 +106,58 @@ public class StartOffsetReducer extends RecursiveTask<HashMap<ActivityDirectiveI
    *   Duration: the net start offset from that ID
    */
   private Pair<ActivityDirectiveId, Duration> getNetOffset(ActivityDirective ad){
-    ActivityDirective currentActivityDirective;
-    ActivityDirectiveId currentAnchorId = ad.anchorId();
-    boolean anchoredToStart = ad.anchoredToStart();
-    Duration netOffset = ad.startOffset();
-
-    while(currentAnchorId != null && anchoredToStart){
-      currentActivityDirective = completeMapOfDirectives.get(currentAnchorId);
-      currentAnchorId = currentActivityDirective.anchorId();
-      anchoredToStart = currentActivityDirective.anchoredToStart();
-      netOffset = netOffset.plus(currentActivityDirective.startOffset());
+    // Walk up the chain of start-time anchors until reaching an activity whose net offset is known, or a base case
+    final var chain = new ArrayList<ActivityDirective>();
+    ActivityDirective currentActivityDirective = ad;
+    Pair<ActivityDirectiveId, Duration> netOffset = null;
+    while(netOffset == null){
+      if(currentActivityDirective.anchorId() == null || !currentActivityDirective.anchoredToStart()){
+        netOffset = getBaseNetOffset(currentActivityDirective);
+      } else {
+        chain.add(currentActivityDirective);
+        netOffset = netOffsets.get(currentActivityDirective.anchorId());
+        currentActivityDirective = completeMapOfDirectives.get(currentActivityDirective.anchorId());
+      }
+    }
+
+    // Walk back down the chain, remembering the net offset of each anchor along the way
+    for(int i = chain.size() - 1; i >= 0; i--){
+      netOffset = Pair.of(netOffset.getLeft(), netOffset.getRight().plus(chain.get(i).startOffset()));
+      if(i > 0) netOffsets.put(chain.get(i - 1).anchorId(), netOffset);
+    }
+    return netOffset;
+  }
+
+  private Pair<ActivityDirectiveId, Duration> getBaseNetOffset(ActivityDirective ad){
+    if(ad.anchorId() == null && !ad.anchoredToStart()) {
+      return Pair.of(null, planDuration.plus(ad.startOffset())); // Add plan duration if anchored to plan end for net
     }
+    return Pair.of(ad.anchorId(), ad.startOffset());
+  }
 
-    if(currentAnchorId == null && !anchoredToStart) {
-      return Pair.of(null, planDuration.plus(netOffset)); // Add plan duration if anchored to plan end for net
+  /**
+   * Lists the activities of a resolved HashMap such that each activity comes after the activity it depends on.
+   *
+   * The anchor tree is walked iteratively, so long chains of activities anchored to each other's end time cannot
+   * overflow the stack.
+   *
+   * @param resolved A HashMap computed by this class, possibly filtered.
+   * @return The ids of every activity depending on the plan, or transitively on such an activity, parents first.
+   */
+  public static List<ActivityDirectiveId> anchorOrder(Map<ActivityDirectiveId, List<Pair<ActivityDirectiveId, Duration>>> resolved) {
+    final var order = new ArrayList<ActivityDirectiveId>();
+    if(resolved == null || resolved.get(null) == null) return order;
+
+    final var toVisit = new ArrayDeque<ActivityDirectiveId>();
+    resolved.get(null).forEach(pair -> toVisit.add(pair.getLeft()));
+    while(!toVisit.isEmpty()){
+      final var current = toVisit.removeLast();
+      order.add(current);
+      for(final var dependent : resolved.getOrDefault(current, List.of())){
+        toVisit.add(dependent.getLeft());
+      }
     }
-    return Pair.of(currentAnchorId, netOffset);
+    return order;
   }
 
   /**
@@ -4,6 +4,10 @@ import gov.nasa.jpl.aerie.merlin.driver.timeline.Query;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.CellId;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
 
-public record EngineCellId<Event, State> (Topic<Event> topic, Query<State> query)
+/**
+ * @param copyOnWrite whether the cell's type is copy-on-write, so that a state read from the cell
+ *   may be handed to several readers without being duplicated for each of them.
+ */
+public record EngineCellId<Event, State> (Topic<Event> topic, Query<State> query, boolean copyOnWrite)
     implements CellId<State>
 {}
@@ -0,0 +1,48 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+
+import java.util.Optional;
+
+/**
+ * Receives notifications of the work performed by a {@link SimulationEngine}.
+ *
+ * <p>
+ * An engine only measures the time taken by its jobs when an observer is attached,
+ * so an unobserved engine pays nothing beyond a null check per job.
+ * Engines duplicated from an observed engine notify the same observer.
+ * </p>
+ *
+ * @see SimulationEngine#setObserver(EngineObserver)
+ * @see SimulationProfiler
+ */
+public interface EngineObserver {
+  /**
+   * A span was opened.
+   *
+   * @param span The new span.
+   * @param parent The span containing the new span, if any.
+   * @param daemon Whether the span was opened for the model's daemon tasks.
+   */
+  void spanOpened(SpanId span, Optional<SpanId> parent, boolean daemon);
+
+  /** A span was closed, after the step completing its last task was reported. */
+  void spanClosed(SpanId span);
+
+  /** A task in the given span emitted an event on the given topic, for the first time in its current step. */
+  void topicEmitted(SpanId span, Topic<?> topic);
+
+  /**
+   * A task in the given span took a single step.
+   *
+   * @param nanos The wall time taken by the step.
+   * @param cellPointsReplayed The number of points replayed onto cells to answer the step's queries.
+   */
+  void taskStepped(SpanId span, long nanos, long cellPointsReplayed);
+
+  /** A condition awaited by a task in the given span was evaluated. */
+  void conditionEvaluated(SpanId waitingSpan, long nanos, long cellPointsReplayed);
+
+  /** A resource was sampled. */
+  void resourceSampled(ResourceId resource, long nanos, long cellPointsReplayed);
+}
@@ -9,6 +9,7 @@ import gov.nasa.jpl.aerie.merlin.driver.UnfinishedActivity;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.Event;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.EventGraph;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.LiveCells;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.Query;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.TemporalEventSource;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.CellId;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Querier;
@@ -42,6 +43,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -52,6 +54,7 @@ import java.util.TreeMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -96,11 +99,18 @@ public final class SimulationEngine implements AutoCloseable {
   private final LiveCells cells;
   private Duration elapsedTime;
 
+  /** Counts of the topic invalidations requested by tasks, and of those actually performed. */
+  private final InvalidationStatistics invalidationStatistics;
+
+  /** Receives measurements of the jobs performed by this engine, if any. */
+  private EngineObserver observer = null;
+
   public SimulationEngine(LiveCells initialCells) {
     timeline = new TemporalEventSource();
     referenceTimeline = new TemporalEventSource();
     cells = new LiveCells(timeline, initialCells);
     elapsedTime = Duration.ZERO;
+    invalidationStatistics = new InvalidationStatistics();
 
     scheduledJobs = new JobSchedule<>();
     waitingTasks = new LinkedHashMap<>();
@@ -122,6 +132,8 @@ public final class SimulationEngine implements AutoCloseable {
     other.cells.freeze();
 
     elapsedTime = other.elapsedTime;
+    invalidationStatistics = other.invalidationStatistics;
+    observer = other.observer;
 
     timeline = new TemporalEventSource();
     cells = new LiveCells(timeline, other.cells);
@@ -162,7 +174,7 @@ public final class SimulationEngine implements AutoCloseable {
     }
 
     // Start daemon task(s) immediately, before anything else happens.
-    this.scheduleTask(Duration.ZERO, daemons);
+    this.scheduleTask(Duration.ZERO, daemons, true);
     {
       final var batch = this.extractNextJobs(Duration.MAX_VALUE);
       final var results = this.performJobs(batch.jobs(), cells, elapsedTime, Duration.MAX_VALUE);
@@ -255,12 +267,17 @@ public final class SimulationEngine implements AutoCloseable {
 
   /** Schedule a new task to be performed at the given time. */
   public <Output> SpanId scheduleTask(final Duration startTime, final TaskFactory<Output> state) {
+    return this.scheduleTask(startTime, state, false);
+  }
+
+  private <Output> SpanId scheduleTask(final Duration startTime, final TaskFactory<Output> state, final boolean daemon) {
     if (this.closed) throw new IllegalStateException("Cannot schedule task on closed simulation engine");
     if (startTime.isNegative()) throw new IllegalArgumentException(
         "Cannot schedule a task before the start time of the simulation");
 
     final var span = SpanId.generate();
     this.spans.put(span, new Span(Optional.empty(), startTime, Optional.empty()));
+    if (this.observer != null) this.observer.spanOpened(span, Optional.empty(), daemon);
 
     final var task = TaskId.generate();
     this.spanContributorCount.put(span, new MutableInt(1));
@@ -285,6 +302,7 @@ public final class SimulationEngine implements AutoCloseable {
   /** Schedules any conditions or resources dependent on the given topic to be re-checked at the given time. */
   public void invalidateTopic(final Topic<?> topic, final Duration invalidationTime) {
     if (this.closed) throw new IllegalStateException("Cannot invalidate topic on closed simulation engine");
+    this.invalidationStatistics.performed.increment();
     final var resources = this.waitingResources.invalidateTopic(topic);
     for (final var resource : resources) {
       this.scheduledJobs.schedule(JobId.forResource(resource), SubInstant.Resources.at(invalidationTime));
@@ -367,11 +385,12 @@ public final class SimulationEngine implements AutoCloseable {
       final Duration maximumTime
   ) throws SpanException {
     if (this.closed) throw new IllegalStateException("Cannot perform jobs on closed simulation engine");
-    var tip = EventGraph.<Event>empty();
+    // Combine the jobs' events as a balanced graph, since a batch may hold very many jobs.
+    final var branches = new ArrayList<EventGraph<Event>>(jobs.size());
     Mutable<Optional<Throwable>> exception = new MutableObject<>(Optional.empty());
     final var resourceUpdates = new ResourceUpdates();
     for (final var job$ : jobs) {
-      tip = EventGraph.concurrently(tip, TaskFrame.run(job$, context, (job, frame) -> {
+      branches.add(TaskFrame.run(job$, context, (job, frame) -> {
         try {
           this.performJob(job, frame, currentTime, maximumTime, resourceUpdates);
         } catch (Throwable ex) {
@@ -380,10 +399,10 @@ public final class SimulationEngine implements AutoCloseable {
       }));
 
       if (exception.getValue().isPresent()) {
-        return new StepResult(List.of(tip), resourceUpdates, exception.getValue());
+        return new StepResult(List.of(EventGraph.concurrentlyBalanced(branches)), resourceUpdates, exception.getValue());
       }
     }
-    return new StepResult(List.of(tip), resourceUpdates, Optional.empty());
+    return new StepResult(List.of(EventGraph.concurrentlyBalanced(branches)), resourceUpdates, Optional.empty());
   }
 
   /** Performs a single job. */
@@ -415,7 +434,24 @@ public final class SimulationEngine implements AutoCloseable {
     //   for putting an updated state back into the task set.
     var state = this.tasks.remove(task);
 
-    stepEffectModel(task, state, frame, currentTime);
+    if (this.observer == null) {
+      stepEffectModel(task, state, frame, currentTime);
+    } else {
+      final var start = System.nanoTime();
+      final var pointsReplayed = frame.cellPointsReplayed();
+      try {
+        stepEffectModel(task, state, frame, currentTime);
+      } finally {
+        this.observer.taskStepped(state.span(), System.nanoTime() - start, frame.cellPointsReplayed() - pointsReplayed);
+      }
+
+      // A span can only be closed by the step completing its last task, so any closed ancestor was closed just now.
+      var span = Optional.of(state.span());
+      while (span.isPresent() && this.spans.get(span.get()).isComplete()) {
+        this.observer.spanClosed(span.get());
+        span = this.spans.get(span.get()).parent();
+      }
+    }
   }
 
   /** Make progress in a task by stepping its associated effect model forward. */
@@ -432,6 +468,8 @@ public final class SimulationEngine implements AutoCloseable {
       status = progress.state().step(scheduler);
     } catch (Throwable ex) {
       throw new SpanException(scheduler.span, ex);
+    } finally {
+      scheduler.invalidateEmittedTopics();
     }
     // TODO: Report which topics this activity wrote to at this point in time. This is useful insight for any user.
     // TODO: Report which cells this activity read from at this point in time. This is useful insight for any user.
@@ -481,6 +519,7 @@ public final class SimulationEngine implements AutoCloseable {
                 freshSpan,
                 new Span(Optional.of(scheduler.span), currentTime, Optional.empty()));
             SimulationEngine.this.spanContributorCount.put(freshSpan, new MutableInt(1));
+            if (this.observer != null) this.observer.spanOpened(freshSpan, Optional.of(scheduler.span), false);
             yield freshSpan;
           }
         };
@@ -520,6 +559,8 @@ public final class SimulationEngine implements AutoCloseable {
       final Duration horizonTime
   ) {
     if (this.closed) throw new IllegalStateException("Cannot update condition on closed simulation engine");
+    final var start = (this.observer != null) ? System.nanoTime() : 0L;
+    final var pointsReplayed = frame.cellPointsReplayed();
     final var querier = new EngineQuerier(frame);
     final var prediction = this.conditions
         .get(condition)
@@ -536,6 +577,16 @@ public final class SimulationEngine implements AutoCloseable {
       final var nextCheckTime = Duration.max(expiry.orElse(horizonTime), currentTime.plus(Duration.EPSILON));
       this.scheduledJobs.schedule(JobId.forCondition(condition), SubInstant.Conditions.at(nextCheckTime));
     }
+
+    if (this.observer != null) {
+      final var waitingTask = this.tasks.get(this.waitingTasks.get(condition));
+      if (waitingTask != null) {
+        this.observer.conditionEvaluated(
+            waitingTask.span(),
+            System.nanoTime() - start,
+            frame.cellPointsReplayed() - pointsReplayed);
+      }
+    }
   }
 
   /** Get the current behavior of a given resource and accumulate it into the resource's profile. */
@@ -545,6 +596,8 @@ public final class SimulationEngine implements AutoCloseable {
       final Duration currentTime,
       final ResourceUpdates resourceUpdates) {
     if (this.closed) throw new IllegalStateException("Cannot update resource on closed simulation engine");
+    final var start = (this.observer != null) ? System.nanoTime() : 0L;
+    final var pointsReplayed = frame.cellPointsReplayed();
     final var querier = new EngineQuerier(frame);
     resourceUpdates.add(new ResourceUpdates.ResourceUpdate<>(
         querier,
@@ -558,6 +611,10 @@ public final class SimulationEngine implements AutoCloseable {
     if (expiry.isPresent()) {
       this.scheduledJobs.schedule(JobId.forResource(resourceId), SubInstant.Resources.at(expiry.get()));
     }
+
+    if (this.observer != null) {
+      this.observer.resourceSampled(resourceId, System.nanoTime() - start, frame.cellPointsReplayed() - pointsReplayed);
+    }
   }
 
   /** Resets all tasks (freeing any held resources). The engine should not be used after being closed. */
@@ -1016,6 +1073,9 @@ public final class SimulationEngine implements AutoCloseable {
     private final TaskFrame<JobId> frame;
     private final Set<Topic<?>> referencedTopics = new HashSet<>();
     private Optional<Duration> expiry = Optional.empty();
+    // No events are emitted while querying, so each copy-on-write state only needs to be read once per query.
+    //   Other states are duplicated on every read, since the reader may modify them.
+    private final Map<Query<?>, Object> readCache = new HashMap<>();
 
     public EngineQuerier(final TaskFrame<JobId> frame) {
       this.frame = Objects.requireNonNull(frame);
@@ -1027,14 +1087,17 @@ public final class SimulationEngine implements AutoCloseable {
       @SuppressWarnings("unchecked")
       final var query = ((EngineCellId<?, State>) token);
 
+      // The expiry and topic of a cached state have already been accounted for when it was first read.
+      @SuppressWarnings("unchecked")
+      final var cached = (State) this.readCache.get(query.query());
+      if (cached != null) return cached;
+
       this.expiry = min(this.expiry, this.frame.getExpiry(query.query()));
       this.referencedTopics.add(query.topic());
 
-      // TODO: Cache the state (until the query returns) to avoid unnecessary copies
-      //  if the same state is requested multiple times in a row.
-      final var state$ = this.frame.getState(query.query());
-
-      return state$.orElseThrow(IllegalArgumentException::new);
+      final var state = this.frame.getState(query.query()).orElseThrow(IllegalArgumentException::new);
+      if (query.copyOnWrite()) this.readCache.put(query.query(), state);
+      return state;
     }
 
     private static Optional<Duration> min(final Optional<Duration> a, final Optional<Duration> b) {
@@ -1050,6 +1113,11 @@ public final class SimulationEngine implements AutoCloseable {
     private final SpanId span;
     private final Optional<TaskId> caller;
     private final TaskFrame<JobId> frame;
+    // Copy-on-write states read during this step, by the topic of their cell, until an event is emitted on that topic.
+    //   Other states are duplicated on every read, since the reader may modify them.
+    private final Map<Topic<?>, Map<Query<?>, Object>> readCache = new HashMap<>();
+    // Topics emitted on during this step, in the order they were first emitted on.
+    private final Set<Topic<?>> emittedTopics = new LinkedHashSet<>();
 
     public EngineScheduler(
         final Duration currentTime,
@@ -1069,18 +1137,41 @@ public final class SimulationEngine implements AutoCloseable {
       @SuppressWarnings("unchecked")
       final var query = ((EngineCellId<?, State>) token);
 
-      // TODO: Cache the return value (until the next emit or until the task yields) to avoid unnecessary copies
-      //  if the same state is requested multiple times in a row.
-      final var state$ = this.frame.getState(query.query());
-      return state$.orElseThrow(IllegalArgumentException::new);
+      if (!query.copyOnWrite()) {
+        return this.frame.getState(query.query()).orElseThrow(IllegalArgumentException::new);
+      }
+
+      final var states = this.readCache.computeIfAbsent(query.topic(), $ -> new HashMap<>());
+      @SuppressWarnings("unchecked")
+      final var cached = (State) states.get(query.query());
+      if (cached != null) return cached;
+
+      final var state = this.frame.getState(query.query()).orElseThrow(IllegalArgumentException::new);
+      states.put(query.query(), state);
+      return state;
     }
 
     @Override
     public <EventType> void emit(final EventType event, final Topic<EventType> topic) {
       // Append this event to the timeline.
       this.frame.emit(Event.create(topic, event, this.span));
+      // Each cell listens to a single topic, so only the states of cells on this topic may have changed.
+      this.readCache.remove(topic);
+
+      // Nothing can observe the subscriptions or job schedule until the step ends,
+      //   so invalidating each topic once at the end of the step is equivalent to invalidating it on every emit.
+      SimulationEngine.this.invalidationStatistics.issued.increment();
+      if (this.emittedTopics.add(topic) && SimulationEngine.this.observer != null) {
+        SimulationEngine.this.observer.topicEmitted(this.span, topic);
+      }
+    }
 
-      SimulationEngine.this.invalidateTopic(topic, this.currentTime);
+    /** Invalidate every topic emitted on during this step. */
+    private void invalidateEmittedTopics() {
+      for (final var topic : this.emittedTopics) {
+        SimulationEngine.this.invalidateTopic(topic, this.currentTime);
+      }
+      this.emittedTopics.clear();
     }
 
     @Override
@@ -1093,6 +1184,9 @@ public final class SimulationEngine implements AutoCloseable {
           final var freshSpan = SpanId.generate();
           SimulationEngine.this.spans.put(freshSpan, new Span(Optional.of(this.span), currentTime, Optional.empty()));
           SimulationEngine.this.spanContributorCount.put(freshSpan, new MutableInt(1));
+          if (SimulationEngine.this.observer != null) {
+            SimulationEngine.this.observer.spanOpened(freshSpan, Optional.of(this.span), false);
+          }
           yield freshSpan;
         }
       };
@@ -1178,6 +1272,49 @@ public final class SimulationEngine implements AutoCloseable {
     return new SimulationEngine(this);
   }
 
+  /**
+   * Attach an observer to be notified of the jobs performed by this engine,
+   * and by every engine subsequently duplicated from it. Pass null to detach the current observer.
+   * Cell catch-ups are profiled exactly while an observer is attached, with the same scope.
+   */
+  public void setObserver(final EngineObserver observer) {
+    this.observer = observer;
+    this.cells.setCatchUpProfiling(observer != null);
+  }
+
+  /**
+   * Set how many layers of duplicated engines may pass between retained copies of a cell, for cells caught up by this
+   * engine and by every engine subsequently duplicated from it; see {@link LiveCells}.
+   */
+  public void setCellSnapshotInterval(final int cellSnapshotInterval) {
+    this.cells.setSnapshotInterval(cellSnapshotInterval);
+  }
+
+  /** Get the statistics on catching cells up to the timeline, shared by this engine and all engines related to it. */
+  public LiveCells.CatchUpMetrics getCellCatchUpMetrics() {
+    return this.cells.getCatchUpMetrics();
+  }
+
+  /** Get the statistics on topic invalidations, shared by this engine and all engines duplicated from it. */
+  public InvalidationMetrics getInvalidationMetrics() {
+    return this.invalidationStatistics.snapshot();
+  }
+
+  /**
+   * @param issued the number of events emitted by tasks, each of which requires its topic to be invalidated.
+   * @param performed the number of topic invalidations actually performed, after de-duplicating them within each step.
+   */
+  public record InvalidationMetrics(long issued, long performed) {}
+
+  private static final class InvalidationStatistics {
+    private final LongAdder issued = new LongAdder();
+    private final LongAdder performed = new LongAdder();
+
+    InvalidationMetrics snapshot() {
+      return new InvalidationMetrics(this.issued.sum(), this.performed.sum());
+    }
+  }
+
   public Optional<Duration> peekNextTime() {
     return this.scheduledJobs.peekNextTime();
   }
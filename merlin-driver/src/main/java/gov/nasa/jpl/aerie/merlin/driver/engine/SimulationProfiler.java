@@ -0,0 +1,182 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import gov.nasa.jpl.aerie.merlin.driver.MissionModel.SerializableTopic;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.LiveCells;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An {@link EngineObserver} which totals the work done by each component of a mission model.
+ *
+ * <p>
+ * Task steps are attributed to the activity type of the innermost activity containing the task,
+ * identified by the activity's input event, or to daemon tasks otherwise.
+ * Condition evaluations are attributed in the same way to the task awaiting the condition,
+ * and resource samples to the resource's name.
+ * Each component is also charged for the points replayed to catch up the cells it queried.
+ * </p>
+ *
+ * <p>
+ * Profiling is enabled by setting this class's logger to the DEBUG level.
+ * </p>
+ */
+public final class SimulationProfiler implements EngineObserver {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SimulationProfiler.class);
+
+  private static final String ACTIVITY_INPUT_PREFIX = "ActivityType.Input.";
+  static final String DAEMON_LABEL = "(daemon)";
+  static final String UNATTRIBUTED_LABEL = "(unattributed)";
+
+  public enum Category { Tasks, Conditions, Resources }
+
+  private final Map<Topic<?>, String> activityInputTopics = new HashMap<>();
+  private final Map<SpanId, String> spanLabels = new ConcurrentHashMap<>();
+  private final Map<Category, Map<String, Statistics>> statistics = new EnumMap<>(Category.class);
+
+  public SimulationProfiler(final Iterable<SerializableTopic<?>> topics) {
+    for (final var topic : topics) {
+      if (topic.name().startsWith(ACTIVITY_INPUT_PREFIX)) {
+        this.activityInputTopics.put(topic.topic(), topic.name().substring(ACTIVITY_INPUT_PREFIX.length()));
+      }
+    }
+    for (final var category : Category.values()) {
+      this.statistics.put(category, new ConcurrentHashMap<>());
+    }
+  }
+
+  /** Attach a new profiler to the given engine, if profiling is enabled. */
+  public static Optional<SimulationProfiler> attachIfEnabled(
+      final SimulationEngine engine,
+      final Iterable<SerializableTopic<?>> topics)
+  {
+    if (!LOGGER.isDebugEnabled()) return Optional.empty();
+    final var profiler = new SimulationProfiler(topics);
+    engine.setObserver(profiler);
+    return Optional.of(profiler);
+  }
+
+  @Override
+  public void spanOpened(final SpanId span, final Optional<SpanId> parent, final boolean daemon) {
+    final var label = daemon
+        ? DAEMON_LABEL
+        : parent.map(this.spanLabels::get).orElse(UNATTRIBUTED_LABEL);
+    this.spanLabels.put(span, label);
+  }
+
+  @Override
+  public void spanClosed(final SpanId span) {
+    this.spanLabels.remove(span);
+  }
+
+  @Override
+  public void topicEmitted(final SpanId span, final Topic<?> topic) {
+    final var activityType = this.activityInputTopics.get(topic);
+    if (activityType != null) this.spanLabels.put(span, activityType);
+  }
+
+  @Override
+  public void taskStepped(final SpanId span, final long nanos, final long cellPointsReplayed) {
+    record(Category.Tasks, labelOf(span), nanos, cellPointsReplayed);
+  }
+
+  @Override
+  public void conditionEvaluated(final SpanId waitingSpan, final long nanos, final long cellPointsReplayed) {
+    record(Category.Conditions, labelOf(waitingSpan), nanos, cellPointsReplayed);
+  }
+
+  @Override
+  public void resourceSampled(final ResourceId resource, final long nanos, final long cellPointsReplayed) {
+    record(Category.Resources, resource.id(), nanos, cellPointsReplayed);
+  }
+
+  private String labelOf(final SpanId span) {
+    return this.spanLabels.getOrDefault(span, UNATTRIBUTED_LABEL);
+  }
+
+  private void record(final Category category, final String label, final long nanos, final long cellPointsReplayed) {
+    final var stats = this.statistics.get(category).computeIfAbsent(label, $ -> new Statistics());
+    stats.count.increment();
+    stats.nanos.add(nanos);
+    stats.cellPointsReplayed.add(cellPointsReplayed);
+  }
+
+  /*package-local*/ int openSpans() {
+    return this.spanLabels.size();
+  }
+
+  /** Summarize the work observed so far, together with the engine's cell catch-up statistics. */
+  public Report report(final LiveCells.CatchUpMetrics catchUps) {
+    final var entries = new EnumMap<Category, List<Entry>>(Category.class);
+    for (final var category : this.statistics.entrySet()) {
+      final var list = new ArrayList<Entry>();
+      category.getValue().forEach((label, stats) -> list.add(
+          new Entry(label, stats.count.sum(), stats.nanos.sum(), stats.cellPointsReplayed.sum())));
+      list.sort(Comparator.comparingLong(Entry::nanos).reversed());
+      entries.put(category.getKey(), List.copyOf(list));
+    }
+    return new Report(entries, catchUps);
+  }
+
+  /** Log a report of the work done by the given engine, and every engine sharing this profiler. */
+  public void log(final SimulationEngine engine) {
+    LOGGER.debug("Simulation profile:\n{}", report(engine.getCellCatchUpMetrics()).format());
+  }
+
+  /** Log a report of the work done by the given engine, then stop profiling it. */
+  public void finish(final SimulationEngine engine) {
+    log(engine);
+    engine.setObserver(null);
+  }
+
+  private static final class Statistics {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder cellPointsReplayed = new LongAdder();
+  }
+
+  /** The number of times a model component did work, the wall time it took, and the cell catch-up work it caused. */
+  public record Entry(String label, long count, long nanos, long cellPointsReplayed) {}
+
+  /**
+   * @param entries the work done by each model component, in descending order of time taken.
+   * @param catchUps the statistics on catching cells up to the timeline, over the same period.
+   */
+  public record Report(Map<Category, List<Entry>> entries, LiveCells.CatchUpMetrics catchUps) {
+    private static final int MAX_ENTRIES_PER_CATEGORY = 20;
+
+    /** Render this report as a human-readable table per category, showing the most expensive entries. */
+    public String format() {
+      final var builder = new StringBuilder();
+      for (final var category : this.entries.entrySet()) {
+        final var list = category.getValue();
+        if (list.isEmpty()) continue;
+        final var totalNanos = list.stream().mapToLong(Entry::nanos).sum();
+        builder.append("%s (%d ms total):%n".formatted(category.getKey(), totalNanos / 1_000_000));
+        for (final var entry : list.subList(0, Math.min(list.size(), MAX_ENTRIES_PER_CATEGORY))) {
+          builder.append("  %-50s %10d calls %10.1f ms %5.1f%% %12d cell points replayed%n".formatted(
+              entry.label(),
+              entry.count(),
+              entry.nanos() / 1e6,
+              (totalNanos == 0) ? 0.0 : 100.0 * entry.nanos() / totalNanos,
+              entry.cellPointsReplayed()));
+        }
+        if (list.size() > MAX_ENTRIES_PER_CATEGORY) {
+          builder.append("  ... and %d more%n".formatted(list.size() - MAX_ENTRIES_PER_CATEGORY));
+        }
+      }
+      builder.append("Cell catch-ups: %s".formatted(this.catchUps));
+      return builder.toString();
+    }
+  }
+}
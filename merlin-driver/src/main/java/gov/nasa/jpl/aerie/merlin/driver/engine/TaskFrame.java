@@ -7,6 +7,7 @@ import gov.nasa.jpl.aerie.merlin.driver.timeline.LiveCells;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.Query;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -29,39 +30,92 @@ public final class TaskFrame<Job> {
   private LiveCells previousCells;
   private LiveCells cells;
 
+  // The catch-up work done to answer this frame's cell queries, while its cells are profiled.
+  private final LiveCells.CatchUpCounter catchUps = new LiveCells.CatchUpCounter();
+
   private TaskFrame(final LiveCells context) {
     this.previousCells = context;
     this.cells = new LiveCells(this.tip, this.previousCells);
   }
 
-  // Perform a job, then recursively perform any jobs it spawned.
+  // Perform a job, then perform any jobs it spawned, depth-first from the most recently spawned.
   // Spawned jobs can see any events their parent emitted prior to the job,
   //   so when we accumulate the branches' events back up, we need to make sure to interleave
   //   the shared segments of the parent's history correctly. The diagram at the top of this class
   //   illustrates the idea.
+  // Frames are kept on an explicit stack rather than the call stack, since a job may spawn arbitrarily deep chains of
+  //   jobs within a single instant.
   public static <Job>
   EventGraph<Event> run(final Job job, final LiveCells context, final BiConsumer<Job, TaskFrame<Job>> executor) {
-    final var frame = new TaskFrame<Job>(context);
-    executor.accept(job, frame);
+    final var stack = new ArrayDeque<PendingFrame<Job>>();
+    stack.push(PendingFrame.start(job, context, executor));
+
+    while (true) {
+      final var top = stack.peek();
+      if (top.remainingBranches > 0) {
+        top.remainingBranches -= 1;
+        final var branch = top.frame.branches.get(top.remainingBranches);
+        stack.push(PendingFrame.start(branch.job, branch.context, executor));
+        continue;
+      }
+
+      stack.pop();
+      final var events = top.finish();
+      if (stack.isEmpty()) return events;
+
+      final var parent = stack.peek();
+      parent.addBranchEvents(parent.frame.branches.get(parent.remainingBranches).base, events);
+    }
+  }
+
+  /** A frame whose job has been performed, but some of whose branches have not yet been. */
+  private static final class PendingFrame<Job> {
+    private final TaskFrame<Job> frame;
+    private int remainingBranches;
 
-    var tip = frame.tip.commit(EventGraph.empty());
-    for (var i = frame.branches.size(); i > 0; i -= 1) {
-      final var branch = frame.branches.get(i - 1);
+    // The events of this frame since the base of the next branch to be accumulated, as concurrent segments.
+    // Consecutive branches with no events between them are combined into one balanced graph,
+    //   so that a job spawning many children at once doesn't produce a graph nested once per child.
+    private final List<EventGraph<Event>> concurrentEvents = new ArrayList<>();
 
-      final var branchEvents = run(branch.job, branch.context, executor);
-      tip = branch.base.commit(EventGraph.concurrently(tip, branchEvents));
+    private PendingFrame(final TaskFrame<Job> frame) {
+      this.frame = frame;
+      this.remainingBranches = frame.branches.size();
+      this.concurrentEvents.add(frame.tip.commit(EventGraph.empty()));
     }
 
-    return tip;
-  }
+    static <Job> PendingFrame<Job>
+    start(final Job job, final LiveCells context, final BiConsumer<Job, TaskFrame<Job>> executor) {
+      final var frame = new TaskFrame<Job>(context);
+      executor.accept(job, frame);
+      return new PendingFrame<>(frame);
+    }
 
+    void addBranchEvents(final CausalEventSource base, final EventGraph<Event> events) {
+      this.concurrentEvents.add(events);
+      if (base.isEmpty()) return;
+
+      final var tip = base.commit(EventGraph.concurrentlyBalanced(this.concurrentEvents));
+      this.concurrentEvents.clear();
+      this.concurrentEvents.add(tip);
+    }
+
+    EventGraph<Event> finish() {
+      return EventGraph.concurrentlyBalanced(this.concurrentEvents);
+    }
+  }
 
   public <State> Optional<State> getState(final Query<State> query) {
-    return this.cells.getState(query);
+    return this.cells.getState(query, this.catchUps);
   }
 
   public Optional<Duration> getExpiry(final Query<?> query) {
-    return this.cells.getExpiry(query);
+    return this.cells.getExpiry(query, this.catchUps);
+  }
+
+  /** Get the number of points replayed onto cells to answer this frame's queries, while its cells are profiled. */
+  public long cellPointsReplayed() {
+    return this.catchUps.pointsReplayed();
   }
 
   public void emit(final Event event) {
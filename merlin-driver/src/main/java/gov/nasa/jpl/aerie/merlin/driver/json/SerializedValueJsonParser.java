@@ -1,5 +1,6 @@
 package gov.nasa.jpl.aerie.merlin.driver.json;
 
+import gov.nasa.jpl.aerie.json.JsonEventStream;
 import gov.nasa.jpl.aerie.json.JsonParseResult;
 import gov.nasa.jpl.aerie.json.JsonParser;
 import gov.nasa.jpl.aerie.json.SchemaCache;
@@ -11,6 +12,8 @@ import javax.json.JsonNumber;
 import javax.json.JsonObject;
 import javax.json.JsonString;
 import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser.Event;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -52,6 +55,85 @@ public final class SerializedValueJsonParser implements JsonParser<SerializedVal
     };
   }
 
+  @Override
+  public JsonParseResult<SerializedValue> parseFrom(final JsonEventStream events) {
+    return JsonParseResult.success(this.parseInfallible(events));
+  }
+
+  private SerializedValue parseInfallible(final JsonEventStream events) {
+    return switch (events.current()) {
+      case VALUE_NULL -> SerializedValue.NULL;
+      case VALUE_TRUE -> SerializedValue.of(true);
+      case VALUE_FALSE -> SerializedValue.of(false);
+      case VALUE_STRING -> SerializedValue.of(events.getString());
+      case VALUE_NUMBER -> SerializedValue.of(events.getBigDecimal());
+      case START_ARRAY -> {
+        final var list = new ArrayList<SerializedValue>();
+        while (events.next() != Event.END_ARRAY) list.add(this.parseInfallible(events));
+        yield SerializedValue.of(list);
+      }
+      case START_OBJECT -> {
+        final var map = new HashMap<String, SerializedValue>();
+        while (events.next() != Event.END_OBJECT) {
+          final var key = events.getString();
+          events.next();
+          map.put(key, this.parseInfallible(events));
+        }
+        yield SerializedValue.of(map);
+      }
+      case KEY_NAME, END_ARRAY, END_OBJECT -> throw new IllegalStateException(
+          "Expected the start of a JSON value, but found " + events.current());
+    };
+  }
+
+  @Override
+  public void unparseTo(final SerializedValue value, final JsonGenerator generator) {
+    value.match(new SerializedValue.Visitor<Void>() {
+      @Override
+      public Void onNull() {
+        generator.writeNull();
+        return null;
+      }
+
+      @Override
+      public Void onBoolean(final boolean value) {
+        generator.write(value);
+        return null;
+      }
+
+      @Override
+      public Void onNumeric(final BigDecimal value) {
+        generator.write(value);
+        return null;
+      }
+
+      @Override
+      public Void onString(final String value) {
+        generator.write(value);
+        return null;
+      }
+
+      @Override
+      public Void onList(final List<SerializedValue> elements) {
+        generator.writeStartArray();
+        for (final var element : elements) element.match(this);
+        generator.writeEnd();
+        return null;
+      }
+
+      @Override
+      public Void onMap(final Map<String, SerializedValue> fields) {
+        generator.writeStartObject();
+        for (final var entry : fields.entrySet()) {
+          generator.writeKey(entry.getKey());
+          entry.getValue().match(this);
+        }
+        generator.writeEnd();
+        return null;
+      }
+    });
+  }
+
   @Override
   public JsonValue unparse(final SerializedValue value) {
     return value.match(new SerializedValue.Visitor<>() {
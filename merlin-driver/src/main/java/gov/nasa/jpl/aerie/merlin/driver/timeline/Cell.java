@@ -11,11 +11,18 @@ import java.util.Set;
 /** Binds the state of a cell together with its dynamical behavior. */
 public final class Cell<State> {
   private final GenericCell<?, State> inner;
-  private final State state;
+  private State state;
 
-  private <Effect> Cell(final GenericCell<Effect, State> inner, final State state) {
+  /**
+   * Whether the state may be referenced from outside this cell, in which case it must be duplicated before it is next
+   * modified. Only ever set for copy-on-write cell types.
+   */
+  private boolean shared;
+
+  private <Effect> Cell(final GenericCell<Effect, State> inner, final State state, final boolean shared) {
     this.inner = inner;
     this.state = state;
+    this.shared = shared;
   }
 
   public <Effect> Cell(
@@ -24,37 +31,64 @@ public final class Cell<State> {
       final EventGraphEvaluator evaluator,
       final State state
   ) {
-    this(new GenericCell<>(cellType, cellType.getEffectType(), selector, evaluator), state);
+    this(new GenericCell<>(cellType, cellType.getEffectType(), selector, evaluator), state, false);
   }
 
   public Cell<State> duplicate() {
-    return new Cell<>(this.inner, this.inner.cellType.duplicate(this.state));
+    if (this.inner.cellType.isCopyOnWrite()) {
+      // both cells share the state until either of them modifies it
+      this.shared = true;
+      return new Cell<>(this.inner, this.state, true);
+    }
+    return new Cell<>(this.inner, this.inner.cellType.duplicate(this.state), false);
   }
 
   public void step(final Duration delta) {
-    this.inner.cellType.step(this.state, delta);
+    this.inner.cellType.step(this.ownedState(), delta);
   }
 
   public void apply(final EventGraph<Event> events) {
-    this.inner.apply(this.state, events);
+    this.inner.apply(this.ownedState(), events);
   }
 
   public void apply(final Event event) {
-    this.inner.apply(this.state, event);
+    this.inner.apply(this.ownedState(), event);
   }
 
   public void apply(final Event[] events, final int from, final int to) {
-    this.inner.apply(this.state, events, from, to);
+    this.inner.apply(this.ownedState(), events, from, to);
   }
 
   public Optional<Duration> getExpiry() {
     return this.inner.cellType.getExpiry(this.state);
   }
 
+  /**
+   * Get a snapshot of the state of this cell, which will not observe any later change to the cell.
+   *
+   * The snapshot must not be modified by the caller: for copy-on-write cell types it is the cell's own state.
+   */
   public State getState() {
+    if (this.inner.cellType.isCopyOnWrite()) {
+      this.shared = true;
+      return this.state;
+    }
     return this.inner.cellType.duplicate(this.state);
   }
 
+  /** Get the state of this cell for modification, first duplicating it if it may be referenced elsewhere. */
+  private State ownedState() {
+    if (this.shared) {
+      this.state = this.inner.cellType.duplicate(this.state);
+      this.shared = false;
+    }
+    return this.state;
+  }
+
+  public Selector<?> getSelector() {
+    return this.inner.selector;
+  }
+
   public boolean isInterestedIn(final Set<Topic<?>> topics) {
     return this.inner.selector.matchesAny(topics);
   }
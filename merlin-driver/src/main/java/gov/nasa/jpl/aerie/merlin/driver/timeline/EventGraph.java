@@ -2,6 +2,7 @@ package gov.nasa.jpl.aerie.merlin.driver.timeline;
 
 import gov.nasa.jpl.aerie.merlin.protocol.model.EffectTrait;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -167,6 +168,31 @@ public sealed interface EventGraph<Event> extends EffectExpression<Event> {
     return acc;
   }
 
+  /**
+   * Create an event graph by combining multiple event graphs of the same type in parallel, as a balanced tree.
+   *
+   * <p>
+   * The result is observationally equivalent to {@link #concurrently(Collection)}, but its depth grows only
+   * logarithmically in the number of branches, so it can be traversed recursively even when there are very many.
+   * </p>
+   *
+   * @param branches A set of event graphs to combine in parallel.
+   * @param <Event> The type of atomic event contained by these graphs.
+   * @return An event graph consisting of a set of concurrent subgraphs.
+   */
+  static <Event> EventGraph<Event> concurrentlyBalanced(final List<EventGraph<Event>> branches) {
+    if (branches.isEmpty()) return EventGraph.empty();
+
+    var level = branches;
+    while (level.size() > 1) {
+      final var next = new ArrayList<EventGraph<Event>>((level.size() + 1) / 2);
+      for (var i = 0; i + 1 < level.size(); i += 2) next.add(concurrently(level.get(i), level.get(i + 1)));
+      if (level.size() % 2 == 1) next.add(level.getLast());
+      level = next;
+    }
+    return level.getFirst();
+  }
+
   /**
    * Create an event graph by combining multiple event graphs of the same type in sequence.
    *
@@ -6,6 +6,11 @@ public interface EventSource {
   void freeze();
 
   interface Cursor {
-    void stepUp(Cell<?> cell);
+    /**
+     * Apply every point added to the source since this cursor last stepped up.
+     *
+     * @return the number of points applied to the cell.
+     */
+    int stepUp(Cell<?> cell);
   }
 }
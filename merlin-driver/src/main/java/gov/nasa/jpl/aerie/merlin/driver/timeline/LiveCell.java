@@ -13,4 +13,18 @@ public final class LiveCell<State> {
     this.cursor.stepUp(this.cell);
     return this.cell;
   }
+
+  /**
+   * Bring the cell up to date with its event source without retrieving it.
+   *
+   * @return the number of points replayed onto the cell.
+   */
+  /*package-local*/ int catchUp() {
+    return this.cursor.stepUp(this.cell);
+  }
+
+  /** Get the cell in whatever state it was last caught up to. */
+  /*package-local*/ Cell<State> peek() {
+    return this.cell;
+  }
 }
@@ -2,32 +2,72 @@ package gov.nasa.jpl.aerie.merlin.driver.timeline;
 
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * A set of cells kept up to date with an event source, layered on top of a parent set of cells.
+ *
+ * <p>
+ * A cell which has not yet been queried at this layer is obtained by copying it from the nearest ancestor layer that
+ * holds it, then replaying the event source of every layer in between onto the copy. Each intermediate layer whose
+ * depth is a multiple of the snapshot interval retains a copy of the cell at its own position, so that later queries
+ * from sibling layers can start their catch-up from that snapshot. An interval of 1 retains a copy at every layer;
+ * larger intervals hold fewer copies of each cell across deep chains (such as an engine duplicated at every
+ * checkpoint), at the cost of replaying up to {@code interval - 1} more layers when a later query misses.
+ * </p>
+ *
+ * <p>
+ * Catch-up statistics are only collected by layers with profiling enabled, so that reading a cell costs nothing extra.
+ * A new layer is profiled if its parent was profiled when the layer was created.
+ * </p>
+ */
 public final class LiveCells {
+  public static final int DEFAULT_SNAPSHOT_INTERVAL = 1;
+  public static final int MAX_SNAPSHOT_INTERVAL = 64;
+
   // INVARIANT: Every Query<T> maps to a LiveCell<T>; that is, the type parameters are correlated.
   private final Map<Query<?>, LiveCell<?>> cells = new HashMap<>();
   private final EventSource source;
   private final LiveCells parent;
+  private final int depth;
+  private final CatchUpStatistics statistics;
+  private int snapshotInterval;
+  private boolean profiled;
 
   public LiveCells(final EventSource source) {
-    this.source = source;
-    this.parent = null;
+    this(source, null);
   }
 
   public LiveCells(final EventSource source, final LiveCells parent) {
     this.source = source;
     this.parent = parent;
+    this.depth = (parent == null) ? 0 : parent.depth + 1;
+    this.snapshotInterval = (parent == null) ? DEFAULT_SNAPSHOT_INTERVAL : parent.snapshotInterval;
+    this.statistics = (parent == null) ? new CatchUpStatistics() : parent.statistics;
+    this.profiled = (parent != null) && parent.profiled;
   }
 
   public <State> Optional<State> getState(final Query<State> query) {
-    return getCell(query).map(Cell::getState);
+    return getState(query, null);
+  }
+
+  /** Get the state of a cell, adding the points replayed to catch it up to the given counter while profiling. */
+  public <State> Optional<State> getState(final Query<State> query, final CatchUpCounter counter) {
+    return getCell(query, counter).map(Cell::getState);
   }
 
   public Optional<Duration> getExpiry(final Query<?> query) {
-    return getCell(query).flatMap(Cell::getExpiry);
+    return getExpiry(query, null);
+  }
+
+  /** Get the expiry of a cell, adding the points replayed to catch it up to the given counter while profiling. */
+  public Optional<Duration> getExpiry(final Query<?> query, final CatchUpCounter counter) {
+    return getCell(query, counter).flatMap(Cell::getExpiry);
   }
 
   public <State> void put(final Query<State> query, final Cell<State> cell) {
@@ -35,31 +75,172 @@ public final class LiveCells {
     this.cells.put(query, new LiveCell<>(cell, this.source.cursor()));
   }
 
-  private <State> Optional<Cell<State>> getCell(final Query<State> query) {
+  /** Get the catch-up statistics accumulated by this set of cells and every set sharing its root. */
+  public CatchUpMetrics getCatchUpMetrics() {
+    return this.statistics.snapshot();
+  }
+
+  /**
+   * Collect catch-up statistics, including their wall time, for queries made at this layer
+   * and at every layer subsequently created below it.
+   */
+  public void setCatchUpProfiling(final boolean enabled) {
+    this.profiled = enabled;
+  }
+
+  /**
+   * Set how many layers may pass between retained copies of a cell caught up by queries at this layer,
+   * and at every layer subsequently created below it.
+   */
+  public void setSnapshotInterval(final int snapshotInterval) {
+    if (snapshotInterval < 1 || snapshotInterval > MAX_SNAPSHOT_INTERVAL) {
+      throw new IllegalArgumentException(
+          "snapshotInterval must be between 1 and %d, got %d".formatted(MAX_SNAPSHOT_INTERVAL, snapshotInterval));
+    }
+    this.snapshotInterval = snapshotInterval;
+  }
+
+  private <State> Optional<Cell<State>> getCell(final Query<State> query, final CatchUpCounter counter) {
+    if (!this.profiled) return findCell(query, counter);
+
+    final var start = System.nanoTime();
+    try {
+      return findCell(query, counter);
+    } finally {
+      this.statistics.nanos.add(System.nanoTime() - start);
+    }
+  }
+
+  private <State> Optional<Cell<State>> findCell(final Query<State> query, final CatchUpCounter counter) {
     // First, check if we have this cell already.
     {
       // SAFETY: By the invariant, if there is an entry for this query, it is of type Cell<State>.
       @SuppressWarnings("unchecked")
       final var cell = (LiveCell<State>) this.cells.get(query);
 
-      if (cell != null) return Optional.of(cell.get());
+      if (cell != null) {
+        record(cell.catchUp(), 0, 0, counter);
+        return Optional.of(cell.peek());
+      }
+    }
+
+    // Otherwise, find the nearest ancestor holding the cell, remembering the layers in between.
+    final var skippedLayers = new ArrayList<LiveCells>();
+    LiveCell<State> snapshot = null;
+    for (var ancestor = this.parent; ancestor != null; ancestor = ancestor.parent) {
+      // SAFETY: By the invariant, if there is an entry for this query, it is of type Cell<State>.
+      @SuppressWarnings("unchecked")
+      final var cell = (LiveCell<State>) ancestor.cells.get(query);
+      if (cell != null) {
+        snapshot = cell;
+        break;
+      }
+      skippedLayers.add(ancestor);
     }
+    if (snapshot == null) return Optional.empty();
 
-    // Otherwise, go ask our parent for the cell.
-    if (this.parent == null) return Optional.empty();
-    final var cell$ = this.parent.getCell(query);
-    if (cell$.isEmpty()) return Optional.empty();
+    // Replay each skipped layer onto a single copy of the snapshot, oldest layer first.
+    var replayed = snapshot.catchUp();
+    var copies = 0;
+    var cell = snapshot.peek().duplicate();
+    for (var i = skippedLayers.size(); i > 0; i -= 1) {
+      final var layer = skippedLayers.get(i - 1);
+      final var liveCell = new LiveCell<>(cell, layer.source.cursor());
+      replayed += liveCell.catchUp();
 
-    final var cell = new LiveCell<>(cell$.get().duplicate(), this.source.cursor());
+      if (layer.depth % this.snapshotInterval == 0) {
+        // SAFETY: The query and cell share the same State type parameter.
+        layer.cells.put(query, liveCell);
+        cell = cell.duplicate();
+        copies += 1;
+      }
+    }
+
+    final var liveCell = new LiveCell<>(cell, this.source.cursor());
+    replayed += liveCell.catchUp();
 
     // SAFETY: The query and cell share the same State type parameter.
-    this.cells.put(query, cell);
+    this.cells.put(query, liveCell);
+    record(replayed, skippedLayers.size() + 1, copies, counter);
+
+    return Optional.of(liveCell.peek());
+  }
 
-    return Optional.of(cell.get());
+  private void record(final int points, final int layers, final int copies, final CatchUpCounter counter) {
+    if (!this.profiled) return;
+    this.statistics.record(points, layers, copies);
+    if (counter != null) counter.pointsReplayed += points;
   }
 
   public void freeze() {
-    if (this.parent != null) this.parent.freeze();
-    this.source.freeze();
+    for (var layer = this; layer != null; layer = layer.parent) layer.source.freeze();
+  }
+
+  /**
+   * Statistics on answering cell queries, while profiling was enabled.
+   *
+   * @param queries the number of cell queries answered.
+   * @param misses the number of queries for a cell which had to be copied from an ancestor layer.
+   * @param layersReplayed the number of layers replayed onto copied cells.
+   * @param snapshotsRetained the number of copies of cells retained by intermediate layers as snapshots.
+   * @param pointsReplayed the number of time-points (or events) replayed onto cells to answer queries.
+   * @param maxPointsReplayed the largest number of points replayed to answer a single query.
+   * @param nanos the wall time spent answering queries.
+   */
+  public record CatchUpMetrics(
+      long queries,
+      long misses,
+      long layersReplayed,
+      long snapshotsRetained,
+      long pointsReplayed,
+      long maxPointsReplayed,
+      long nanos
+  ) {
+    public double meanPointsReplayed() {
+      return (queries == 0) ? 0 : (double) pointsReplayed / queries;
+    }
+  }
+
+  /** Counts the points replayed to answer the cell queries of a single consumer, such as a job. Not thread-safe. */
+  public static final class CatchUpCounter {
+    private long pointsReplayed = 0;
+
+    public long pointsReplayed() {
+      return this.pointsReplayed;
+    }
+  }
+
+  private static final class CatchUpStatistics {
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder layersReplayed = new LongAdder();
+    private final LongAdder snapshotsRetained = new LongAdder();
+    private final LongAdder pointsReplayed = new LongAdder();
+    private final LongAccumulator maxPointsReplayed = new LongAccumulator(Math::max, 0);
+    private final LongAdder nanos = new LongAdder();
+
+    void record(final int points, final int layers, final int copies) {
+      this.queries.increment();
+      if (layers > 0) {
+        this.misses.increment();
+        this.layersReplayed.add(layers);
+        this.snapshotsRetained.add(copies);
+      }
+      if (points > 0) {
+        this.pointsReplayed.add(points);
+        this.maxPointsReplayed.accumulate(points);
+      }
+    }
+
+    CatchUpMetrics snapshot() {
+      return new CatchUpMetrics(
+          this.queries.sum(),
+          this.misses.sum(),
+          this.layersReplayed.sum(),
+          this.snapshotsRetained.sum(),
+          this.pointsReplayed.sum(),
+          this.maxPointsReplayed.get(),
+          this.nanos.sum());
+    }
   }
 }
@@ -3,10 +3,14 @@ package gov.nasa.jpl.aerie.merlin.driver.timeline;
 import gov.nasa.jpl.aerie.merlin.driver.engine.SlabList;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 
 import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.BinaryOperator;
 
 public record TemporalEventSource(SlabList<TimePoint> points) implements EventSource, Iterable<TemporalEventSource.TimePoint> {
   public TemporalEventSource() {
@@ -39,18 +43,21 @@ public record TemporalEventSource(SlabList<TimePoint> points) implements EventSo
     private TemporalCursor() {}
 
     @Override
-    public void stepUp(final Cell<?> cell) {
+    public int stepUp(final Cell<?> cell) {
+      var stepped = 0;
       while (this.iterator.hasNext()) {
         final var point = this.iterator.next();
+        stepped += 1;
 
         if (point instanceof TimePoint.Delta p) {
           cell.step(p.delta());
         } else if (point instanceof TimePoint.Commit p) {
-          if (cell.isInterestedIn(p.topics())) cell.apply(p.events());
+          if (cell.isInterestedIn(p.topics())) cell.apply(p.eventsFor(cell.getSelector()));
         } else {
           throw new IllegalStateException();
         }
       }
+      return stepped;
     }
   }
 
@@ -84,9 +91,123 @@ public record TemporalEventSource(SlabList<TimePoint> points) implements EventSo
 
   public sealed interface TimePoint {
     record Delta(Duration delta) implements TimePoint {}
-    record Commit(EventGraph<Event> events, Set<Topic<?>> topics) implements TimePoint {}
+
+    /**
+     * A batch of events committed at a single instant.
+     *
+     * <p>
+     * Besides the full event graph, a commit lazily indexes the sub-graph of events on each of its topics, so that a
+     * cell interested in a single topic only evaluates the events it can actually observe rather than walking every
+     * event of the commit. The index is built on first use and then shared by every cell (and every duplicated engine)
+     * that steps over this commit.
+     * </p>
+     */
+    final class Commit implements TimePoint {
+      private final EventGraph<Event> events;
+      private final Set<Topic<?>> topics;
+
+      // Lazily populated; racing initializations compute equal indices, so the last write winning is harmless.
+      private volatile Map<Topic<?>, EventGraph<Event>> eventsByTopic = null;
+
+      public Commit(final EventGraph<Event> events, final Set<Topic<?>> topics) {
+        this.events = Objects.requireNonNull(events);
+        this.topics = Objects.requireNonNull(topics);
+      }
+
+      public EventGraph<Event> events() {
+        return this.events;
+      }
+
+      public Set<Topic<?>> topics() {
+        return this.topics;
+      }
+
+      /**
+       * Get the sub-graph of this commit's events which occur on the given topic.
+       *
+       * The sequential and concurrent relationships between the retained events are the same as in the full graph.
+       */
+      public EventGraph<Event> eventsOn(final Topic<?> topic) {
+        if (!this.topics.contains(topic)) return EventGraph.empty();
+        if (this.topics.size() == 1) return this.events;
+
+        var index = this.eventsByTopic;
+        if (index == null) this.eventsByTopic = index = indexByTopic(this.events);
+        return index.getOrDefault(topic, EventGraph.empty());
+      }
+
+      /** Get the smallest sub-graph of this commit's events that can be observed through the given selector. */
+      public EventGraph<Event> eventsFor(final Selector<?> selector) {
+        // Events on several topics must stay interleaved in their original order, so only single-topic selectors
+        // (which are by far the most common) can use the per-topic index.
+        if (selector.rows().length != 1) return this.events;
+        return this.eventsOn(selector.rows()[0].topic());
+      }
+
+      @Override
+      public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Commit other)) return false;
+        return this.events.equals(other.events) && this.topics.equals(other.topics);
+      }
+
+      @Override
+      public int hashCode() {
+        return Objects.hash(this.events, this.topics);
+      }
+
+      @Override
+      public String toString() {
+        return "Commit[events=%s, topics=%s]".formatted(this.events, this.topics);
+      }
+    }
+  }
+
+  /**
+   * Partition an event graph by topic, preserving the structure between events of the same topic.
+   * Subgraphs whose events all share one topic are reused as-is rather than rebuilt.
+   */
+  private static Map<Topic<?>, EventGraph<Event>> indexByTopic(final EventGraph<Event> graph) {
+    if (graph instanceof EventGraph.Empty) {
+      return Map.of();
+    } else if (graph instanceof EventGraph.Atom<Event> g) {
+      return Map.of(g.atom().topic(), graph);
+    } else if (graph instanceof EventGraph.Sequentially<Event> g) {
+      return mergeIndices(graph, indexByTopic(g.prefix()), indexByTopic(g.suffix()), EventGraph::sequentially);
+    } else if (graph instanceof EventGraph.Concurrently<Event> g) {
+      return mergeIndices(graph, indexByTopic(g.left()), indexByTopic(g.right()), EventGraph::concurrently);
+    } else {
+      throw new IllegalArgumentException();
+    }
   }
 
+  private static Map<Topic<?>, EventGraph<Event>> mergeIndices(
+      final EventGraph<Event> graph,
+      final Map<Topic<?>, EventGraph<Event>> left,
+      final Map<Topic<?>, EventGraph<Event>> right,
+      final BinaryOperator<EventGraph<Event>> combine
+  ) {
+    // Bail out as fast as possible in the (very common) case of a subgraph over a single topic.
+    if (left.size() == 1 && right.size() == 1 && left.keySet().equals(right.keySet())) {
+      return Map.of(left.keySet().iterator().next(), graph);
+    }
+
+    // Merge the smaller index into the larger one, so that long chains of events don't repeatedly copy their index.
+    final var intoLeft = (left.size() >= right.size());
+    final var into = intoLeft ? left : right;
+    final var from = intoLeft ? right : left;
+
+    final var merged = (into instanceof Reference2ObjectOpenHashMap<Topic<?>, EventGraph<Event>> m)
+        ? m
+        : new Reference2ObjectOpenHashMap<>(into);
+    final BinaryOperator<EventGraph<Event>> ordered = intoLeft ? combine : (r, l) -> combine.apply(l, r);
+    for (final var entry : from.entrySet()) {
+      merged.merge(entry.getKey(), entry.getValue(), ordered);
+    }
+    return merged;
+  }
+
+
   public void freeze() {
     this.points.freeze();
   }
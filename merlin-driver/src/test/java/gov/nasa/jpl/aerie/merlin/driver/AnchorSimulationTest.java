@@ -458,6 +458,66 @@ public final class AnchorSimulationTest {
       assertTrue(map.containsKey(new ActivityDirectiveId(5)));
       assertTrue(map.containsKey(seven));
     }
+
+    @Test
+    @DisplayName("Long anchor chains that only contain start-time anchors depend on no activities")
+    public void longStartTimeAnchorChain() {
+      final var chainLength = 100_000;
+      final var activityDirectives = new HashMap<ActivityDirectiveId, ActivityDirective>(chainLength);
+      activityDirectives.put(
+          new ActivityDirectiveId(0),
+          new ActivityDirective(Duration.ZERO, serializedActivity, null, true));
+      for (long l = 1; l < chainLength; l++) {
+        activityDirectives.put(
+            new ActivityDirectiveId(l),
+            new ActivityDirective(Duration.of(1, Duration.SECONDS), serializedActivity, new ActivityDirectiveId(l - 1), true));
+      }
+
+      final var result = new StartOffsetReducer(tenDays, activityDirectives).compute();
+      assertEquals(1, result.size());
+      assertEquals(chainLength, result.get(null).size());
+      for (final var pair : result.get(null)) {
+        assertEquals(Duration.of(pair.getLeft().id(), Duration.SECONDS), pair.getRight());
+      }
+    }
+
+    @Test
+    @DisplayName("anchorOrder() lists every activity after the activity it depends on")
+    public void anchorOrderTest() {
+      /*
+        Hashmap Overview:
+         null = (1, 0), (2, 1 min)
+         1 = (4, 0 mins)
+         2 = (3, 1 min)
+         4, ..., 100_003 = a chain of end-time anchors, each on the previous activity
+      */
+      final var chainLength = 100_000;
+      final var map = new HashMap<ActivityDirectiveId, List<Pair<ActivityDirectiveId, Duration>>>(chainLength + 3);
+      map.put(null, List.of(
+          Pair.of(new ActivityDirectiveId(1), Duration.ZERO),
+          Pair.of(new ActivityDirectiveId(2), oneMinute)));
+      map.put(new ActivityDirectiveId(1), List.of(
+          Pair.of(new ActivityDirectiveId(4), Duration.ZERO)));
+      map.put(new ActivityDirectiveId(2), List.of(
+          Pair.of(new ActivityDirectiveId(3), oneMinute)));
+      for (long l = 4; l < chainLength + 3; l++) {
+        map.put(new ActivityDirectiveId(l), List.of(Pair.of(new ActivityDirectiveId(l + 1), Duration.ZERO)));
+      }
+
+      final var order = StartOffsetReducer.anchorOrder(map);
+      assertEquals(chainLength + 3, order.size());
+      final var positions = new HashMap<ActivityDirectiveId, Integer>(order.size());
+      for (int i = 0; i < order.size(); i++) {
+        assertNull(positions.put(order.get(i), i));
+      }
+      map.forEach((parent, children) -> {
+        for (final var child : children) {
+          assertTrue(parent == null || positions.get(parent) < positions.get(child.getLeft()));
+        }
+      });
+
+      assertTrue(StartOffsetReducer.anchorOrder(new HashMap<>()).isEmpty());
+    }
   }
   @Nested
   public final class AnchorsSimulationDriverTests {
@@ -0,0 +1,107 @@
+package gov.nasa.jpl.aerie.merlin.driver;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.types.ActivityDirective;
+import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MINUTE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class BestCachedEngineTest {
+  private static final Duration planDuration = Duration.of(100, MINUTE);
+
+  private static ActivityDirective directive(final long startMinutes, final long argument) {
+    return new ActivityDirective(Duration.of(startMinutes, MINUTE), "A", Map.of("x", SerializedValue.of(argument)), null, true);
+  }
+
+  private static ActivityDirective anchored(final long offsetMinutes, final long anchorId) {
+    return new ActivityDirective(Duration.of(offsetMinutes, MINUTE), "A", Map.of(), new ActivityDirectiveId(anchorId), true);
+  }
+
+  private static CachedSimulationEngine engine(final long endsAtMinutes, final Map<ActivityDirectiveId, ActivityDirective> directives) {
+    return new CachedSimulationEngine(Duration.of(endsAtMinutes, MINUTE), directives, null, null, null, null);
+  }
+
+  private static ActivityDirectiveId id(final long id) {
+    return new ActivityDirectiveId(id);
+  }
+
+  @Test
+  public void identicalScheduleReusesLatestEngine() {
+    final var cached = Map.of(id(10), directive(5, 1), id(11), directive(20, 2));
+    final var early = engine(10, cached);
+    final var late = engine(50, cached);
+    final var schedule = Map.of(id(1), directive(5, 1), id(2), directive(20, 2));
+
+    final var best = CheckpointSimulationDriver.bestCachedEngine(schedule, List.of(early, late), planDuration).orElseThrow();
+
+    assertSame(late, best.getKey());
+    assertEquals(Map.of(id(1), id(10), id(2), id(11)), best.getValue());
+  }
+
+  @Test
+  public void modifiedDirectiveInvalidatesLaterEngines() {
+    final var cached = Map.of(id(10), directive(5, 1), id(11), directive(20, 2));
+    final var early = engine(10, cached);
+    final var late = engine(50, cached);
+    // the directive at 20 minutes has a different argument, so only engines ending before 20 minutes are valid
+    final var schedule = Map.of(id(1), directive(5, 1), id(2), directive(20, 3));
+
+    final var best = CheckpointSimulationDriver.bestCachedEngine(schedule, List.of(early, late), planDuration).orElseThrow();
+
+    assertSame(early, best.getKey());
+    assertEquals(Map.of(id(1), id(10)), best.getValue());
+  }
+
+  @Test
+  public void identicalDirectivesAreMatchedOnce() {
+    final var cached = Map.of(id(10), directive(5, 1), id(11), directive(5, 1), id(12), directive(5, 1));
+    final var schedule = Map.of(id(1), directive(5, 1), id(2), directive(5, 1), id(3), directive(5, 1));
+
+    final var best = CheckpointSimulationDriver.bestCachedEngine(schedule, List.of(engine(50, cached)), planDuration).orElseThrow();
+
+    assertEquals(schedule.keySet(), best.getValue().keySet());
+    assertEquals(Set.of(id(10), id(11), id(12)), new HashSet<>(best.getValue().values()));
+  }
+
+  @Test
+  public void removedAnchoredDirectiveInvalidatesAtItsAnchoredStart() {
+    // the cached engine simulated a directive anchored 15 minutes after a root at 10 minutes, which is no longer planned
+    final var cached = Map.of(id(10), directive(10, 1), id(11), anchored(15, 10));
+    final var schedule = Map.of(id(1), directive(10, 1));
+
+    final var engines = List.of(engine(20, cached), engine(30, cached));
+    final var best = CheckpointSimulationDriver.bestCachedEngine(schedule, engines, planDuration).orElseThrow();
+
+    assertSame(engines.getFirst(), best.getKey());
+  }
+
+  @Test
+  public void correspondenceOnlyCoversChosenEngine() {
+    final var early = engine(1, Map.of(id(10), directive(50, 1)));
+    final var late = engine(2, Map.of(id(20), directive(60, 2)));
+    final var schedule = Map.of(id(1), directive(50, 1), id(2), directive(60, 2));
+
+    final var best = CheckpointSimulationDriver.bestCachedEngine(schedule, List.of(early, late), planDuration).orElseThrow();
+
+    assertSame(late, best.getKey());
+    assertEquals(Map.of(id(2), id(20)), best.getValue());
+  }
+
+  @Test
+  public void noValidEngine() {
+    final var cached = Map.of(id(10), directive(5, 1));
+    final var schedule = Map.of(id(1), directive(5, 2));
+
+    assertTrue(CheckpointSimulationDriver.bestCachedEngine(schedule, List.of(engine(50, cached)), planDuration).isEmpty());
+  }
+}
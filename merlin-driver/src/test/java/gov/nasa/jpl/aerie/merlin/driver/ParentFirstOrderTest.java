@@ -0,0 +1,92 @@
+package gov.nasa.jpl.aerie.merlin.driver;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.types.ActivityInstance;
+import gov.nasa.jpl.aerie.types.ActivityInstanceId;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class ParentFirstOrderTest {
+  @Test
+  public void parentsComeBeforeTheirChildren() {
+    // A binary tree whose children have smaller ids than their parents
+    final var parentIds = new HashMap<Long, Optional<Long>>();
+    for (long id = 1; id <= 1000; id++) {
+      parentIds.put(id, (id == 1000) ? Optional.empty() : Optional.of(1000 - (1000 - id - 1) / 2));
+    }
+
+    final var order = ParentFirstOrder.of(parentIds);
+    assertEquals(parentIds.size(), order.size());
+    assertParentsFirst(parentIds, order);
+  }
+
+  @Test
+  public void longChainsDoNotOverflowTheStack() {
+    final var parentIds = new HashMap<Long, Optional<Long>>();
+    for (long id = 0; id < 100_000; id++) {
+      parentIds.put(id, (id == 99_999) ? Optional.empty() : Optional.of(id + 1));
+    }
+
+    final var order = ParentFirstOrder.of(parentIds);
+    assertEquals(99_999L, (long) order.getFirst());
+    assertEquals(0L, (long) order.getLast());
+  }
+
+  @Test
+  public void idsWithMissingParentsAreOrderedAsRoots() {
+    final var parentIds = Map.of(
+        1L, Optional.of(42L),
+        2L, Optional.of(1L));
+
+    assertEquals(List.of(1L, 2L), ParentFirstOrder.of(parentIds));
+  }
+
+  @Test
+  public void cyclesAreRejected() {
+    final var parentIds = Map.of(
+        1L, Optional.<Long>empty(),
+        2L, Optional.of(3L),
+        3L, Optional.of(2L));
+
+    assertThrows(IllegalArgumentException.class, () -> ParentFirstOrder.of(parentIds));
+  }
+
+  @Test
+  public void simulatedAndUnfinishedActivitiesAreOrderedTogether() {
+    final var root = new ActivityInstanceId(3);
+    final var finishedChild = new ActivityInstanceId(2);
+    final var unfinishedGrandchild = new ActivityInstanceId(1);
+
+    final var order = ParentFirstOrder.of(
+        Map.of(
+            root, activity(null),
+            finishedChild, activity(root)),
+        Map.of(
+            unfinishedGrandchild,
+            new UnfinishedActivity("activity", Map.of(), Instant.EPOCH, finishedChild, List.of(), Optional.empty())));
+
+    assertEquals(List.of(root, finishedChild, unfinishedGrandchild), order);
+  }
+
+  private static ActivityInstance activity(final ActivityInstanceId parentId) {
+    return new ActivityInstance(
+        "activity", Map.of(), Instant.EPOCH, Duration.ZERO, parentId, List.of(), Optional.empty(), SerializedValue.NULL);
+  }
+
+  private static void assertParentsFirst(final Map<Long, Optional<Long>> parentIds, final List<Long> order) {
+    final var positions = new HashMap<Long, Integer>();
+    for (var i = 0; i < order.size(); i++) positions.put(order.get(i), i);
+    parentIds.forEach((id, parentId) -> parentId.ifPresent(parent ->
+        assertTrue(positions.get(parent) < positions.get(id), "%d is ordered before its parent %d".formatted(id, parent))));
+  }
+}
@@ -0,0 +1,63 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import gov.nasa.jpl.aerie.merlin.driver.DirectiveTypeRegistry;
+import gov.nasa.jpl.aerie.merlin.driver.MissionModelBuilder;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.CellFixtures.CounterCellType;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.CellId;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import gov.nasa.jpl.aerie.merlin.protocol.model.Task;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import org.apache.commons.lang3.mutable.MutableInt;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public final class CellReadCacheTest {
+  /** Read a counter cell of the given type three times in one step, emitting on its topic before the last read. */
+  private static List<MutableInt> readsWithinOneStep(final CounterCellType cellType) throws Throwable {
+    final var builder = new MissionModelBuilder();
+    final var topic = new Topic<Integer>();
+    final CellId<MutableInt> cell = builder.allocate(new MutableInt(), cellType, Function.identity(), topic);
+    final var model = builder.build(cell, new DirectiveTypeRegistry<>(Map.of()));
+
+    final var reads = new ArrayList<MutableInt>();
+    try (final var engine = new SimulationEngine(model.getInitialCells())) {
+      engine.scheduleTask(Duration.ZERO, executor -> Task.run(scheduler -> {
+        reads.add(scheduler.get(cell));
+        reads.add(scheduler.get(cell));
+        scheduler.emit(1, topic);
+        reads.add(scheduler.get(cell));
+      }));
+      engine.step(Duration.SECOND);
+    }
+    return reads;
+  }
+
+  @Test
+  public void mutableStatesAreDuplicatedOnEveryRead() throws Throwable {
+    final var reads = readsWithinOneStep(new CounterCellType(false));
+
+    assertNotSame(reads.get(0), reads.get(1));
+    reads.get(0).increment();
+    assertEquals(0, reads.get(1).intValue());
+    assertEquals(1, reads.get(2).intValue());
+  }
+
+  @Test
+  public void copyOnWriteStatesAreReadOnceUntilTheirTopicIsEmitted() throws Throwable {
+    final var cellType = new CounterCellType(true);
+    final var reads = readsWithinOneStep(cellType);
+
+    assertSame(reads.get(0), reads.get(1));
+    assertNotSame(reads.get(1), reads.get(2));
+    assertEquals(0, reads.get(1).intValue());
+    assertEquals(1, reads.get(2).intValue());
+  }
+}
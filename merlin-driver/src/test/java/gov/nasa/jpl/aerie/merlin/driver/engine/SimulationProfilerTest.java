@@ -0,0 +1,115 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import gov.nasa.jpl.aerie.merlin.driver.MissionModel.SerializableTopic;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.LiveCells;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.TemporalEventSource;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import gov.nasa.jpl.aerie.merlin.protocol.model.Task;
+import gov.nasa.jpl.aerie.merlin.protocol.model.TaskFactory;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.InSpan;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Unit;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class SimulationProfilerTest {
+  private static List<String> labels(final SimulationProfiler.Report report, final SimulationProfiler.Category category) {
+    return report.entries().get(category).stream().map(SimulationProfiler.Entry::label).toList();
+  }
+
+  @Test
+  public void tasksAreAttributedToTheirActivityType() throws Throwable {
+    final var inputTopic = new Topic<Integer>();
+    final var profiler = new SimulationProfiler(List.of(
+        new SerializableTopic<>("ActivityType.Input.Foo", inputTopic, null)));
+
+    try (final var engine = new SimulationEngine(new LiveCells(new TemporalEventSource()))) {
+      engine.setObserver(profiler);
+      engine.init(Map.of(), executor -> Task.run(scheduler -> {}));
+      final TaskFactory<Unit> child = executor -> Task.run(scheduler -> {});
+      engine.scheduleTask(Duration.ZERO, executor -> Task.run(scheduler -> {
+        scheduler.emit(1, inputTopic);
+        scheduler.spawn(InSpan.Fresh, child);
+      }));
+      engine.step(Duration.SECOND);
+
+      final var report = profiler.report(engine.getCellCatchUpMetrics());
+      final var tasks = report.entries().get(SimulationProfiler.Category.Tasks);
+      assertEquals(
+          Set.of("Foo", SimulationProfiler.DAEMON_LABEL),
+          Set.copyOf(labels(report, SimulationProfiler.Category.Tasks)));
+      assertEquals(2, tasks.stream().filter($ -> $.label().equals("Foo")).findFirst().orElseThrow().count());
+      assertTrue(report.format().contains("Foo"));
+    }
+  }
+
+  @Test
+  public void closedSpansAreForgotten() throws Throwable {
+    final var inputTopic = new Topic<Integer>();
+    final var profiler = new SimulationProfiler(List.of(
+        new SerializableTopic<>("ActivityType.Input.Foo", inputTopic, null)));
+
+    try (final var engine = new SimulationEngine(new LiveCells(new TemporalEventSource()))) {
+      engine.setObserver(profiler);
+      engine.init(Map.of(), executor -> Task.run(scheduler -> {}));
+      final TaskFactory<Unit> child = executor -> Task.run(scheduler -> {});
+      for (var i = 0; i < 100; i++) {
+        engine.scheduleTask(Duration.ZERO, executor -> Task.run(scheduler -> {
+          scheduler.emit(1, inputTopic);
+          scheduler.spawn(InSpan.Fresh, child);
+        }));
+      }
+      engine.step(Duration.SECOND);
+
+      assertEquals(0, profiler.openSpans());
+      // the step completing each span is still attributed to it
+      final var tasks = profiler.report(engine.getCellCatchUpMetrics()).entries().get(SimulationProfiler.Category.Tasks);
+      assertEquals(200, tasks.stream().filter($ -> $.label().equals("Foo")).findFirst().orElseThrow().count());
+    }
+  }
+
+  @Test
+  public void catchUpsAreChargedToEachComponent() {
+    final var profiler = new SimulationProfiler(List.of());
+    profiler.resourceSampled(new ResourceId("a"), 10, 5);
+    profiler.resourceSampled(new ResourceId("a"), 10, 2);
+    profiler.resourceSampled(new ResourceId("b"), 30, 0);
+
+    final var report = profiler.report(new LiveCells(new TemporalEventSource()).getCatchUpMetrics());
+    assertEquals(
+        List.of(new SimulationProfiler.Entry("b", 1, 30, 0), new SimulationProfiler.Entry("a", 2, 20, 7)),
+        report.entries().get(SimulationProfiler.Category.Resources));
+    assertTrue(report.format().contains("7 cell points replayed"));
+  }
+
+  @Test
+  public void detachedEnginesStopProfiling() throws Throwable {
+    final var profiler = new SimulationProfiler(List.of());
+
+    try (final var engine = new SimulationEngine(new LiveCells(new TemporalEventSource()))) {
+      engine.setObserver(profiler);
+      profiler.finish(engine);
+      engine.scheduleTask(Duration.ZERO, executor -> Task.run(scheduler -> {}));
+      engine.step(Duration.SECOND);
+
+      assertTrue(profiler.report(engine.getCellCatchUpMetrics()).entries().get(SimulationProfiler.Category.Tasks).isEmpty());
+      assertEquals(0, engine.getCellCatchUpMetrics().queries());
+    }
+  }
+
+  @Test
+  public void unobservedEnginesDoNotProfileCatchUps() throws Throwable {
+    try (final var engine = new SimulationEngine(new LiveCells(new TemporalEventSource()))) {
+      engine.scheduleTask(Duration.ZERO, executor -> Task.run(scheduler -> {}));
+      engine.step(Duration.SECOND);
+      assertEquals(0, engine.getCellCatchUpMetrics().nanos());
+      assertEquals(0, engine.getCellCatchUpMetrics().queries());
+    }
+  }
+}
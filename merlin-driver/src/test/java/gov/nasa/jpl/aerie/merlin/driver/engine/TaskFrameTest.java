@@ -23,9 +23,11 @@ import org.apache.commons.lang3.mutable.MutableObject;
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayDeque;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public final class TaskFrameTest {
   private static final SpanId ORIGIN = SpanId.generate();
@@ -47,6 +49,100 @@ public final class TaskFrameTest {
     taskHistoryIsCorrect(graph);
   }
 
+  @Test
+  public void catchUpsAreCountedOnlyForProfiledCells() {
+    assertEquals(1, pointsReplayedByQuery(true));
+    assertEquals(0, pointsReplayedByQuery(false));
+  }
+
+  private static long pointsReplayedByQuery(final boolean profiled) {
+    final var topic = new Topic<Integer>();
+    final var query = new Query<MutableObject<EventGraph<Integer>>>();
+    final var cells = new LiveCells(new CausalEventSource());
+    cells.setCatchUpProfiling(profiled);
+    cells.put(query, new Cell<>(
+        new MutableGraphCellType<Integer>(),
+        new Selector<>(topic, EventGraph::atom),
+        new RecursiveEventGraphEvaluator(),
+        new MutableObject<>(EventGraph.empty())));
+
+    final var pointsReplayed = new MutableObject<Long>();
+    TaskFrame.run(0, cells, (Integer job, TaskFrame<Integer> frame) -> {
+      frame.emit(Event.create(topic, job, ORIGIN));
+      frame.getState(query);
+      pointsReplayed.setValue(frame.cellPointsReplayed());
+    });
+    return pointsReplayed.getValue();
+  }
+
+  @Test
+  public void manySpawnsInOneInstantProduceShallowGraph() {
+    final var topic = new Topic<Integer>();
+    final var children = 100_000;
+
+    final var result = TaskFrame.run(-1, new LiveCells(new CausalEventSource()), (Integer job, TaskFrame<Integer> frame) -> {
+      if (job < 0) {
+        for (var i = 0; i < children; i++) frame.signal(i);
+      } else {
+        frame.emit(Event.create(topic, job, ORIGIN));
+      }
+    });
+
+    assertEquals(children, atomCount(result));
+    assertTrue(depth(result) < 64, "the graph should be balanced across the spawned children");
+  }
+
+  @Test
+  public void deepSpawnChainDoesNotGrowStack() {
+    final var topic = new Topic<Integer>();
+    final var length = 100_000;
+
+    final var result = TaskFrame.run(0, new LiveCells(new CausalEventSource()), (Integer job, TaskFrame<Integer> frame) -> {
+      frame.emit(Event.create(topic, job, ORIGIN));
+      if (job + 1 < length) frame.signal(job + 1);
+    });
+
+    assertEquals(length, atomCount(result));
+  }
+
+  private static int atomCount(final EventGraph<?> graph) {
+    var count = 0;
+    final var stack = new ArrayDeque<EventGraph<?>>();
+    stack.push(graph);
+    while (!stack.isEmpty()) {
+      switch (stack.pop()) {
+        case EventGraph.Empty<?> g -> {}
+        case EventGraph.Atom<?> g -> count += 1;
+        case EventGraph.Sequentially<?> g -> { stack.push(g.prefix()); stack.push(g.suffix()); }
+        case EventGraph.Concurrently<?> g -> { stack.push(g.left()); stack.push(g.right()); }
+      }
+    }
+    return count;
+  }
+
+  private static int depth(final EventGraph<?> graph) {
+    var depth = 0;
+    final var stack = new ArrayDeque<Pair<EventGraph<?>, Integer>>();
+    stack.push(Pair.of(graph, 1));
+    while (!stack.isEmpty()) {
+      final var entry = stack.pop();
+      depth = Math.max(depth, entry.getRight());
+      switch (entry.getLeft()) {
+        case EventGraph.Empty<?> g -> {}
+        case EventGraph.Atom<?> g -> {}
+        case EventGraph.Sequentially<?> g -> {
+          stack.push(Pair.of(g.prefix(), entry.getRight() + 1));
+          stack.push(Pair.of(g.suffix(), entry.getRight() + 1));
+        }
+        case EventGraph.Concurrently<?> g -> {
+          stack.push(Pair.of(g.left(), entry.getRight() + 1));
+          stack.push(Pair.of(g.right(), entry.getRight() + 1));
+        }
+      }
+    }
+    return depth;
+  }
+
 
 	@Property
   @Label("TaskFrame should faithfully reassemble event graphs")
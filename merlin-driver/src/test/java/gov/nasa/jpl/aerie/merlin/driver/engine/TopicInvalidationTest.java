@@ -0,0 +1,45 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import gov.nasa.jpl.aerie.merlin.driver.timeline.LiveCells;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.TemporalEventSource;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import gov.nasa.jpl.aerie.merlin.protocol.model.Task;
+import gov.nasa.jpl.aerie.merlin.protocol.model.TaskFactory;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Unit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class TopicInvalidationTest {
+  private static SimulationEngine.InvalidationMetrics runTask(final TaskFactory<Unit> task) throws Throwable {
+    try (final var engine = new SimulationEngine(new LiveCells(new TemporalEventSource()))) {
+      engine.scheduleTask(Duration.ZERO, task);
+      engine.step(Duration.SECOND);
+      return engine.getInvalidationMetrics();
+    }
+  }
+
+  @Test
+  public void repeatedEmitsInvalidateTopicOnce() throws Throwable {
+    final var topic = new Topic<Integer>();
+    final var metrics = runTask(executor -> Task.run(scheduler -> {
+      for (var i = 0; i < 1000; i++) scheduler.emit(i, topic);
+    }));
+
+    assertEquals(new SimulationEngine.InvalidationMetrics(1000, 1), metrics);
+  }
+
+  @Test
+  public void eachEmittedTopicIsInvalidated() throws Throwable {
+    final var topic1 = new Topic<Integer>();
+    final var topic2 = new Topic<Integer>();
+    final var metrics = runTask(executor -> Task.run(scheduler -> {
+      scheduler.emit(1, topic1);
+      scheduler.emit(2, topic2);
+      scheduler.emit(3, topic1);
+    }));
+
+    assertEquals(new SimulationEngine.InvalidationMetrics(3, 2), metrics);
+  }
+}
@@ -0,0 +1,83 @@
+package gov.nasa.jpl.aerie.merlin.driver.timeline;
+
+import gov.nasa.jpl.aerie.merlin.driver.engine.SpanId;
+import gov.nasa.jpl.aerie.merlin.protocol.model.CellType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.EffectTrait;
+import org.apache.commons.lang3.mutable.MutableInt;
+import org.apache.commons.lang3.mutable.MutableObject;
+
+/** Cell types and event origins shared by the tests and benchmarks of cells and timelines. */
+public final class CellFixtures {
+  private CellFixtures() {}
+
+  /** The span every test event is emitted from. */
+  public static final SpanId ORIGIN = SpanId.generate();
+
+  /** A cell summing the integers emitted on its topic, which counts how many times its states are duplicated. */
+  public static final class CounterCellType implements CellType<Integer, MutableInt> {
+    private final boolean copyOnWrite;
+    public final MutableInt duplicates = new MutableInt();
+
+    public CounterCellType() {
+      this(false);
+    }
+
+    public CounterCellType(final boolean copyOnWrite) {
+      this.copyOnWrite = copyOnWrite;
+    }
+
+    @Override
+    public EffectTrait<Integer> getEffectType() {
+      return new EffectTrait<>() {
+        @Override
+        public Integer empty() {
+          return 0;
+        }
+
+        @Override
+        public Integer sequentially(final Integer prefix, final Integer suffix) {
+          return prefix + suffix;
+        }
+
+        @Override
+        public Integer concurrently(final Integer left, final Integer right) {
+          return left + right;
+        }
+      };
+    }
+
+    @Override
+    public MutableInt duplicate(final MutableInt state) {
+      this.duplicates.increment();
+      return new MutableInt(state.intValue());
+    }
+
+    @Override
+    public void apply(final MutableInt state, final Integer effect) {
+      state.add(effect);
+    }
+
+    @Override
+    public boolean isCopyOnWrite() {
+      return this.copyOnWrite;
+    }
+  }
+
+  /** A cell whose state is the graph of every effect it has observed. */
+  public static final class HistoryCellType<T> implements CellType<EventGraph<T>, MutableObject<EventGraph<T>>> {
+    @Override
+    public EffectTrait<EventGraph<T>> getEffectType() {
+      return new EventGraph.IdentityTrait<>();
+    }
+
+    @Override
+    public MutableObject<EventGraph<T>> duplicate(final MutableObject<EventGraph<T>> state) {
+      return new MutableObject<>(state.getValue());
+    }
+
+    @Override
+    public void apply(final MutableObject<EventGraph<T>> state, final EventGraph<T> effect) {
+      state.setValue(EventGraph.sequentially(state.getValue(), effect));
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package gov.nasa.jpl.aerie.merlin.driver.timeline;
+
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import org.apache.commons.lang3.mutable.MutableInt;
+
+import java.lang.management.ManagementFactory;
+
+import static gov.nasa.jpl.aerie.merlin.driver.timeline.CellFixtures.ORIGIN;
+
+/**
+ * Measures the bytes allocated and time taken by repeatedly reading a cell between effects, for a cell type whose
+ * states are duplicated on every read and for one whose states are shared with readers until next modified.
+ */
+public class CellReadBenchmark {
+  private static final com.sun.management.ThreadMXBean threads =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private static void run(final String name, final boolean copyOnWrite) {
+    final var effects = 100_000;
+    final var readsPerEffect = 20;
+
+    final var topic = new Topic<Integer>();
+    final var cell = new Cell<>(
+        new CellFixtures.CounterCellType(copyOnWrite),
+        new Selector<>(topic, $ -> $),
+        new RecursiveEventGraphEvaluator(),
+        new MutableInt());
+    final var event = Event.create(topic, 1, ORIGIN);
+
+    var sum = 0L;
+    final var bytesBefore = threads.getThreadAllocatedBytes(Thread.currentThread().threadId());
+    final var before = System.nanoTime();
+    for (var i = 0; i < effects; i++) {
+      for (var j = 0; j < readsPerEffect; j++) sum += cell.getState().intValue();
+      cell.apply(event);
+    }
+    final var elapsed = System.nanoTime() - before;
+    final var bytes = threads.getThreadAllocatedBytes(Thread.currentThread().threadId()) - bytesBefore;
+
+    System.out.println("%s: %.1f MB allocated, %.1f ms (checksum %d)".formatted(name, bytes / 1e6, elapsed / 1e6, sum));
+  }
+
+  public static void main(String[] args) {
+    for (var i = 0; i < 3; i++) {
+      run("Duplicate on read", false);
+      run("Copy on write", true);
+    }
+  }
+}
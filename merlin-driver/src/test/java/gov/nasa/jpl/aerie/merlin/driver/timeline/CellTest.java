@@ -0,0 +1,71 @@
+package gov.nasa.jpl.aerie.merlin.driver.timeline;
+
+import gov.nasa.jpl.aerie.merlin.driver.timeline.CellFixtures.CounterCellType;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import org.apache.commons.lang3.mutable.MutableInt;
+import org.junit.jupiter.api.Test;
+
+import static gov.nasa.jpl.aerie.merlin.driver.timeline.CellFixtures.ORIGIN;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public final class CellTest {
+  private final Topic<Integer> topic = new Topic<>();
+
+  private Cell<MutableInt> makeCell(final CounterCellType cellType) {
+    return new Cell<>(cellType, new Selector<>(topic, $ -> $), new RecursiveEventGraphEvaluator(), new MutableInt());
+  }
+
+  @Test
+  public void readsDuplicateStateByDefault() {
+    final var cellType = new CounterCellType(false);
+    final var cell = makeCell(cellType);
+
+    final var first = cell.getState();
+    final var second = cell.getState();
+    assertNotSame(first, second);
+    assertEquals(2, cellType.duplicates.intValue());
+
+    cell.apply(Event.create(topic, 1, ORIGIN));
+    assertEquals(0, first.intValue());
+    assertEquals(1, cell.getState().intValue());
+  }
+
+  @Test
+  public void copyOnWriteReadsShareStateUntilModified() {
+    final var cellType = new CounterCellType(true);
+    final var cell = makeCell(cellType);
+
+    final var first = cell.getState();
+    assertSame(first, cell.getState());
+    assertEquals(0, cellType.duplicates.intValue());
+
+    cell.apply(Event.create(topic, 1, ORIGIN));
+    cell.apply(Event.create(topic, 1, ORIGIN));
+    // The snapshot handed out before the effects is unaffected, and the state was only duplicated once.
+    assertEquals(0, first.intValue());
+    assertEquals(1, cellType.duplicates.intValue());
+
+    final var second = cell.getState();
+    assertEquals(2, second.intValue());
+    assertSame(second, cell.getState());
+    assertEquals(1, cellType.duplicates.intValue());
+  }
+
+  @Test
+  public void copyOnWriteDuplicatesAreIndependent() {
+    final var cellType = new CounterCellType(true);
+    final var cell = makeCell(cellType);
+    cell.apply(Event.create(topic, 1, ORIGIN));
+
+    final var copy = cell.duplicate();
+    assertEquals(0, cellType.duplicates.intValue());
+
+    copy.apply(Event.create(topic, 2, ORIGIN));
+    cell.apply(Event.create(topic, 5, ORIGIN));
+    assertEquals(3, copy.getState().intValue());
+    assertEquals(6, cell.getState().intValue());
+    assertEquals(2, cellType.duplicates.intValue());
+  }
+}
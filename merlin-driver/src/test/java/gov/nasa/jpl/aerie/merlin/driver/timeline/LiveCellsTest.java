@@ -0,0 +1,134 @@
+package gov.nasa.jpl.aerie.merlin.driver.timeline;
+
+import gov.nasa.jpl.aerie.merlin.driver.timeline.CellFixtures.CounterCellType;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import org.apache.commons.lang3.mutable.MutableInt;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static gov.nasa.jpl.aerie.merlin.driver.timeline.CellFixtures.ORIGIN;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class LiveCellsTest {
+  private final Topic<Integer> topic = new Topic<>();
+  private final Query<MutableInt> query = new Query<>();
+
+  @Test
+  public void copiedCellsReplayEveryLayer() {
+    final var layers = buildChain(6);
+    final var leaf = layers.get(layers.size() - 1);
+
+    assertEquals(6, leaf.cells().getState(query).orElseThrow().intValue());
+    assertEquals(1, leaf.cells().getCatchUpMetrics().misses());
+    assertEquals(6, leaf.cells().getCatchUpMetrics().pointsReplayed());
+
+    // A sibling forked from the middle of the chain sees the history up to its fork, and nothing later.
+    final var sibling = new LiveCells(new CausalEventSource(), layers.get(3).cells());
+    assertEquals(3, sibling.getState(query).orElseThrow().intValue());
+  }
+
+  @Test
+  public void largerSnapshotIntervalsRetainFewerCopies() {
+    for (final var snapshotInterval : new int[] {1, 3}) {
+      final var layers = buildChain(6, snapshotInterval);
+      final var leaf = layers.get(layers.size() - 1).cells();
+
+      // The first query replays every layer whatever the interval, but only keeps a copy at every interval-th one.
+      assertEquals(6, leaf.getState(query).orElseThrow().intValue());
+      assertEquals(6, leaf.getCatchUpMetrics().pointsReplayed());
+      assertEquals(5 / snapshotInterval, leaf.getCatchUpMetrics().snapshotsRetained());
+
+      // A sibling forked below any intermediate layer starts its catch-up from the nearest snapshot above it.
+      for (var depth = 1; depth < 6; depth++) {
+        final var before = leaf.getCatchUpMetrics().pointsReplayed();
+        final var sibling = new LiveCells(new CausalEventSource(), layers.get(depth).cells());
+        assertEquals(depth, sibling.getState(query).orElseThrow().intValue());
+        assertTrue(leaf.getCatchUpMetrics().pointsReplayed() - before <= snapshotInterval - 1);
+      }
+    }
+  }
+
+  @Test
+  public void snapshotIntervalsAreBounded() {
+    final var cells = new LiveCells(new CausalEventSource());
+    assertThrows(IllegalArgumentException.class, () -> cells.setSnapshotInterval(0));
+    assertThrows(IllegalArgumentException.class, () -> cells.setSnapshotInterval(LiveCells.MAX_SNAPSHOT_INTERVAL + 1));
+  }
+
+  @Test
+  public void cachedCellsOnlyReplayNewPoints() {
+    final var layers = buildChain(2);
+    final var leaf = layers.get(layers.size() - 1);
+
+    assertEquals(2, leaf.cells().getState(query).orElseThrow().intValue());
+    leaf.source().add(Event.create(topic, 1, ORIGIN));
+    assertEquals(3, leaf.cells().getState(query).orElseThrow().intValue());
+
+    final var metrics = leaf.cells().getCatchUpMetrics();
+    assertEquals(2, metrics.queries());
+    assertEquals(3, metrics.pointsReplayed());
+  }
+
+  @Test
+  public void unprofiledCellsCollectNoStatistics() {
+    final var layers = buildChain(2);
+    final var leaf = layers.get(layers.size() - 1);
+    leaf.cells().setCatchUpProfiling(false);
+
+    assertEquals(2, leaf.cells().getState(query).orElseThrow().intValue());
+    assertEquals(0, leaf.cells().getCatchUpMetrics().queries());
+    assertEquals(0, leaf.cells().getCatchUpMetrics().pointsReplayed());
+  }
+
+  @Test
+  public void profilingOnlyAffectsLayersCreatedWhileEnabled() {
+    final var layers = buildChain(2);
+    final var root = layers.get(0).cells();
+    final var leaf = layers.get(layers.size() - 1).cells();
+    root.setCatchUpProfiling(false);
+
+    // Layers created while the root was profiled remain profiled, but new layers below the root are not.
+    final var unprofiled = new LiveCells(new CausalEventSource(), root);
+    assertEquals(0, unprofiled.getState(query).orElseThrow().intValue());
+    assertEquals(0, leaf.getCatchUpMetrics().queries());
+    assertEquals(2, leaf.getState(query).orElseThrow().intValue());
+    assertEquals(1, leaf.getCatchUpMetrics().queries());
+  }
+
+  @Test
+  public void countersOnlyCountTheirOwnQueries() {
+    final var layers = buildChain(3);
+    final var counter = new LiveCells.CatchUpCounter();
+
+    assertEquals(3, layers.get(3).cells().getState(query, counter).orElseThrow().intValue());
+    assertEquals(2, layers.get(2).cells().getState(query).orElseThrow().intValue());
+    assertEquals(3, counter.pointsReplayed());
+    assertEquals(3, layers.get(3).cells().getCatchUpMetrics().pointsReplayed());
+  }
+
+  private record Layer(CausalEventSource source, LiveCells cells) {}
+
+  /** Build a chain of layers below a root holding the cell, where each layer adds one to the cell. */
+  private ArrayList<Layer> buildChain(final int depth) {
+    return buildChain(depth, LiveCells.DEFAULT_SNAPSHOT_INTERVAL);
+  }
+
+  private ArrayList<Layer> buildChain(final int depth, final int snapshotInterval) {
+    final var root = new LiveCells(new CausalEventSource());
+    root.setCatchUpProfiling(true);
+    root.setSnapshotInterval(snapshotInterval);
+    root.put(query, new Cell<>(new CounterCellType(), new Selector<>(topic, $ -> $), new RecursiveEventGraphEvaluator(), new MutableInt()));
+
+    final var layers = new ArrayList<Layer>();
+    layers.add(new Layer(null, root));
+    for (var i = 0; i < depth; i++) {
+      final var source = new CausalEventSource();
+      source.add(Event.create(topic, 1, ORIGIN));
+      layers.add(new Layer(source, new LiveCells(source, layers.get(i).cells())));
+    }
+    return layers;
+  }
+}
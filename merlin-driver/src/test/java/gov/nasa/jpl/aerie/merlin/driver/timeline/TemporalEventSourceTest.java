@@ -0,0 +1,63 @@
+package gov.nasa.jpl.aerie.merlin.driver.timeline;
+
+import gov.nasa.jpl.aerie.merlin.driver.timeline.CellFixtures.HistoryCellType;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import org.apache.commons.lang3.mutable.MutableObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static gov.nasa.jpl.aerie.merlin.driver.timeline.CellFixtures.ORIGIN;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public final class TemporalEventSourceTest {
+  private final Topic<Integer> topicA = new Topic<>();
+  private final Topic<Integer> topicB = new Topic<>();
+
+  @Test
+  public void projectionPreservesStructureOfTopic() {
+    final var graph = EventGraph.concurrently(
+        EventGraph.sequentially(event(topicA, 1), event(topicB, 2), event(topicA, 3)),
+        EventGraph.sequentially(event(topicB, 4), event(topicA, 5)));
+    final var commit = new TemporalEventSource.TimePoint.Commit(graph, Set.of(topicA, topicB));
+
+    assertEquals("(1; 3) | 5", display(topicA, commit.eventsOn(topicA)));
+    assertEquals("2 | 4", display(topicB, commit.eventsOn(topicB)));
+    assertEquals(EventGraph.empty(), commit.eventsOn(new Topic<Integer>()));
+  }
+
+  @Test
+  public void singleTopicCommitIsItsOwnProjection() {
+    final var graph = EventGraph.sequentially(event(topicA, 1), event(topicA, 2));
+    final var commit = new TemporalEventSource.TimePoint.Commit(graph, Set.of(topicA));
+
+    assertSame(graph, commit.eventsOn(topicA));
+  }
+
+  @Test
+  public void cellObservesSameHistoryThroughProjection() {
+    final var timeline = new TemporalEventSource();
+    timeline.add(EventGraph.concurrently(
+        EventGraph.sequentially(event(topicA, 1), event(topicB, 2)),
+        event(topicA, 3)));
+    timeline.add(EventGraph.sequentially(event(topicB, 4), event(topicA, 5)));
+
+    final var cell = new Cell<>(
+        new HistoryCellType<Integer>(),
+        new Selector<>(topicA, EventGraph::atom),
+        new RecursiveEventGraphEvaluator(),
+        new MutableObject<>(EventGraph.<Integer>empty()));
+    timeline.cursor().stepUp(cell);
+
+    assertEquals("(1 | 3); 5", EffectExpressionDisplay.displayGraph(cell.getState().getValue()));
+  }
+
+  private static EventGraph<Event> event(final Topic<Integer> topic, final int value) {
+    return EventGraph.atom(Event.create(topic, value, ORIGIN));
+  }
+
+  private static String display(final Topic<Integer> topic, final EventGraph<Event> graph) {
+    return EffectExpressionDisplay.displayGraph(graph.map($ -> $.extract(topic).orElseThrow()));
+  }
+}
@@ -0,0 +1,81 @@
+package gov.nasa.jpl.aerie.merlin.driver.timeline;
+
+import gov.nasa.jpl.aerie.merlin.driver.timeline.CellFixtures.CounterCellType;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import org.apache.commons.lang3.mutable.MutableInt;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static gov.nasa.jpl.aerie.merlin.driver.timeline.CellFixtures.ORIGIN;
+
+/**
+ * Compares catching cells up over many-topic commits by evaluating each commit's full event graph
+ * against evaluating only the per-topic projection of each commit.
+ */
+public class TopicProjectionBenchmark {
+  private static TemporalEventSource buildTimeline(final List<Topic<Integer>> topics, final int commits, final int branches) {
+    final var timeline = new TemporalEventSource();
+    for (var i = 0; i < commits; i++) {
+      final var branchGraphs = new ArrayList<EventGraph<Event>>();
+      for (var b = 0; b < branches; b++) {
+        final var segments = new ArrayList<EventGraph<Event>>();
+        for (final var topic : topics) segments.add(EventGraph.atom(Event.create(topic, b, ORIGIN)));
+        branchGraphs.add(EventGraph.sequentially(segments));
+      }
+      timeline.add(EventGraph.concurrently(branchGraphs));
+      timeline.add(Duration.SECOND);
+    }
+    return timeline;
+  }
+
+  private static List<Cell<MutableInt>> buildCells(final List<Topic<Integer>> topics) {
+    final var cells = new ArrayList<Cell<MutableInt>>();
+    for (final var topic : topics) {
+      cells.add(new Cell<>(new CounterCellType(), new Selector<>(topic, $ -> $), new RecursiveEventGraphEvaluator(), new MutableInt()));
+    }
+    return cells;
+  }
+
+  private static long fullGraphCatchUp(final TemporalEventSource timeline, final List<Cell<MutableInt>> cells) {
+    final var before = System.nanoTime();
+    for (final var cell : cells) {
+      for (final var point : timeline) {
+        if (point instanceof TemporalEventSource.TimePoint.Delta p) {
+          cell.step(p.delta());
+        } else if (point instanceof TemporalEventSource.TimePoint.Commit p) {
+          if (cell.isInterestedIn(p.topics())) cell.apply(p.events());
+        }
+      }
+    }
+    return System.nanoTime() - before;
+  }
+
+  private static long projectedCatchUp(final TemporalEventSource timeline, final List<Cell<MutableInt>> cells) {
+    final var before = System.nanoTime();
+    for (final var cell : cells) timeline.cursor().stepUp(cell);
+    return System.nanoTime() - before;
+  }
+
+  public static void main(String[] args) {
+    final var topicCount = 200;
+    final var commits = 50;
+    final var branches = 8;
+    final var nbRuns = 5;
+
+    final var topics = new ArrayList<Topic<Integer>>();
+    for (var i = 0; i < topicCount; i++) topics.add(new Topic<>());
+
+    var totalFullGraph = 0L;
+    var totalProjected = 0L;
+    for (var i = 0; i < nbRuns; i++) {
+      // Use a fresh timeline each run so that the projections are rebuilt rather than served from a warm index.
+      totalFullGraph += fullGraphCatchUp(buildTimeline(topics, commits, branches), buildCells(topics));
+      totalProjected += projectedCatchUp(buildTimeline(topics, commits, branches), buildCells(topics));
+    }
+
+    System.out.println("Full graph catch-up: " + (totalFullGraph / nbRuns) / 1_000_000.0 + " ms");
+    System.out.println("Projected catch-up: " + (totalProjected / nbRuns) / 1_000_000.0 + " ms");
+  }
+}
@@ -18,4 +18,15 @@ public interface CellType<Effect, State> {
   default Optional<Duration> getExpiry(final State state) {
     return Optional.empty();
   }
+
+  /**
+   * Whether states of this cell type may be shared with the readers of the cell rather than duplicated for each read.
+   *
+   * A cell type may only opt in if its states are never modified except through {@link #apply} and {@link #step}.
+   * The engine then hands out the cell's own state to readers, and duplicates it just before it is next modified
+   * (copy-on-write), so readers still observe an unchanging snapshot.
+   */
+  default boolean isCopyOnWrite() {
+    return false;
+  }
 }
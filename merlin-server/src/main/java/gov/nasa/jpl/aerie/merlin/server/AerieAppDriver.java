@@ -8,13 +8,16 @@ import gov.nasa.jpl.aerie.merlin.server.config.Store;
 import gov.nasa.jpl.aerie.merlin.server.http.LocalAppExceptionBindings;
 import gov.nasa.jpl.aerie.merlin.server.http.MerlinBindings;
 import gov.nasa.jpl.aerie.merlin.server.http.MissionModelRepositoryExceptionBindings;
+import gov.nasa.jpl.aerie.merlin.server.models.PlanId;
 import gov.nasa.jpl.aerie.merlin.server.remotes.ConstraintRepository;
 import gov.nasa.jpl.aerie.merlin.server.remotes.MissionModelRepository;
 import gov.nasa.jpl.aerie.merlin.server.remotes.PlanRepository;
 import gov.nasa.jpl.aerie.merlin.server.remotes.ResultsCellRepository;
+import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.ListenDirectiveValidationCapability;
 import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresConstraintRepository;
 import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresMissionModelRepository;
 import gov.nasa.jpl.aerie.merlin.server.services.ValidationWorker;
+import gov.nasa.jpl.aerie.permissions.AdminSecret;
 import gov.nasa.jpl.aerie.permissions.PermissionsService;
 import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresPlanRepository;
 import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresResultsCellRepository;
@@ -38,10 +41,14 @@ import org.eclipse.jetty.server.handler.StatisticsHandler;
 import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.slf4j.LoggerFactory;
 
+import javax.sql.DataSource;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.LinkedBlockingQueue;
 
 public final class AerieAppDriver {
 
@@ -55,13 +62,22 @@ public final class AerieAppDriver {
         stores.missionModels(),
         configuration.untruePlanStart());
 
+    final Optional<ValidationWorker> validationWorker;
     if (configuration.enableContinuousValidationThread()) {
-      final var validationWorker = new ValidationWorker(
+      final var validationNotificationQueue = new LinkedBlockingQueue<PlanId>();
+      new ListenDirectiveValidationCapability(stores.dataSource(), validationNotificationQueue).registerListener();
+
+      final var worker = new ValidationWorker(
           missionModelController,
-          configuration.validationThreadPollingPeriod());
-      final var thread = new Thread(validationWorker::workerLoop);
+          configuration.validationThreadPollingPeriod(),
+          validationNotificationQueue,
+          configuration.validationThreadPoolSize());
+      final var thread = new Thread(worker::workerLoop);
       thread.setDaemon(true);
       thread.start();
+      validationWorker = Optional.of(worker);
+    } else {
+      validationWorker = Optional.empty();
     }
 
     final var planController = new LocalPlanService(stores.plans());
@@ -94,14 +110,18 @@ public final class AerieAppDriver {
     );
     final var generateConstraintsLibAction = new GenerateConstraintsLibAction(typescriptCodeGenerationService);
     final var permissionsService = new PermissionsService(
-        new GraphQLPermissionsService(configuration.hasuraGraphqlURI(), configuration.hasuraGraphQlAdminSecret()));
+        new GraphQLPermissionsService(configuration.hasuraGraphqlURI(), configuration.hasuraGraphQlAdminSecret()),
+        Duration.ofMillis(configuration.permissionsCacheTtl()),
+        configuration.permissionsCacheSize());
     final var merlinBindings = new MerlinBindings(
         missionModelController,
         planController,
         simulationAction,
         generateConstraintsLibAction,
         constraintAction,
-        permissionsService
+        permissionsService,
+        new AdminSecret(configuration.hasuraGraphQlAdminSecret()),
+        validationWorker
     );
     // Configure an HTTP server.
     //default javalin jetty server has a QueuedThreadPool with maxThreads to 250
@@ -128,6 +148,7 @@ public final class AerieAppDriver {
   }
 
   private record Stores (
+      DataSource dataSource,
       PlanRepository plans,
       MissionModelRepository missionModels,
       ResultsCellRepository results,
@@ -152,6 +173,7 @@ public final class AerieAppDriver {
       final var hikariDataSource = new HikariDataSource(hikariConfig);
 
       return new Stores(
+          hikariDataSource,
           new PostgresPlanRepository(hikariDataSource),
           new PostgresMissionModelRepository(hikariDataSource),
           new PostgresResultsCellRepository(hikariDataSource),
@@ -181,7 +203,10 @@ public final class AerieAppDriver {
         URI.create(getEnv("HASURA_GRAPHQL_URL", "http://localhost:8080/v1/graphql")),
         getEnv("HASURA_GRAPHQL_ADMIN_SECRET", ""),
         Boolean.parseBoolean(getEnv("ENABLE_CONTINUOUS_VALIDATION_THREAD", "true")),
-        Integer.parseInt(getEnv("VALIDATION_THREAD_POLLING_PERIOD", "500"))
+        Integer.parseInt(getEnv("VALIDATION_THREAD_POLLING_PERIOD", "500")),
+        Math.max(1, Integer.parseInt(getEnv("VALIDATION_THREAD_POOL_SIZE", "4"))),
+        Math.max(0, Integer.parseInt(getEnv("PERMISSIONS_CACHE_TTL", "0"))),
+        Math.max(0, Integer.parseInt(getEnv("PERMISSIONS_CACHE_SIZE", "10000")))
     );
   }
 }
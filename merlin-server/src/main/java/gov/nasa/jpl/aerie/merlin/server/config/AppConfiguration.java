@@ -14,7 +14,10 @@ public record AppConfiguration (
     URI hasuraGraphqlURI,
     String hasuraGraphQlAdminSecret,
     boolean enableContinuousValidationThread,
-    int validationThreadPollingPeriod
+    int validationThreadPollingPeriod,
+    int validationThreadPoolSize,
+    int permissionsCacheTtl,
+    int permissionsCacheSize
 ) {
   public AppConfiguration {
     Objects.requireNonNull(merlinFileStore);
@@ -15,7 +15,10 @@ import gov.nasa.jpl.aerie.merlin.server.services.GetSimulationResultsAction;
 import gov.nasa.jpl.aerie.merlin.server.services.LocalMissionModelService;
 import gov.nasa.jpl.aerie.merlin.server.services.MissionModelService;
 import gov.nasa.jpl.aerie.merlin.server.services.PlanService;
+import gov.nasa.jpl.aerie.merlin.server.services.ValidationWorker;
 import gov.nasa.jpl.aerie.permissions.Action;
+import gov.nasa.jpl.aerie.permissions.AdminSecret;
+import gov.nasa.jpl.aerie.permissions.MetricsSerializers;
 import gov.nasa.jpl.aerie.permissions.PermissionsService;
 import gov.nasa.jpl.aerie.permissions.exceptions.ExceptionSerializers;
 import gov.nasa.jpl.aerie.permissions.exceptions.PermissionsServiceException;
@@ -30,6 +33,7 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static gov.nasa.jpl.aerie.merlin.server.http.HasuraParsers.hasuraActivityActionP;
@@ -68,6 +72,8 @@ public final class MerlinBindings implements Plugin {
   private final GenerateConstraintsLibAction generateConstraintsLibAction;
   private final ConstraintAction constraintAction;
   private final PermissionsService permissionsService;
+  private final AdminSecret adminSecret;
+  private final Optional<ValidationWorker> validationWorker;
 
   public MerlinBindings(
       final MissionModelService missionModelService,
@@ -75,7 +81,9 @@ public final class MerlinBindings implements Plugin {
       final GetSimulationResultsAction simulationAction,
       final GenerateConstraintsLibAction generateConstraintsLibAction,
       final ConstraintAction constraintAction,
-      final PermissionsService permissionsService
+      final PermissionsService permissionsService,
+      final AdminSecret adminSecret,
+      final Optional<ValidationWorker> validationWorker
   ) {
     this.missionModelService = missionModelService;
     this.planService = planService;
@@ -83,6 +91,8 @@ public final class MerlinBindings implements Plugin {
     this.generateConstraintsLibAction = generateConstraintsLibAction;
     this.constraintAction = constraintAction;
     this.permissionsService = permissionsService;
+    this.adminSecret = adminSecret;
+    this.validationWorker = validationWorker;
   }
 
   @Override
@@ -107,6 +117,8 @@ public final class MerlinBindings implements Plugin {
       path("extendExternalDataset", () -> post(this::extendExternalDataset));
       path("constraintsDslTypescript", () -> post(this::getConstraintsDslTypescript));
       path("health", () -> get(ctx -> ctx.status(200)));
+      path("permissionsMetrics", () -> get(this::getPermissionsMetrics));
+      path("validationMetrics", () -> get(this::getValidationMetrics));
     });
 
     // This exception is expected when the request body entity is not a legal JsonValue.
@@ -116,6 +128,20 @@ public final class MerlinBindings implements Plugin {
         .contentType("application/json"));
   }
 
+  private void getPermissionsMetrics(final Context ctx) {
+    if (!this.adminSecret.isPresentedBy(ctx.header(AdminSecret.HEADER))) {
+      ctx.status(403).result(ResponseSerializers.serializeFailures(List.of("The Hasura admin secret is required")).toString());
+      return;
+    }
+    ctx.result(MetricsSerializers.serializeMetrics(this.permissionsService.getMetrics()).toString());
+  }
+
+  private void getValidationMetrics(final Context ctx) {
+    this.validationWorker.ifPresentOrElse(
+        worker -> ctx.result(ResponseSerializers.serializeValidationMetrics(worker.metrics()).toString()),
+        () -> ctx.status(404).result(ResponseSerializers.serializeFailures(List.of("Continuous validation is disabled")).toString()));
+  }
+
   private void postRefreshModelParameters(final Context ctx) {
     try {
       final var missionModelId = parseJson(ctx.body(), hasuraMissionModelEventTriggerP).missionModelId();
@@ -26,6 +26,7 @@ import gov.nasa.jpl.aerie.merlin.server.services.MissionModelService;
 import gov.nasa.jpl.aerie.merlin.server.services.MissionModelService.BulkEffectiveArgumentResponse;
 import gov.nasa.jpl.aerie.merlin.server.services.MissionModelService.BulkArgumentValidationResponse;
 import gov.nasa.jpl.aerie.merlin.server.services.UnexpectedSubtypeError;
+import gov.nasa.jpl.aerie.merlin.server.services.ValidationWorker;
 import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
 import org.apache.commons.lang3.tuple.Pair;
 
@@ -208,6 +209,18 @@ public final class ResponseSerializers {
                .build();
   }
 
+  public static JsonValue serializeValidationMetrics(final ValidationWorker.ValidationMetrics metrics) {
+    return Json.createObjectBuilder()
+        .add("pendingDirectives", metrics.pendingDirectives())
+        .add("queuedNotifications", metrics.queuedNotifications())
+        .add("notificationsReceived", metrics.notificationsReceived())
+        .add("batchesValidated", metrics.batchesValidated())
+        .add("directivesValidated", metrics.directivesValidated())
+        .add("meanBatchLatencyMillis", metrics.meanBatchLatencyMillis())
+        .add("maxBatchLatencyMillis", metrics.maxLatencyNanos() / 1e6)
+        .build();
+  }
+
   public static JsonValue serializeCreatedDatasetId(final long datasetId) {
     return Json.createObjectBuilder()
         .add("datasetId", datasetId)
@@ -0,0 +1,99 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.merlin.server.models.PlanId;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Listens for the notifications raised whenever an activity directive's validation is marked pending,
+ * and forwards the id of the plan owning that directive to the notification queue.
+ *
+ * If the listening connection fails, the listener reconnects with an exponential backoff.
+ * The validation worker keeps polling the database in the meantime, so an outage only costs latency.
+ */
+public final class ListenDirectiveValidationCapability {
+  private static final Logger logger = LoggerFactory.getLogger(ListenDirectiveValidationCapability.class);
+
+  private static final Duration INITIAL_RECONNECT_DELAY = Duration.ofSeconds(1);
+  private static final Duration MAX_RECONNECT_DELAY = Duration.ofMinutes(1);
+
+  private final DataSource dataSource;
+  private final BlockingQueue<PlanId> notificationQueue;
+  private final Duration initialReconnectDelay;
+  private final Duration maxReconnectDelay;
+
+  public ListenDirectiveValidationCapability(
+      final DataSource dataSource,
+      final BlockingQueue<PlanId> notificationQueue) {
+    this(dataSource, notificationQueue, INITIAL_RECONNECT_DELAY, MAX_RECONNECT_DELAY);
+  }
+
+  /*package-local*/ ListenDirectiveValidationCapability(
+      final DataSource dataSource,
+      final BlockingQueue<PlanId> notificationQueue,
+      final Duration initialReconnectDelay,
+      final Duration maxReconnectDelay) {
+    this.dataSource = dataSource;
+    this.notificationQueue = notificationQueue;
+    this.initialReconnectDelay = initialReconnectDelay;
+    this.maxReconnectDelay = maxReconnectDelay;
+  }
+
+  public Thread registerListener() {
+    final var listenThread = new Thread(() -> {
+      var reconnectDelay = this.initialReconnectDelay;
+      try {
+        while (!Thread.currentThread().isInterrupted()) {
+          try (final var connection = this.dataSource.getConnection()) {
+            try (final var listenAction = new ListenDirectiveValidationAction(connection)) {
+              listenAction.apply();
+            }
+            reconnectDelay = this.initialReconnectDelay;
+            forwardNotifications(connection.unwrap(PGConnection.class));
+          } catch (final SQLException ex) {
+            // the validation worker keeps polling on its own, so losing the listener only costs latency
+            logger.error(
+                "Directive validation listener encountered exception, reconnecting in {} ms",
+                reconnectDelay.toMillis(),
+                ex);
+            Thread.sleep(reconnectDelay.toMillis());
+            reconnectDelay = min(reconnectDelay.multipliedBy(2), this.maxReconnectDelay);
+          }
+        }
+        logger.info("Directive validation listener has received interrupted signal");
+      } catch (final InterruptedException ex) {
+        logger.info("Directive validation listener has been interrupted");
+      }
+    }, "directive-validation-listener");
+    listenThread.setDaemon(true);
+    listenThread.start();
+    return listenThread;
+  }
+
+  /** Forward notifications to the queue until this thread is interrupted, or until the connection fails. */
+  private void forwardNotifications(final PGConnection pgConnection) throws SQLException, InterruptedException {
+    while (!Thread.currentThread().isInterrupted()) {
+      final var notifications = pgConnection.getNotifications(10000);
+      if (notifications == null) continue;
+
+      for (final var notification : notifications) {
+        logger.debug("Received PSQL Notification: {}, {}", notification.getName(), notification.getParameter());
+        try {
+          this.notificationQueue.put(new PlanId(Long.parseLong(notification.getParameter())));
+        } catch (final NumberFormatException ex) {
+          logger.warn("Ignoring malformed directive validation notification: {}", notification.getParameter());
+        }
+      }
+    }
+  }
+
+  private static Duration min(final Duration a, final Duration b) {
+    return (a.compareTo(b) <= 0) ? a : b;
+  }
+}
@@ -5,6 +5,7 @@ import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 import org.intellij.lang.annotations.Language;
 
+import java.io.StringWriter;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
@@ -61,7 +62,9 @@ public final class PostProfileSegmentsAction implements AutoCloseable {
   }
 
   private <Dynamics> String serializeDynamics(final Dynamics dynamics, final JsonParser<Dynamics> dynamicsP) {
-    return dynamicsP.unparse(dynamics).toString();
+    final var writer = new StringWriter();
+    dynamicsP.unparseTo(dynamics, writer);
+    return writer.toString();
   }
 
   @Override
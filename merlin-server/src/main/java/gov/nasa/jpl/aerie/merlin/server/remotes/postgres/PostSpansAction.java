@@ -1,8 +1,6 @@
 package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
 
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
-import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
-import gov.nasa.jpl.aerie.types.Timestamp;
 import org.intellij.lang.annotations.Language;
 
 import java.sql.Connection;
@@ -10,69 +8,70 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
-import java.time.temporal.ChronoUnit;
-import java.util.Map;
 import java.util.Optional;
 
 import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresParsers.activityAttributesP;
-import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PreparedStatements.setTimestamp;
+import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PreparedStatements.setDuration;
 
 /*package-local*/ final class PostSpansAction implements AutoCloseable {
   private static final @Language("SQL") String sql = """
-      insert into merlin.span (span_id,dataset_id,parent_id, start_offset, duration, type, attributes)
-      values (?,?,?, ?::timestamptz - ?::timestamptz, ?::timestamptz - ?::timestamptz, ?, ?::jsonb)
+      insert into merlin.span (span_id, dataset_id, parent_id, start_offset, duration, type, attributes)
+      values (?, ?, ?, ?::interval, ?::interval, ?, ?::jsonb)
     """;
 
   private final PreparedStatement statement;
+  private final int batchSize;
+  private int pendingRows = 0;
 
-  public PostSpansAction(final Connection connection) throws SQLException {
-    this.statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+  public PostSpansAction(final Connection connection, final int batchSize) throws SQLException {
+    this.statement = connection.prepareStatement(sql, Statement.NO_GENERATED_KEYS);
+    this.batchSize = batchSize;
   }
 
+  /**
+   * Queue one span, sending queued spans to the database whenever a full batch has accumulated.
+   *
+   * A span's parent must have been applied before the span itself, as the parent is referenced by foreign key.
+   */
   public void apply(
       final long datasetId,
-      final Map<Long, SpanRecord> spans,
-      final Timestamp simulationStart
+      final long spanId,
+      final Optional<Long> parentId,
+      final Duration startOffset,
+      final Optional<Duration> duration,
+      final String type,
+      final ActivityAttributesRecord attributes
   ) throws SQLException {
-
-    final var ids = spans.keySet().stream().toList();
-    for (final var id : ids) {
-      final var act = spans.get(id);
-      final var startTimestamp = new Timestamp(act.start());
-
-      final var endTimestamp = act.duration().map(duration -> {
-        final var actEnd = act.start().plus(duration.dividedBy(Duration.MICROSECOND), ChronoUnit.MICROS);
-        return new Timestamp(actEnd);
-      });
-
-      statement.setLong(1, id);
-      statement.setLong(2, datasetId);
-      if (act.parentId().isPresent()){
-        statement.setLong(3,act.parentId().get());
-      }else{
-        statement.setNull(3,Types.BIGINT);
-      }
-      setTimestamp(statement, 4, startTimestamp);
-      setTimestamp(statement, 5, simulationStart);
-
-      if (endTimestamp.isPresent()) {
-        setTimestamp(statement, 6, endTimestamp.get());
-      } else {
-        statement.setNull(6, Types.TIMESTAMP_WITH_TIMEZONE);
-      }
-
-      setTimestamp(statement, 7, startTimestamp);
-      statement.setString(8, act.type());
-      statement.setString(9, buildAttributes(act.attributes().directiveId(), act.attributes().arguments(), act.attributes().computedAttributes()));
-
-      statement.addBatch();
+    this.statement.setLong(1, spanId);
+    this.statement.setLong(2, datasetId);
+    if (parentId.isPresent()) {
+      this.statement.setLong(3, parentId.get());
+    } else {
+      this.statement.setNull(3, Types.BIGINT);
     }
+    setDuration(this.statement, 4, startOffset);
+    if (duration.isPresent()) {
+      setDuration(this.statement, 5, duration.get());
+    } else {
+      this.statement.setNull(5, Types.VARCHAR);
+    }
+    this.statement.setString(6, type);
+    this.statement.setString(7, activityAttributesP.unparse(attributes).toString());
+    this.statement.addBatch();
 
-    statement.executeBatch();
+    if (++this.pendingRows >= this.batchSize) flush();
   }
 
-  private String buildAttributes(final Optional<Long> directiveId, final Map<String, SerializedValue> arguments, final Optional<SerializedValue> returnValue) {
-    return activityAttributesP.unparse(new ActivityAttributesRecord(directiveId, arguments, returnValue)).toString();
+  /**
+   * Send any queued spans to the database.
+   */
+  public void flush() throws SQLException {
+    if (this.pendingRows == 0) return;
+    final var results = this.statement.executeBatch();
+    for (final var result : results) {
+      if (result == Statement.EXECUTE_FAILED) throw new FailedInsertException("merlin.span");
+    }
+    this.pendingRows = 0;
   }
 
   @Override
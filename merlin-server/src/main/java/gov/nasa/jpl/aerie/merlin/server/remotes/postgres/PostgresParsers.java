@@ -136,8 +136,7 @@ public final class PostgresParsers {
 
   public static <V> JsonParseResult<V>
   getJsonColumn(final ResultSet results, final String column, final JsonParser<V> parser) throws SQLException {
-    try (final var reader = Json.createReader(results.getCharacterStream(column))) {
-      return parser.parse(reader.readValue());
-    }
+    // Parse directly from the column's text, rather than materializing the document before parsing it.
+    return parser.parseFrom(results.getCharacterStream(column));
   }
 }
@@ -2,6 +2,7 @@ package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
 
 import gov.nasa.jpl.aerie.types.ActivityInstance;
 import gov.nasa.jpl.aerie.types.ActivityInstanceId;
+import gov.nasa.jpl.aerie.merlin.driver.ParentFirstOrder;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationException;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationFailure;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
@@ -31,19 +32,19 @@ import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.SortedMap;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public final class PostgresResultsCellRepository implements ResultsCellRepository {
   private static final Logger logger = LoggerFactory.getLogger(PostgresResultsCellRepository.class);
 
+  /** The number of spans sent to the database in each batch. */
+  private static final int SPAN_BATCH_SIZE = 10_000;
+
   private final DataSource dataSource;
 
   public PostgresResultsCellRepository(final DataSource dataSource) {
@@ -400,65 +401,35 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
     }
   }
 
-  private static void postActivities(
+  /*package-local*/ static void postActivities(
       final Connection connection,
       final long datasetId,
       final Map<ActivityInstanceId, ActivityInstance> simulatedActivities,
       final Map<ActivityInstanceId, UnfinishedActivity> unfinishedActivities,
       final Timestamp simulationStart
   ) throws SQLException {
-    try (final var postActivitiesAction = new PostSpansAction(connection)) {
-      final var simulatedActivityRecords = simulatedActivities.entrySet().stream()
-          .collect(Collectors.toMap(
-              e -> e.getKey().id(),
-              e -> simulatedActivityToRecord(e.getValue())));
-
-      final var allActivityRecords = unfinishedActivities.entrySet().stream()
-          .collect(Collectors.toMap(
-              e -> e.getKey().id(),
-              e -> unfinishedActivityToRecord(e.getValue())));
-      allActivityRecords.putAll(simulatedActivityRecords);
-
-      // Sorts the map by SpanRecord parent ID to ensure foreign key constraints are met.
-      // Entries with null parent IDs are placed first to avoid foreign key violations
-      // for the "span_has_parent_span" constraint.
-      final var sortedAllActivityRecords = topoSort(allActivityRecords, $ -> $.parentId().stream().toList());
-
-      postActivitiesAction.apply(
-          datasetId,
-          sortedAllActivityRecords,
-          simulationStart);
+    try (final var postSpansAction = new PostSpansAction(connection, SPAN_BATCH_SIZE)) {
+      // Parents are posted before their children to satisfy the "span_has_parent_span" foreign key constraint.
+      for (final var id : ParentFirstOrder.of(simulatedActivities, unfinishedActivities)) {
+        final var simulated = simulatedActivities.get(id);
+        final var span = (simulated != null)
+            ? simulatedActivityToRecord(simulated)
+            : unfinishedActivityToRecord(unfinishedActivities.get(id));
+        postSpansAction.apply(
+            datasetId,
+            id.id(),
+            span.parentId(),
+            durationBetween(simulationStart.toInstant(), span.start()),
+            span.duration(),
+            span.type(),
+            span.attributes());
+      }
+      postSpansAction.flush();
     }
   }
 
-  /**
-   * Take an unsorted map and produce a sorted LinkedHashMap where nodes always
-   * come after their dependencies.
-   * @param nodes a map from keys to values - the keys are used to define dependencies
-   * @param dependencies - for a given value, what are the keys of its dependencies?
-   * @return a sorted LinkedHashMap where nodes always come after their dependencies
-   * @throws IllegalArgumentException if a cycle is found
-   */
-  private static <K, V> LinkedHashMap<K, V> topoSort(Map<K, V> nodes, Function<V, List<K>> dependencies) {
-    final var worklist = new ArrayList<>(nodes.entrySet());
-    final var sortedMap = new LinkedHashMap<K, V>();
-    while (!worklist.isEmpty()) {
-      var madeProgress = false;
-      for (int i = worklist.size() - 1; i >= 0; i--) {
-        final var entry = worklist.get(i);
-        // A node is ready to be added to the output if all of its dependencies are already in the output
-        if (dependencies.apply(entry.getValue()).stream().allMatch(sortedMap::containsKey)) {
-          sortedMap.put(entry.getKey(), entry.getValue());
-          worklist.remove(i);
-          madeProgress = true;
-        }
-      }
-      // If no nodes were added to the output in this round, there must be a cycle in the remaining nodes
-      if (!madeProgress) {
-        throw new IllegalArgumentException("Cycle detected in input to topoSort:" + worklist);
-      }
-    }
-    return sortedMap;
+  private static Duration durationBetween(final Instant start, final Instant end) {
+    return Duration.of(Math.floorDiv(java.time.Duration.between(start, end).toNanos(), 1000), Duration.MICROSECONDS);
   }
 
   private static SpanRecord simulatedActivityToRecord(final ActivityInstance activity) {
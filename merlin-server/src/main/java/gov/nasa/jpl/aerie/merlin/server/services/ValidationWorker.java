@@ -1,60 +1,219 @@
 package gov.nasa.jpl.aerie.merlin.server.services;
 
 import gov.nasa.jpl.aerie.merlin.server.models.ActivityDirectiveForValidation;
+import gov.nasa.jpl.aerie.merlin.server.models.PlanId;
 import gov.nasa.jpl.aerie.merlin.server.services.MissionModelService.BulkArgumentValidationResponse;
+import gov.nasa.jpl.aerie.types.MissionModelId;
 import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.IntStream;
 import java.util.List;
 
-public record ValidationWorker(LocalMissionModelService missionModelService, int pollingPeriod) {
+/**
+ * Computes and stores the argument validations of activity directives whose validation is pending.
+ *
+ * The worker wakes up whenever a plan id arrives on the notification queue (fed by a Postgres LISTEN on the
+ * `activity_directive_validation` channel), or after `pollingPeriod` milliseconds without one, in case a notification
+ * was missed. Notifications arriving in quick succession are coalesced into one batch, and each mission model's
+ * pending directives are validated on a pool of validation threads, so that different models are validated concurrently
+ * while any single model is only ever validated by one thread at a time.
+ *
+ * The worker's metrics are logged at most once every {@value #METRICS_LOG_INTERVAL_MILLIS} milliseconds while it is
+ * validating directives, and are available on demand from {@link #metrics()}.
+ */
+public final class ValidationWorker {
 
   private static final Logger logger = LoggerFactory.getLogger(ValidationWorker.class);
 
+  /** How long to keep collecting notifications after the first one arrives, so a burst of edits is validated together. */
+  private static final long NOTIFICATION_BATCH_WINDOW_MILLIS = 50;
+
+  private static final long METRICS_LOG_INTERVAL_MILLIS = 60_000;
+
+  private final LocalMissionModelService missionModelService;
+  private final int pollingPeriod;
+  private final BlockingQueue<PlanId> notificationQueue;
+  private final ExecutorService validationPool;
+
+  // models whose directives are currently being validated, and a plan to re-notify for each model that received
+  // further requests while it was busy
+  private final Set<MissionModelId> modelsInFlight = ConcurrentHashMap.newKeySet();
+  private final Map<MissionModelId, PlanId> deferredModels = new ConcurrentHashMap<>();
+
+  private final AtomicLong pendingDirectives = new AtomicLong();
+  private final LongAdder notificationsReceived = new LongAdder();
+  private final LongAdder batchesValidated = new LongAdder();
+  private final LongAdder directivesValidated = new LongAdder();
+  private final LongAdder totalLatencyNanos = new LongAdder();
+  private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+  private final AtomicLong lastMetricsLogNanos = new AtomicLong(System.nanoTime());
+
+  public ValidationWorker(
+      final LocalMissionModelService missionModelService,
+      final int pollingPeriod,
+      final BlockingQueue<PlanId> notificationQueue,
+      final int validationThreads)
+  {
+    if (validationThreads < 1) {
+      throw new IllegalArgumentException("validationThreads must be at least 1, got " + validationThreads);
+    }
+    this.missionModelService = missionModelService;
+    this.pollingPeriod = pollingPeriod;
+    this.notificationQueue = notificationQueue;
+
+    final var threadCount = new AtomicInteger();
+    this.validationPool = Executors.newFixedThreadPool(validationThreads, r -> {
+      final var thread = new Thread(r, "validation-worker-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
   public void workerLoop() {
     logger.info("validation worker starting...");
-    while (!Thread.interrupted()) {
-      try {
-        Thread.sleep(pollingPeriod);
-
-        // get unvalidated directives, batched by mission model id
-        final var validationRequests = missionModelService.getUnvalidatedDirectives();
-        if (!validationRequests.isEmpty()) {
-          logger.debug(
-              "queried {} directives that need validations, across {} models",
-              validationRequests.size(),
-              validationRequests.keySet().size());
+    try {
+      while (!Thread.interrupted()) {
+        try {
+          awaitValidationRequests();
+          dispatchPendingValidations();
+        } catch (InterruptedException ex) {
+          // we were interrupted, so exit gracefully
+          return;
+        } catch (Throwable t) {
+          // catch all to keep validation thread from dying, which would require a merlin-server restart
+          logger.error("Recovering from unexpected error encountered in validation thread: ", t);
         }
+      }
+    } finally {
+      this.validationPool.shutdownNow();
+    }
+  }
 
-        // spin up each mission model once and process all corresponding directive validations
-        for (final var entry : validationRequests.entrySet()) {
-          final var beginTime = System.nanoTime();
+  private void awaitValidationRequests() throws InterruptedException {
+    final var first = this.notificationQueue.poll(this.pollingPeriod, TimeUnit.MILLISECONDS);
+    if (first == null) return;
 
-          final var modelId = entry.getKey();
-          logger.debug("processing batch for mission model: {}", modelId.toString());
+    // micro-batch: give the rest of a burst of notifications a moment to arrive, then take them all at once
+    Thread.sleep(NOTIFICATION_BATCH_WINDOW_MILLIS);
+    final var batch = new ArrayList<PlanId>();
+    batch.add(first);
+    this.notificationQueue.drainTo(batch);
+    this.notificationsReceived.add(batch.size());
+    logger.debug("woken by notifications for {} plans", batch.stream().distinct().count());
+  }
+
+  private void dispatchPendingValidations() {
+    // get unvalidated directives, batched by mission model id
+    final var validationRequests = missionModelService.getUnvalidatedDirectives();
+    this.pendingDirectives.set(validationRequests.values().stream().mapToLong(List::size).sum());
+    if (validationRequests.isEmpty()) return;
 
-          final var unvalidatedDirectives = entry.getValue();
-          final var responses = missionModelService.validateActivityArgumentsBulk(modelId, unvalidatedDirectives);
+    logger.debug(
+        "queried {} directives that need validations, across {} models",
+        this.pendingDirectives.get(),
+        validationRequests.keySet().size());
 
-          // zip together directives and validations, since DB action needs to insert validations for a given directive
-          final List<Pair<ActivityDirectiveForValidation, BulkArgumentValidationResponse>> zippedList = zip(unvalidatedDirectives, responses);
+    for (final var entry : validationRequests.entrySet()) {
+      final var modelId = entry.getKey();
+      final var unvalidatedDirectives = entry.getValue();
 
-          // write validations out to DB
-          missionModelService.updateDirectiveValidations(zippedList);
+      // record the request before claiming the model, so that a batch finishing concurrently will re-notify it
+      this.deferredModels.put(modelId, unvalidatedDirectives.getFirst().planId());
+      if (!this.modelsInFlight.add(modelId)) continue;
+      this.deferredModels.remove(modelId);
 
-          final var endTime = System.nanoTime();
-          final var duration = (endTime - beginTime) / 1_000_000.0;
-          logger.debug("processed model batch of size {} in {} ms", unvalidatedDirectives.size(), duration);
+      this.validationPool.execute(() -> {
+        try {
+          validateModelBatch(modelId, unvalidatedDirectives);
+        } catch (Throwable t) {
+          logger.error("Recovering from unexpected error encountered validating batch for model {}: ", modelId, t);
+        } finally {
+          this.modelsInFlight.remove(modelId);
+          final var deferredPlan = this.deferredModels.remove(modelId);
+          if (deferredPlan != null) this.notificationQueue.offer(deferredPlan);
         }
-      } catch (InterruptedException ex) {
-        // we were interrupted, so exit gracefully
-        return;
-      } catch (Throwable t) {
-        // catch all to keep validation thread from dying, which would require a merlin-server restart
-        logger.error("Recovering from unexpected error encountered in validation thread: ", t);
-      }
+      });
+    }
+  }
+
+  private void validateModelBatch(final MissionModelId modelId, final List<ActivityDirectiveForValidation> unvalidatedDirectives) {
+    // spin up the mission model once and process all corresponding directive validations
+    final var beginTime = System.nanoTime();
+    logger.debug("processing batch for mission model: {}", modelId.toString());
+
+    final var responses = missionModelService.validateActivityArgumentsBulk(modelId, unvalidatedDirectives);
+
+    // zip together directives and validations, since DB action needs to insert validations for a given directive
+    final List<Pair<ActivityDirectiveForValidation, BulkArgumentValidationResponse>> zippedList = zip(unvalidatedDirectives, responses);
+
+    // write validations out to DB
+    missionModelService.updateDirectiveValidations(zippedList);
+
+    final var latency = System.nanoTime() - beginTime;
+    this.batchesValidated.increment();
+    this.directivesValidated.add(zippedList.size());
+    this.totalLatencyNanos.add(latency);
+    this.maxLatencyNanos.accumulate(latency);
+    logger.debug("processed model batch of size {} in {} ms", unvalidatedDirectives.size(), latency / 1_000_000.0);
+    logMetricsPeriodically();
+  }
+
+  private void logMetricsPeriodically() {
+    final var now = System.nanoTime();
+    final var last = this.lastMetricsLogNanos.get();
+    if (now - last < TimeUnit.MILLISECONDS.toNanos(METRICS_LOG_INTERVAL_MILLIS)) return;
+    if (!this.lastMetricsLogNanos.compareAndSet(last, now)) return;
+    logger.info("validation metrics: {}", this.metrics());
+  }
+
+  /** @return a snapshot of the validation metrics recorded so far */
+  public ValidationMetrics metrics() {
+    return new ValidationMetrics(
+        this.pendingDirectives.get(),
+        this.notificationQueue.size(),
+        this.notificationsReceived.sum(),
+        this.batchesValidated.sum(),
+        this.directivesValidated.sum(),
+        this.totalLatencyNanos.sum(),
+        this.maxLatencyNanos.get());
+  }
+
+  /**
+   * @param pendingDirectives the number of directives awaiting validation when the database was last queried
+   * @param queuedNotifications the number of notifications waiting to be picked up by the worker
+   */
+  public record ValidationMetrics(
+      long pendingDirectives,
+      long queuedNotifications,
+      long notificationsReceived,
+      long batchesValidated,
+      long directivesValidated,
+      long totalLatencyNanos,
+      long maxLatencyNanos)
+  {
+    public double meanBatchLatencyMillis() {
+      return (batchesValidated == 0) ? 0 : (totalLatencyNanos / 1e6) / batchesValidated;
+    }
+
+    @Override
+    public String toString() {
+      return "pending=%d queued=%d notifications=%d batches=%d directives=%d meanLatency=%.1fms maxLatency=%.1fms".formatted(
+          pendingDirectives, queuedNotifications, notificationsReceived, batchesValidated, directivesValidated,
+          meanBatchLatencyMillis(), maxLatencyNanos / 1e6);
     }
   }
 
@@ -0,0 +1,49 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.merlin.server.models.PlanId;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class ListenDirectiveValidationCapabilityTest {
+  @Test
+  void listenerReconnectsAfterConnectionFailures() throws InterruptedException {
+    final var attempts = new AtomicInteger();
+    final var dataSource = (DataSource) Proxy.newProxyInstance(
+        DataSource.class.getClassLoader(),
+        new Class<?>[] {DataSource.class},
+        (proxy, method, args) -> {
+          if (method.getName().equals("getConnection")) {
+            attempts.incrementAndGet();
+            throw new SQLException("database unavailable");
+          }
+          throw new UnsupportedOperationException(method.getName());
+        });
+
+    final var listener = new ListenDirectiveValidationCapability(
+        dataSource,
+        new LinkedBlockingQueue<PlanId>(),
+        Duration.ofMillis(1),
+        Duration.ofMillis(10))
+        .registerListener();
+
+    final var deadline = System.nanoTime() + 10_000_000_000L;
+    while (attempts.get() < 3) {
+      assertTrue(System.nanoTime() < deadline, "Timed out waiting for the listener to reconnect");
+      Thread.sleep(5);
+    }
+    assertTrue(listener.isAlive());
+
+    listener.interrupt();
+    listener.join(5_000);
+    assertFalse(listener.isAlive());
+  }
+}
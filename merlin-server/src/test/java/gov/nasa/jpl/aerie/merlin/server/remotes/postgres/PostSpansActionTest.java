@@ -0,0 +1,88 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.merlin.driver.UnfinishedActivity;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.types.ActivityInstance;
+import gov.nasa.jpl.aerie.types.ActivityInstanceId;
+import gov.nasa.jpl.aerie.types.Timestamp;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class PostSpansActionTest {
+  @Test
+  void spansAreSentInBatchesOfBoundedSize() throws SQLException {
+    final var recording = new RecordingConnection();
+    try (final var action = new PostSpansAction(recording.connection(), 10)) {
+      for (var i = 0; i < 25; i++) {
+        action.apply(1, i, Optional.empty(), Duration.ZERO, Optional.of(Duration.SECOND), "activity", attributes());
+      }
+      action.flush();
+    }
+
+    assertEquals(List.of(10, 10, 5), recording.batchSizes());
+  }
+
+  @Test
+  void flushingWithoutQueuedSpansSendsNothing() throws SQLException {
+    final var recording = new RecordingConnection();
+    try (final var action = new PostSpansAction(recording.connection(), 10)) {
+      for (var i = 0; i < 10; i++) {
+        action.apply(1, i, Optional.empty(), Duration.ZERO, Optional.empty(), "activity", attributes());
+      }
+      action.flush();
+      action.flush();
+    }
+
+    assertEquals(List.of(10), recording.batchSizes());
+  }
+
+  @Test
+  void parentSpansArePostedBeforeTheirChildren() throws SQLException {
+    // A chain in which every span is the parent of the span with the next lower id,
+    // so that posting spans in id order would violate the parent foreign key on every row.
+    final var spanCount = 25_000;
+    final var simulatedActivities = new HashMap<ActivityInstanceId, ActivityInstance>();
+    final var unfinishedActivities = new HashMap<ActivityInstanceId, UnfinishedActivity>();
+    for (var i = 0; i < spanCount; i++) {
+      final var parentId = (i == spanCount - 1) ? null : new ActivityInstanceId(i + 1);
+      if (i % 2 == 0) {
+        simulatedActivities.put(new ActivityInstanceId(i), new ActivityInstance(
+            "activity", Map.of(), Instant.EPOCH, Duration.SECOND, parentId, List.of(), Optional.empty(), SerializedValue.NULL));
+      } else {
+        unfinishedActivities.put(new ActivityInstanceId(i), new UnfinishedActivity(
+            "activity", Map.of(), Instant.EPOCH, parentId, List.of(), Optional.empty()));
+      }
+    }
+
+    final var recording = new RecordingConnection();
+    PostgresResultsCellRepository.postActivities(
+        recording.connection(), 1, simulatedActivities, unfinishedActivities, new Timestamp(Instant.EPOCH));
+
+    assertEquals(List.of(10_000, 10_000, 5_000), recording.batchSizes());
+
+    final var posted = new HashSet<Long>();
+    for (final var batch : recording.batches()) {
+      for (final var row : batch) {
+        final var parentId = (Long) row.get(3);
+        assertTrue(parentId == null || posted.contains(parentId), "span %s was posted before its parent".formatted(row.get(1)));
+        posted.add((Long) row.get(1));
+      }
+    }
+    assertEquals(spanCount, posted.size());
+  }
+
+  private static ActivityAttributesRecord attributes() {
+    return new ActivityAttributesRecord(Optional.empty(), Map.of(), Optional.empty());
+  }
+}
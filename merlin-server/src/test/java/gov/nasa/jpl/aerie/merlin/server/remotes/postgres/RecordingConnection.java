@@ -0,0 +1,72 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A JDBC connection which records the batches executed on its prepared statements instead of sending them anywhere.
+ *
+ * Each batch is recorded as a list of rows, and each row maps parameter indices to the values bound to them.
+ */
+/*package-local*/ final class RecordingConnection {
+  private final List<List<Map<Integer, Object>>> batches = new ArrayList<>();
+
+  public List<List<Map<Integer, Object>>> batches() {
+    return this.batches;
+  }
+
+  public List<Integer> batchSizes() {
+    return this.batches.stream().map(List::size).toList();
+  }
+
+  public Connection connection() {
+    return (Connection) Proxy.newProxyInstance(
+        Connection.class.getClassLoader(),
+        new Class<?>[] {Connection.class},
+        (proxy, method, args) -> switch (method.getName()) {
+          case "prepareStatement" -> statement();
+          case "close" -> null;
+          default -> throw new UnsupportedOperationException(method.getName());
+        });
+  }
+
+  private PreparedStatement statement() {
+    final var row = new HashMap<Integer, Object>();
+    final var pending = new ArrayList<Map<Integer, Object>>();
+    return (PreparedStatement) Proxy.newProxyInstance(
+        PreparedStatement.class.getClassLoader(),
+        new Class<?>[] {PreparedStatement.class},
+        (proxy, method, args) -> {
+          final var name = method.getName();
+          if (name.equals("setNull")) {
+            row.put((Integer) args[0], null);
+            return null;
+          } else if (name.startsWith("set")) {
+            row.put((Integer) args[0], args[1]);
+            return null;
+          }
+          return switch (name) {
+            case "addBatch" -> {
+              pending.add(new HashMap<>(row));
+              row.clear();
+              yield null;
+            }
+            case "executeBatch" -> {
+              this.batches.add(List.copyOf(pending));
+              final var results = new int[pending.size()];
+              Arrays.fill(results, 1);
+              pending.clear();
+              yield results;
+            }
+            case "close" -> null;
+            default -> throw new UnsupportedOperationException(name);
+          };
+        });
+  }
+}
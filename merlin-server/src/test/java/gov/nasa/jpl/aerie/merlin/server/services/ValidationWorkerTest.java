@@ -0,0 +1,187 @@
+package gov.nasa.jpl.aerie.merlin.server.services;
+
+import gov.nasa.jpl.aerie.merlin.protocol.model.InputType.Parameter;
+import gov.nasa.jpl.aerie.merlin.protocol.model.Resource;
+import gov.nasa.jpl.aerie.merlin.server.models.ActivityDirectiveForValidation;
+import gov.nasa.jpl.aerie.merlin.server.models.ActivityType;
+import gov.nasa.jpl.aerie.merlin.server.models.MissionModelJar;
+import gov.nasa.jpl.aerie.merlin.server.models.PlanId;
+import gov.nasa.jpl.aerie.merlin.server.remotes.MissionModelRepository;
+import gov.nasa.jpl.aerie.merlin.server.services.MissionModelService.BulkArgumentValidationResponse;
+import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
+import gov.nasa.jpl.aerie.types.MissionModelId;
+import gov.nasa.jpl.aerie.types.SerializedActivity;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class ValidationWorkerTest {
+  private static final MissionModelId MODEL = new MissionModelId(1L);
+  private static final PlanId PLAN = new PlanId(1L);
+
+  /** Long enough that a test relying on a notification would time out if the worker only polled. */
+  private static final int LONG_POLLING_PERIOD = 60_000;
+
+  private final FakeMissionModelRepository repository = new FakeMissionModelRepository();
+  private final BlockingQueue<PlanId> notificationQueue = new LinkedBlockingQueue<>();
+  private Thread workerThread;
+
+  @AfterEach
+  void stopWorker() throws InterruptedException {
+    if (this.workerThread == null) return;
+    this.workerThread.interrupt();
+    this.workerThread.join(5_000);
+  }
+
+  @Test
+  void notificationsWakeTheWorker() throws InterruptedException {
+    final var worker = startWorker(LONG_POLLING_PERIOD);
+
+    this.repository.addPending(directive(1));
+    this.notificationQueue.put(PLAN);
+
+    awaitCondition(() -> worker.metrics().batchesValidated() == 1);
+    assertEquals(List.of(directive(1)), this.repository.validated());
+    assertEquals(1, worker.metrics().notificationsReceived());
+  }
+
+  @Test
+  void burstsOfNotificationsAreValidatedTogether() throws InterruptedException {
+    for (var i = 0; i < 10; i++) {
+      this.repository.addPending(directive(i));
+      this.notificationQueue.put(PLAN);
+    }
+    final var worker = startWorker(LONG_POLLING_PERIOD);
+
+    awaitCondition(() -> worker.metrics().batchesValidated() == 1);
+    assertEquals(List.of(10), this.repository.batchSizes());
+    assertEquals(10, worker.metrics().notificationsReceived());
+    assertEquals(10, worker.metrics().directivesValidated());
+  }
+
+  @Test
+  void workerPollsWithoutNotifications() throws InterruptedException {
+    startWorker(10);
+
+    this.repository.addPending(directive(1));
+
+    awaitCondition(() -> !this.repository.validated().isEmpty());
+    assertEquals(directive(1), this.repository.validated().getFirst());
+  }
+
+  private ValidationWorker startWorker(final int pollingPeriod) {
+    final var missionModelService = new LocalMissionModelService(Path.of("."), this.repository, Instant.EPOCH);
+    final var worker = new ValidationWorker(missionModelService, pollingPeriod, this.notificationQueue, 2);
+    this.workerThread = new Thread(worker::workerLoop);
+    this.workerThread.start();
+    return worker;
+  }
+
+  private static ActivityDirectiveForValidation directive(final long id) {
+    return new ActivityDirectiveForValidation(
+        new ActivityDirectiveId(id),
+        PLAN,
+        new Timestamp(0),
+        new SerializedActivity("activity", Map.of()));
+  }
+
+  private static void awaitCondition(final BooleanSupplier condition) throws InterruptedException {
+    final var deadline = System.nanoTime() + 10_000_000_000L;
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.nanoTime() < deadline, "Timed out waiting for the validation worker");
+      Thread.sleep(5);
+    }
+  }
+
+  /**
+   * A repository holding no mission models, so that every directive validates to a missing-model error,
+   * which records the directives validated in each batch.
+   */
+  private static final class FakeMissionModelRepository implements MissionModelRepository {
+    private final List<ActivityDirectiveForValidation> pending = new ArrayList<>();
+    private final List<ActivityDirectiveForValidation> validated = new ArrayList<>();
+    private final List<Integer> batchSizes = new ArrayList<>();
+
+    synchronized void addPending(final ActivityDirectiveForValidation directive) {
+      this.pending.add(directive);
+    }
+
+    synchronized List<ActivityDirectiveForValidation> validated() {
+      return List.copyOf(this.validated);
+    }
+
+    synchronized List<Integer> batchSizes() {
+      return List.copyOf(this.batchSizes);
+    }
+
+    @Override
+    public synchronized Map<MissionModelId, List<ActivityDirectiveForValidation>> getUnvalidatedDirectives() {
+      final var directives = new HashMap<MissionModelId, List<ActivityDirectiveForValidation>>();
+      if (!this.pending.isEmpty()) directives.put(MODEL, List.copyOf(this.pending));
+      return directives;
+    }
+
+    @Override
+    public synchronized void updateDirectiveValidations(
+        final List<Pair<ActivityDirectiveForValidation, BulkArgumentValidationResponse>> updates)
+    {
+      for (final var update : updates) {
+        this.pending.remove(update.getLeft());
+        this.validated.add(update.getLeft());
+      }
+      this.batchSizes.add(updates.size());
+    }
+
+    @Override
+    public Map<MissionModelId, MissionModelJar> getAllMissionModels() {
+      return Map.of();
+    }
+
+    @Override
+    public MissionModelJar getMissionModel(final MissionModelId id) throws NoSuchMissionModelException {
+      throw new NoSuchMissionModelException();
+    }
+
+    @Override
+    public Map<String, ActivityType> getActivityTypes(final MissionModelId missionModelId)
+    throws NoSuchMissionModelException
+    {
+      throw new NoSuchMissionModelException();
+    }
+
+    @Override
+    public void updateModelParameters(final MissionModelId missionModelId, final List<Parameter> modelParameters)
+    throws NoSuchMissionModelException
+    {
+      throw new NoSuchMissionModelException();
+    }
+
+    @Override
+    public void updateActivityTypes(final MissionModelId missionModelId, final Map<String, ActivityType> activityTypes)
+    throws NoSuchMissionModelException
+    {
+      throw new NoSuchMissionModelException();
+    }
+
+    @Override
+    public void updateResourceTypes(final MissionModelId missionModelId, final Map<String, Resource<?>> resourceTypes)
+    throws NoSuchMissionModelException
+    {
+      throw new NoSuchMissionModelException();
+    }
+  }
+}
@@ -8,6 +8,9 @@ import javax.json.JsonNumber;
 import javax.json.JsonObject;
 import javax.json.JsonString;
 import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser.Event;
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -78,10 +81,24 @@ public abstract class BasicParsers {
       return JsonParseResult.failure("expected boolean");
     }
 
+    @Override
+    public JsonParseResult<Boolean> parseFrom(final JsonEventStream events) {
+      return switch (events.current()) {
+        case VALUE_TRUE -> JsonParseResult.success(true);
+        case VALUE_FALSE -> JsonParseResult.success(false);
+        default -> mismatch(events, "expected boolean");
+      };
+    }
+
     @Override
     public JsonValue unparse(final Boolean value) {
       return (value) ? JsonValue.TRUE : JsonValue.FALSE;
     }
+
+    @Override
+    public void unparseTo(final Boolean value, final JsonGenerator generator) {
+      generator.write(value);
+    }
   };
 
   public static final JsonParser<String> stringP = new JsonParser<>() {
@@ -100,10 +117,22 @@ public abstract class BasicParsers {
       return JsonParseResult.success(((JsonString) json).getString());
     }
 
+    @Override
+    public JsonParseResult<String> parseFrom(final JsonEventStream events) {
+      if (events.current() != Event.VALUE_STRING) return mismatch(events, "expected string");
+
+      return JsonParseResult.success(events.getString());
+    }
+
     @Override
     public JsonValue unparse(final String value) {
       return Json.createValue(value);
     }
+
+    @Override
+    public void unparseTo(final String value, final JsonGenerator generator) {
+      generator.write(value);
+    }
   };
 
   public static final JsonParser<Instant> instantP = stringP.map(
@@ -136,10 +165,27 @@ public abstract class BasicParsers {
       }
     }
 
+    @Override
+    public JsonParseResult<Integer> parseFrom(final JsonEventStream events) {
+      if (events.current() != Event.VALUE_NUMBER) return mismatch(events, "expected int");
+      if (!events.isIntegralNumber()) return JsonParseResult.failure("expected integral number");
+
+      try {
+        return JsonParseResult.success(events.getBigDecimal().intValueExact());
+      } catch (final ArithmeticException ex) {
+        return JsonParseResult.failure("integer is outside of the expected range");
+      }
+    }
+
     @Override
     public JsonValue unparse(final Integer value) {
       return Json.createValue(value);
     }
+
+    @Override
+    public void unparseTo(final Integer value, final JsonGenerator generator) {
+      generator.write(value);
+    }
   };
 
   public static final JsonParser<Long> longP = new JsonParser<>() {
@@ -163,10 +209,23 @@ public abstract class BasicParsers {
       return JsonParseResult.success(((JsonNumber) json).longValue());
     }
 
+    @Override
+    public JsonParseResult<Long> parseFrom(final JsonEventStream events) {
+      if (events.current() != Event.VALUE_NUMBER) return mismatch(events, "expected long");
+      if (!events.isIntegralNumber()) return JsonParseResult.failure("expected integral number");
+
+      return JsonParseResult.success(events.getBigDecimal().longValue());
+    }
+
     @Override
     public JsonValue unparse(final Long value) {
       return Json.createValue(value);
     }
+
+    @Override
+    public void unparseTo(final Long value, final JsonGenerator generator) {
+      generator.write(value);
+    }
   };
 
   public static final JsonParser<Double> doubleP = new JsonParser<>() {
@@ -190,10 +249,23 @@ public abstract class BasicParsers {
       return JsonParseResult.success(((JsonNumber) json).doubleValue());
     }
 
+    @Override
+    public JsonParseResult<Double> parseFrom(final JsonEventStream events) {
+      if (events.current() != Event.VALUE_NUMBER) return mismatch(events, "expected double");
+
+      return JsonParseResult.success(events.getBigDecimal().doubleValue());
+    }
+
     @Override
     public JsonValue unparse(final Double value) {
       return Json.createValue(value);
     }
+
+    @Override
+    public void unparseTo(final Double value, final JsonGenerator generator) {
+      // Write the same digits as `Json.createValue(double)`, which goes through `BigDecimal.valueOf`.
+      generator.write(BigDecimal.valueOf(value));
+    }
   };
 
   public static <T> JsonParser<Optional<T>> nullableP(final JsonParser<T> parser) {
@@ -214,10 +286,26 @@ public abstract class BasicParsers {
         return parser.parse(json).mapSuccess(Optional::of);
       }
 
+      @Override
+      public JsonParseResult<Optional<T>> parseFrom(final JsonEventStream events) {
+        if (events.current() == Event.VALUE_NULL) return JsonParseResult.success(Optional.empty());
+
+        return parser.parseFrom(events).mapSuccess(Optional::of);
+      }
+
       @Override
       public JsonValue unparse(final Optional<T> value) {
         return value.map(parser::unparse).orElse(JsonValue.NULL);
       }
+
+      @Override
+      public void unparseTo(final Optional<T> value, final JsonGenerator generator) {
+        if (value.isPresent()) {
+          parser.unparseTo(value.get(), generator);
+        } else {
+          generator.writeNull();
+        }
+      }
     };
   }
 
@@ -237,10 +325,22 @@ public abstract class BasicParsers {
       return JsonParseResult.success(null);
     }
 
+    @Override
+    public JsonParseResult<Unit> parseFrom(final JsonEventStream events) {
+      if (events.current() != Event.VALUE_NULL) return mismatch(events, "expected null");
+
+      return JsonParseResult.success(null);
+    }
+
     @Override
     public JsonValue unparse(final Unit value) {
       return JsonValue.NULL;
     }
+
+    @Override
+    public void unparseTo(final Unit value, final JsonGenerator generator) {
+      generator.writeNull();
+    }
   };
 
   public static <E extends Enum<E>> JsonParser<E> enumP(final Class<E> klass, final Function<E, String> valueOf) {
@@ -415,12 +515,38 @@ public abstract class BasicParsers {
         return JsonParseResult.success(list);
       }
 
+      @Override
+      public JsonParseResult<List<T>> parseFrom(final JsonEventStream events) {
+        if (events.current() != Event.START_ARRAY) return mismatch(events, "expected list");
+
+        final var list = new ArrayList<T>();
+        for (int index = 0; events.next() != Event.END_ARRAY; index++) {
+          final var result = elementParser.parseFrom(events).prependBreadcrumb(Breadcrumb.ofInteger(index));
+
+          if (result instanceof JsonParseResult.Failure<?> f) {
+            events.skipRest();
+            return f.cast();
+          }
+
+          list.add(result.getSuccessOrThrow());
+        }
+
+        return JsonParseResult.success(list);
+      }
+
       @Override
       public JsonValue unparse(final List<T> values) {
         final var builder = Json.createArrayBuilder();
         for (final var value : values) builder.add(elementParser.unparse(value));
         return builder.build();
       }
+
+      @Override
+      public void unparseTo(final List<T> values, final JsonGenerator generator) {
+        generator.writeStartArray();
+        for (final var value : values) elementParser.unparseTo(value, generator);
+        generator.writeEnd();
+      }
     };
   }
 
@@ -453,12 +579,43 @@ public abstract class BasicParsers {
         return JsonParseResult.success(map);
       }
 
+      @Override
+      public JsonParseResult<Map<String, S>> parseFrom(final JsonEventStream events) {
+        if (events.current() != Event.START_OBJECT) return mismatch(events, "expected object");
+
+        final var map = new HashMap<String, S>();
+        while (events.next() != Event.END_OBJECT) {
+          final var key = events.getString();
+          events.next();
+          final var result = fieldParser.parseFrom(events).prependBreadcrumb(Breadcrumb.ofString(key));
+
+          if (result instanceof JsonParseResult.Failure<?> f) {
+            events.skipRest();
+            return f.cast();
+          }
+
+          map.put(key, result.getSuccessOrThrow());
+        }
+
+        return JsonParseResult.success(map);
+      }
+
       @Override
       public JsonValue unparse(final Map<String, S> values) {
         final var builder = Json.createObjectBuilder();
         for (final var entry : values.entrySet()) builder.add(entry.getKey(), fieldParser.unparse(entry.getValue()));
         return builder.build();
       }
+
+      @Override
+      public void unparseTo(final Map<String, S> values, final JsonGenerator generator) {
+        generator.writeStartObject();
+        for (final var entry : values.entrySet()) {
+          generator.writeKey(entry.getKey());
+          fieldParser.unparseTo(entry.getValue(), generator);
+        }
+        generator.writeEnd();
+      }
     };
   }
 
@@ -480,6 +637,16 @@ public abstract class BasicParsers {
       public JsonValue unparse(final S value) {
         return this.target.unparse(value);
       }
+
+      @Override
+      public JsonParseResult<S> parseFrom(final JsonEventStream events) {
+        return this.target.parseFrom(events);
+      }
+
+      @Override
+      public void unparseTo(final S value, final JsonGenerator generator) {
+        this.target.unparseTo(value, generator);
+      }
     };
   }
 
@@ -535,4 +702,10 @@ public abstract class BasicParsers {
   }
 
   public static EmptyProductParser productP = ProductParsers.productP;
+
+  /** Skip a value of the wrong kind, so that the stream ends on the value's last event like any other parse. */
+  /*package-local*/ static <T> JsonParseResult<T> mismatch(final JsonEventStream events, final String reason) {
+    events.skipValue();
+    return JsonParseResult.failure(reason);
+  }
 }
@@ -0,0 +1,109 @@
+package gov.nasa.jpl.aerie.json;
+
+import javax.json.Json;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGeneratorFactory;
+import javax.json.stream.JsonParser.Event;
+import javax.json.stream.JsonParserFactory;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * A cursor over the events of a JSON document, for parsing a document without first materializing it.
+ *
+ * <p> Where a {@code javax.json.stream.JsonParser} only reports each event as it is consumed, this class remembers
+ * the current event, so that a {@link JsonParser} can inspect the first event of the value it has been handed.
+ * See {@link JsonParser#parseFrom(JsonEventStream)} for the positioning contract between parsers. </p>
+ */
+public final class JsonEventStream implements AutoCloseable {
+  // Looking up the JSON provider is expensive, so do it once rather than once per document.
+  private static final JsonParserFactory parserFactory = Json.createParserFactory(Map.of());
+  /*package-local*/ static final JsonGeneratorFactory generatorFactory = Json.createGeneratorFactory(Map.of());
+
+  private final javax.json.stream.JsonParser parser;
+  private Event current = null;
+
+  public JsonEventStream(final javax.json.stream.JsonParser parser) {
+    this.parser = parser;
+  }
+
+  public static JsonEventStream of(final Reader reader) {
+    return new JsonEventStream(parserFactory.createParser(reader));
+  }
+
+  /**
+   * Parses an entire document from this stream, which must not yet have been advanced.
+   *
+   * @return the result of parsing the document's single top-level value,
+   *   or a failure if the stream is empty or continues past that value
+   */
+  public <T> JsonParseResult<T> parseDocument(final JsonParser<T> parser) {
+    if (!this.hasNext()) return JsonParseResult.failure("expected a JSON document");
+    this.next();
+    final var result = parser.parseFrom(this);
+    if (this.hasNext()) return JsonParseResult.failure("unexpected content after JSON document");
+    return result;
+  }
+
+  public boolean hasNext() {
+    return this.parser.hasNext();
+  }
+
+  public Event next() {
+    this.current = this.parser.next();
+    return this.current;
+  }
+
+  /** The most recent event returned by {@link #next()}. */
+  public Event current() {
+    return this.current;
+  }
+
+  /** The current key name or string value. */
+  public String getString() {
+    return this.parser.getString();
+  }
+
+  /** Whether the current number is integral, in the sense of {@link javax.json.JsonNumber#isIntegral()}. */
+  public boolean isIntegralNumber() {
+    return this.parser.isIntegralNumber();
+  }
+
+  public BigDecimal getBigDecimal() {
+    return this.parser.getBigDecimal();
+  }
+
+  /** Materialize the current value, leaving the stream on the value's last event. */
+  public JsonValue getValue() {
+    final var value = this.parser.getValue();
+    this.current = switch (this.current) {
+      case START_OBJECT -> Event.END_OBJECT;
+      case START_ARRAY -> Event.END_ARRAY;
+      default -> this.current;
+    };
+    return value;
+  }
+
+  /** Skip over the current value, leaving the stream on the value's last event. */
+  public void skipValue() {
+    if (this.current == Event.START_OBJECT || this.current == Event.START_ARRAY) this.skipRest();
+  }
+
+  /** Skip the remainder of the innermost enclosing object or array, leaving the stream on its closing event. */
+  public void skipRest() {
+    var depth = 1;
+    while (depth > 0) {
+      switch (this.next()) {
+        case START_OBJECT, START_ARRAY -> depth += 1;
+        case END_OBJECT, END_ARRAY -> depth -= 1;
+        default -> {}
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    this.parser.close();
+  }
+}
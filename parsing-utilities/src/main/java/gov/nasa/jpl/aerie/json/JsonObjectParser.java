@@ -2,6 +2,7 @@ package gov.nasa.jpl.aerie.json;
 
 import javax.json.JsonObject;
 import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
 import java.util.Objects;
 import java.util.function.Function;
 
@@ -30,6 +31,16 @@ public interface JsonObjectParser<T> extends JsonParser<T> {
       public JsonObject unparse(final S value) {
         return self.unparse(transform.to(value));
       }
+
+      @Override
+      public JsonParseResult<S> parseFrom(final JsonEventStream events) {
+        return self.parseFrom(events).mapSuccess(transform::from);
+      }
+
+      @Override
+      public void unparseTo(final S value, final JsonGenerator generator) {
+        self.unparseTo(transform.to(value), generator);
+      }
     };
   }
 
@@ -3,6 +3,9 @@ package gov.nasa.jpl.aerie.json;
 import javax.json.Json;
 import javax.json.JsonObject;
 import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+import java.io.Reader;
+import java.io.Writer;
 import java.util.Objects;
 import java.util.function.Function;
 
@@ -77,6 +80,76 @@ public interface JsonParser<T> {
    */
   JsonValue unparse(T value);
 
+  /**
+   * Attempts to parse the JSON value at the current position of a stream of events into the domain type {@code T}.
+   *
+   * <p> The stream must be positioned on the first event of the value, i.e. the value's own event if it is a scalar,
+   * or its {@code START_OBJECT} or {@code START_ARRAY} event otherwise. Whether or not parsing succeeds,
+   * the stream is left on the last event of the value, so that the caller can continue with whatever follows it. </p>
+   *
+   * <p> This method must agree with {@link #parse(JsonValue)} on every document. The default implementation
+   * materializes the value and delegates to that method; parsers of large or nested documents should override it
+   * to avoid holding the document in memory twice. </p>
+   *
+   * @param events
+   *   a stream of events positioned on the first event of the value to parse
+   * @return
+   *   a wrapped domain value if parsing succeeds, or failure information otherwise
+   */
+  default JsonParseResult<T> parseFrom(final JsonEventStream events) {
+    return this.parse(events.getValue());
+  }
+
+  /**
+   * Attempts to parse a complete JSON document, read as text, into the domain type {@code T}.
+   *
+   * <p> The reader is closed once the document has been parsed. </p>
+   *
+   * @param reader
+   *   the text of the JSON document to parse into a domain value
+   * @return
+   *   a wrapped domain value if parsing succeeds, or failure information otherwise
+   * @throws javax.json.JsonException
+   *   if the text is not well-formed JSON
+   */
+  default JsonParseResult<T> parseFrom(final Reader reader) {
+    try (final var events = JsonEventStream.of(reader)) {
+      return events.parseDocument(this);
+    }
+  }
+
+  /**
+   * Writes a JSON document representing the given value to a generator,
+   * in whatever context (root, array element, or object field) the generator is in.
+   *
+   * <p> This method must write the same document as {@link #unparse(T)}. The default implementation
+   * builds that document and writes it out; parsers of large or nested documents should override it. </p>
+   *
+   * @param value
+   *   a domain value to encode in JSON
+   * @param generator
+   *   the generator to write the JSON document to
+   */
+  default void unparseTo(final T value, final JsonGenerator generator) {
+    generator.write(this.unparse(value));
+  }
+
+  /**
+   * Writes a JSON document representing the given value as text.
+   *
+   * <p> The writer is flushed, but not closed. </p>
+   *
+   * @param value
+   *   a domain value to encode in JSON
+   * @param writer
+   *   the destination of the JSON document's text
+   */
+  default void unparseTo(final T value, final Writer writer) {
+    final var generator = JsonEventStream.generatorFactory.createGenerator(writer);
+    this.unparseTo(value, generator);
+    generator.flush();
+  }
+
   /**
    * Produces a JSON Schema document describing the format of JSON documents produced by {@link #unparse(T)}.
    *
@@ -139,6 +212,16 @@ public interface JsonParser<T> {
       public JsonValue unparse(final S value) {
         return self.unparse(transform.to(value));
       }
+
+      @Override
+      public JsonParseResult<S> parseFrom(final JsonEventStream events) {
+        return self.parseFrom(events).mapSuccess(transform::from);
+      }
+
+      @Override
+      public void unparseTo(final S value, final JsonGenerator generator) {
+        self.unparseTo(transform.to(value), generator);
+      }
     };
   }
 
@@ -6,6 +6,8 @@ import javax.json.Json;
 import javax.json.JsonObject;
 import javax.json.JsonObjectBuilder;
 import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser.Event;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Target;
 import java.util.ArrayList;
@@ -68,6 +70,13 @@ public abstract class ProductParsers {
           return JsonParseResult.success(Unit.UNIT);
         }
 
+        @Override
+        public JsonParseResult<Unit> parseFrom(final JsonEventStream events) {
+          if (events.current() != Event.START_OBJECT) return BasicParsers.mismatch(events, "expected object");
+          events.skipValue();
+          return JsonParseResult.success(Unit.UNIT);
+        }
+
         @Override
         public JsonObject unparse(final Unit value) {
           return Json.createObjectBuilder().build();
@@ -113,15 +122,57 @@ public abstract class ProductParsers {
       }
 
       // Parse the fields
-      //
+      final var fieldResults = new JsonParseResult<?>[this.fields.size()];
+      for (int i = 0; i < fieldResults.length; i++) {
+        final var field = this.fields.get(i);
+        if (obj.containsKey(field.name)) fieldResults[i] = field.valueParser.parse(obj.get(field.name));
+      }
+
+      return combineFields(fieldResults);
+    }
+
+    @Override
+    public JsonParseResult<T> parseFrom(final JsonEventStream events) {
+      if (events.current() != Event.START_OBJECT) return BasicParsers.mismatch(events, "expected object");
+
+      // Parse the fields in document order, keeping the first unexpected field
+      // so that failures are reported as `parse(JsonValue)` would report them.
+      final var fieldResults = new JsonParseResult<?>[this.fields.size()];
+      JsonParseResult<T> unexpectedField = null;
+      while (events.next() != Event.END_OBJECT) {
+        final var name = events.getString();
+        events.next();
+
+        final var index = indexOfField(name);
+        if (index < 0) {
+          if (!this.acceptUnspecified && unexpectedField == null) {
+            unexpectedField = JsonParseResult
+                .<T>failure("Unexpected field present")
+                .prependBreadcrumb(Breadcrumb.ofString(name));
+          }
+          events.skipValue();
+        } else {
+          fieldResults[index] = this.fields.get(index).valueParser.parseFrom(events);
+        }
+      }
+      if (unexpectedField != null) return unexpectedField;
+
+      return combineFields(fieldResults);
+    }
+
+    /**
+     * Combine the results of parsing each field, in order of declaration.
+     *
+     * @param fieldResults the result of parsing each field's value, or null where the field was absent.
+     */
+    private JsonParseResult<T> combineFields(final JsonParseResult<?>[] fieldResults) {
       // PRECONDITION: accumulated result is of type T1
       // INVARIANT: accumulated result is of type Pair<...Pair<T1, T2>..., Ti>
       //   where `i` is the number of fields iterated through.
       // POSTCONDITION: accumulated result is of type T = Pair<...Pair<Pair<T1, T2>, T3>..., Tn>.
-      final var iter = this.fields.iterator();
-      var accumulator = parseField(iter.next(), obj);
-      while (iter.hasNext()) {
-        accumulator = accumulator.parWith(parseField(iter.next(), obj)).mapSuccess(x -> x);
+      JsonParseResult<?> accumulator = finishField(this.fields.get(0), fieldResults[0]);
+      for (int i = 1; i < fieldResults.length; i++) {
+        accumulator = accumulator.parWith(finishField(this.fields.get(i), fieldResults[i])).mapSuccess(x -> x);
       }
 
       return accumulator.mapSuccess(result -> {
@@ -141,6 +192,29 @@ public abstract class ProductParsers {
       return builder.build();
     }
 
+    @Override
+    public void unparseTo(final T value, final JsonGenerator generator) {
+      generator.writeStartObject();
+      unparseTo(generator, value, fields.size());
+      generator.writeEnd();
+    }
+
+    private void unparseTo(final JsonGenerator generator, final Object value, final int i) {
+      if (i <= 0) return; // This shouldn't happen, but doing nothing is a safe behavior.
+
+      final Object element;
+      if (i == 1) { // type(value) = Ti
+        element = value;
+      } else { // type(value) = Pair<..., Ti>
+        final var pair = (Pair<?, ?>) value;
+
+        element = pair.getRight();
+        unparseTo(generator, pair.getLeft(), i - 1);
+      }
+
+      unparseFieldTo(generator, this.fields.get(i - 1), element);
+    }
+
     private JsonObjectBuilder unparse(final JsonObjectBuilder builder, Object value, int i) {
       if (i <= 0) return builder; // This shouldn't happen, but doing nothing is a safe behavior.
 
@@ -190,19 +264,27 @@ public abstract class ProductParsers {
       return Optional.empty();
     }
 
-    private static JsonParseResult<?> parseField(final FieldSpec<?> field, final JsonObject obj) {
+    private int indexOfField(final String name) {
+      for (int i = 0; i < this.fields.size(); i++) {
+        if (this.fields.get(i).name.equals(name)) return i;
+      }
+      return -1;
+    }
+
+    /** @param parsed the result of parsing the field's value, or null if the field was absent. */
+    private static JsonParseResult<?> finishField(final FieldSpec<?> field, final JsonParseResult<?> parsed) {
       final JsonParseResult<?> result;
       if (field.isOptional) {
-        if (!obj.containsKey(field.name)) {
+        if (parsed == null) {
           result = JsonParseResult.success(Optional.empty());
         } else {
-          result = field.valueParser.parse(obj.get(field.name)).mapSuccess(Optional::of);
+          result = parsed.mapSuccess(Optional::of);
         }
       } else {
-        if (!obj.containsKey(field.name)) {
+        if (parsed == null) {
           result = JsonParseResult.failure("required field not present");
         } else {
-          result = field.valueParser.parse(obj.get(field.name));
+          result = parsed;
         }
       }
 
@@ -228,6 +310,29 @@ public abstract class ProductParsers {
       }
     }
 
+    // PRECONDITION: `value` is of type `Ti` or `Optional<Ti>` (depending on `field.isOptional`).
+    private static <Ti>
+    void unparseFieldTo(final JsonGenerator generator, final FieldSpec<Ti> field, final Object value) {
+      final Ti result;
+      if (field.isOptional) { // type(value) = Optional<Ti>
+        // SAFETY: By precondition.
+        @SuppressWarnings("unchecked")
+        final var optional = (Optional<Ti>) value;
+
+        if (optional.isEmpty()) return;
+        result = optional.get();
+      } else { // type(value) = Ti
+        // SAFETY: By precondition.
+        @SuppressWarnings("unchecked")
+        final var tmp = (Ti) value;
+
+        result = tmp;
+      }
+
+      generator.writeKey(field.name);
+      field.valueParser.unparseTo(result, generator);
+    }
+
     public <S>
     VariadicProductParser<Pair<T, S>> field(final String key, final JsonParser<S> valueParser) {
       throwIfKeyExists(key);
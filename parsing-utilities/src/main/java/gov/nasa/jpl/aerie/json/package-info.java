@@ -28,7 +28,10 @@
  *
  * <p> Lastly, we do not parse JSON documents out of strings, but rather work with values of
  * type {@code javax.json.JsonValue}. Any library that produces and consumes these values can be used to bridge the
- * last gap from this library to the filesystem or network. </p>
+ * last gap from this library to the filesystem or network. For large documents, where materializing the whole
+ * {@code JsonValue} tree is itself a cost, {@link gov.nasa.jpl.aerie.json.JsonParser#parseFrom(java.io.Reader)} and
+ * {@link gov.nasa.jpl.aerie.json.JsonParser#unparseTo(java.lang.Object, java.io.Writer)} read and write a document
+ * as a stream of events instead. </p>
  *
  * <h2> Defining a format </h2>
  *
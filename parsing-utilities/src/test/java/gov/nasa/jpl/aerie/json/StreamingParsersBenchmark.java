@@ -0,0 +1,85 @@
+package gov.nasa.jpl.aerie.json;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import javax.json.Json;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static gov.nasa.jpl.aerie.json.BasicParsers.doubleP;
+import static gov.nasa.jpl.aerie.json.BasicParsers.listP;
+import static gov.nasa.jpl.aerie.json.BasicParsers.longP;
+import static gov.nasa.jpl.aerie.json.BasicParsers.mapP;
+import static gov.nasa.jpl.aerie.json.BasicParsers.productP;
+import static gov.nasa.jpl.aerie.json.BasicParsers.stringP;
+
+/**
+ * Measures the time taken to parse and unparse a multi-megabyte document,
+ * through a materialized {@code JsonValue} and as a stream of events.
+ */
+public class StreamingParsersBenchmark {
+  private static final JsonParser<List<Pair<Pair<Pair<Long, String>, List<Double>>, Map<String, String>>>> documentP =
+      listP(productP
+          .field("id", longP)
+          .field("name", stringP)
+          .field("samples", listP(doubleP))
+          .field("attributes", mapP(stringP)));
+
+  private static List<Pair<Pair<Pair<Long, String>, List<Double>>, Map<String, String>>> randomDocument(final int records) {
+    final var random = new Random(0);
+    final var document = new ArrayList<Pair<Pair<Pair<Long, String>, List<Double>>, Map<String, String>>>(records);
+    for (long i = 0; i < records; ++i) {
+      final var samples = new ArrayList<Double>();
+      for (int j = 0; j < 20; ++j) samples.add(random.nextDouble());
+      final var attributes = new HashMap<String, String>();
+      for (int j = 0; j < 5; ++j) attributes.put("key" + j, Long.toHexString(random.nextLong()));
+      document.add(Pair.of(Pair.of(Pair.of(i, "record-" + i), samples), attributes));
+    }
+    return document;
+  }
+
+  private static void run(final int records) {
+    final var value = randomDocument(records);
+    final var text = documentP.unparse(value).toString();
+
+    var before = System.nanoTime();
+    final var materialized = documentP.parse(Json.createReader(new StringReader(text)).readValue());
+    final var materializedParse = System.nanoTime() - before;
+
+    before = System.nanoTime();
+    final var streamed = documentP.parseFrom(new StringReader(text));
+    final var streamedParse = System.nanoTime() - before;
+
+    before = System.nanoTime();
+    final var materializedText = documentP.unparse(value).toString();
+    final var materializedUnparse = System.nanoTime() - before;
+
+    before = System.nanoTime();
+    final var writer = new StringWriter();
+    documentP.unparseTo(value, writer);
+    final var streamedUnparse = System.nanoTime() - before;
+
+    if (!materialized.equals(streamed) || materializedText.length() != writer.toString().length()) {
+      throw new AssertionError("Streaming and materialized results disagree");
+    }
+
+    System.out.println("%.1f MB: parse %.1f ms materialized, %.1f ms streamed; unparse %.1f ms materialized, %.1f ms streamed".formatted(
+        text.length() / 1e6,
+        materializedParse / 1e6,
+        streamedParse / 1e6,
+        materializedUnparse / 1e6,
+        streamedUnparse / 1e6));
+  }
+
+  public static void main(final String[] args) {
+    for (var i = 0; i < 3; i++) {
+      run(10_000);
+      run(50_000);
+    }
+  }
+}
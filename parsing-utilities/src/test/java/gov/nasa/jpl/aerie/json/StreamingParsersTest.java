@@ -0,0 +1,99 @@
+package gov.nasa.jpl.aerie.json;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+
+import javax.json.Json;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static gov.nasa.jpl.aerie.json.BasicParsers.boolP;
+import static gov.nasa.jpl.aerie.json.BasicParsers.doubleP;
+import static gov.nasa.jpl.aerie.json.BasicParsers.intP;
+import static gov.nasa.jpl.aerie.json.BasicParsers.listP;
+import static gov.nasa.jpl.aerie.json.BasicParsers.longP;
+import static gov.nasa.jpl.aerie.json.BasicParsers.mapP;
+import static gov.nasa.jpl.aerie.json.BasicParsers.nullableP;
+import static gov.nasa.jpl.aerie.json.BasicParsers.productP;
+import static gov.nasa.jpl.aerie.json.BasicParsers.stringP;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class StreamingParsersTest {
+  private static final JsonParser<?> recordP = productP
+      .field("id", longP)
+      .field("name", stringP)
+      .optionalField("note", nullableP(stringP))
+      .field("samples", listP(doubleP))
+      .field("tags", mapP(boolP));
+
+  /** Parse a document both from its materialized form and as a stream, and check that the results agree. */
+  private static <T> JsonParseResult<T> assertParsesAlike(final JsonParser<T> parser, final String document) {
+    final var expected = parser.parse(Json.createReader(new StringReader(document)).readValue());
+    final var actual = parser.parseFrom(new StringReader(document));
+    assertEquals(expected, actual);
+    return actual;
+  }
+
+  private static <T> void assertRoundTrips(final JsonParser<T> parser, final T value) {
+    final var writer = new StringWriter();
+    parser.unparseTo(value, writer);
+
+    assertEquals(parser.unparse(value), Json.createReader(new StringReader(writer.toString())).readValue());
+    assertEquals(JsonParseResult.success(value), parser.parseFrom(new StringReader(writer.toString())));
+  }
+
+  @Test
+  public void scalarsAgree() {
+    assertParsesAlike(intP, "42");
+    assertParsesAlike(intP, "4.5");
+    assertParsesAlike(intP, "9999999999");
+    assertParsesAlike(longP, "9999999999");
+    assertParsesAlike(doubleP, "1.5e3");
+    assertParsesAlike(stringP, "\"hello\"");
+    assertParsesAlike(stringP, "[1, 2]");
+    assertParsesAlike(boolP, "{\"a\": true}");
+    assertParsesAlike(nullableP(intP), "null");
+  }
+
+  @Test
+  public void productsAgree() {
+    assertTrue(assertParsesAlike(recordP, """
+        {"id": 1, "name": "a", "samples": [1.0, 2.5], "tags": {"x": true}}
+        """) instanceof JsonParseResult.Success<?>);
+    assertParsesAlike(recordP, """
+        {"tags": {}, "samples": [], "note": null, "name": "b", "id": 2}
+        """);
+  }
+
+  @Test
+  public void failuresAgree() {
+    // missing field
+    assertParsesAlike(recordP, """
+        {"id": 1, "samples": [], "tags": {}}
+        """);
+    // unexpected field, after a field which also fails to parse
+    assertParsesAlike(recordP, """
+        {"id": "one", "name": "a", "samples": [], "tags": {}, "extra": {"deep": [1, 2, {"x": 3}]}}
+        """);
+    // failure nested within a list, followed by further fields
+    assertParsesAlike(recordP, """
+        {"id": 1, "name": "a", "samples": [1.0, "two", [3.0]], "tags": {"x": 4}}
+        """);
+  }
+
+  @Test
+  public void streamingUnparseMatchesUnparse() {
+    assertRoundTrips(listP(mapP(nullableP(stringP))), List.of(Map.of("a", Optional.of("x"), "b", Optional.empty())));
+    assertRoundTrips(doubleP, 1.0e10);
+    assertRoundTrips(productP.field("x", intP).optionalField("y", stringP), Pair.of(3, Optional.<String>empty()));
+  }
+
+  @Test
+  public void emptyDocumentsAreRejected() {
+    assertTrue(intP.parseFrom(new StringReader("")).isFailure());
+  }
+}
@@ -0,0 +1,29 @@
+package gov.nasa.jpl.aerie.permissions;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * The Hasura admin secret, which requests to administrative endpoints must present in their {@link #HEADER} header,
+ * just as requests to Hasura's own admin API do.
+ */
+public final class AdminSecret {
+  public static final String HEADER = "x-hasura-admin-secret";
+
+  private final byte[] secret;
+
+  public AdminSecret(final String secret) {
+    this.secret = secret.getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Whether a request presenting the given header value is authorized.
+   * If no secret is configured, no request is.
+   *
+   * @param header the value of the request's {@link #HEADER} header, or null if it has none.
+   */
+  public boolean isPresentedBy(final String header) {
+    if (this.secret.length == 0 || header == null) return false;
+    return MessageDigest.isEqual(this.secret, header.getBytes(StandardCharsets.UTF_8));
+  }
+}
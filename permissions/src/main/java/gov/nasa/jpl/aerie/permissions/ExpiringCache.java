@@ -0,0 +1,85 @@
+package gov.nasa.jpl.aerie.permissions;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * A thread-safe cache whose entries expire a fixed time after they are stored.
+ *
+ * When the cache is full, expired entries are dropped; if none have expired, the whole cache is cleared.
+ * Permissions change rarely and every entry can be re-fetched, so this keeps memory bounded without
+ * the bookkeeping of a least-recently-used order.
+ */
+/*package-local*/ final class ExpiringCache<K, V> {
+  private record Entry<V>(V value, long expiresAt) {}
+
+  private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+  private final long ttlNanos;
+  private final int maxEntries;
+  private final LongSupplier clock;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public ExpiringCache(final Duration ttl, final int maxEntries) {
+    this(ttl, maxEntries, System::nanoTime);
+  }
+
+  /** @param clock the source of the current time in nanoseconds, as {@link System#nanoTime()}. */
+  ExpiringCache(final Duration ttl, final int maxEntries, final LongSupplier clock) {
+    if (ttl.isNegative()) throw new IllegalArgumentException("ttl must not be negative, got " + ttl);
+    if (maxEntries < 0) throw new IllegalArgumentException("maxEntries must not be negative, got " + maxEntries);
+    this.ttlNanos = ttl.toNanos();
+    this.maxEntries = maxEntries;
+    this.clock = clock;
+  }
+
+  private boolean isEnabled() {
+    return this.ttlNanos > 0 && this.maxEntries > 0;
+  }
+
+  public Optional<V> get(final K key) {
+    if (!isEnabled()) return Optional.empty();
+
+    final var entry = this.entries.get(key);
+    if (entry == null || entry.expiresAt() - this.clock.getAsLong() <= 0) {
+      this.misses.increment();
+      return Optional.empty();
+    }
+    this.hits.increment();
+    return Optional.of(entry.value());
+  }
+
+  public void put(final K key, final V value) {
+    if (!isEnabled()) return;
+
+    final var now = this.clock.getAsLong();
+    if (this.entries.size() >= this.maxEntries) {
+      this.entries.values().removeIf($ -> $.expiresAt() - now <= 0);
+      if (this.entries.size() >= this.maxEntries) this.entries.clear();
+    }
+    this.entries.put(key, new Entry<>(value, now + this.ttlNanos));
+  }
+
+  /** Drop every entry whose key matches the given predicate. */
+  public void invalidateIf(final Predicate<K> predicate) {
+    this.entries.keySet().removeIf(predicate);
+  }
+
+  public void invalidateAll() {
+    this.entries.clear();
+  }
+
+  public long hits() {
+    return this.hits.sum();
+  }
+
+  public long misses() {
+    return this.misses.sum();
+  }
+}
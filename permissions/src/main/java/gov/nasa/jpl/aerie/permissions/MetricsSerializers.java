@@ -0,0 +1,18 @@
+package gov.nasa.jpl.aerie.permissions;
+
+import javax.json.Json;
+import javax.json.JsonValue;
+
+public final class MetricsSerializers {
+  private MetricsSerializers() {}
+
+  public static JsonValue serializeMetrics(final PermissionsService.Metrics metrics) {
+    return Json.createObjectBuilder()
+               .add("checks", metrics.checks())
+               .add("meanCheckMillis", metrics.meanCheckMillis())
+               .add("cacheHits", metrics.cacheHits())
+               .add("cacheMisses", metrics.cacheMisses())
+               .add("cacheHitRatio", metrics.cacheHitRatio())
+               .build();
+  }
+}
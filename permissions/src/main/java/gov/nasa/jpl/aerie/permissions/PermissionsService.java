@@ -9,18 +9,60 @@ import gov.nasa.jpl.aerie.permissions.gql.PlanId;
 import gov.nasa.jpl.aerie.permissions.gql.SchedulingSpecificationId;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Checks whether users may perform actions, optionally caching the answers from Hasura for a short time.
+ *
+ * Roles, plan owners and collaborators are edited through Hasura rather than through the services using this class,
+ * so with caching enabled a change to them may take up to the cache's time-to-live to be observed, unless the
+ * corresponding invalidation method is called. Caching is off by default; the servers enable it by setting
+ * PERMISSIONS_CACHE_TTL above 0.
+ */
 public final class PermissionsService {
+  public static final Duration DEFAULT_CACHE_TTL = Duration.ZERO;
+  public static final int DEFAULT_CACHE_SIZE = 10_000;
+
+  private record RoleAction(String role, Action action) {}
+  private record UserPlan(String username, PlanId planId) {}
+
   private final GraphQLPermissionsService gqlService;
+  private final ExpiringCache<RoleAction, PermissionType> actionPermissions;
+  private final ExpiringCache<UserPlan, PlanOwnerOrCollaborator> planPermissions;
+  private final ExpiringCache<UserPlan, Boolean> missionModelOwners;
+  private final ExpiringCache<SchedulingSpecificationId, PlanId> specificationPlans;
+
+  private final LongAdder checks = new LongAdder();
+  private final LongAdder checkNanos = new LongAdder();
 
   public PermissionsService(final GraphQLPermissionsService gqlService) {
+    this(gqlService, DEFAULT_CACHE_TTL, DEFAULT_CACHE_SIZE);
+  }
+
+  /**
+   * @param cacheTtl how long a permission decision may be reused. A zero duration disables caching.
+   * @param cacheSize the maximum number of entries held in each of the service's caches.
+   */
+  public PermissionsService(final GraphQLPermissionsService gqlService, final Duration cacheTtl, final int cacheSize) {
     this.gqlService = gqlService;
+    this.actionPermissions = new ExpiringCache<>(cacheTtl, cacheSize);
+    this.planPermissions = new ExpiringCache<>(cacheTtl, cacheSize);
+    this.missionModelOwners = new ExpiringCache<>(cacheTtl, cacheSize);
+    this.specificationPlans = new ExpiringCache<>(cacheTtl, cacheSize);
   }
+
   public void check(final Action action, final String role, final String username, final PlanId planId)
   throws Unauthorized, IOException, PermissionsServiceException, NoSuchPlanException {
-    final var permissionType = getActionPermission(action, role);
-    final var authorized = canPerformAction(permissionType, username, planId);
-    if (!authorized) throw new Unauthorized(action, role, username, permissionType, planId);
+    final var start = System.nanoTime();
+    try {
+      final var permissionType = getActionPermission(action, role);
+      final var authorized = canPerformAction(permissionType, username, planId);
+      if (!authorized) throw new Unauthorized(action, role, username, permissionType, planId);
+    } finally {
+      this.checks.increment();
+      this.checkNanos.add(System.nanoTime() - start);
+    }
   }
 
     public void check(
@@ -31,17 +73,61 @@ public final class PermissionsService {
   throws Unauthorized, IOException, PermissionsServiceException, NoSuchSchedulingSpecificationException,
          NoSuchPlanException
   {
-    final var planId = gqlService.getPlanIdFromSchedulingSpecificationId(specificationId);
+    final var cachedPlanId = specificationPlans.get(specificationId);
+    final PlanId planId;
+    if (cachedPlanId.isPresent()) {
+      planId = cachedPlanId.get();
+    } else {
+      planId = gqlService.getPlanIdFromSchedulingSpecificationId(specificationId);
+      specificationPlans.put(specificationId, planId);
+    }
     check(action, role, username, planId);
   }
 
+  /** Forget the cached permissions of every role, such as after the role permissions table changes. */
+  public void invalidateRolePermissions() {
+    this.actionPermissions.invalidateAll();
+  }
+
+  /** Forget the cached ownership and collaborators of a plan, such as after its collaborators change. */
+  public void invalidatePlan(final PlanId planId) {
+    this.planPermissions.invalidateIf($ -> $.planId().equals(planId));
+    this.missionModelOwners.invalidateIf($ -> $.planId().equals(planId));
+  }
+
+  /** Forget every cached permission decision. */
+  public void invalidateAll() {
+    this.actionPermissions.invalidateAll();
+    this.planPermissions.invalidateAll();
+    this.missionModelOwners.invalidateAll();
+    this.specificationPlans.invalidateAll();
+  }
+
+  /** Get the statistics on permission checks performed by this service. */
+  public Metrics getMetrics() {
+    return new Metrics(
+        this.checks.sum(),
+        this.checkNanos.sum(),
+        this.actionPermissions.hits() + this.planPermissions.hits()
+        + this.missionModelOwners.hits() + this.specificationPlans.hits(),
+        this.actionPermissions.misses() + this.planPermissions.misses()
+        + this.missionModelOwners.misses() + this.specificationPlans.misses());
+  }
+
   private PermissionType getActionPermission(final Action action, final String role)
   throws Unauthorized, IOException, PermissionsServiceException
   {
     if (role.equals("aerie_admin")) {
       return PermissionType.NO_CHECK;
     }
-    return gqlService.getActionPermission(action, role);
+
+    final var key = new RoleAction(role, action);
+    final var cached = actionPermissions.get(key);
+    if (cached.isPresent()) return cached.get();
+
+    final var permissionType = gqlService.getActionPermission(action, role);
+    actionPermissions.put(key, permissionType);
+    return permissionType;
   }
 
   private boolean canPerformAction(
@@ -51,17 +137,51 @@ public final class PermissionsService {
   throws IOException, PermissionsServiceException, NoSuchPlanException {
     return switch (permissionType) {
       case NO_CHECK -> true;
-      case MISSION_MODEL_OWNER -> gqlService.checkMissionModelOwner(planId, username);
+      case MISSION_MODEL_OWNER -> isMissionModelOwner(username, planId);
       case OWNER, PLAN_OWNER -> getPlanPermissions(username, planId).isPlanOwner();
       case PLAN_COLLABORATOR -> getPlanPermissions(username, planId).isPlanCollaborator();
       case PLAN_OWNER_COLLABORATOR -> getPlanPermissions(username, planId).isPlanOwnerOrCollaborator();
     };
   }
 
+  private boolean isMissionModelOwner(final String username, final PlanId planId)
+  throws IOException, PermissionsServiceException, NoSuchPlanException
+  {
+    final var key = new UserPlan(username, planId);
+    final var cached = missionModelOwners.get(key);
+    if (cached.isPresent()) return cached.get();
+
+    final var isOwner = gqlService.checkMissionModelOwner(planId, username);
+    missionModelOwners.put(key, isOwner);
+    return isOwner;
+  }
+
   private PlanOwnerOrCollaborator getPlanPermissions(final String username, final PlanId planId)
   throws IOException, PermissionsServiceException, NoSuchPlanException
   {
-    return gqlService.checkPlanOwnerCollaborator(planId, username);
+    final var key = new UserPlan(username, planId);
+    final var cached = planPermissions.get(key);
+    if (cached.isPresent()) return cached.get();
+
+    final var permissions = gqlService.checkPlanOwnerCollaborator(planId, username);
+    planPermissions.put(key, permissions);
+    return permissions;
   }
 
+  /**
+   * @param checks the number of permission checks performed.
+   * @param checkNanos the total wall time spent performing permission checks.
+   * @param cacheHits the number of lookups answered from the cache.
+   * @param cacheMisses the number of lookups which had to query Hasura.
+   */
+  public record Metrics(long checks, long checkNanos, long cacheHits, long cacheMisses) {
+    public double cacheHitRatio() {
+      final var lookups = cacheHits + cacheMisses;
+      return (lookups == 0) ? 0 : (double) cacheHits / lookups;
+    }
+
+    public double meanCheckMillis() {
+      return (checks == 0) ? 0 : checkNanos / 1e6 / checks;
+    }
+  }
 }
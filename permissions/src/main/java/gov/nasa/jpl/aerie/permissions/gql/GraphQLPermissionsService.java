@@ -33,6 +33,11 @@ public record GraphQLPermissionsService(
    */
   private static final java.time.Duration httpTimeout = java.time.Duration.ofSeconds(60);
 
+  /**
+   * client shared by every request, so that connections to hasura are pooled rather than re-established per request
+   */
+  private static final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(httpTimeout).build();
+
   /**
    * dispatch the given graphql request to hasura and collect the results
    *
@@ -59,8 +64,7 @@ public record GraphQLPermissionsService(
           .header("x-hasura-admin-secret", hasuraGraphQlAdminSecret)
           .POST(HttpRequest.BodyPublishers.ofString(reqBody.toString()))
           .build();
-      final var httpResp = HttpClient
-          .newHttpClient().send(httpReq, HttpResponse.BodyHandlers.ofInputStream());
+      final var httpResp = httpClient.send(httpReq, HttpResponse.BodyHandlers.ofInputStream());
       if (httpResp.statusCode() != 200) {
         throw new IOException("Unexpected " + httpResp.statusCode() + " status when connecting to hasura");
       }
@@ -0,0 +1,24 @@
+package gov.nasa.jpl.aerie.permissions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class AdminSecretTest {
+  @Test
+  public void onlyTheConfiguredSecretIsAccepted() {
+    final var secret = new AdminSecret("hunter2");
+    assertTrue(secret.isPresentedBy("hunter2"));
+    assertFalse(secret.isPresentedBy("hunter3"));
+    assertFalse(secret.isPresentedBy(""));
+    assertFalse(secret.isPresentedBy(null));
+  }
+
+  @Test
+  public void nothingIsAcceptedWithoutASecret() {
+    final var secret = new AdminSecret("");
+    assertFalse(secret.isPresentedBy(""));
+    assertFalse(secret.isPresentedBy(null));
+  }
+}
@@ -0,0 +1,82 @@
+package gov.nasa.jpl.aerie.permissions;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class ExpiringCacheTest {
+  private long now = 0;
+
+  private ExpiringCache<String, Integer> cache(final Duration ttl, final int maxEntries) {
+    return new ExpiringCache<>(ttl, maxEntries, () -> this.now);
+  }
+
+  @Test
+  public void entriesExpireAfterTtl() {
+    final var cache = cache(Duration.ofNanos(10), 4);
+    cache.put("a", 1);
+
+    this.now = 9;
+    assertEquals(Optional.of(1), cache.get("a"));
+    this.now = 10;
+    assertEquals(Optional.empty(), cache.get("a"));
+
+    assertEquals(1, cache.hits());
+    assertEquals(1, cache.misses());
+  }
+
+  @Test
+  public void fullCacheDropsExpiredEntriesFirst() {
+    final var cache = cache(Duration.ofNanos(10), 2);
+    cache.put("old", 1);
+    this.now = 5;
+    cache.put("new", 2);
+
+    this.now = 12;
+    cache.put("newest", 3);
+
+    assertEquals(Optional.empty(), cache.get("old"));
+    assertEquals(Optional.of(2), cache.get("new"));
+    assertEquals(Optional.of(3), cache.get("newest"));
+  }
+
+  @Test
+  public void fullCacheWithoutExpiredEntriesIsCleared() {
+    final var cache = cache(Duration.ofNanos(10), 2);
+    cache.put("a", 1);
+    cache.put("b", 2);
+    cache.put("c", 3);
+
+    assertEquals(Optional.empty(), cache.get("a"));
+    assertEquals(Optional.empty(), cache.get("b"));
+    assertEquals(Optional.of(3), cache.get("c"));
+  }
+
+  @Test
+  public void invalidationDropsMatchingEntries() {
+    final var cache = cache(Duration.ofNanos(10), 4);
+    cache.put("a", 1);
+    cache.put("b", 2);
+
+    cache.invalidateIf("a"::equals);
+    assertEquals(Optional.empty(), cache.get("a"));
+    assertEquals(Optional.of(2), cache.get("b"));
+
+    cache.invalidateAll();
+    assertEquals(Optional.empty(), cache.get("b"));
+  }
+
+  @Test
+  public void zeroTtlOrSizeDisablesCaching() {
+    for (final var cache : List.of(cache(Duration.ZERO, 4), cache(Duration.ofNanos(10), 0))) {
+      cache.put("a", 1);
+      assertEquals(Optional.empty(), cache.get("a"));
+      assertEquals(0, cache.hits());
+      assertEquals(0, cache.misses());
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package gov.nasa.jpl.aerie.permissions;
+
+import com.sun.net.httpserver.HttpServer;
+import gov.nasa.jpl.aerie.permissions.exceptions.Unauthorized;
+import gov.nasa.jpl.aerie.permissions.gql.GraphQLPermissionsService;
+import gov.nasa.jpl.aerie.permissions.gql.PlanId;
+import gov.nasa.jpl.aerie.permissions.gql.SchedulingSpecificationId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class PermissionsServiceTest {
+  private static final PlanId PLAN = new PlanId(1);
+
+  private HttpServer hasura;
+  private final AtomicInteger requests = new AtomicInteger();
+  private volatile String collaborator = "collaborator";
+
+  /** Answer the queries of GraphQLPermissionsService as Hasura would, counting each request. */
+  @BeforeEach
+  public void startHasura() throws IOException {
+    this.hasura = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    this.hasura.createContext("/v1/graphql", exchange -> {
+      this.requests.incrementAndGet();
+      final var query = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+      final String data;
+      if (query.contains("getActionPermission")) {
+        data = "{\"check\": {\"permission\": \"PLAN_OWNER_COLLABORATOR\"}}";
+      } else if (query.contains("getPlanOwnerCollaborators")) {
+        final var isCollaborator = query.contains("\"username\":\"" + this.collaborator + "\"");
+        data = "{\"plan\": {\"owner\": \"owner\", \"collaborators\": %s}}"
+            .formatted(isCollaborator ? "[{\"collaborator\": \"%s\"}]".formatted(this.collaborator) : "[]");
+      } else if (query.contains("planIdFromSpecId")) {
+        data = "{\"spec\": {\"plan_id\": %d}}".formatted(PLAN.id());
+      } else {
+        data = "null";
+      }
+      final var response = ("{\"data\": " + data + "}").getBytes(StandardCharsets.UTF_8);
+      exchange.sendResponseHeaders(200, response.length);
+      try (final var body = exchange.getResponseBody()) {
+        body.write(response);
+      }
+    });
+    this.hasura.start();
+  }
+
+  @AfterEach
+  public void stopHasura() {
+    this.hasura.stop(0);
+  }
+
+  private PermissionsService service(final Duration ttl) {
+    final var uri = URI.create("http://localhost:" + this.hasura.getAddress().getPort() + "/v1/graphql");
+    return new PermissionsService(new GraphQLPermissionsService(uri, ""), ttl, 100);
+  }
+
+  @Test
+  public void repeatedChecksAreAnsweredFromTheCache() throws Exception {
+    final var service = service(Duration.ofMinutes(1));
+
+    service.check(Action.simulate, "user", "owner", PLAN);
+    assertEquals(2, this.requests.get());
+    service.check(Action.simulate, "user", "owner", PLAN);
+    assertEquals(2, this.requests.get());
+
+    final var metrics = service.getMetrics();
+    assertEquals(2, metrics.checks());
+    assertEquals(2, metrics.cacheHits());
+    assertEquals(2, metrics.cacheMisses());
+  }
+
+  @Test
+  public void specificationChecksReuseThePlanLookup() throws Exception {
+    final var service = service(Duration.ofMinutes(1));
+    final var specification = new SchedulingSpecificationId(3);
+
+    service.check(Action.schedule, "user", "owner", specification);
+    assertEquals(3, this.requests.get());
+    service.check(Action.schedule, "user", "owner", specification);
+    assertEquals(3, this.requests.get());
+  }
+
+  @Test
+  public void invalidatingAPlanRefetchesItsCollaborators() throws Exception {
+    final var service = service(Duration.ofMinutes(1));
+    service.check(Action.simulate, "user", "collaborator", PLAN);
+
+    this.collaborator = "someone else";
+    service.check(Action.simulate, "user", "collaborator", PLAN);
+
+    service.invalidatePlan(PLAN);
+    assertThrows(Unauthorized.class, () -> service.check(Action.simulate, "user", "collaborator", PLAN));
+    assertEquals(3, this.requests.get());
+  }
+
+  @Test
+  public void zeroTtlQueriesHasuraOnEveryCheck() throws Exception {
+    final var service = service(Duration.ZERO);
+
+    service.check(Action.simulate, "user", "owner", PLAN);
+    service.check(Action.simulate, "user", "owner", PLAN);
+    assertEquals(4, this.requests.get());
+
+    final var metrics = service.getMetrics();
+    assertEquals(2, metrics.checks());
+    assertEquals(0, metrics.cacheHits());
+  }
+
+  @Test
+  public void adminChecksDoNotQueryHasura() throws Exception {
+    final var service = service(Duration.ofMinutes(1));
+    service.check(Action.simulate, "aerie_admin", "anyone", PLAN);
+    assertEquals(0, this.requests.get());
+  }
+}
@@ -5,7 +5,6 @@ import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
 import gov.nasa.ammos.aerie.procedural.scheduling.Goal;
 import gov.nasa.ammos.aerie.procedural.scheduling.annotations.SchedulingProcedure;
 import gov.nasa.ammos.aerie.procedural.scheduling.plan.EditablePlan;
-import gov.nasa.ammos.aerie.procedural.timeline.collections.profiles.Real;
 import gov.nasa.ammos.aerie.procedural.timeline.payloads.activities.DirectiveStart;
 import org.jetbrains.annotations.NotNull;
 
@@ -19,7 +18,7 @@ public record SimulationDemo(int quantity) implements Goal {
     var simResults = plan.latestResults();
     if (simResults == null) simResults = plan.simulate();
 
-    final var lowFruit = simResults.resource("/fruit", Real.deserializer()).lessThan(3.5).isolateTrue();
+    final var lowFruit = simResults.realResource("/fruit").lessThan(3.5).isolateTrue();
     final var bites = simResults.instances("BiteBanana");
 
     final var connections = lowFruit.starts().shift(Duration.MINUTE.negate())
@@ -91,7 +91,7 @@ public record StayWellFed(double bitePeriodHours) implements Goal {
     // So we iteratively find the first time /fruit drops below zero
     // and add a grow banana fix it. We then mock the effect of grow banana
     // by adding one to /fruit, rather than resimulating, and do it again.
-    var fruit = simResults.resource("/fruit", Real.deserializer()).cache();
+    var fruit = simResults.realResource("/fruit").cache();
 
     var ranOutAt = fruit.lessThan(0).filterByWindows(dolePhase, true).risingEdges().highlightTrue().collect();
     while (!ranOutAt.isEmpty()) {
@@ -7,6 +7,8 @@ import gov.nasa.ammos.aerie.procedural.timeline.util.listCollector
  * The basic timeline container that all higher-level timeline collections ultimately delegate to.
  *
  * Only the most extreme power-users should ever need to construct this manually.
+ *
+ * Results are reused if the timeline was explicitly [cached][cache], or if an [EvaluationCache] is active.
  */
 data class BaseTimeline<V: IntervalLike<V>, TL: Timeline<V, TL>>(
     override val ctor: (Timeline<V, TL>) -> TL,
@@ -26,7 +28,11 @@ data class BaseTimeline<V: IntervalLike<V>, TL: Timeline<V, TL>>(
   override fun iterator(): Iterator<V> = collect().iterator()
 
   override fun collect(opts: CollectOptions) =
-    if (cached == null || !cachedOptions!!.contains(opts)) collector(opts)
+    if (cached == null || !cachedOptions!!.contains(opts)) {
+      val evaluationCache = EvaluationCache.current()
+      if (evaluationCache == null) collector(opts)
+      else evaluationCache.collect(this, opts, collector)
+    }
     else ctor(BaseTimeline(ctor, listCollector(cached!!))).collect(opts)
 
   override fun <RESULT : Timeline<V, RESULT>> unsafeCast(ctor: (Timeline<V, RESULT>) -> RESULT) =
@@ -12,10 +12,24 @@ data class CollectOptions @JvmOverloads constructor(
      *
      * Objects with no intersection with the bounds should never be included in the results.
      */
-    @JvmField val truncateMarginal: Boolean = true
+    @JvmField val truncateMarginal: Boolean = true,
+
+    /**
+     * How many chunks of time local profile operations may evaluate concurrently.
+     *
+     * Values greater than `1` let operations such as [map2OptionalValues][gov.nasa.ammos.aerie.procedural.timeline.ops.SerialSegmentOps.map2OptionalValues]
+     * and [flatMapValues][gov.nasa.ammos.aerie.procedural.timeline.ops.SegmentOps.flatMapValues] split their work on the
+     * common fork/join pool; see [collectInChunks][gov.nasa.ammos.aerie.procedural.timeline.util.collectInChunks].
+     * The results are identical to serial evaluation, so this only changes performance, which improves for long profiles.
+     */
+    @JvmField val parallelism: Int = 1
 ) {
+  init {
+    require(parallelism >= 1) { "parallelism must be at least 1, got $parallelism" }
+  }
+
   /** Creates a new options object with a [BoundsTransformer] applied. */
-  fun transformBounds(boundsTransformer: BoundsTransformer) = CollectOptions(boundsTransformer(bounds), truncateMarginal)
+  fun transformBounds(boundsTransformer: BoundsTransformer) = CollectOptions(boundsTransformer(bounds), truncateMarginal, parallelism)
 
   /**
    * Whether the results of collecting a timeline with [other] options are guaranteed to be contained in
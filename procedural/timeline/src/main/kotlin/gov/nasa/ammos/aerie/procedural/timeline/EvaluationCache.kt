@@ -0,0 +1,185 @@
+package gov.nasa.ammos.aerie.procedural.timeline
+
+import gov.nasa.ammos.aerie.procedural.timeline.payloads.IntervalLike
+import gov.nasa.ammos.aerie.procedural.timeline.util.truncateList
+import java.lang.ref.ReferenceQueue
+import java.lang.ref.WeakReference
+import java.util.concurrent.atomic.LongAdder
+
+/**
+ * An opt-in cache of collected timeline results, keyed by timeline identity.
+ *
+ * While a cache is [active][activate] on a thread, every [BaseTimeline] collected on that thread stores its results
+ * for the requested [CollectOptions], and answers later requests whose options are [contained][CollectOptions.contains]
+ * in a stored entry by slicing that entry instead of re-evaluating. This extends [Timeline.cache], which the user must
+ * call explicitly and which keeps only one set of options.
+ *
+ * The cache is looked up once per collect, not when timelines are constructed. Intermediate timelines built inside
+ * another timeline's collector are cached like any other, and their results are dropped once they become unreachable.
+ *
+ * Cached results are only correct while the inputs of each timeline are unchanged. Whoever owns the cache must
+ * [invalidate] it whenever the plan or simulation results that timelines were derived from change.
+ *
+ * A sliced result is the same as collecting the timeline on the stored, wider bounds and truncating it, which is also
+ * what [Timeline.cache] does. This can differ from evaluating on the narrower bounds directly, where operations that
+ * look at neighbouring segments cannot see past the bounds. In particular, collecting directly:
+ * - may report [starts][gov.nasa.ammos.aerie.procedural.timeline.ops.ParallelOps.starts] and
+ *   [ends][gov.nasa.ammos.aerie.procedural.timeline.ops.ParallelOps.ends] at the bounds, for intervals derived from
+ *   profiles (e.g. by `isolateTrue`) that cross them;
+ * - reports [changes][gov.nasa.ammos.aerie.procedural.timeline.ops.SerialSegmentOps.changes] and transitions at the
+ *   start of the bounds as a gap, where a sliced result knows whether the value changed there.
+ * A sliced result reports what the timeline looks like over the wider bounds in these cases.
+ *
+ * Timelines are held weakly, so results are dropped once their timeline is unreachable.
+ *
+ * @param maxElements the total number of timeline objects kept across all results; the least recently used
+ *   timelines' results are dropped first.
+ * @param maxEntriesPerTimeline the number of differently-bounded results kept for each timeline.
+ */
+class EvaluationCache @JvmOverloads constructor(
+    private val maxElements: Int = 1_000_000,
+    private val maxEntriesPerTimeline: Int = 4
+) {
+  private class Result<V: IntervalLike<V>>(val opts: CollectOptions, val list: List<V>) {
+    // Computed on the first slice, so that later slices can binary search instead of scanning the whole list.
+    val isSorted by lazy { list.zipWithNext().all { (l, r) -> l.interval.compareStarts(r.interval) <= 0 } }
+    val isSerial by lazy { isSorted && list.zipWithNext().all { (l, r) -> l.interval isStrictlyBefore r.interval } }
+
+    fun slice(opts: CollectOptions) =
+        if (opts == this.opts) list
+        else truncateList(list, opts, isSorted, isSerial)
+  }
+
+  /**
+   * Compares timelines by reference, since [BaseTimeline] is a data class with structural equality.
+   *
+   * Stored keys are registered with a queue, so that they can be removed once their timeline is collected.
+   */
+  private class Key(timeline: Timeline<*, *>, queue: ReferenceQueue<Timeline<*, *>>?):
+      WeakReference<Timeline<*, *>>(timeline, queue)
+  {
+    private val hash = System.identityHashCode(timeline)
+
+    override fun equals(other: Any?): Boolean {
+      if (other === this) return true
+      if (other !is Key) return false
+      val timeline = get()
+      return timeline != null && timeline === other.get()
+    }
+    override fun hashCode() = hash
+  }
+
+  private val lock = Any()
+  private val queue = ReferenceQueue<Timeline<*, *>>()
+  private val entries = LinkedHashMap<Key, List<Result<*>>>(16, 0.75f, true)
+  private var elements = 0L
+  private val hits = LongAdder()
+  private val misses = LongAdder()
+
+  /**
+   * Collects [timeline] with [opts], reusing a stored result if one covers the options.
+   *
+   * @param collector evaluates the timeline without the cache
+   */
+  fun <V: IntervalLike<V>> collect(timeline: Timeline<V, *>, opts: CollectOptions, collector: (CollectOptions) -> List<V>): List<V> {
+    @Suppress("UNCHECKED_CAST")
+    val existing = synchronized(lock) {
+      (entries[Key(timeline, null)] ?: listOf()) as List<Result<V>>
+    }
+    val covering = existing.firstOrNull { it.opts.contains(opts) }
+    if (covering != null) {
+      hits.increment()
+      return covering.slice(opts)
+    }
+    misses.increment()
+
+    val result = collector(opts)
+
+    synchronized(lock) {
+      expungeCollectedTimelines()
+      val key = Key(timeline, queue)
+      // Newer entries go first; any entry that the new one covers is redundant.
+      val updated = (listOf(Result(opts, result)) + existing.filter { !opts.contains(it.opts) }).take(maxEntriesPerTimeline)
+      entries.remove(key)?.let { elements -= sizeOf(it) }
+      entries[key] = updated
+      elements += sizeOf(updated)
+      evictLeastRecentlyUsed()
+    }
+    return result
+  }
+
+  private fun sizeOf(results: List<Result<*>>) = results.sumOf { it.list.size.toLong() }
+
+  private fun expungeCollectedTimelines() {
+    while (true) {
+      val key = queue.poll() ?: return
+      entries.remove(key)?.let { elements -= sizeOf(it) }
+    }
+  }
+
+  private fun evictLeastRecentlyUsed() {
+    val iterator = entries.values.iterator()
+    while (elements > maxElements && iterator.hasNext()) {
+      elements -= sizeOf(iterator.next())
+      iterator.remove()
+    }
+  }
+
+  /** Drops every stored result. */
+  fun invalidate() {
+    synchronized(lock) {
+      entries.clear()
+      elements = 0
+    }
+  }
+
+  /** The number of collect requests answered from the cache. */
+  fun hits() = hits.sum()
+
+  /** The number of collect requests that had to evaluate their timeline. */
+  fun misses() = misses.sum()
+
+  /**
+   * Makes this the active cache on the current thread, until the returned scope is closed.
+   *
+   * Scopes may be nested; closing one restores the cache that was active before it.
+   */
+  fun activate(): Scope {
+    val previous = active.get()
+    active.set(this)
+    return Scope(previous)
+  }
+
+  /** A period during which an [EvaluationCache] is active; see [activate]. */
+  class Scope internal constructor(private val previous: EvaluationCache?): AutoCloseable {
+    override fun close() {
+      if (previous == null) active.remove()
+      else active.set(previous)
+    }
+  }
+
+  /***/ companion object {
+    private val active = ThreadLocal<EvaluationCache>()
+
+    /** The cache active on the current thread, if any. */
+    @JvmStatic fun current(): EvaluationCache? = active.get()
+
+    /**
+     * Wraps [block] so that it runs with this thread's active cache, for handing part of an evaluation to another
+     * thread.
+     */
+    internal fun <T> propagate(block: () -> T): () -> T {
+      val cache = active.get() ?: return block
+      return {
+        val previous = active.get()
+        active.set(cache)
+        try {
+          block()
+        } finally {
+          if (previous == null) active.remove()
+          else active.set(previous)
+        }
+      }
+    }
+  }
+}
@@ -3,7 +3,9 @@ package gov.nasa.ammos.aerie.procedural.timeline.ops
 import gov.nasa.ammos.aerie.procedural.timeline.*
 import gov.nasa.ammos.aerie.procedural.timeline.BoundsTransformer.Companion.IDENTITY
 import gov.nasa.ammos.aerie.procedural.timeline.payloads.Segment
+import gov.nasa.ammos.aerie.procedural.timeline.util.collectInChunks
 import gov.nasa.ammos.aerie.procedural.timeline.util.map2ParallelLists
+import gov.nasa.ammos.aerie.procedural.timeline.util.truncateList
 
 /**
  * Operations mixin for timelines of segments.
@@ -30,8 +32,7 @@ interface SegmentOps<V : Any, THIS: SegmentOps<V, THIS>>: NonZeroDurationOps<Seg
       unsafeMap(ctor, IDENTITY, false) { it.mapValue(f) }
 
   /** [(DOC)][flatMapValues] A simpler version of [flatMapValues] for operations that don't change the timeline type. */
-  fun flatMapValues(f: (Segment<V>) -> SegmentOps<V, *>) =
-      unsafeFlatMap(ctor, IDENTITY, false) { it.mapValue(f) }
+  fun flatMapValues(f: (Segment<V>) -> SegmentOps<V, *>) = flatMapValues(ctor, f)
 
   /**
    * [(DOC)][flatMapValues] Maps segments into a collection of nested timelines and flattens them into their original intervals.
@@ -39,6 +40,8 @@ interface SegmentOps<V : Any, THIS: SegmentOps<V, THIS>>: NonZeroDurationOps<Seg
    * Similar to [GeneralOps.unsafeFlatMap] except that the mapper function cannot change the interval the nested timeline
    * is flattened into.
    *
+   * Segments are mapped in parallel if [CollectOptions.parallelism] allows it and this timeline is serial.
+   *
    * @param R the result payload type
    * @param RESULT the result timeline type
    *
@@ -46,7 +49,14 @@ interface SegmentOps<V : Any, THIS: SegmentOps<V, THIS>>: NonZeroDurationOps<Seg
    * @param f a mapper function that converts each timeline object to a nested timeline
    */
   fun <R: Any, RESULT: SegmentOps<R, RESULT>> flatMapValues(ctor: (Timeline<Segment<R>, RESULT>) -> RESULT, f: (Segment<V>) -> SegmentOps<R, *>) =
-     unsafeFlatMap(ctor, IDENTITY, false) { it.mapValue(f) }
+      unsafeOperate(ctor) { opts ->
+        val segments = collect(opts)
+        val isSerial = this is SerialOps<*, *>
+        collectInChunks(opts, if (isSerial) segments else listOf()) { chunk ->
+          // Chunks are cut at segment starts, so truncating to one never splits a segment.
+          truncateList(segments, chunk, isSerial, isSerial).flatMap { f(it).collect(it.interval) }
+        }
+      }
 
   /** [(DOC)][map2Values] A simplified version of [map2Values] for operations that don't change the timeline type. */
   fun map2Values(other: SegmentOps<V, *>, op: (V, V, Interval) -> V?) = map2Values(ctor, other, op)
@@ -105,8 +115,18 @@ interface SegmentOps<V : Any, THIS: SegmentOps<V, THIS>>: NonZeroDurationOps<Seg
    */
   fun <W: Any, R: Any, RESULT: SegmentOps<R, RESULT>> flatMap2Values(ctor: (Timeline<Segment<R>, RESULT>) -> RESULT, other: SegmentOps<W, *>, op: (V, W, Interval) -> SegmentOps<R, *>?) =
       unsafeOperate(ctor) { opts ->
-        map2ParallelLists(collect(opts), other.collect(opts), isAlwaysSorted(), other.isAlwaysSorted()) { l, r, i ->
-          op(l.value, r.value, i)?.let { Segment(i, it) }
-        }.flatMap { it.value.collect(CollectOptions(it.interval, true)) }
+        val left = collect(opts)
+        val right = other.collect(opts)
+        val isSerial = this is SerialOps<*, *> && other is SerialOps<*, *>
+        collectInChunks(opts, if (isSerial) left else listOf()) { chunk ->
+          map2ParallelLists(
+              truncateList(left, chunk, isAlwaysSorted(), isSerial),
+              truncateList(right, chunk, other.isAlwaysSorted(), isSerial),
+              isAlwaysSorted(),
+              other.isAlwaysSorted()
+          ) { l, r, i ->
+            op(l.value, r.value, i)?.let { Segment(i, it) }
+          }.flatMap { it.value.collect(CollectOptions(it.interval, true)) }
+        }
       }
 }
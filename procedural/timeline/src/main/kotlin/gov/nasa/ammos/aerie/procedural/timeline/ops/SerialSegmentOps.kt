@@ -8,6 +8,7 @@ import gov.nasa.ammos.aerie.procedural.timeline.ops.coalesce.CoalesceSegmentsOp
 import gov.nasa.ammos.aerie.procedural.timeline.payloads.Segment
 import gov.nasa.ammos.aerie.procedural.timeline.payloads.transpose
 import gov.nasa.ammos.aerie.procedural.timeline.util.coalesceList
+import gov.nasa.ammos.aerie.procedural.timeline.util.collectInChunks
 import gov.nasa.ammos.aerie.procedural.timeline.util.map2SegmentLists
 import gov.nasa.ammos.aerie.procedural.timeline.util.truncateList
 
@@ -66,7 +67,13 @@ interface SerialSegmentOps<V : Any, THIS: SerialSegmentOps<V, THIS>>: SerialOps<
    * @return a coalesced profile; an instance of the return type of [ctor]
    */
   fun <W: Any, R: Any, RESULT: GeneralOps<Segment<R>, RESULT>> map2OptionalValues(ctor: (Timeline<Segment<R>, RESULT>) -> RESULT, other: SerialSegmentOps<W, *>, op: NullBinaryOperation<V, W, R?>) =
-      unsafeOperate(ctor) { bounds -> map2SegmentLists(collect(bounds), other.collect(bounds), op) }
+      unsafeOperate(ctor) { opts ->
+        val left = collect(opts)
+        val right = other.collect(opts)
+        collectInChunks(opts, left) { chunk ->
+          map2SegmentLists(truncateList(left, chunk, true, true), truncateList(right, chunk, true, true), op)
+        }
+      }
 
   /**
    * [(DOC)][flatMap2OptionalValues] Performs a local binary operation that produces profiles, and flattens
@@ -98,8 +105,12 @@ interface SerialSegmentOps<V : Any, THIS: SerialSegmentOps<V, THIS>>: SerialOps<
    */
   fun <W: Any, R: Any, RESULT: GeneralOps<Segment<R>, RESULT>> flatMap2OptionalValues(ctor: (Timeline<Segment<R>, RESULT>) -> RESULT, other: SerialSegmentOps<W, *>, op: NullBinaryOperation<V, W, SerialSegmentOps<R, *>?>) =
       unsafeOperate(ctor) { opts ->
-        map2SegmentLists(collect(opts), other.collect(opts), op)
-            .flatMap { it.value.collect(CollectOptions(it.interval, true)) }
+        val left = collect(opts)
+        val right = other.collect(opts)
+        collectInChunks(opts, left) { chunk ->
+          map2SegmentLists(truncateList(left, chunk, true, true), truncateList(right, chunk, true, true), op)
+              .flatMap { it.value.collect(CollectOptions(it.interval, true)) }
+        }
       }
 
   /**
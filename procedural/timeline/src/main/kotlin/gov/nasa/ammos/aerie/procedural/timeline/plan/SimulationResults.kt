@@ -5,6 +5,7 @@ import gov.nasa.ammos.aerie.procedural.timeline.Interval
 import gov.nasa.ammos.aerie.procedural.timeline.payloads.Segment
 import gov.nasa.ammos.aerie.procedural.timeline.payloads.activities.AnyInstance
 import gov.nasa.ammos.aerie.procedural.timeline.collections.Instances
+import gov.nasa.ammos.aerie.procedural.timeline.collections.profiles.Real
 import gov.nasa.ammos.aerie.procedural.timeline.ops.SerialSegmentOps
 
 /** An interface for querying plan information and simulation results. */
@@ -18,11 +19,23 @@ interface SimulationResults {
   /**
    * Query a resource profile from this simulation dataset.
    *
+   * Implementations may defer deserialization until the profile is collected, and then pass the [deserializer]
+   * only the segments relevant to the collect bounds; so it should convert each segment independently.
+   *
    * @param deserializer constructor of the profile, converting [SerializedValue]
    * @param name string name of the resource
    */
   fun <V: Any, TL: SerialSegmentOps<V, TL>> resource(name: String, deserializer: (List<Segment<SerializedValue>>) -> TL): TL
 
+  /**
+   * Query a real-valued resource profile from this simulation dataset.
+   *
+   * Equivalent to `resource(name, Real.deserializer())`, but implementations may skip the round trip through [SerializedValue].
+   *
+   * @param name string name of the resource
+   */
+  fun realResource(name: String): Real = resource(name, Real.deserializer())
+
   /**
    * Query activity instances.
    *
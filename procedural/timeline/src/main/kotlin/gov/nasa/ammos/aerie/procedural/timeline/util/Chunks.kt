@@ -0,0 +1,54 @@
+package gov.nasa.ammos.aerie.procedural.timeline.util
+
+import gov.nasa.ammos.aerie.procedural.timeline.CollectOptions
+import gov.nasa.ammos.aerie.procedural.timeline.EvaluationCache
+import gov.nasa.ammos.aerie.procedural.timeline.Interval
+import gov.nasa.ammos.aerie.procedural.timeline.payloads.IntervalLike
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.ForkJoinTask
+
+/**
+ * Evaluates an operation on consecutive chunks of time concurrently, and concatenates the results.
+ *
+ * If [CollectOptions.parallelism] is greater than `1`, the time axis is split into up to that many chunks, and [f]
+ * is called once per chunk on the common [ForkJoinPool]. Otherwise, [f] is called once with [Interval.MIN_MAX].
+ *
+ * The chunks are cut at the starts of evenly spaced objects in [pivot], so that no object in [pivot] is split, and
+ * the first and last chunks extend to the ends of time. [f] is expected to [truncate][truncateList] its
+ * already-collected operands to the chunk and produce a sorted list contained in it. The chunk's options are
+ * never parallel, so nested collects inside [f] run serially.
+ *
+ * *Input condition*: each output object of the operation must depend only on the parts of the operands within a single
+ * [pivot] object or a single gap between them, like in [map2SegmentLists] where [pivot] is either operand. Then the
+ * concatenated results are identical to calling [f] on the whole list, with no stitching required. This is not
+ * checked.
+ *
+ * @param opts the options the operation was collected with
+ * @param pivot a sorted, non-overlapping operand whose object boundaries are safe places to cut
+ * @param f the operation, evaluated on the options for a single chunk
+ */
+fun <I: IntervalLike<I>, V> collectInChunks(
+    opts: CollectOptions,
+    pivot: List<I>,
+    f: (CollectOptions) -> List<V>
+): List<V> {
+  val chunks = minOf(opts.parallelism, pivot.size)
+  if (chunks <= 1) return f(CollectOptions(Interval.MIN_MAX, true))
+
+  var start = Duration.MIN_VALUE
+  var startInclusivity = Interval.Inclusivity.Inclusive
+  val tasks = (0 until chunks).map { i ->
+    val chunk = if (i == chunks - 1) {
+      Interval.between(start, Duration.MAX_VALUE, startInclusivity, Interval.Inclusivity.Inclusive)
+    } else {
+      val cut = pivot[((i + 1).toLong() * pivot.size / chunks).toInt()].interval
+      Interval.between(start, cut.start, startInclusivity, cut.startInclusivity.opposite()).also {
+        start = cut.start
+        startInclusivity = cut.startInclusivity
+      }
+    }
+    ForkJoinTask.adapt(EvaluationCache.propagate { f(CollectOptions(chunk, true)) })
+  }
+  return ForkJoinTask.invokeAll(tasks).flatMap { it.join() }
+}
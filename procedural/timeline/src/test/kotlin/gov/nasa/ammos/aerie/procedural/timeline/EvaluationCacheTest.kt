@@ -0,0 +1,97 @@
+package gov.nasa.ammos.aerie.procedural.timeline
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration.seconds
+import gov.nasa.ammos.aerie.procedural.timeline.collections.profiles.Numbers
+import gov.nasa.ammos.aerie.procedural.timeline.payloads.Segment
+import gov.nasa.ammos.aerie.procedural.timeline.util.listCollector
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertIterableEquals
+import org.junit.jupiter.api.Test
+import gov.nasa.ammos.aerie.procedural.timeline.util.duration.rangeTo
+import gov.nasa.ammos.aerie.procedural.timeline.util.duration.rangeUntil
+
+class EvaluationCacheTest {
+  private var collectCounter = 0
+
+  private val segments = listOf(
+      Segment(seconds(0) ..< seconds(10), 1),
+      Segment(seconds(10) ..< seconds(20), 2),
+      Segment(seconds(20) .. seconds(30), 3)
+  )
+
+  private val profile = Numbers(BaseTimeline(::Numbers) { opts ->
+    collectCounter += 1
+    listCollector(segments, true, true)(opts)
+  })
+
+  @Test
+  fun inactiveCacheIsNotUsed() {
+    val cache = EvaluationCache()
+
+    profile.collect()
+    profile.collect()
+    assertEquals(2, collectCounter)
+    assertEquals(0, cache.misses())
+  }
+
+  @Test
+  fun slicesContainedBounds() {
+    val cache = EvaluationCache()
+    cache.activate().use {
+      profile.collect(seconds(0) .. seconds(30))
+      assertEquals(1, collectCounter)
+
+      // collect on contained bounds, sliced from the stored result
+      assertIterableEquals(
+          listOf(Segment(seconds(5) ..< seconds(10), 1), Segment(seconds(10) .. seconds(15), 2)),
+          profile.collect(seconds(5) .. seconds(15))
+      )
+      assertEquals(1, collectCounter)
+
+      // collect without truncation, which the truncated result can't answer
+      profile.collect(CollectOptions(seconds(15) .. seconds(25), false))
+      assertEquals(2, collectCounter)
+
+      // collect on wider bounds, triggering an eval
+      profile.collect()
+      assertEquals(3, collectCounter)
+
+      // the unbounded result now answers everything, including untruncated requests
+      assertIterableEquals(
+          segments.subList(1, 3),
+          profile.collect(CollectOptions(seconds(15) .. seconds(25), false))
+      )
+      assertEquals(3, collectCounter)
+      assertEquals(2, cache.hits())
+      assertEquals(3, cache.misses())
+    }
+
+    // scope closed, so no longer cached
+    profile.collect()
+    assertEquals(4, collectCounter)
+  }
+
+  @Test
+  fun invalidationDropsResults() {
+    val cache = EvaluationCache()
+    cache.activate().use {
+      profile.collect()
+      cache.invalidate()
+      profile.collect(seconds(5) .. seconds(15))
+      assertEquals(2, collectCounter)
+    }
+  }
+
+  @Test
+  fun derivedTimelinesShareCachedInputs() {
+    val cache = EvaluationCache()
+    cache.activate().use {
+      val doubled = profile.mapValues { it.value.toInt() * 2 }
+      val tripled = profile.mapValues { it.value.toInt() * 3 }
+
+      assertIterableEquals(listOf(2, 4, 6), doubled.collect().map { it.value })
+      assertIterableEquals(listOf(3, 6, 9), tripled.collect().map { it.value })
+      assertEquals(1, collectCounter)
+    }
+  }
+}
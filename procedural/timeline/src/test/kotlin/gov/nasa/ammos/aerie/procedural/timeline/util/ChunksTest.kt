@@ -0,0 +1,127 @@
+package gov.nasa.ammos.aerie.procedural.timeline.util
+
+import gov.nasa.ammos.aerie.procedural.timeline.CollectOptions
+import gov.nasa.ammos.aerie.procedural.timeline.EvaluationCache
+import gov.nasa.ammos.aerie.procedural.timeline.Interval
+import gov.nasa.ammos.aerie.procedural.timeline.Interval.Companion.between
+import gov.nasa.ammos.aerie.procedural.timeline.Interval.Inclusivity.Exclusive
+import gov.nasa.ammos.aerie.procedural.timeline.Interval.Inclusivity.Inclusive
+import gov.nasa.ammos.aerie.procedural.timeline.collections.profiles.Booleans
+import gov.nasa.ammos.aerie.procedural.timeline.collections.profiles.Numbers
+import gov.nasa.ammos.aerie.procedural.timeline.collections.profiles.Real
+import gov.nasa.ammos.aerie.procedural.timeline.payloads.LinearEquation
+import gov.nasa.ammos.aerie.procedural.timeline.payloads.Segment
+import gov.nasa.ammos.aerie.procedural.timeline.util.duration.rangeTo
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration.seconds
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import java.util.Random
+
+class ChunksTest {
+  private val bounds = seconds(0)..seconds(1000)
+
+  /** A profile with random values, random inclusivities, and occasional gaps. */
+  private fun <V> randomSegments(random: Random, value: (Int) -> V): List<Segment<V>> {
+    val result = mutableListOf<Segment<V>>()
+    var time = 0L
+    while (time < 1000) {
+      val end = time + 1 + random.nextInt(10)
+      if (random.nextInt(5) != 0) {
+        val inclusivity = if (random.nextBoolean()) Inclusive else Exclusive
+        result.add(Segment(between(seconds(time), seconds(end), inclusivity, inclusivity.opposite()), value(random.nextInt(3))))
+      }
+      time = end
+    }
+    return result
+  }
+
+  private fun parallel(truncateMarginal: Boolean = true) = CollectOptions(seconds(3)..seconds(997), truncateMarginal, 7)
+  private fun serial(truncateMarginal: Boolean = true) = CollectOptions(seconds(3)..seconds(997), truncateMarginal)
+
+  @Test
+  fun serialWithoutParallelism() {
+    val chunks = mutableListOf<Interval>()
+    collectInChunks(CollectOptions(bounds), listOf(bounds)) { chunks.add(it.bounds); listOf<Interval>() }
+    assertIterableEquals(listOf(Interval.MIN_MAX), chunks)
+  }
+
+  @Test
+  fun chunksPartitionTimeAtPivotStarts() {
+    val pivot = listOf(
+        seconds(0)..seconds(1),
+        between(seconds(1), seconds(2), Exclusive),
+        seconds(4)..seconds(5),
+        seconds(6)..seconds(7)
+    )
+    val chunks = collectInChunks(CollectOptions(bounds, true, 2), pivot) { listOf(it.bounds) }
+    assertIterableEquals(
+        listOf(
+            between(Duration.MIN_VALUE, seconds(4), Inclusive, Exclusive),
+            between(seconds(4), Duration.MAX_VALUE)
+        ),
+        chunks
+    )
+
+    val pointChunks = collectInChunks(CollectOptions(bounds, true, 4), pivot) { listOf(it.bounds) }
+    assertIterableEquals(
+        listOf(
+            between(Duration.MIN_VALUE, seconds(1), Inclusive, Inclusive),
+            between(seconds(1), seconds(4), Exclusive, Exclusive),
+            between(seconds(4), seconds(6), Inclusive, Exclusive),
+            between(seconds(6), Duration.MAX_VALUE)
+        ),
+        pointChunks
+    )
+  }
+
+  @Test
+  fun map2MatchesSerial() {
+    val random = Random(0)
+    for (i in 0 until 20) {
+      val left = Booleans(randomSegments(random) { it == 0 })
+      val right = Booleans(randomSegments(random) { it == 1 })
+      for (truncateMarginal in listOf(true, false)) {
+        assertIterableEquals((left and right).collect(serial(truncateMarginal)), (left and right).collect(parallel(truncateMarginal)))
+        assertIterableEquals((left or right).collect(serial(truncateMarginal)), (left or right).collect(parallel(truncateMarginal)))
+      }
+    }
+  }
+
+  @Test
+  fun flatMap2MatchesSerial() {
+    val random = Random(1)
+    for (i in 0 until 20) {
+      val real = Real(randomSegments(random) { LinearEquation(seconds(it.toLong()), it.toDouble(), (it - 1) / 10.0) })
+      val numbers = Numbers(randomSegments(random) { it })
+      for (truncateMarginal in listOf(true, false)) {
+        assertIterableEquals(
+            (real lessThan numbers).collect(serial(truncateMarginal)),
+            (real lessThan numbers).collect(parallel(truncateMarginal))
+        )
+        assertIterableEquals(
+            (real greaterThanOrEqualTo 1).collect(serial(truncateMarginal)),
+            (real greaterThanOrEqualTo 1).collect(parallel(truncateMarginal))
+        )
+      }
+    }
+  }
+
+  @Test
+  fun flatMapValuesMatchesSerial() {
+    val random = Random(2)
+    val numbers = Numbers(randomSegments(random) { it })
+    val doubled = numbers.flatMapValues { Numbers(it.value.toInt() * 2) }
+    assertIterableEquals(doubled.collect(serial()), doubled.collect(parallel()))
+  }
+
+  @Test
+  fun chunksSeeTheActiveEvaluationCache() {
+    val cache = EvaluationCache()
+    val pivot = listOf(seconds(0)..seconds(1), seconds(2)..seconds(3))
+    val seen = cache.activate().use {
+      collectInChunks(CollectOptions(bounds, true, 2), pivot) { listOf(EvaluationCache.current()) }
+    }
+    assertIterableEquals(listOf(cache, cache), seen)
+  }
+}
@@ -13,6 +13,7 @@ import gov.nasa.jpl.aerie.scheduler.model.PlanningHorizon;
 import gov.nasa.jpl.aerie.scheduler.model.Problem;
 import gov.nasa.jpl.aerie.scheduler.model.SchedulingActivity;
 import gov.nasa.jpl.aerie.scheduler.plan.InMemoryEditablePlan;
+import gov.nasa.jpl.aerie.scheduler.plan.ProceduralEvaluationCache;
 import gov.nasa.jpl.aerie.scheduler.plan.SchedulerToProcedurePlanAdapter;
 import gov.nasa.jpl.aerie.scheduler.simulation.SimulationFacade;
 import gov.nasa.jpl.aerie.scheduler.solver.ConflictSatisfaction;
@@ -45,7 +46,8 @@ public class Procedure extends Goal {
       final Function<String, ActivityType> lookupActivityType,
       final SimulationFacade simulationFacade,
       final DirectiveIdGenerator idGenerator,
-      Map<String, List<ExternalEvent>> eventsByDerivationGroup
+      Map<String, List<ExternalEvent>> eventsByDerivationGroup,
+      final ProceduralEvaluationCache caches
   ) {
     final ProcedureMapper<?> procedureMapper;
     try {
@@ -69,10 +71,19 @@ public class Procedure extends Goal {
         idGenerator,
         planAdapter,
         simulationFacade,
-        lookupActivityType::apply
+        lookupActivityType::apply,
+        caches
     );
 
-    procedureMapper.deserialize(SerializedValue.of(this.args)).run(editablePlan);
+    final var procedure = procedureMapper.deserialize(SerializedValue.of(this.args));
+    final var timelines = caches.getTimelines();
+    if (timelines == null) {
+      procedure.run(editablePlan);
+    } else {
+      try (final var ignored = timelines.activate()) {
+        procedure.run(editablePlan);
+      }
+    }
 
     if (!editablePlan.getUncommittedChanges().isEmpty()) {
       throw new IllegalStateException("procedural goal %s had changes that were not committed or rolled back".formatted(jarPath.getFileName()));
@@ -0,0 +1,281 @@
+package gov.nasa.jpl.aerie.scheduler.model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * an immutable sorted map whose modifications return a new map, leaving the original untouched
+ *
+ * backed by an AVL tree with path copying: a modification copies only the O(log n) nodes on the path to the modified
+ * key and shares every other node with the original map, so maps can be "copied" in constant time by keeping a
+ * reference to them
+ *
+ * @param <K> the type of the keys, which may not be null
+ * @param <V> the type of the values
+ */
+final class PersistentSortedMap<K, V> {
+  private static final class Node<K, V> {
+    final K key;
+    final V value;
+    final Node<K, V> left;
+    final Node<K, V> right;
+    final int height;
+    final int size;
+
+    Node(final K key, final V value, final Node<K, V> left, final Node<K, V> right) {
+      this.key = key;
+      this.value = value;
+      this.left = left;
+      this.right = right;
+      this.height = 1 + Math.max(height(left), height(right));
+      this.size = 1 + size(left) + size(right);
+    }
+  }
+
+  private final Comparator<? super K> comparator;
+  private final Node<K, V> root;
+
+  private PersistentSortedMap(final Comparator<? super K> comparator, final Node<K, V> root) {
+    this.comparator = comparator;
+    this.root = root;
+  }
+
+  static <K extends Comparable<? super K>, V> PersistentSortedMap<K, V> empty() {
+    return new PersistentSortedMap<>(Comparator.naturalOrder(), null);
+  }
+
+  static <K, V> PersistentSortedMap<K, V> empty(final Comparator<? super K> comparator) {
+    return new PersistentSortedMap<>(comparator, null);
+  }
+
+  int size() {
+    return size(this.root);
+  }
+
+  boolean isEmpty() {
+    return this.root == null;
+  }
+
+  /**
+   * @return the value mapped to the key, or null if the key is absent
+   */
+  V get(final K key) {
+    var node = this.root;
+    while (node != null) {
+      final var c = this.comparator.compare(key, node.key);
+      if (c == 0) return node.value;
+      node = (c < 0) ? node.left : node.right;
+    }
+    return null;
+  }
+
+  /**
+   * @return a map with the key mapped to the value, and otherwise identical to this one
+   */
+  PersistentSortedMap<K, V> put(final K key, final V value) {
+    return new PersistentSortedMap<>(this.comparator, put(this.root, key, value));
+  }
+
+  /**
+   * @return a map without the key and otherwise identical to this one, or this map if the key is absent
+   */
+  PersistentSortedMap<K, V> remove(final K key) {
+    final var newRoot = remove(this.root, key);
+    return (newRoot == this.root) ? this : new PersistentSortedMap<>(this.comparator, newRoot);
+  }
+
+  /**
+   * @return the values of the map in key order
+   */
+  Iterable<V> values() {
+    return () -> new ValueIterator<>(new RangeIterator(null, false, null, false));
+  }
+
+  /**
+   * @param lower the lower bound of the keys, or null if unbounded below
+   * @param upper the upper bound of the keys, or null if unbounded above
+   * @return the values of the map whose keys lie between the given bounds, in key order
+   */
+  Iterable<V> values(final K lower, final boolean lowerInclusive, final K upper, final boolean upperInclusive) {
+    return () -> new ValueIterator<>(new RangeIterator(lower, lowerInclusive, upper, upperInclusive));
+  }
+
+  /**
+   * @return a read-only {@link Map} view of this map, with logarithmic lookups
+   */
+  Map<K, V> asMap() {
+    return new AbstractMap<>() {
+      @Override
+      public int size() {
+        return PersistentSortedMap.this.size();
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public V get(final Object key) {
+        return PersistentSortedMap.this.get((K) key);
+      }
+
+      @Override
+      public boolean containsKey(final Object key) {
+        return get(key) != null;
+      }
+
+      @Override
+      public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+          @Override
+          public Iterator<Entry<K, V>> iterator() {
+            final var nodes = new RangeIterator(null, false, null, false);
+            return new Iterator<>() {
+              @Override
+              public boolean hasNext() {
+                return nodes.hasNext();
+              }
+
+              @Override
+              public Entry<K, V> next() {
+                final var node = nodes.next();
+                return new SimpleImmutableEntry<>(node.key, node.value);
+              }
+            };
+          }
+
+          @Override
+          public int size() {
+            return PersistentSortedMap.this.size();
+          }
+        };
+      }
+    };
+  }
+
+  private Node<K, V> put(final Node<K, V> node, final K key, final V value) {
+    if (node == null) return new Node<>(key, value, null, null);
+    final var c = this.comparator.compare(key, node.key);
+    if (c < 0) return balance(node.key, node.value, put(node.left, key, value), node.right);
+    if (c > 0) return balance(node.key, node.value, node.left, put(node.right, key, value));
+    return new Node<>(key, value, node.left, node.right);
+  }
+
+  private Node<K, V> remove(final Node<K, V> node, final K key) {
+    if (node == null) return null;
+    final var c = this.comparator.compare(key, node.key);
+    if (c < 0) {
+      final var left = remove(node.left, key);
+      return (left == node.left) ? node : balance(node.key, node.value, left, node.right);
+    }
+    if (c > 0) {
+      final var right = remove(node.right, key);
+      return (right == node.right) ? node : balance(node.key, node.value, node.left, right);
+    }
+    if (node.left == null) return node.right;
+    if (node.right == null) return node.left;
+    var successor = node.right;
+    while (successor.left != null) successor = successor.left;
+    return balance(successor.key, successor.value, node.left, removeFirst(node.right));
+  }
+
+  private static <K, V> Node<K, V> removeFirst(final Node<K, V> node) {
+    if (node.left == null) return node.right;
+    return balance(node.key, node.value, removeFirst(node.left), node.right);
+  }
+
+  /**
+   * builds a node from subtrees whose heights differ by at most two, rotating it back into AVL balance if needed
+   */
+  private static <K, V> Node<K, V> balance(final K key, final V value, final Node<K, V> left, final Node<K, V> right) {
+    if (height(left) > height(right) + 1) {
+      if (height(left.left) >= height(left.right)) {
+        return new Node<>(left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+      }
+      final var pivot = left.right;
+      return new Node<>(
+          pivot.key,
+          pivot.value,
+          new Node<>(left.key, left.value, left.left, pivot.left),
+          new Node<>(key, value, pivot.right, right));
+    }
+    if (height(right) > height(left) + 1) {
+      if (height(right.right) >= height(right.left)) {
+        return new Node<>(right.key, right.value, new Node<>(key, value, left, right.left), right.right);
+      }
+      final var pivot = right.left;
+      return new Node<>(
+          pivot.key,
+          pivot.value,
+          new Node<>(key, value, left, pivot.left),
+          new Node<>(right.key, right.value, pivot.right, right.right));
+    }
+    return new Node<>(key, value, left, right);
+  }
+
+  private static int height(final Node<?, ?> node) {
+    return (node == null) ? 0 : node.height;
+  }
+
+  private static int size(final Node<?, ?> node) {
+    return (node == null) ? 0 : node.size;
+  }
+
+  /**
+   * in-order traversal of the nodes whose keys lie between the given bounds, using an explicit stack of the nodes
+   * still to visit
+   */
+  private final class RangeIterator implements Iterator<Node<K, V>> {
+    private final ArrayDeque<Node<K, V>> stack = new ArrayDeque<>();
+    private final K upper;
+    private final boolean upperInclusive;
+
+    RangeIterator(final K lower, final boolean lowerInclusive, final K upper, final boolean upperInclusive) {
+      this.upper = upper;
+      this.upperInclusive = upperInclusive;
+      var node = root;
+      while (node != null) {
+        final var c = (lower == null) ? 1 : comparator.compare(node.key, lower);
+        if (c > 0 || (c == 0 && lowerInclusive)) {
+          this.stack.push(node);
+          node = node.left;
+        } else {
+          node = node.right;
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (this.stack.isEmpty()) return false;
+      if (this.upper == null) return true;
+      final var c = comparator.compare(this.stack.peek().key, this.upper);
+      return c < 0 || (c == 0 && this.upperInclusive);
+    }
+
+    @Override
+    public Node<K, V> next() {
+      if (!hasNext()) throw new NoSuchElementException();
+      final var node = this.stack.pop();
+      for (var child = node.right; child != null; child = child.left) {
+        this.stack.push(child);
+      }
+      return node;
+    }
+  }
+
+  private record ValueIterator<K, V>(Iterator<Node<K, V>> nodes) implements Iterator<V> {
+    @Override
+    public boolean hasNext() {
+      return this.nodes.hasNext();
+    }
+
+    @Override
+    public V next() {
+      return this.nodes.next().value;
+    }
+  }
+}
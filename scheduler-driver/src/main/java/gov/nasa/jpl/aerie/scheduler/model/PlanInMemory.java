@@ -2,6 +2,7 @@ package gov.nasa.jpl.aerie.scheduler.model;
 
 import gov.nasa.jpl.aerie.constraints.model.EvaluationEnvironment;
 import gov.nasa.jpl.aerie.constraints.model.SimulationResults;
+import gov.nasa.jpl.aerie.constraints.time.Interval;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 import gov.nasa.jpl.aerie.scheduler.constraints.activities.ActivityExpression;
 import gov.nasa.jpl.aerie.scheduler.solver.Evaluation;
@@ -10,20 +11,25 @@ import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
-import java.util.stream.Collectors;
 
 /**
  * an in-memory solution to a planning problem including a schedule of activities
  *
  * may only be a partial solution to the whole planning problem, ie some
  * goals may be left unsatisfied
+ *
+ * activities are indexed by start time, by type, by end time, by id and by anchor, and the indexes are kept up to
+ * date on every modification so that queries do not need to scan the whole plan
+ *
+ * the indexes are persistent maps that are never modified in place: each modification of the plan replaces them with
+ * updated versions sharing most of their structure with the previous ones, so duplicating a plan only copies
+ * references to its indexes, and adding or removing an activity costs O(log n) whether or not the plan was duplicated
  */
 public class PlanInMemory implements Plan {
 
@@ -36,23 +42,71 @@ public class PlanInMemory implements Plan {
 
   /**
    * container of all activity instances in plan, indexed by start time
+   *
+   * the start time of an anchored activity is its offset from its anchor
+   */
+  private PersistentSortedMap<Duration, List<SchedulingActivity>> actsByTime;
+
+  /**
+   * activity instances indexed by type name, then by start time
+   *
+   * activity types are keyed by name, which is how templates match them
+   */
+  private PersistentSortedMap<String, PersistentSortedMap<Duration, List<SchedulingActivity>>> actsByType;
+
+  /**
+   * activity instances with a known duration, indexed by end time (start time plus duration)
+   */
+  private PersistentSortedMap<Duration, List<SchedulingActivity>> actsByEndTime;
+
+  /**
+   * activity instances indexed by id
+   */
+  private PersistentSortedMap<ActivityDirectiveId, SchedulingActivity> actsById;
+
+  /**
+   * anchored activity instances, indexed by the id of the activity they are anchored to
+   */
+  private PersistentSortedMap<ActivityDirectiveId, List<SchedulingActivity>> actsByAnchor;
+
+  private int size;
+
+  private static final Comparator<ActivityDirectiveId> ID_ORDER = Comparator.comparingLong(ActivityDirectiveId::id);
+
+  /**
+   * read-only views handed out by the getters, built on demand and discarded whenever the plan is modified
    */
-  private final TreeMap<Duration, List<SchedulingActivity>> actsByTime;
+  private List<SchedulingActivity> activitiesByTimeView;
+  private Map<ActivityType, List<SchedulingActivity>> activitiesByTypeView;
+  private Set<SchedulingActivity> activitiesView;
+  private Set<ActivityDirectiveId> anchorIdsView;
 
   /**
    * ctor creates a new empty solution plan
    *
    */
   public PlanInMemory() {
-    this.actsByTime = new TreeMap<>();
+    this.actsByTime = PersistentSortedMap.empty();
+    this.actsByType = PersistentSortedMap.empty();
+    this.actsByEndTime = PersistentSortedMap.empty();
+    this.actsById = PersistentSortedMap.empty(ID_ORDER);
+    this.actsByAnchor = PersistentSortedMap.empty(ID_ORDER);
+    this.size = 0;
   }
 
   public PlanInMemory(final PlanInMemory other){
     if(other.evaluation != null) this.evaluation = other.evaluation.duplicate();
-    this.actsByTime = new TreeMap<>();
-    for(final var entry: other.actsByTime.entrySet()){
-      this.actsByTime.put(entry.getKey(), new ArrayList<>(entry.getValue()));
-    }
+    // the indexes and views are immutable, so they can be shared until either plan is modified
+    this.actsByTime = other.actsByTime;
+    this.actsByType = other.actsByType;
+    this.actsByEndTime = other.actsByEndTime;
+    this.actsById = other.actsById;
+    this.actsByAnchor = other.actsByAnchor;
+    this.size = other.size;
+    this.activitiesByTimeView = other.activitiesByTimeView;
+    this.activitiesByTypeView = other.activitiesByTypeView;
+    this.activitiesView = other.activitiesView;
+    this.anchorIdsView = other.anchorIdsView;
   }
 
   @Override
@@ -71,11 +125,7 @@ public class PlanInMemory implements Plan {
   }
 
   public int size(){
-    int size = 0;
-    for(final var entry: this.actsByTime.entrySet()){
-      size += entry.getValue().size();
-    }
-    return size;
+    return this.size;
   }
 
   /**
@@ -92,8 +142,19 @@ public class PlanInMemory implements Plan {
       throw new IllegalArgumentException(
           "adding activity with null start time to plan");
     }
-    actsByTime.computeIfAbsent(startT, k -> new LinkedList<>())
-              .add(act);
+    actsByTime = withActivity(actsByTime, startT, act);
+    final var typeName = act.type().getName();
+    final var typeIndex = actsByType.get(typeName);
+    actsByType = actsByType.put(typeName, withActivity(typeIndex == null ? PersistentSortedMap.empty() : typeIndex, startT, act));
+    if (act.duration() != null) {
+      actsByEndTime = withActivity(actsByEndTime, act.getEndTime(), act);
+    }
+    actsById = actsById.put(act.id(), act);
+    if (act.anchorId() != null) {
+      actsByAnchor = withActivity(actsByAnchor, act.anchorId(), act);
+    }
+    size += 1;
+    invalidateViews();
   }
 
   @Override
@@ -105,8 +166,69 @@ public class PlanInMemory implements Plan {
 
   @Override
   public void remove(SchedulingActivity act) {
-    var acts = actsByTime.get(act.startOffset());
-    if (acts != null) acts.remove(act);
+    final var newActsByTime = withoutActivity(actsByTime, act.startOffset(), act);
+    if (newActsByTime == actsByTime) return;
+    actsByTime = newActsByTime;
+
+    final var typeName = act.type().getName();
+    final var typeIndex = actsByType.get(typeName);
+    if (typeIndex != null) {
+      final var newTypeIndex = withoutActivity(typeIndex, act.startOffset(), act);
+      actsByType = newTypeIndex.isEmpty() ? actsByType.remove(typeName) : actsByType.put(typeName, newTypeIndex);
+    }
+    if (act.duration() != null) {
+      actsByEndTime = withoutActivity(actsByEndTime, act.getEndTime(), act);
+    }
+    // an identical copy of the activity may still be in the plan, in which case it keeps its id
+    final var remaining = actsByTime.get(act.startOffset());
+    if (act.equals(actsById.get(act.id())) && (remaining == null || !remaining.contains(act))) {
+      actsById = actsById.remove(act.id());
+    }
+    if (act.anchorId() != null) {
+      actsByAnchor = withoutActivity(actsByAnchor, act.anchorId(), act);
+    }
+    size -= 1;
+    invalidateViews();
+  }
+
+  /**
+   * @return the index with the activity appended to the activities under the key
+   */
+  private static <K> PersistentSortedMap<K, List<SchedulingActivity>> withActivity(
+      final PersistentSortedMap<K, List<SchedulingActivity>> index,
+      final K key,
+      final SchedulingActivity act)
+  {
+    final var acts = index.get(key);
+    final var newActs = new ArrayList<SchedulingActivity>(acts == null ? 1 : acts.size() + 1);
+    if (acts != null) newActs.addAll(acts);
+    newActs.add(act);
+    return index.put(key, Collections.unmodifiableList(newActs));
+  }
+
+  /**
+   * @return the index without the activity under the key, or the same index if the activity is not under the key
+   */
+  private static <K> PersistentSortedMap<K, List<SchedulingActivity>> withoutActivity(
+      final PersistentSortedMap<K, List<SchedulingActivity>> index,
+      final K key,
+      final SchedulingActivity act)
+  {
+    final var acts = index.get(key);
+    if (acts == null) return index;
+    final var position = acts.indexOf(act);
+    if (position < 0) return index;
+    if (acts.size() == 1) return index.remove(key);
+    final var newActs = new ArrayList<>(acts);
+    newActs.remove(position);
+    return index.put(key, Collections.unmodifiableList(newActs));
+  }
+
+  private void invalidateViews() {
+    this.activitiesByTimeView = null;
+    this.activitiesByTypeView = null;
+    this.activitiesView = null;
+    this.anchorIdsView = null;
   }
 
   /**
@@ -114,16 +236,15 @@ public class PlanInMemory implements Plan {
    */
   @Override
   public List<SchedulingActivity> getActivitiesByTime() {
-    //REVIEW: could probably do something tricky with streams to avoid new
-    final var orderedActs = new LinkedList<SchedulingActivity>();
-
-    //NB: tree map ensures that values are in key order, but still need to flatten
-    for (final var actsAtT : actsByTime.values()) {
-      assert actsAtT != null;
-      orderedActs.addAll(actsAtT);
+    if (activitiesByTimeView == null) {
+      //NB: tree map ensures that values are in key order, but still need to flatten
+      final var orderedActs = new ArrayList<SchedulingActivity>(size);
+      for (final var actsAtT : actsByTime.values()) {
+        orderedActs.addAll(actsAtT);
+      }
+      activitiesByTimeView = Collections.unmodifiableList(orderedActs);
     }
-
-    return Collections.unmodifiableList(orderedActs);
+    return activitiesByTimeView;
   }
 
   public void replaceActivity(SchedulingActivity oldAct, SchedulingActivity newAct){
@@ -137,31 +258,38 @@ public class PlanInMemory implements Plan {
    */
   @Override
   public Map<ActivityType, List<SchedulingActivity>> getActivitiesByType() {
-    final var map = new HashMap<ActivityType, List<SchedulingActivity>>();
-    for(final var entry: this.actsByTime.entrySet()){
-      for(final var activity : entry.getValue()){
-        map.computeIfAbsent(activity.type(), t -> new ArrayList<>()).add(activity);
+    if (activitiesByTypeView == null) {
+      // distinct types may share a name, so each name's activities are split up by their actual type
+      final var map = new HashMap<ActivityType, List<SchedulingActivity>>();
+      for(final var typeIndex : this.actsByType.values()){
+        for(final var actsAtT : typeIndex.values()){
+          for(final var act : actsAtT){
+            map.computeIfAbsent(act.type(), $ -> new ArrayList<>()).add(act);
+          }
+        }
       }
+      map.replaceAll(($, acts) -> Collections.unmodifiableList(acts));
+      activitiesByTypeView = Collections.unmodifiableMap(map);
     }
-    return Collections.unmodifiableMap(map);
+    return activitiesByTypeView;
   }
 
   @Override
   public Map<ActivityDirectiveId, SchedulingActivity> getActivitiesById() {
-    final var map = new HashMap<ActivityDirectiveId, SchedulingActivity>();
-    for(final var entry: this.actsByTime.entrySet()){
-      for(final var activity : entry.getValue()){
-        map.put(activity.id(), activity);
-      }
-    }
-    return Collections.unmodifiableMap(map);
+    return actsById.asMap();
   }
 
 @Override
   public Set<ActivityDirectiveId> getAnchorIds() {
-    return getActivities().stream()
-                  .map(SchedulingActivity::anchorId)
-                  .collect(Collectors.toSet());
+    if (anchorIdsView == null) {
+      final var anchorIds = new HashSet<>(actsByAnchor.asMap().keySet());
+      // unanchored activities contribute a null anchor
+      var anchoredCount = 0;
+      for (final var anchored : actsByAnchor.values()) anchoredCount += anchored.size();
+      if (anchoredCount < size) anchorIds.add(null);
+      anchorIdsView = Collections.unmodifiableSet(anchorIds);
+    }
+    return anchorIdsView;
   }
 
   /**
@@ -169,32 +297,118 @@ public class PlanInMemory implements Plan {
    */
   @Override
   public Set<SchedulingActivity> getActivities() {
-    final var set = new HashSet<SchedulingActivity>();
-    for(final var entry: this.actsByTime.entrySet()){
-      set.addAll(entry.getValue());
+    if (activitiesView == null) {
+      final var set = new HashSet<SchedulingActivity>();
+      for(final var actsAtT : this.actsByTime.values()){
+        set.addAll(actsAtT);
+      }
+      activitiesView = Collections.unmodifiableSet(set);
     }
-    return Collections.unmodifiableSet(set);
+    return activitiesView;
   }
 
   /**
    * {@inheritDoc}
+   *
+   * the type, start time and end time criteria of the template are first used to narrow down the candidate
+   * activities using the plan's indexes, and only those candidates are fully matched against the template
    */
   @Override
   public Collection<SchedulingActivity> find(
       ActivityExpression template, SimulationResults simulationResults,
       EvaluationEnvironment evaluationEnvironment)
   {
-    //REVIEW: could do something clever with returning streams to prevent wasted work
-    //REVIEW: something more clever for time-based queries using time index
-    LinkedList<SchedulingActivity> matched = new LinkedList<>();
-    for (final var actsAtTime : actsByTime.values()) {
-      for (final var act : actsAtTime) {
-        if (template.matches(act, simulationResults, evaluationEnvironment, true, this)) {
-          matched.add(act);
+    final var matched = new ArrayList<SchedulingActivity>();
+    for (final var act : findCandidates(template)) {
+      if (template.matches(act, simulationResults, evaluationEnvironment, true, this)) {
+        matched.add(act);
+      }
+    }
+    return inPlanOrder(matched);
+  }
+
+  /**
+   * @return the activities in plan order (by start time, then by insertion), regardless of which index supplied them
+   *
+   * activities sharing a start time are ordered by a single pass over that start time's bucket, which holds them in
+   * insertion order, rather than by looking up their position in the bucket on every comparison
+   */
+  private List<SchedulingActivity> inPlanOrder(final List<SchedulingActivity> acts) {
+    acts.sort(Comparator.comparing(SchedulingActivity::startOffset));
+    final var ordered = new ArrayList<SchedulingActivity>(acts.size());
+    var groupStart = 0;
+    while (groupStart < acts.size()) {
+      final var startOffset = acts.get(groupStart).startOffset();
+      var groupEnd = groupStart + 1;
+      while (groupEnd < acts.size() && acts.get(groupEnd).startOffset().isEqualTo(startOffset)) groupEnd++;
+
+      if (groupEnd - groupStart == 1) {
+        ordered.add(acts.get(groupStart));
+      } else {
+        // identical copies of an activity may be in the plan, so matches are counted rather than collected in a set
+        final var pending = new HashMap<SchedulingActivity, Integer>();
+        for (final var act : acts.subList(groupStart, groupEnd)) pending.merge(act, 1, Integer::sum);
+        for (final var act : actsByTime.get(startOffset)) {
+          final var count = pending.get(act);
+          if (count == null) continue;
+          ordered.add(act);
+          if (count == 1) pending.remove(act);
+          else pending.put(act, count - 1);
         }
       }
+      groupStart = groupEnd;
+    }
+    return ordered;
+  }
+
+  /**
+   * @return a superset of the activities in the plan that match the type, start time and end time criteria of the template
+   */
+  private Collection<SchedulingActivity> findCandidates(final ActivityExpression template) {
+    final Collection<PersistentSortedMap<Duration, List<SchedulingActivity>>> timeIndexes;
+    if (template.type() == null) {
+      timeIndexes = List.of(actsByTime);
+    } else {
+      // activity types are matched by name
+      final var typeIndex = actsByType.get(template.type().getName());
+      timeIndexes = (typeIndex == null) ? List.of() : List.of(typeIndex);
     }
-    return matched;
+
+    final var candidates = new ArrayList<SchedulingActivity>();
+    if (template.startRange() != null) {
+      // anchored activities are matched on their absolute start time, which the start time index does not track
+      for (final var index : timeIndexes) {
+        for (final var actsAtT : subIndex(index, template.startRange())) {
+          for (final var act : actsAtT) {
+            if (act.anchorId() == null) candidates.add(act);
+          }
+        }
+      }
+      for (final var anchored : actsByAnchor.values()) {
+        for (final var act : anchored) {
+          if (template.type() == null || act.type().getName().equals(template.type().getName())) candidates.add(act);
+        }
+      }
+    } else if (template.endRange() != null && template.type() == null) {
+      for (final var actsAtT : subIndex(actsByEndTime, template.endRange())) {
+        candidates.addAll(actsAtT);
+      }
+    } else {
+      for (final var index : timeIndexes) {
+        for (final var actsAtT : index.values()) {
+          candidates.addAll(actsAtT);
+        }
+      }
+    }
+    return candidates;
+  }
+
+  private static Iterable<List<SchedulingActivity>> subIndex(
+      final PersistentSortedMap<Duration, List<SchedulingActivity>> index,
+      final Interval range)
+  {
+    if (range.isEmpty()) return List.of();
+    return index.values(range.start, range.includesStart(), range.end, range.includesEnd());
   }
 
   /**
@@ -217,12 +431,15 @@ public class PlanInMemory implements Plan {
   public Duration calculateAbsoluteStartOffsetAnchoredActivity(SchedulingActivity act){
     if(act == null)
       return null;
-    if(act.anchorId() != null){
-      SchedulingActivity parent = this.getActivitiesById().get(act.anchorId());
+    // walk up the chain of anchors, accumulating the offset of each activity from its anchor
+    var offset = Duration.ZERO;
+    while(act.anchorId() != null){
+      final SchedulingActivity parent = this.actsById.get(act.anchorId());
       if(!act.anchoredToStart() && parent.duration() == null)
         throw new IllegalArgumentException("Cannot calculate the absolute duration for an activity that is not anchored to the start while the parent doesn't have duration");
-      return calculateAbsoluteStartOffsetAnchoredActivity(parent).plus(act.anchoredToStart() ? act.startOffset() : act.startOffset().plus(parent.duration()));
+      offset = offset.plus(act.anchoredToStart() ? act.startOffset() : act.startOffset().plus(parent.duration()));
+      act = parent;
     }
-    return act.startOffset();
+    return offset.plus(act.startOffset());
   }
 }
@@ -32,6 +32,7 @@ import gov.nasa.jpl.aerie.scheduler.model.PlanInMemory;
 import gov.nasa.jpl.aerie.scheduler.model.Problem;
 import gov.nasa.jpl.aerie.scheduler.model.SchedulePlanGrounder;
 import gov.nasa.jpl.aerie.scheduler.model.SchedulingActivity;
+import gov.nasa.jpl.aerie.scheduler.plan.ProceduralEvaluationCache;
 import gov.nasa.jpl.aerie.scheduler.simulation.SimulationData;
 import gov.nasa.jpl.aerie.scheduler.simulation.SimulationFacade;
 import gov.nasa.jpl.aerie.scheduler.solver.stn.TaskNetworkAdapter;
@@ -41,6 +42,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -71,6 +75,18 @@ public class PrioritySolver implements Solver {
    */
   private final boolean analysisOnly;
 
+  /**
+   * the maximum number of goals whose conflicts are evaluated concurrently in analysis mode
+   */
+  private final int analysisConcurrency;
+
+  /**
+   * conflicts found ahead of time in analysis mode, against a snapshot of the plan taken before any goal was processed
+   *
+   * discarded as soon as the plan is modified, since they may no longer be accurate
+   */
+  private final Map<Goal, Collection<Conflict>> precomputedConflicts = new HashMap<>();
+
   /**
    * description of the planning problem to solve
    *
@@ -89,6 +105,11 @@ public class PrioritySolver implements Solver {
 
   private final DirectiveIdGenerator idGenerator;
 
+  /**
+   * resource profiles and, if enabled, collected timelines shared between the procedural goals of this solver
+   */
+  private final ProceduralEvaluationCache proceduralEvaluationCache;
+
   public record ActivityMetadata(SchedulingActivity activityDirective){}
 
   public static class HistoryWithActivity implements EquationSolvingAlgorithms.History<Duration, ActivityMetadata> {
@@ -135,8 +156,18 @@ public class PrioritySolver implements Solver {
    *
    * @param problem IN, STORED description of the planning problem to be
    *     solved, which must not change
+   * @param analysisOnly IN whether to only evaluate the goals, without modifying the plan
+   * @param analysisConcurrency IN the maximum number of goals to evaluate concurrently in analysis mode, or 1 to
+   *     evaluate them one at a time as they are processed
+   * @param proceduralTimelineCacheSize IN the number of timeline objects that procedural goals may keep cached
+   *     between collects, or 0 to always evaluate timelines directly; see {@link ProceduralEvaluationCache}
    */
-  public PrioritySolver(final Problem problem, final boolean analysisOnly) {
+  public PrioritySolver(
+      final Problem problem,
+      final boolean analysisOnly,
+      final int analysisConcurrency,
+      final int proceduralTimelineCacheSize)
+  {
     checkNotNull(problem, "creating solver with null input problem descriptor");
     this.checkSimBeforeInsertingActivities = true;
     this.checkSimBeforeEvaluatingGoal = true;
@@ -144,6 +175,8 @@ public class PrioritySolver implements Solver {
     this.problem = problem;
     this.simulationFacade = problem.getSimulationFacade();
     this.analysisOnly = analysisOnly;
+    this.analysisConcurrency = analysisConcurrency;
+    this.proceduralEvaluationCache = new ProceduralEvaluationCache(proceduralTimelineCacheSize);
 
     this.idGenerator = new DirectiveIdGenerator(
         problem
@@ -158,6 +191,14 @@ public class PrioritySolver implements Solver {
     );
   }
 
+  public PrioritySolver(final Problem problem, final boolean analysisOnly, final int analysisConcurrency) {
+    this(problem, analysisOnly, analysisConcurrency, 0);
+  }
+
+  public PrioritySolver(final Problem problem, final boolean analysisOnly) {
+    this(problem, analysisOnly, 1);
+  }
+
   public PrioritySolver(final Problem problem) {
     this(problem, false);
   }
@@ -270,6 +311,9 @@ public class PrioritySolver implements Solver {
     final var goalQ = getGoalQueue();
     assert goalQ != null;
 
+    //the plan is not modified in analysis mode, so the goals can be evaluated up front, all at once
+    if (analysisOnly) precomputeConflicts(goalQ);
+
     //process each goal independently in that order
     while (!goalQ.isEmpty()) {
       var goal = goalQ.remove();
@@ -312,6 +356,85 @@ public class PrioritySolver implements Solver {
     return goalQ;
   }
 
+  /**
+   * evaluates the conflicts of the independent goals concurrently, for {@link #getConflicts(Goal)} to consume
+   *
+   * every goal is evaluated against its own snapshot of the plan and the same simulation results, which are computed
+   * once for the resources of all the goals. the conflicts are then processed one goal at a time in priority order,
+   * exactly as if they had been found just before processing each goal. composite, option and procedural goals are
+   * left to be evaluated in turn.
+   *
+   * each task only mutates its own goal and plan snapshot, whose evaluation is duplicated along with it. the simulation
+   * results and evaluation environment are shared between the tasks, so they are handed over as read-only views that
+   * are not modified while the tasks run; the solver's own state is only touched by the calling thread, once each
+   * task's result is collected.
+   *
+   * @param goals IN the goals to be processed, in priority order
+   */
+  private void precomputeConflicts(final List<Goal> goals) throws SchedulingInterruptedException {
+    final var independentGoals = goals
+        .stream()
+        .filter(goal -> !(goal instanceof CompositeAndGoal || goal instanceof OptionGoal || goal instanceof Procedure))
+        .toList();
+    if (analysisConcurrency <= 1 || independentGoals.size() <= 1) return;
+
+    final var horizonEnd = this.problem.getPlanningHorizon().getEndAerie();
+    final var resourcesByGoal = new HashMap<Goal, Set<String>>();
+    final var allResources = new HashSet<String>();
+    for (final var goal : independentGoals) {
+      final var resources = new HashSet<String>();
+      goal.extractResources(resources);
+      resourcesByGoal.put(goal, resources);
+      allResources.addAll(resources);
+    }
+    //goals that need no resources are evaluated against the grounded plan, as in getConflicts
+    final var groundedResults = resourcesByGoal.containsValue(Set.of()) ? readOnly(getLatestSimResultsUpTo(horizonEnd, Set.of())) : null;
+    final var simulatedResults = allResources.isEmpty() ? null : readOnly(getLatestSimResultsUpTo(horizonEnd, allResources));
+    final var evaluationEnvironment = new EvaluationEnvironment(
+        Collections.unmodifiableMap(this.problem.getRealExternalProfiles()),
+        Collections.unmodifiableMap(this.problem.getDiscreteExternalProfiles()));
+
+    logger.info("Evaluating " + independentGoals.size() + " goals with up to " + analysisConcurrency + " threads");
+    try (final var pool = Executors.newFixedThreadPool(Math.min(analysisConcurrency, independentGoals.size()))) {
+      final var futures = new LinkedHashMap<Goal, Future<Collection<Conflict>>>();
+      for (final var goal : independentGoals) {
+        final var snapshot = plan.duplicate();
+        final var simulationResults = resourcesByGoal.get(goal).isEmpty() ? groundedResults : simulatedResults;
+        futures.put(goal, pool.submit(() -> {
+          if (simulationFacade.getCanceledListener().get()) throw new SchedulingInterruptedException("evaluating goals");
+          return goal.getConflicts(
+              snapshot,
+              simulationResults,
+              evaluationEnvironment,
+              this.problem.getSchedulerModel());
+        }));
+      }
+      for (final var entry : futures.entrySet()) {
+        precomputedConflicts.put(entry.getKey(), entry.getValue().get());
+      }
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof SchedulingInterruptedException interrupted) throw interrupted;
+      if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+      throw new RuntimeException("Exception while evaluating goals", e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SchedulingInterruptedException("evaluating goals");
+    }
+  }
+
+  /**
+   * wraps the constraint results of a simulation in read-only views, to be shared by concurrently evaluated goals
+   */
+  private static SimulationResults readOnly(final SimulationData simulationData) {
+    final var results = simulationData.constraintsResults();
+    return new SimulationResults(
+        results.planStart,
+        results.bounds,
+        Collections.unmodifiableList(results.activities),
+        Collections.unmodifiableMap(results.realProfiles),
+        Collections.unmodifiableMap(results.discreteProfiles));
+  }
+
   private void satisfyGoal(Goal goal) throws SchedulingInterruptedException{
     if(simulationFacade.getCanceledListener().get()) throw new SchedulingInterruptedException("satisfying goal");
     final boolean checkSimConfig = this.checkSimBeforeInsertingActivities;
@@ -330,7 +453,8 @@ public class PrioritySolver implements Solver {
             this.problem::getActivityType,
             this.simulationFacade,
             this.idGenerator,
-            this.problem.getEventsByDerivationGroup()
+            this.problem.getEventsByDerivationGroup(),
+            this.proceduralEvaluationCache
         );
       }
     } else {
@@ -832,6 +956,7 @@ public class PrioritySolver implements Solver {
                 startOffset
             );
             plan.replaceActivity(act, replacementAct);
+            precomputedConflicts.clear();
             satisfaction = ConflictSatisfaction.SAT;
             plan.getEvaluation().forGoal(goal).associate(replacementAct, false, missingAssociationConflict);
             //decision-making here, we choose the first satisfying activity
@@ -884,6 +1009,8 @@ public class PrioritySolver implements Solver {
   {
     assert goal != null;
     assert plan != null;
+    final var precomputed = precomputedConflicts.remove(goal);
+    if (precomputed != null) return precomputed;
     //REVIEW: maybe should have way to request only certain kinds of conflicts
     logger.debug("Computing simulation results until "+ this.problem.getPlanningHorizon().getEndAerie() + " (planning horizon end) in order to compute conflicts");
     final var resources = new HashSet<String>();
@@ -1,18 +1,17 @@
 package gov.nasa.jpl.aerie.scheduler.solver.stn;
 
 import org.apache.commons.lang3.tuple.Pair;
-import org.jgrapht.Graph;
-import org.jgrapht.alg.shortestpath.BellmanFordShortestPath;
-import org.jgrapht.alg.shortestpath.NegativeCycleDetectedException;
-import org.jgrapht.graph.DefaultWeightedEdge;
-import org.jgrapht.graph.builder.GraphTypeBuilder;
-import org.jgrapht.nio.DefaultAttribute;
-import org.jgrapht.nio.dot.DOTExporter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayOutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 
 /**
  * Representation of a simple temporal network (Dechter, Meiri, and Pearl, 1991).
@@ -21,41 +20,133 @@ import java.util.Map;
  * - Each variable has a domain
  * - We want to propagate the constraints to find a solution to the problem or ensure there is not one
  *
- * To solve the constraints, we use bellman-ford algorithm.
- * if a negative cycle is detected during propagation, the network is infeasible
- * otherwise, the new variable domains are updated and can be queried. Domains here represent the flexibility associated
- * with each timepoint.
- *
+ * Timepoints are identified by the index returned when adding them. The first timepoint added is the origin of the
+ * network: the shortest distances from and to the origin, which give the domain of each timepoint, are maintained
+ * incrementally. Adding or tightening a constraint only re-propagates the distances it improves, and a negative
+ * cycle is detected as soon as a propagation comes back to the constraint it started from. If detected, the network
+ * is infeasible. Loosening a constraint or removing a timepoint falls back to checking and propagating the whole
+ * network on the next update. Distances between other pairs of timepoints are searched on demand, using the distances
+ * from the origin to only explore the part of the network that is tighter than the path being searched.
  */
 public class STN {
 
   private static final Logger logger = LoggerFactory.getLogger(STN.class);
 
-  public String toDOT() {
-    final var graphAsDot = new ByteArrayOutputStream();
-    // Export to DOT format
-    DOTExporter<String, DefaultWeightedEdge> exporter = new DOTExporter<>();
-    // Vertex ID and label providers
-    exporter.setVertexIdProvider(v -> v);
-    exporter.setVertexAttributeProvider(v -> Map.of("label", DefaultAttribute.createAttribute(v)));
-    // Edge attribute provider for weights
-    exporter.setEdgeAttributeProvider(e -> Map.of("label", DefaultAttribute.createAttribute(String.valueOf(graph.getEdgeWeight(e)))));
-    exporter.exportGraph(this.graph, graphAsDot);
-    return graphAsDot.toString();
+  /** The outgoing or incoming edges of a timepoint, with their weights. */
+  private static final class Edges {
+    private int[] timepoints;
+    private double[] weights;
+    private int size;
+
+    Edges() {
+      this.timepoints = new int[4];
+      this.weights = new double[4];
+    }
+
+    Edges(final Edges other) {
+      this.timepoints = other.timepoints.clone();
+      this.weights = other.weights.clone();
+      this.size = other.size;
+    }
+
+    private int indexOf(final int timepoint) {
+      for (var i = 0; i < size; i++) {
+        if (timepoints[i] == timepoint) return i;
+      }
+      return -1;
+    }
+
+    double get(final int timepoint) {
+      final var i = indexOf(timepoint);
+      return (i < 0) ? Double.POSITIVE_INFINITY : weights[i];
+    }
+
+    void put(final int timepoint, final double weight) {
+      final var i = indexOf(timepoint);
+      if (i >= 0) {
+        weights[i] = weight;
+        return;
+      }
+      if (size == timepoints.length) {
+        timepoints = Arrays.copyOf(timepoints, 2 * size);
+        weights = Arrays.copyOf(weights, 2 * size);
+      }
+      timepoints[size] = timepoint;
+      weights[size] = weight;
+      size++;
+    }
+
+    void remove(final int timepoint) {
+      final var i = indexOf(timepoint);
+      if (i < 0) return;
+      size--;
+      timepoints[i] = timepoints[size];
+      weights[i] = weights[size];
+    }
   }
 
-  private final Graph<String, DefaultWeightedEdge> graph;
+  private final List<String> names;
+  private final List<Edges> successors;
+  private final List<Edges> predecessors;
+  private final ArrayDeque<Integer> freeTimepoints;
+
+  private int origin = -1;
+  private double[] fromOrigin;
+  private double[] toOrigin;
+  private boolean consistent = true;
+  //whether a constraint has been loosened or a timepoint removed since the distances were last propagated
+  private boolean stale = false;
+  private boolean updated = false;
 
-  private BellmanFordShortestPath<String, DefaultWeightedEdge> latestComputation;
+  //potentials and weights are small integers for every network built by the scheduler, which keeps reduced weights exact
+  private static final double EXACT_BOUND = 0x1p50;
+  private Boolean exactPotentials = null;
+  private final Map<Integer, double[]> distancesFrom = new HashMap<>();
+
+  private record Label(int timepoint, double reduced, int hops, double distance) {}
 
   public STN() {
-    graph = GraphTypeBuilder
-        .<String, DefaultWeightedEdge>directed()
-        .allowingMultipleEdges(false)
-        .allowingSelfLoops(false)
-        .edgeClass(DefaultWeightedEdge.class)
-        .weighted(true)
-        .buildGraph();
+    names = new ArrayList<>();
+    successors = new ArrayList<>();
+    predecessors = new ArrayList<>();
+    freeTimepoints = new ArrayDeque<>();
+    fromOrigin = new double[16];
+    toOrigin = new double[16];
+  }
+
+  /**
+   * Copies a network, so that constraints can be added to the copy without affecting the original.
+   */
+  public STN(final STN other) {
+    names = new ArrayList<>(other.names);
+    successors = new ArrayList<>(other.successors.size());
+    for (final var edges : other.successors) successors.add(edges == null ? null : new Edges(edges));
+    predecessors = new ArrayList<>(other.predecessors.size());
+    for (final var edges : other.predecessors) predecessors.add(edges == null ? null : new Edges(edges));
+    freeTimepoints = new ArrayDeque<>(other.freeTimepoints);
+    origin = other.origin;
+    fromOrigin = other.fromOrigin.clone();
+    toOrigin = other.toOrigin.clone();
+    consistent = other.consistent;
+    stale = other.stale;
+    updated = other.updated;
+  }
+
+  public String toDOT() {
+    final var dot = new StringBuilder("strict digraph G {\n");
+    for (var tp = 0; tp < names.size(); tp++) {
+      if (names.get(tp) == null) continue;
+      dot.append("  ").append(names.get(tp)).append(" [ label=\"").append(names.get(tp)).append("\" ];\n");
+    }
+    for (var tp = 0; tp < names.size(); tp++) {
+      final var edges = successors.get(tp);
+      if (edges == null) continue;
+      for (var i = 0; i < edges.size; i++) {
+        dot.append("  ").append(names.get(tp)).append(" -> ").append(names.get(edges.timepoints[i]))
+           .append(" [ label=\"").append(edges.weights[i]).append("\" ];\n");
+      }
+    }
+    return dot.append("}\n").toString();
   }
 
   /**
@@ -68,13 +159,28 @@ public class STN {
 
    we can remove the first one and keep only the second one
    */
-  public void addBeforeCst(String tp1, String tp2){
-    var e1 = getOrCreateEdge(tp2, tp1);
-    graph.setEdgeWeight(e1, -0);
+  public void addBeforeCst(int tp1, int tp2){
+    setEdge(tp2, tp1, -0);
   }
 
-  public void removeTimepoint(String tp1){
-    graph.removeVertex(tp1);
+  public void removeTimepoint(int tp1){
+    failIfTimepointAbsent(tp1);
+    final var outgoing = successors.get(tp1);
+    for (var i = 0; i < outgoing.size; i++) predecessors.get(outgoing.timepoints[i]).remove(tp1);
+    final var incoming = predecessors.get(tp1);
+    for (var i = 0; i < incoming.size; i++) successors.get(incoming.timepoints[i]).remove(tp1);
+    names.set(tp1, null);
+    successors.set(tp1, null);
+    predecessors.set(tp1, null);
+    freeTimepoints.add(tp1);
+    if (tp1 == origin) {
+      origin = -1;
+      for (var tp = 0; tp < names.size() && origin < 0; tp++) {
+        if (names.get(tp) != null) origin = tp;
+      }
+    }
+    forgetDistances();
+    stale = true;
   }
 
   /*
@@ -83,70 +189,246 @@ public class STN {
   Maps to two edges in a distance graph
   i --- b ---> j
   i <--- -a --- j */
-  public void addDurCst(String tp1, String tp2, double min, double max) {
-    var e1 = getOrCreateEdge(tp2, tp1);
-    var e2 = getOrCreateEdge(tp1, tp2);
-
-    graph.setEdgeWeight(e1, -min);
-    graph.setEdgeWeight(e2, max);
-
+  public void addDurCst(int tp1, int tp2, double min, double max) {
+    setEdge(tp2, tp1, -min);
+    setEdge(tp1, tp2, max);
   }
 
-  public Pair<Double, Double> getDurCst(String a, String b){
+  public Pair<Double, Double> getDurCst(int a, int b){
     failIfUpdateNotLaunched();
     failIfTimepointAbsent(a);
     failIfTimepointAbsent(b);
     return Pair.of(-getDist(b, a), getDist(a, b));
   }
 
-  public void addTimepoint(String tp){
-    graph.addVertex(tp);
+  /**
+   * Adds a timepoint to the network
+   * @param tp the name of the timepoint, used when exporting the network
+   * @return the index identifying the timepoint in the other methods of this network
+   */
+  public int addTimepoint(String tp){
+    final int index;
+    if (freeTimepoints.isEmpty()) {
+      index = names.size();
+      names.add(tp);
+      successors.add(new Edges());
+      predecessors.add(new Edges());
+      if (index == fromOrigin.length) {
+        fromOrigin = Arrays.copyOf(fromOrigin, 2 * index);
+        toOrigin = Arrays.copyOf(toOrigin, 2 * index);
+      }
+    } else {
+      index = freeTimepoints.poll();
+      names.set(index, tp);
+      successors.set(index, new Edges());
+      predecessors.set(index, new Edges());
+    }
+    if (origin < 0) origin = index;
+    fromOrigin[index] = (index == origin) ? 0 : Double.POSITIVE_INFINITY;
+    toOrigin[index] = (index == origin) ? 0 : Double.POSITIVE_INFINITY;
+    forgetDistances();
+    return index;
   }
 
   public boolean update() {
-    boolean ret = false;
-    BellmanFordShortestPath<String, DefaultWeightedEdge> algo = null;
-    if(graph.vertexSet().isEmpty()){
-      return ret;
+    if (origin < 0) {
+      return false;
     }
-    try {
-      algo = new BellmanFordShortestPath<>(graph);
-      algo.getPaths(graph.vertexSet().iterator().next());
-      ret = true;
-    } catch (NegativeCycleDetectedException e) {
-      logger.debug("Negative cycle ", e); //this is normal behavior, shouldn't be flagged as an error! If debugging is on, drop the stack trace.
-    }
-    latestComputation = algo;
-    return ret;
+    updated = true;
+    if (stale) propagateAll();
+    if (!consistent) logger.debug("Negative cycle in temporal network"); //this is normal behavior, shouldn't be flagged as an error!
+    return consistent;
   }
 
   /**
    * gets the weight on link a-->b
    */
-  public double getDist(String a, String b){
+  public double getDist(int a, int b){
     failIfUpdateNotLaunched();
-    return latestComputation.getPathWeight(a, b);
+    failIfTimepointAbsent(a);
+    failIfTimepointAbsent(b);
+    if (stale) propagateAll();
+    if (!consistent) {
+      throw new IllegalStateException("Temporal network is inconsistent, there is no distance between timepoints");
+    }
+    if (a == b) return 0;
+    if (a == origin) return fromOrigin[b];
+    if (b == origin) return toOrigin[a];
+    if (fromOrigin[a] < Double.POSITIVE_INFINITY && hasExactPotentials()) return searchDistance(a, b);
+    return distancesFrom.computeIfAbsent(a, this::computeDistancesFrom)[b];
+  }
+
+  /**
+   * Dijkstra's search from a to b on the reduced weights w(u, v) + fromOrigin[u] - fromOrigin[v], which are not negative
+   * since the distances from the origin satisfy every constraint. The search stops as soon as b is reached.
+   */
+  private double searchDistance(final int a, final int b) {
+    final var queue = new PriorityQueue<>(Comparator.comparingDouble(Label::reduced).thenComparingInt(Label::hops));
+    final var best = new HashMap<Integer, Double>();
+    queue.add(new Label(a, 0, 0, 0));
+    best.put(a, 0.);
+    while (!queue.isEmpty()) {
+      final var label = queue.poll();
+      if (label.reduced() > best.get(label.timepoint())) continue;
+      if (label.timepoint() == b) return label.distance();
+      final var edges = successors.get(label.timepoint());
+      for (var i = 0; i < edges.size; i++) {
+        final var next = edges.timepoints[i];
+        final var reduced = label.reduced() + edges.weights[i] + fromOrigin[label.timepoint()] - fromOrigin[next];
+        if (reduced < best.getOrDefault(next, Double.POSITIVE_INFINITY)) {
+          best.put(next, reduced);
+          queue.add(new Label(next, reduced, label.hops() + 1, label.distance() + edges.weights[i]));
+        }
+      }
+    }
+    return Double.POSITIVE_INFINITY;
+  }
+
+  /**
+   * Whether reduced weights can be computed without rounding, otherwise distances are propagated from the source
+   */
+  private boolean hasExactPotentials() {
+    if (exactPotentials == null) {
+      exactPotentials = true;
+      for (var tp = 0; tp < names.size() && exactPotentials; tp++) {
+        final var edges = successors.get(tp);
+        if (edges == null) continue;
+        exactPotentials = fromOrigin[tp] == Double.POSITIVE_INFINITY || isExact(fromOrigin[tp]);
+        for (var i = 0; i < edges.size; i++) exactPotentials &= isExact(edges.weights[i]);
+      }
+    }
+    return exactPotentials;
+  }
+
+  private static boolean isExact(final double value) {
+    return Math.abs(value) <= EXACT_BOUND && value == Math.rint(value);
   }
 
-  private DefaultWeightedEdge getOrCreateEdge(String a, String b) {
+  private void forgetDistances() {
+    exactPotentials = null;
+    distancesFrom.clear();
+  }
+
+  private double[] computeDistancesFrom(final int source) {
+    final var distances = new double[names.size()];
+    Arrays.fill(distances, Double.POSITIVE_INFINITY);
+    distances[source] = 0;
+    propagate(distances, successors, queueOf(source), -1);
+    return distances;
+  }
+
+  /**
+   * Sets the weight of the edge a-->b, re-propagating the distances to and from the origin if it is tightened
+   */
+  private void setEdge(final int a, final int b, final double weight) {
     failIfTimepointAbsent(a);
     failIfTimepointAbsent(b);
+    if (a == b) throw new IllegalArgumentException("Temporal constraints must be between distinct timepoints");
+
+    final var previous = successors.get(a).get(b);
+    if (weight == previous) return;
+    successors.get(a).put(b, weight);
+    predecessors.get(b).put(a, weight);
+    forgetDistances();
 
-    var edge = graph.getEdge(a, b);
-    if (edge == null) {
-      edge = graph.addEdge(a, b);
+    if (weight > previous) {
+      stale = true;
+    } else if (consistent && !stale) {
+      consistent = tighten(fromOrigin, successors, a, b, weight)
+                   && tighten(toOrigin, predecessors, b, a, weight)
+                   //a cycle through the edge is only caught above if the edge is connected to the origin
+                   && (fromOrigin[a] < Double.POSITIVE_INFINITY || toOrigin[b] < Double.POSITIVE_INFINITY || !closesNegativeCycle(a, b));
     }
-    return edge;
   }
 
-  private void failIfTimepointAbsent(String tp){
-    if(!graph.vertexSet().contains(tp)){
+  /**
+   * Propagates a tightened edge tail-->head through distances from a fixed timepoint, along the given adjacency
+   * @return false if the edge closes a negative cycle
+   */
+  private boolean tighten(final double[] distances, final List<Edges> adjacency, final int tail, final int head, final double weight) {
+    if (!(distances[tail] + weight < distances[head])) return true;
+    distances[head] = distances[tail] + weight;
+    return propagate(distances, adjacency, queueOf(head), tail);
+  }
+
+  /**
+   * Whether the edge a-->b is part of a negative cycle, found by propagating distances from b until they come back
+   */
+  private boolean closesNegativeCycle(final int a, final int b) {
+    final var distances = new double[names.size()];
+    Arrays.fill(distances, Double.POSITIVE_INFINITY);
+    distances[b] = 0;
+    return !propagate(distances, successors, queueOf(b), b);
+  }
+
+  private static ArrayDeque<Integer> queueOf(final int timepoint) {
+    final var queue = new ArrayDeque<Integer>();
+    queue.add(timepoint);
+    return queue;
+  }
+
+  /**
+   * Label-correcting propagation of shortest distances, starting from timepoints whose distance has just improved
+   * @param queue the timepoints to start from, which is emptied
+   * @param witness a timepoint whose improvement means a negative cycle, or -1
+   * @return false if a negative cycle has been found
+   */
+  private boolean propagate(final double[] distances, final List<Edges> adjacency, final ArrayDeque<Integer> queue, final int witness) {
+    final var liveTimepoints = names.size() - freeTimepoints.size();
+    final var relaxations = new int[names.size()];
+    final var queued = new boolean[names.size()];
+    for (final var tp : queue) queued[tp] = true;
+    while (!queue.isEmpty()) {
+      final int tp = queue.poll();
+      queued[tp] = false;
+      final var edges = adjacency.get(tp);
+      for (var i = 0; i < edges.size; i++) {
+        final var next = edges.timepoints[i];
+        final var distance = distances[tp] + edges.weights[i];
+        if (!(distance < distances[next])) continue;
+        if (next == witness || ++relaxations[next] > liveTimepoints) return false;
+        distances[next] = distance;
+        if (!queued[next]) {
+          queue.add(next);
+          queued[next] = true;
+        }
+      }
+    }
+    return true;
+  }
+
+  private void propagateAll() {
+    stale = false;
+    forgetDistances();
+    if (origin < 0) {
+      consistent = true;
+      return;
+    }
+    //distances from a virtual timepoint linked to every other, which reach every negative cycle
+    final var potentials = new double[names.size()];
+    final var queue = new ArrayDeque<Integer>();
+    for (var tp = 0; tp < names.size(); tp++) {
+      if (names.get(tp) != null) queue.add(tp);
+    }
+    consistent = propagate(potentials, successors, queue, -1);
+    if (!consistent) return;
+
+    Arrays.fill(fromOrigin, Double.POSITIVE_INFINITY);
+    Arrays.fill(toOrigin, Double.POSITIVE_INFINITY);
+    fromOrigin[origin] = 0;
+    toOrigin[origin] = 0;
+    propagate(fromOrigin, successors, queueOf(origin), -1);
+    propagate(toOrigin, predecessors, queueOf(origin), -1);
+  }
+
+  private void failIfTimepointAbsent(int tp){
+    if(tp < 0 || tp >= names.size() || names.get(tp) == null){
       throw new IllegalArgumentException("Timepoint is not present in temporal network, insert it before use");
     }
   }
 
   private void failIfUpdateNotLaunched(){
-    if(latestComputation == null){
+    if(!updated){
       throw new IllegalArgumentException("Must call update() before getting results");
     }
   }
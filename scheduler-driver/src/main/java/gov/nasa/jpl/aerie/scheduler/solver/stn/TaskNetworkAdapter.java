@@ -15,6 +15,16 @@ import java.util.Optional;
 public class TaskNetworkAdapter {
   private static final Logger logger = LoggerFactory.getLogger(TaskNetworkAdapter.class);
 
+  private static final String REDUCED_ACT = "ACT";
+  /**
+   * The network every reduction of an activity's temporal constraints starts from, copied rather than rebuilt for each
+   * candidate activity. It is never modified after initialization.
+   */
+  private static final TaskNetwork SINGLE_ACTIVITY_NETWORK = new TaskNetwork();
+  static {
+    SINGLE_ACTIVITY_NETWORK.addAct(REDUCED_ACT);
+  }
+
   private final TaskNetwork tw;
 
   public TaskNetworkAdapter(TaskNetwork tw){
@@ -126,10 +136,9 @@ public class TaskNetworkAdapter {
       final Interval endInterval,
       final Interval durationInterval,
       final Collection<Interval> envelopes){
-    final TaskNetwork tw = new TaskNetwork();
-    final String actName = "ACT";
+    final TaskNetwork tw = new TaskNetwork(SINGLE_ACTIVITY_NETWORK);
+    final String actName = REDUCED_ACT;
     final TaskNetworkAdapter tnw = new TaskNetworkAdapter(tw);
-    tnw.addAct(actName);
     if(startInterval != null){
       tnw.addStartInterval(actName, startInterval.start, startInterval.end);
     }
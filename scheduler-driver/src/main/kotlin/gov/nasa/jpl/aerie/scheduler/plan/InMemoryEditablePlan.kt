@@ -54,6 +54,24 @@ data class InMemoryEditablePlan(
     private val lookupActivityType: (String) -> ActivityType
 ) : EditablePlan, Plan by plan {
 
+  /**
+   * Creates an editable plan that shares converted profiles, and collected timelines if enabled, through [caches].
+   *
+   * The caches are not part of the plan's value: they are ignored by [equals] and not carried over by [copy].
+   */
+  constructor(
+      missionModel: MissionModel<*>,
+      idGenerator: DirectiveIdGenerator,
+      plan: SchedulerToProcedurePlanAdapter,
+      simulationFacade: SimulationFacade,
+      lookupActivityType: (String) -> ActivityType,
+      caches: ProceduralEvaluationCache
+  ) : this(missionModel, idGenerator, plan, simulationFacade, lookupActivityType) {
+    this.caches = caches
+  }
+
+  private var caches = ProceduralEvaluationCache()
+
   private data class Commit(
     val diff: List<Edit>,
 
@@ -83,7 +101,8 @@ data class InMemoryEditablePlan(
     // kotlin checks structural equality by default, not referential equality.
     val isStale = merlinResults.plan.activities != plan.activities
 
-    val results = MerlinToProcedureSimulationResultsAdapter(merlinResults.driverResults, isStale, plan)
+    val profiles = caches.profilesFor(merlinResults.driverResults)
+    val results = MerlinToProcedureSimulationResultsAdapter(merlinResults.driverResults, isStale, plan, profiles)
     if (!isStale) upToDateSimResultsSet.add(WeakReference(results))
     return results
   }
@@ -111,6 +130,8 @@ data class InMemoryEditablePlan(
     }
     // create a new list instead of `.clear` because commit objects have the same reference
     upToDateSimResultsSet = mutableSetOf()
+    // timelines over the plan may have been collected before this edit
+    caches.timelines?.invalidate()
 
     return id
   }
@@ -148,11 +169,13 @@ data class InMemoryEditablePlan(
       simResult.get()?.stale = false
     }
     upToDateSimResultsSet = committedChanges.upToDateSimResultsSet
+    caches.timelines?.invalidate()
     return result
   }
 
   override fun simulate(options: SimulateOptions): TimelineSimResults {
     simulationFacade.simulateWithResults(plan, options.pause.resolve(this))
+    caches.timelines?.invalidate()
     return latestResults()!!
   }
 
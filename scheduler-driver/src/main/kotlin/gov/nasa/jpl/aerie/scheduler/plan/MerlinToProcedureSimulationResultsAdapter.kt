@@ -1,8 +1,14 @@
 package gov.nasa.jpl.aerie.scheduler.plan
 
+import gov.nasa.ammos.aerie.procedural.timeline.BaseTimeline
 import gov.nasa.ammos.aerie.procedural.timeline.Interval
 import gov.nasa.ammos.aerie.procedural.timeline.collections.Instances
+import gov.nasa.ammos.aerie.procedural.timeline.collections.profiles.Booleans
+import gov.nasa.ammos.aerie.procedural.timeline.collections.profiles.Numbers
+import gov.nasa.ammos.aerie.procedural.timeline.collections.profiles.Real
+import gov.nasa.ammos.aerie.procedural.timeline.collections.profiles.Strings
 import gov.nasa.ammos.aerie.procedural.timeline.ops.SerialSegmentOps
+import gov.nasa.ammos.aerie.procedural.timeline.payloads.LinearEquation
 import gov.nasa.ammos.aerie.procedural.timeline.payloads.Segment
 import gov.nasa.ammos.aerie.procedural.timeline.payloads.activities.Instance
 import gov.nasa.ammos.aerie.procedural.timeline.plan.Plan
@@ -10,16 +16,19 @@ import gov.nasa.ammos.aerie.procedural.timeline.plan.SimulationResults
 import gov.nasa.ammos.aerie.procedural.timeline.util.duration.rangeTo
 import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics
 import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue
 import gov.nasa.jpl.aerie.types.ActivityDirectiveId
 import gov.nasa.jpl.aerie.types.ActivityInstanceId
 import java.time.Instant
+import java.util.concurrent.ConcurrentHashMap
 import kotlin.jvm.optionals.getOrNull
 
-class MerlinToProcedureSimulationResultsAdapter(
+class MerlinToProcedureSimulationResultsAdapter @JvmOverloads constructor(
     private val results: gov.nasa.jpl.aerie.merlin.driver.SimulationResults,
     var stale: Boolean,
-    private val plan: Plan
+    private val plan: Plan,
+    private val profiles: ProfileCache = ProfileCache(results)
 ): SimulationResults {
 
   override fun isStale() = stale
@@ -30,32 +39,143 @@ class MerlinToProcedureSimulationResultsAdapter(
     return start .. end
   }
 
-  companion object {
-    private inline fun <D: Any> convertProfileWithoutGaps(old: List<ProfileSegment<D>>, converter: (D) -> SerializedValue): List<Segment<SerializedValue>> {
-      val result: MutableList<Segment<SerializedValue>> = ArrayList(old.size)
+  /**
+   * A Merlin profile whose segments are converted to procedural segments on first access, then memoized.
+   *
+   * Segment start offsets are computed up front, so that the segments relevant to some bounds can be found
+   * by binary search without converting the rest of the profile.
+   */
+  class LazyProfile<D: Any, P: Any>(
+      private val segments: List<ProfileSegment<D>>,
+      private val converter: (Interval, D) -> P
+  ) {
+    private val starts: List<Duration>
+    private val converted = arrayOfNulls<Segment<P>>(segments.size)
+
+    init {
+      val starts = ArrayList<Duration>(segments.size + 1)
       var elapsedTime = Duration.ZERO
-      for (segment in old) {
-        result.add(Segment(
-            Interval.betweenClosedOpen(elapsedTime, elapsedTime + segment.extent),
-            converter(segment.dynamics)
-        ))
+      for (segment in segments) {
+        starts.add(elapsedTime)
         elapsedTime += segment.extent
       }
-      return result
+      starts.add(elapsedTime)
+      this.starts = starts
+    }
+
+    /** The [i]th segment of the profile. */
+    operator fun get(i: Int): Segment<P> = converted[i] ?: run {
+      val interval = Interval.betweenClosedOpen(starts[i], starts[i + 1])
+      val segment = Segment(interval, converter(interval, segments[i].dynamics))
+      converted[i] = segment
+      segment
+    }
+
+    /**
+     * The segments which may intersect [bounds].
+     *
+     * Neighbouring segments with equal dynamics are included as well, so that coalescing the result
+     * produces the same segments as coalescing the whole profile.
+     */
+    fun within(bounds: Interval): List<Segment<P>> {
+      if (segments.isEmpty()) return listOf()
+
+      var first = lastStartingAtOrBefore(bounds.start).coerceAtLeast(0)
+      var last = lastStartingAtOrBefore(bounds.end)
+      if (last < 0) return listOf()
+
+      while (first > 0 && segments[first - 1].dynamics == segments[first].dynamics) first--
+      while (last < segments.size - 1 && segments[last + 1].dynamics == segments[last].dynamics) last++
+
+      return (first..last).map(::get)
+    }
+
+    private fun lastStartingAtOrBefore(time: Duration): Int {
+      var i = starts.binarySearch(time, 0, segments.size)
+      if (i < 0) return -i - 2
+      // Zero-extent segments share their start with the next segment; find the last of them.
+      while (i < segments.size - 1 && starts[i + 1] == time) i++
+      return i
     }
   }
 
-  override fun <V: Any, TL: SerialSegmentOps<V, TL>> resource(name: String, deserializer: (List<Segment<SerializedValue>>) -> TL): TL {
-    val profile =
-        if (results.discreteProfiles.containsKey(name)) convertProfileWithoutGaps(results.discreteProfiles[name]!!.segments) { it }
-        else if (results.realProfiles.containsKey(name)) convertProfileWithoutGaps(results.realProfiles[name]!!.segments) {
-          SerializedValue.of(mapOf(
-              "initial" to SerializedValue.of(it.initial),
-              "rate" to SerializedValue.of(it.rate)
-          ))
+  /**
+   * The resource profiles of one set of Merlin results, converted lazily and memoized per resource.
+   *
+   * This can be shared between adapters over the same [results], so that each profile is converted at most once.
+   * The timelines built over the profiles are memoized too, so that repeated queries return the same timeline object
+   * and can share results through an [gov.nasa.ammos.aerie.procedural.timeline.EvaluationCache].
+   */
+  class ProfileCache(val results: gov.nasa.jpl.aerie.merlin.driver.SimulationResults) {
+    private val serialized = ConcurrentHashMap<String, LazyProfile<*, SerializedValue>>()
+    private val real = ConcurrentHashMap<String, LazyProfile<RealDynamics, LinearEquation>>()
+    private val timelines = ConcurrentHashMap<Pair<String, Class<*>>, Any>()
+
+    /**
+     * The timeline of a resource as read through a deserializer of class [deserializerClass], built once by [build].
+     *
+     * Only use this for deserializers that don't capture any state, so that their class determines their behaviour;
+     * see [STATELESS_DESERIALIZERS].
+     */
+    fun <TL: Any> timeline(name: String, deserializerClass: Class<*>, build: () -> TL): TL {
+      @Suppress("UNCHECKED_CAST")
+      return timelines.computeIfAbsent(Pair(name, deserializerClass)) { build() } as TL
+    }
+
+    fun serialized(name: String): LazyProfile<*, SerializedValue> = serialized.computeIfAbsent(name) {
+      results.discreteProfiles[name]?.let { profile -> LazyProfile(profile.segments) { _, it -> it } }
+          ?: results.realProfiles[name]?.let { profile -> LazyProfile(profile.segments) { _, it ->
+            SerializedValue.of(mapOf(
+                "initial" to SerializedValue.of(it.initial),
+                "rate" to SerializedValue.of(it.rate)
+            ))
+          } }
+          ?: throw IllegalArgumentException("No such resource $name")
+    }
+
+    fun real(name: String): LazyProfile<RealDynamics, LinearEquation>? =
+        results.realProfiles[name]?.let { profile ->
+          real.computeIfAbsent(name) {
+            LazyProfile(profile.segments) { interval, it -> LinearEquation(interval.start, it.initial, it.rate) }
+          }
         }
-        else throw IllegalArgumentException("No such resource $name")
-    return deserializer.invoke(profile)
+  }
+
+  /**
+   * Produces a profile which, when collected, deserializes only the segments relevant to the collect bounds.
+   */
+  override fun <V: Any, TL: SerialSegmentOps<V, TL>> resource(name: String, deserializer: (List<Segment<SerializedValue>>) -> TL): TL {
+    val profile = profiles.serialized(name)
+    val build = {
+      val ctor = deserializer(listOf()).ctor
+      ctor(BaseTimeline(ctor) { opts -> deserializer(profile.within(opts.bounds)).collect(opts) })
+    }
+    val deserializerClass = deserializer.javaClass
+    return if (deserializerClass in STATELESS_DESERIALIZERS) profiles.timeline(name, deserializerClass, build)
+    else build()
+  }
+
+  /** Produces real profiles directly from Merlin's [RealDynamics], without converting them to [SerializedValue]s. */
+  override fun realResource(name: String): Real {
+    val profile = profiles.real(name) ?: return super.realResource(name)
+    return profiles.timeline(name, Real::class.java) {
+      Real(BaseTimeline(::Real) { opts -> Real(profile.within(opts.bounds)).collect(opts) })
+    }
+  }
+
+  private companion object {
+    /**
+     * Classes of the library deserializers that capture no state, so that all instances of one behave the same.
+     *
+     * Only timelines read through these are memoized. Any other deserializer, such as `Constants.deserializer(mapper)`,
+     * may behave differently between calls, so its timelines are built anew on every query.
+     */
+    val STATELESS_DESERIALIZERS: Set<Class<*>> = setOf(
+        Booleans.deserializer().javaClass,
+        Numbers.deserializer().javaClass,
+        Real.deserializer().javaClass,
+        Strings.deserializer().javaClass
+    )
   }
 
   private data class FinishedActivityAttributes(val duration: Duration, val computedAttributes: SerializedValue)
@@ -0,0 +1,33 @@
+package gov.nasa.jpl.aerie.scheduler.plan
+
+import gov.nasa.ammos.aerie.procedural.timeline.EvaluationCache
+import gov.nasa.jpl.aerie.merlin.driver.SimulationResults
+
+/**
+ * Evaluation state shared by the procedural goals of one scheduling run.
+ *
+ * Holds the converted resource profiles of the latest simulation results, so that every goal reading a resource
+ * gets the same timeline object, and optionally an [EvaluationCache] of the timelines collected by procedures.
+ * [InMemoryEditablePlan] invalidates the timeline cache whenever it edits the plan or simulates,
+ * so collected results are only reused while the plan and its simulation results are unchanged.
+ *
+ * The timeline cache is off unless [maxTimelineElements] is positive, because it can change what procedures see:
+ * a result sliced from a cached collect over wider bounds does not contain the artifacts that collecting directly
+ * over the narrower bounds produces at their edges, such as a `starts()` at the start of a window that an interval
+ * crosses into. This is the same behaviour as an explicit [gov.nasa.ammos.aerie.procedural.timeline.Timeline.cache].
+ *
+ * @param maxTimelineElements the number of timeline objects the timeline cache may hold, or 0 to disable it.
+ */
+class ProceduralEvaluationCache @JvmOverloads constructor(maxTimelineElements: Int = 0) {
+  /** The cache of collected timelines, active on the thread running a procedure; `null` if disabled. */
+  val timelines: EvaluationCache? = if (maxTimelineElements > 0) EvaluationCache(maxTimelineElements) else null
+
+  private var profiles: MerlinToProcedureSimulationResultsAdapter.ProfileCache? = null
+
+  /** The converted profiles of [results], reused for as long as the same results are requested. */
+  @Synchronized fun profilesFor(results: SimulationResults): MerlinToProcedureSimulationResultsAdapter.ProfileCache {
+    val existing = profiles
+    if (existing != null && existing.results === results) return existing
+    return MerlinToProcedureSimulationResultsAdapter.ProfileCache(results).also { profiles = it }
+  }
+}
@@ -0,0 +1,48 @@
+package gov.nasa.jpl.aerie.scheduler;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.scheduler.model.ActivityType;
+import gov.nasa.jpl.aerie.scheduler.model.PlanInMemory;
+import gov.nasa.jpl.aerie.scheduler.model.SchedulingActivity;
+import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
+
+import java.util.Random;
+
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MINUTE;
+
+/**
+ * Times the duplicate-then-add-one-activity pattern the solver uses to probe candidate activities, on a large plan.
+ */
+public class PlanDuplicationBenchmark {
+  public static void main(String[] args) {
+    final var nbActivities = 50_000;
+    final var nbProbes = 1_000;
+    final var random = new Random(0);
+    final var type = new ActivityType("A");
+
+    final var plan = new PlanInMemory();
+    for (var i = 0; i < nbActivities; i++) {
+      plan.add(SchedulingActivity.of(
+          new ActivityDirectiveId(i),
+          type,
+          Duration.of(random.nextInt(100_000), MINUTE),
+          Duration.of(random.nextInt(60), MINUTE),
+          null,
+          true,
+          false));
+    }
+
+    var found = 0L;
+    final var before = System.nanoTime();
+    for (var i = 0; i < nbProbes; i++) {
+      final var id = new ActivityDirectiveId(nbActivities + i);
+      final var probe = plan.duplicate();
+      probe.add(SchedulingActivity.of(id, type, Duration.of(random.nextInt(100_000), MINUTE), MINUTE, null, true, false));
+      if (probe.getActivitiesById().get(id) != null) found++;
+    }
+    final var elapsed = System.nanoTime() - before;
+
+    System.out.println("Probes: " + found);
+    System.out.println("Duplicate and add: " + (elapsed / nbProbes) / 1_000.0 + " us per probe");
+  }
+}
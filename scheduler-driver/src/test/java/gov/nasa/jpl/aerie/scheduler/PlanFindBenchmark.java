@@ -0,0 +1,76 @@
+package gov.nasa.jpl.aerie.scheduler;
+
+import gov.nasa.jpl.aerie.constraints.model.EvaluationEnvironment;
+import gov.nasa.jpl.aerie.constraints.time.Interval;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.scheduler.constraints.activities.ActivityExpression;
+import gov.nasa.jpl.aerie.scheduler.model.ActivityType;
+import gov.nasa.jpl.aerie.scheduler.model.PlanInMemory;
+import gov.nasa.jpl.aerie.scheduler.model.SchedulingActivity;
+import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MINUTE;
+
+/**
+ * Compares answering template queries with the plan's indexes against matching the template against every activity
+ * in the plan, on a large plan of several activity types.
+ */
+public class PlanFindBenchmark {
+  public static void main(String[] args) {
+    final var nbActivities = 50_000;
+    final var nbTypes = 20;
+    final var nbQueries = 500;
+    final var random = new Random(0);
+
+    final var types = new ArrayList<ActivityType>();
+    for (var i = 0; i < nbTypes; i++) types.add(new ActivityType("Type" + i));
+
+    final var plan = new PlanInMemory();
+    for (var i = 0; i < nbActivities; i++) {
+      plan.add(SchedulingActivity.of(
+          new ActivityDirectiveId(i),
+          types.get(random.nextInt(nbTypes)),
+          Duration.of(random.nextInt(100_000), MINUTE),
+          Duration.of(random.nextInt(60), MINUTE),
+          null,
+          true,
+          false));
+    }
+
+    final var templates = new ArrayList<ActivityExpression>();
+    for (var i = 0; i < nbQueries; i++) {
+      final var start = Duration.of(random.nextInt(100_000), MINUTE);
+      templates.add(new ActivityExpression.Builder()
+                        .ofType(types.get(random.nextInt(nbTypes)))
+                        .startsIn(Interval.between(start, start.plus(Duration.of(600, MINUTE))))
+                        .build());
+    }
+
+    final var environment = new EvaluationEnvironment();
+    var indexedMatches = 0L;
+    final var beforeIndexed = System.nanoTime();
+    for (final var template : templates) {
+      indexedMatches += plan.find(template, null, environment).size();
+    }
+    final var indexed = System.nanoTime() - beforeIndexed;
+
+    var scannedMatches = 0L;
+    final var beforeScan = System.nanoTime();
+    for (final var template : templates) {
+      final List<SchedulingActivity> matches = new ArrayList<>();
+      for (final var act : plan.getActivitiesByTime()) {
+        if (template.matches(act, null, environment, true, plan)) matches.add(act);
+      }
+      scannedMatches += matches.size();
+    }
+    final var scanned = System.nanoTime() - beforeScan;
+
+    System.out.println("Matches (indexed / scanned): " + indexedMatches + " / " + scannedMatches);
+    System.out.println("Indexed find: " + (indexed / nbQueries) / 1_000.0 + " us per query");
+    System.out.println("Full scan: " + (scanned / nbQueries) / 1_000.0 + " us per query");
+  }
+}
@@ -0,0 +1,200 @@
+package gov.nasa.jpl.aerie.scheduler;
+
+import gov.nasa.jpl.aerie.constraints.model.EvaluationEnvironment;
+import gov.nasa.jpl.aerie.constraints.time.Interval;
+import gov.nasa.jpl.aerie.constraints.time.Windows;
+import gov.nasa.jpl.aerie.constraints.tree.WindowsWrapperExpression;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.scheduler.constraints.activities.ActivityExpression;
+import gov.nasa.jpl.aerie.scheduler.model.ActivityType;
+import gov.nasa.jpl.aerie.scheduler.model.PlanInMemory;
+import gov.nasa.jpl.aerie.scheduler.model.SchedulingActivity;
+import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MINUTE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PlanInMemoryTest {
+  private static final ActivityType typeA = new ActivityType("A");
+  private static final ActivityType typeB = new ActivityType("B");
+
+  /**
+   * builds a plan of activities of two types, some of which are anchored to earlier activities
+   */
+  private static PlanInMemory makeRandomPlan(final Random random, final int count) {
+    final var plan = new PlanInMemory();
+    final var added = new ArrayList<SchedulingActivity>();
+    for (var i = 0; i < count; i++) {
+      final var type = random.nextBoolean() ? typeA : typeB;
+      final var start = Duration.of(random.nextInt(100), MINUTE);
+      final var duration = Duration.of(random.nextInt(10), MINUTE);
+      final SchedulingActivity act;
+      if (!added.isEmpty() && random.nextInt(4) == 0) {
+        final var anchor = added.get(random.nextInt(added.size()));
+        act = SchedulingActivity.of(new ActivityDirectiveId(i), type, start, duration, anchor.id(), random.nextBoolean(), false);
+      } else {
+        act = SchedulingActivity.of(new ActivityDirectiveId(i), type, start, duration, null, true, false);
+      }
+      plan.add(act);
+      added.add(act);
+    }
+    return plan;
+  }
+
+  private static List<SchedulingActivity> bruteForceFind(final PlanInMemory plan, final ActivityExpression template) {
+    return plan.getActivitiesByTime().stream()
+               .filter(act -> template.matches(act, null, new EvaluationEnvironment(), true, plan))
+               .toList();
+  }
+
+  private static void assertFindMatchesScan(final PlanInMemory plan, final ActivityExpression template) {
+    assertEquals(bruteForceFind(plan, template), List.copyOf(plan.find(template, null, new EvaluationEnvironment())));
+  }
+
+  @Test
+  public void findMatchesFullScan() {
+    final var random = new Random(42);
+    final var plan = makeRandomPlan(random, 500);
+    for (var i = 0; i < 50; i++) {
+      final var lower = Duration.of(random.nextInt(150), MINUTE);
+      final var range = Interval.between(lower, lower.plus(Duration.of(random.nextInt(30), MINUTE)));
+      final var type = random.nextBoolean() ? typeA : typeB;
+      assertFindMatchesScan(plan, new ActivityExpression.Builder().ofType(type).build());
+      assertFindMatchesScan(plan, new ActivityExpression.Builder().startsIn(range).build());
+      assertFindMatchesScan(plan, new ActivityExpression.Builder().ofType(type).startsIn(range).build());
+      assertFindMatchesScan(plan, new ActivityExpression.Builder().endsIn(range).build());
+      assertFindMatchesScan(plan, new ActivityExpression.Builder().ofType(type).endsIn(range).build());
+    }
+  }
+
+  @Test
+  public void findMatchesTypeByName() {
+    final var plan = new PlanInMemory();
+    final var act = SchedulingActivity.of(new ActivityDirectiveId(1), typeA, Duration.ZERO, MINUTE, null, true, false);
+    plan.add(act);
+    final var template = new ActivityExpression.Builder().ofType(new ActivityType("A")).build();
+    assertEquals(List.of(act), List.copyOf(plan.find(template, null, new EvaluationEnvironment())));
+  }
+
+  @Test
+  public void distinctTypesSharingANameAreReportedSeparately() {
+    final var constrainedA = new ActivityType("A", new WindowsWrapperExpression(new Windows(true)));
+    final var plan = new PlanInMemory();
+    final var act1 = SchedulingActivity.of(new ActivityDirectiveId(1), typeA, Duration.ZERO, MINUTE, null, true, false);
+    final var act2 = SchedulingActivity.of(new ActivityDirectiveId(2), constrainedA, MINUTE, MINUTE, null, true, false);
+    plan.add(act2);
+    plan.add(act1);
+
+    assertEquals(Map.of(typeA, List.of(act1), constrainedA, List.of(act2)), plan.getActivitiesByType());
+    final var template = new ActivityExpression.Builder().ofType(typeA).build();
+    assertEquals(List.of(act1, act2), List.copyOf(plan.find(template, null, new EvaluationEnvironment())));
+
+    plan.remove(act1);
+    assertEquals(Map.of(constrainedA, List.of(act2)), plan.getActivitiesByType());
+  }
+
+  @Test
+  public void findKeepsInsertionOrderAmongActivitiesStartingTogether() {
+    final var plan = new PlanInMemory();
+    final var acts = new ArrayList<SchedulingActivity>();
+    // inserted in decreasing end time, so that the end time index supplies them in reverse plan order
+    for (var i = 0; i < 1000; i++) {
+      final var act = SchedulingActivity.of(
+          new ActivityDirectiveId(i), (i % 2 == 0) ? typeA : typeB, Duration.ZERO, Duration.of(1000 - i, MINUTE), null, true, false);
+      plan.add(act);
+      acts.add(act);
+    }
+    // an identical copy of an activity already in the plan
+    plan.add(acts.get(10));
+    acts.add(acts.get(10));
+
+    final var range = Interval.between(Duration.ZERO, Duration.of(2000, MINUTE));
+    assertEquals(acts, List.copyOf(plan.find(
+        new ActivityExpression.Builder().endsIn(range).build(), null, new EvaluationEnvironment())));
+    assertFindMatchesScan(plan, new ActivityExpression.Builder().ofType(typeA).endsIn(range).build());
+    assertFindMatchesScan(plan, new ActivityExpression.Builder().startsIn(range).build());
+  }
+
+  @Test
+  public void removeKeepsIndexesConsistent() {
+    final var random = new Random(7);
+    final var plan = makeRandomPlan(random, 200);
+    // only remove activities that no other activity is anchored to, so that every anchor chain stays intact
+    final var anchorIds = plan.getAnchorIds();
+    final var removable = plan.getActivitiesByTime().stream().filter(act -> !anchorIds.contains(act.id())).toList();
+    for (var i = 0; i < removable.size(); i += 2) {
+      plan.remove(removable.get(i));
+    }
+    assertEquals(plan.getActivitiesByTime().size(), plan.size());
+    assertEquals(plan.getActivities().size(), plan.size());
+    assertEquals(
+        plan.size(),
+        plan.getActivitiesByType().values().stream().mapToInt(List::size).sum());
+    for (var i = 0; i < removable.size(); i += 2) {
+      assertFalse(plan.getActivitiesById().containsKey(removable.get(i).id()));
+    }
+    final var range = Interval.between(Duration.of(20, MINUTE), Duration.of(60, MINUTE));
+    assertFindMatchesScan(plan, new ActivityExpression.Builder().ofType(typeA).startsIn(range).build());
+    assertFindMatchesScan(plan, new ActivityExpression.Builder().endsIn(range).build());
+  }
+
+  @Test
+  public void removeAbsentActivityIsNoOp() {
+    final var plan = new PlanInMemory();
+    final var act = SchedulingActivity.of(new ActivityDirectiveId(1), typeA, Duration.ZERO, MINUTE, null, true, false);
+    plan.add(act);
+    plan.remove(SchedulingActivity.of(new ActivityDirectiveId(2), typeA, Duration.ZERO, MINUTE, null, true, false));
+    assertEquals(1, plan.size());
+    assertTrue(plan.getActivitiesById().containsKey(act.id()));
+  }
+
+  @Test
+  public void duplicateIsIndependent() {
+    final var plan = makeRandomPlan(new Random(3), 50);
+    final var copy = (PlanInMemory) plan.duplicate();
+    final var act = SchedulingActivity.of(new ActivityDirectiveId(1000), typeA, Duration.ZERO, MINUTE, null, true, false);
+    copy.add(act);
+    assertEquals(50, plan.size());
+    assertEquals(51, copy.size());
+    assertFalse(plan.getActivities().contains(act));
+  }
+
+  @Test
+  public void modifyingOriginalDoesNotAffectDuplicate() {
+    final var plan = makeRandomPlan(new Random(5), 100);
+    final var before = plan.getActivitiesByTime();
+    final var copy = (PlanInMemory) plan.duplicate();
+    final var removed = before.getLast();
+    plan.remove(removed);
+    plan.add(SchedulingActivity.of(new ActivityDirectiveId(1000), typeB, Duration.ZERO, MINUTE, null, true, false));
+    assertEquals(before, copy.getActivitiesByTime());
+    assertEquals(removed, copy.getActivitiesById().get(removed.id()));
+    assertFalse(copy.getActivitiesById().containsKey(new ActivityDirectiveId(1000)));
+    assertEquals(100, plan.size());
+    assertFalse(plan.getActivities().contains(removed));
+    assertEquals(100, copy.size());
+  }
+
+  @Test
+  public void absoluteStartOfAnchorChain() {
+    final var plan = new PlanInMemory();
+    final var act1 = SchedulingActivity.of(new ActivityDirectiveId(1), typeA, Duration.of(10, MINUTE), Duration.of(5, MINUTE), null, true, false);
+    final var act2 = SchedulingActivity.of(new ActivityDirectiveId(2), typeA, Duration.of(1, MINUTE), Duration.of(2, MINUTE), act1.id(), false, false);
+    final var act3 = SchedulingActivity.of(new ActivityDirectiveId(3), typeB, Duration.of(3, MINUTE), MINUTE, act2.id(), true, false);
+    plan.add(List.of(act1, act2, act3));
+    assertEquals(Duration.of(10, MINUTE), plan.calculateAbsoluteStartOffsetAnchoredActivity(act1));
+    assertEquals(Duration.of(16, MINUTE), plan.calculateAbsoluteStartOffsetAnchoredActivity(act2));
+    assertEquals(Duration.of(19, MINUTE), plan.calculateAbsoluteStartOffsetAnchoredActivity(act3));
+
+    final var template = new ActivityExpression.Builder().startsIn(Interval.between(Duration.of(18, MINUTE), Duration.of(20, MINUTE))).build();
+    assertEquals(List.of(act3), List.copyOf(plan.find(template, null, new EvaluationEnvironment())));
+  }
+}
@@ -316,4 +316,55 @@ public class PrioritySolverTest {
     //will insert an activity at the beginning of the plan in addition of the two already-present activities
     assertEquals(3, plan.getActivities().size());
   }
+
+  /** Builds an analysis problem whose plan leaves a recurrence goal and a coexistence goal unsatisfied. */
+  private static Problem makeAnalysisProblem() {
+    final var problem = makeTestMissionAB();
+    problem.setInitialPlan(makePlanA12(problem));
+    final var actTypeA = problem.getActivityType("ControllableDurationActivity");
+    final var actTypeB = problem.getActivityType("OtherControllableDurationActivity");
+    final var recurrenceGoal = new RecurrenceGoal.Builder()
+        .named("recurrence")
+        .startingAt(t0)
+        .endingAt(t2hr.plus(Duration.of(10, Duration.MINUTE)))
+        .separatedByAtLeast(d1hr)
+        .separatedByAtMost(d1hr)
+        .thereExistsOne(new ActivityExpression.Builder().ofType(actTypeA).durationIn(d1min).build())
+        .withinPlanHorizon(h)
+        .build();
+    final var coexistenceGoal = new CoexistenceGoal.Builder()
+        .named("coexistence")
+        .forAllTimeIn(new WindowsWrapperExpression(new Windows(false).set(h.getHor(), true)))
+        .forEach(new ActivityExpression.Builder().ofType(actTypeA).build())
+        .thereExistsOne(new ActivityExpression.Builder().ofType(actTypeB).durationIn(d1min).build())
+        .startsAt(TimeAnchor.START)
+        .aliasForAnchors("a")
+        .withinPlanHorizon(h)
+        .build();
+    final var associationGoal = new ProceduralCreationGoal.Builder()
+        .named("association")
+        .generateWith(plan -> List.of(SchedulingActivity.of(idGenerator.next(), actTypeA, t1hr, d1min, null, true, false)))
+        .forAllTimeIn(new WindowsWrapperExpression(new Windows(false).set(h.getHor(), true)))
+        .withinPlanHorizon(h)
+        .build();
+    problem.setGoals(List.of(recurrenceGoal, coexistenceGoal, associationGoal));
+    return problem;
+  }
+
+  @Test
+  public void getNextSolution_concurrentAnalysisMatchesSerialAnalysis() throws SchedulingInterruptedException {
+    final var scores = new java.util.ArrayList<Map<String, Double>>();
+    for (final var concurrency : List.of(1, 3)) {
+      final var problem = makeAnalysisProblem();
+      final var plan = new PrioritySolver(problem, true, concurrency).getNextSolution().orElseThrow();
+
+      assertSetEquality(plan.getActivitiesByTime(), problem.getInitialPlan().getActivitiesByTime());
+      final var evaluation = plan.getEvaluation();
+      scores.add(evaluation.getGoals().stream().collect(java.util.stream.Collectors.toMap(
+          goal -> goal.getName(),
+          goal -> evaluation.forGoal(goal).getScore())));
+    }
+    assertEquals(Map.of("recurrence", -1.0, "coexistence", -2.0, "association", 0.0), scores.get(0));
+    assertEquals(scores.get(0), scores.get(1));
+  }
 }
@@ -0,0 +1,93 @@
+package gov.nasa.jpl.aerie.scheduler;
+
+import gov.nasa.ammos.aerie.procedural.timeline.EvaluationCache;
+import gov.nasa.ammos.aerie.procedural.timeline.Interval;
+import gov.nasa.ammos.aerie.procedural.timeline.plan.SimulationResults;
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.driver.resources.ResourceProfile;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Random;
+
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MINUTE;
+
+/**
+ * Compares evaluating the timelines of the banana-procedures goals with and without an {@link EvaluationCache},
+ * over a long "/fruit" profile, when goals collect the same timelines under many different bounds.
+ *
+ * <p> The totals may differ slightly: an uncached window evaluation of {@code starts()} reports a start at the window's
+ * beginning whenever an interval crosses into the window, while the cached result is sliced from the goal's bounds. </p>
+ *
+ * <p> The cache keeps results alive, so run with a heap large enough to hold them (e.g. {@code -Xmx2g}). </p>
+ */
+public class ProceduralEvaluationCacheBenchmark {
+  private static final int nbSegments = 50_000;
+  private static final int nbGoals = 10;
+  private static final int nbWindows = 50;
+
+  /**
+   * Evaluates the timelines of ConstFruit and SimulationDemo over the goal's bounds,
+   * then again within each of several windows, as a goal iterating over the plan would.
+   */
+  private static long runGoal(final SimulationResults results, final Interval bounds) {
+    final var fruit = results.realResource("/fruit");
+    final var constant = fruit.equalTo(4);
+    final var lowFruit = fruit.lessThan(3.5).isolateTrue();
+
+    var total = (long) constant.collect(bounds).size() + lowFruit.starts().collect(bounds).size();
+    final var window = bounds.duration().dividedBy(nbWindows);
+    for (var i = 0; i < nbWindows; i++) {
+      final var start = bounds.start.plus(window.times(i));
+      final var windowBounds = Interval.betweenClosedOpen(start, start.plus(window));
+      total += constant.collect(windowBounds).size() + lowFruit.starts().collect(windowBounds).size();
+    }
+    return total;
+  }
+
+  private static long runGoals(final SimulationResults results, final Duration horizon) {
+    final var random = new Random(0);
+    var total = 0L;
+    for (var i = 0; i < nbGoals; i++) {
+      // Each goal looks at most of the horizon, trimming a little from either end.
+      final var trim = Duration.of(random.nextInt(1_000), MINUTE);
+      total += runGoal(results, Interval.between(trim, horizon.minus(trim)));
+    }
+    return total;
+  }
+
+  public static void main(String[] args) {
+    final var random = new Random(0);
+    final var segments = new ArrayList<ProfileSegment<RealDynamics>>(nbSegments);
+    for (var i = 0; i < nbSegments; i++) {
+      segments.add(new ProfileSegment<>(Duration.of(1 + random.nextInt(10), MINUTE), RealDynamics.constant(random.nextInt(8))));
+    }
+    final var horizon = segments.stream().map(ProfileSegment::extent).reduce(Duration.ZERO, Duration::plus);
+    final var results = SimulationResultsAdapterTest.adapter(
+        Map.of("/fruit", new ResourceProfile<>(ValueSchema.REAL, segments)),
+        Map.of(),
+        horizon);
+
+    for (var round = 0; round < 3; round++) {
+      final var beforeUncached = System.nanoTime();
+      final var uncachedTotal = runGoals(results, horizon);
+      final var uncached = System.nanoTime() - beforeUncached;
+
+      final var cache = new EvaluationCache();
+      final var beforeCached = System.nanoTime();
+      final long cachedTotal;
+      try (final var ignored = cache.activate()) {
+        cachedTotal = runGoals(results, horizon);
+      }
+      final var cached = System.nanoTime() - beforeCached;
+
+      System.out.println("Results (uncached / cached): " + uncachedTotal + " / " + cachedTotal);
+      System.out.println("Uncached: " + (uncached / nbGoals) / 1_000.0 + " us per goal");
+      System.out.println("Cached: " + (cached / nbGoals) / 1_000.0 + " us per goal ("
+                         + cache.hits() + " hits, " + cache.misses() + " misses)");
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package gov.nasa.jpl.aerie.scheduler;
+
+import gov.nasa.jpl.aerie.scheduler.solver.stn.STN;
+import org.jgrapht.Graph;
+import org.jgrapht.alg.shortestpath.BellmanFordShortestPath;
+import org.jgrapht.alg.shortestpath.NegativeCycleDetectedException;
+import org.jgrapht.graph.DefaultWeightedEdge;
+import org.jgrapht.graph.builder.GraphTypeBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the incremental temporal network against the previous JGraphT-based one, which ran Bellman-Ford on the whole
+ * network on each propagation, on the chains of activities built for recurrence goals: each activity starts within a
+ * range after the previous one, the network is propagated after each activity is added, and the domains of all
+ * activities are queried at the end.
+ */
+public class STNBenchmark {
+  /** The previous temporal network, on string-named timepoints. */
+  private static final class JGraphTNetwork {
+    private final Graph<String, DefaultWeightedEdge> graph = GraphTypeBuilder
+        .<String, DefaultWeightedEdge>directed()
+        .allowingMultipleEdges(false)
+        .allowingSelfLoops(false)
+        .edgeClass(DefaultWeightedEdge.class)
+        .weighted(true)
+        .buildGraph();
+    private BellmanFordShortestPath<String, DefaultWeightedEdge> latestComputation;
+
+    void addTimepoint(final String tp) {
+      graph.addVertex(tp);
+    }
+
+    void addDurCst(final String tp1, final String tp2, final double min, final double max) {
+      setEdge(tp2, tp1, -min);
+      setEdge(tp1, tp2, max);
+    }
+
+    void addBeforeCst(final String tp1, final String tp2) {
+      setEdge(tp2, tp1, -0);
+    }
+
+    private void setEdge(final String a, final String b, final double weight) {
+      var edge = graph.getEdge(a, b);
+      if (edge == null) edge = graph.addEdge(a, b);
+      graph.setEdgeWeight(edge, weight);
+    }
+
+    boolean update() {
+      latestComputation = new BellmanFordShortestPath<>(graph);
+      try {
+        latestComputation.getPaths(graph.vertexSet().iterator().next());
+        return true;
+      } catch (NegativeCycleDetectedException e) {
+        return false;
+      }
+    }
+
+    double getDist(final String a, final String b) {
+      return latestComputation.getPathWeight(a, b);
+    }
+  }
+
+  private static final double HORIZON = 1_000_000;
+  private static final double MIN_SEPARATION = 500;
+  private static final double MAX_SEPARATION = 1_500;
+  private static final double DURATION = 100;
+
+  private static double runIncremental(final int nbActivities) {
+    final var stn = new STN();
+    final var startHorizon = stn.addTimepoint("SI");
+    final var endHorizon = stn.addTimepoint("EI");
+    stn.addDurCst(startHorizon, endHorizon, HORIZON, HORIZON);
+    final var starts = new ArrayList<Integer>();
+    final var ends = new ArrayList<Integer>();
+    for (var i = 0; i < nbActivities; i++) {
+      final var st = stn.addTimepoint("stact" + i);
+      final var et = stn.addTimepoint("etact" + i);
+      stn.addBeforeCst(st, et);
+      stn.addBeforeCst(startHorizon, st);
+      stn.addBeforeCst(startHorizon, et);
+      stn.addBeforeCst(st, endHorizon);
+      stn.addBeforeCst(et, endHorizon);
+      stn.addDurCst(st, et, DURATION, DURATION);
+      if (!starts.isEmpty()) stn.addDurCst(starts.getLast(), st, MIN_SEPARATION, MAX_SEPARATION);
+      starts.add(st);
+      ends.add(et);
+      if (!stn.update()) throw new IllegalStateException("inconsistent network");
+    }
+    var checksum = 0.;
+    for (var i = 0; i < nbActivities; i++) {
+      checksum += stn.getDist(startHorizon, starts.get(i)) - stn.getDist(starts.get(i), startHorizon);
+      checksum += stn.getDist(startHorizon, ends.get(i)) - stn.getDist(ends.get(i), startHorizon);
+      checksum += stn.getDist(starts.get(i), ends.get(i)) - stn.getDist(ends.get(i), starts.get(i));
+    }
+    return checksum;
+  }
+
+  private static double runJGraphT(final int nbActivities) {
+    final var stn = new JGraphTNetwork();
+    stn.addTimepoint("SI");
+    stn.addTimepoint("EI");
+    stn.addDurCst("SI", "EI", HORIZON, HORIZON);
+    final List<String> names = new ArrayList<>();
+    for (var i = 0; i < nbActivities; i++) {
+      final var st = "stact" + i;
+      final var et = "etact" + i;
+      stn.addTimepoint(st);
+      stn.addTimepoint(et);
+      stn.addBeforeCst(st, et);
+      stn.addBeforeCst("SI", st);
+      stn.addBeforeCst("SI", et);
+      stn.addBeforeCst(st, "EI");
+      stn.addBeforeCst(et, "EI");
+      stn.addDurCst(st, et, DURATION, DURATION);
+      if (!names.isEmpty()) stn.addDurCst("st" + names.getLast(), st, MIN_SEPARATION, MAX_SEPARATION);
+      names.add("act" + i);
+      if (!stn.update()) throw new IllegalStateException("inconsistent network");
+    }
+    var checksum = 0.;
+    for (final var name : names) {
+      checksum += stn.getDist("SI", "st" + name) - stn.getDist("st" + name, "SI");
+      checksum += stn.getDist("SI", "et" + name) - stn.getDist("et" + name, "SI");
+      checksum += stn.getDist("st" + name, "et" + name) - stn.getDist("et" + name, "st" + name);
+    }
+    return checksum;
+  }
+
+  public static void main(String[] args) {
+    for (final var nbActivities : List.of(25, 100, 200)) {
+      //warm up both implementations before timing
+      runIncremental(nbActivities);
+      runJGraphT(nbActivities);
+
+      final var beforeIncremental = System.nanoTime();
+      final var incrementalChecksum = runIncremental(nbActivities);
+      final var incremental = System.nanoTime() - beforeIncremental;
+
+      final var beforeJGraphT = System.nanoTime();
+      final var jgraphtChecksum = runJGraphT(nbActivities);
+      final var jgrapht = System.nanoTime() - beforeJGraphT;
+
+      System.out.println(nbActivities + " activities, checksums (incremental / JGraphT): "
+                         + incrementalChecksum + " / " + jgraphtChecksum);
+      System.out.println("  Incremental: " + incremental / 1_000_000.0 + " ms");
+      System.out.println("  JGraphT Bellman-Ford: " + jgrapht / 1_000_000.0 + " ms");
+    }
+  }
+}
@@ -1,10 +1,15 @@
 package gov.nasa.jpl.aerie.scheduler;
 
+import gov.nasa.jpl.aerie.scheduler.solver.stn.STN;
 import gov.nasa.jpl.aerie.scheduler.solver.stn.TaskNetwork;
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class STNTest {
@@ -98,4 +103,87 @@ public class STNTest {
     var expD1 = new TaskNetwork.TNActData(Pair.of(3.,6.), Pair.of(4.,7.), Pair.of(1.,4.));
     assertEquals(expD1, d);
   }
+
+  /**
+   * Two tasks of fixed duration cannot be sequenced in a horizon shorter than their total duration, until one of them
+   * is removed
+   */
+  @Test
+  public void testInconsistentUntilTaskRemoved(){
+    var stn = new TaskNetwork(0,5);
+    stn.addAct("Act1");
+    stn.addDurationInterval("Act1", 3,3);
+    stn.addAct("Act2");
+    stn.addDurationInterval("Act2", 3,3);
+    assertTrue(stn.propagate());
+    stn.startsAfterEnd("Act1", "Act2");
+    assertFalse(stn.propagate());
+    stn.removeTask("Act1");
+    assertTrue(stn.propagate());
+    var expD2 = new TaskNetwork.TNActData(Pair.of(0.,2.), Pair.of(3.,5.), Pair.of(3.,3.));
+    assertEquals(expD2, stn.getAllData("Act2"));
+  }
+
+  @Test
+  public void testCopyIsIndependent(){
+    var stn = new TaskNetwork(2,10);
+    stn.addAct("Act");
+    assertTrue(stn.propagate());
+    var copy = new TaskNetwork(stn);
+    copy.addStartInterval("Act", 3, 4);
+    assertTrue(copy.propagate());
+    assertEquals(Pair.of(3.,4.), copy.getStartInterval("Act"));
+    assertEquals(Pair.of(2.,10.), stn.getStartInterval("Act"));
+  }
+
+  /**
+   * Incrementally tightened and loosened networks agree with all-pairs shortest paths computed from scratch
+   */
+  @Test
+  public void testIncrementalMatchesFloydWarshall(){
+    final var random = new Random(0);
+    final var nbTimepoints = 8;
+    for (var run = 0; run < 200; run++) {
+      final var stn = new STN();
+      final var weights = new double[nbTimepoints][nbTimepoints];
+      for (var i = 0; i < nbTimepoints; i++) {
+        stn.addTimepoint("tp" + i);
+        Arrays.fill(weights[i], Double.POSITIVE_INFINITY);
+      }
+      for (var step = 0; step < 20; step++) {
+        final var a = random.nextInt(nbTimepoints);
+        final var b = (a + 1 + random.nextInt(nbTimepoints - 1)) % nbTimepoints;
+        //fractional weights are not searched with potentials, so alternate between both ways of computing distances
+        final var scale = (run % 2 == 0) ? 1 : 0.5;
+        final double min = (random.nextInt(20) - 5) * scale;
+        final double max = min + random.nextInt(20) * scale;
+        stn.addDurCst(a, b, min, max);
+        weights[b][a] = -min;
+        weights[a][b] = max;
+
+        final var distances = new double[nbTimepoints][];
+        for (var i = 0; i < nbTimepoints; i++) {
+          distances[i] = weights[i].clone();
+          distances[i][i] = 0;
+        }
+        for (var k = 0; k < nbTimepoints; k++) {
+          for (var i = 0; i < nbTimepoints; i++) {
+            for (var j = 0; j < nbTimepoints; j++) {
+              distances[i][j] = Math.min(distances[i][j], distances[i][k] + distances[k][j]);
+            }
+          }
+        }
+        var consistent = true;
+        for (var i = 0; i < nbTimepoints; i++) consistent &= distances[i][i] >= 0;
+
+        assertEquals(consistent, stn.update());
+        if (!consistent) break;
+        for (var i = 0; i < nbTimepoints; i++) {
+          for (var j = 0; j < nbTimepoints; j++) {
+            assertEquals(distances[i][j], stn.getDist(i, j), 0);
+          }
+        }
+      }
+    }
+  }
 }
@@ -0,0 +1,190 @@
+package gov.nasa.jpl.aerie.scheduler;
+
+import gov.nasa.ammos.aerie.procedural.timeline.CollectOptions;
+import gov.nasa.ammos.aerie.procedural.timeline.Interval;
+import gov.nasa.ammos.aerie.procedural.timeline.collections.Directives;
+import gov.nasa.ammos.aerie.procedural.timeline.collections.ExternalEvents;
+import gov.nasa.ammos.aerie.procedural.timeline.collections.profiles.Constants;
+import gov.nasa.ammos.aerie.procedural.timeline.collections.profiles.Numbers;
+import gov.nasa.ammos.aerie.procedural.timeline.collections.profiles.Real;
+import gov.nasa.ammos.aerie.procedural.timeline.ops.SerialSegmentOps;
+import gov.nasa.ammos.aerie.procedural.timeline.payloads.Segment;
+import gov.nasa.ammos.aerie.procedural.timeline.plan.EventQuery;
+import gov.nasa.ammos.aerie.procedural.timeline.plan.Plan;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.driver.resources.ResourceProfile;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import gov.nasa.jpl.aerie.scheduler.plan.MerlinToProcedureSimulationResultsAdapter;
+import kotlin.jvm.functions.Function1;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SimulationResultsAdapterTest {
+  private static final Instant start = Instant.EPOCH;
+  private static final Duration horizonLength = Duration.of(10, SECONDS);
+
+  private static final List<ProfileSegment<RealDynamics>> real = List.of(
+      new ProfileSegment<>(Duration.of(2, SECONDS), RealDynamics.constant(1)),
+      new ProfileSegment<>(Duration.of(3, SECONDS), RealDynamics.linear(1, 2)),
+      new ProfileSegment<>(Duration.of(5, SECONDS), RealDynamics.constant(4)));
+
+  private static final List<ProfileSegment<SerializedValue>> discrete = List.of(
+      new ProfileSegment<>(Duration.of(1, SECONDS), SerializedValue.of(1)),
+      new ProfileSegment<>(Duration.ZERO, SerializedValue.of(7)),
+      new ProfileSegment<>(Duration.of(2, SECONDS), SerializedValue.of(2)),
+      new ProfileSegment<>(Duration.of(3, SECONDS), SerializedValue.of(2)),
+      new ProfileSegment<>(Duration.of(4, SECONDS), SerializedValue.of(3)));
+
+  private static final List<CollectOptions> options = List.of(
+      new CollectOptions(Interval.MIN_MAX),
+      new CollectOptions(Interval.between(Duration.of(2, SECONDS), Duration.of(4, SECONDS))),
+      new CollectOptions(Interval.betweenClosedOpen(Duration.of(1, SECONDS), Duration.of(3, SECONDS)), false),
+      new CollectOptions(Interval.between(Duration.of(4, SECONDS), Duration.of(20, SECONDS)), false),
+      new CollectOptions(Interval.between(Duration.of(-5, SECONDS), Duration.of(-1, SECONDS))));
+
+  private static MerlinToProcedureSimulationResultsAdapter adapter() {
+    return adapter(
+        Map.of("/real", new ResourceProfile<>(ValueSchema.REAL, real)),
+        Map.of("/discrete", new ResourceProfile<>(ValueSchema.INT, discrete)),
+        horizonLength);
+  }
+
+  /** Adapts results holding only the given profiles, over a plan which supports only time conversions. */
+  static MerlinToProcedureSimulationResultsAdapter adapter(
+      final Map<String, ResourceProfile<RealDynamics>> realProfiles,
+      final Map<String, ResourceProfile<SerializedValue>> discreteProfiles,
+      final Duration horizonLength)
+  {
+    final var results = new SimulationResults(
+        realProfiles,
+        discreteProfiles,
+        Map.of(),
+        Map.of(),
+        start,
+        horizonLength,
+        List.of(),
+        new TreeMap<>());
+    final var plan = new Plan() {
+      @Override
+      public Interval totalBounds() {
+        return Interval.between(Duration.ZERO, horizonLength);
+      }
+
+      @Override
+      public Duration toRelative(final Instant abs) {
+        return Duration.of(java.time.Duration.between(start, abs).toNanos() / 1000, Duration.MICROSECONDS);
+      }
+
+      @Override
+      public Instant toAbsolute(final Duration rel) {
+        return start.plusNanos(rel.in(Duration.MICROSECONDS) * 1000);
+      }
+
+      @Override
+      public <A> Directives<A> directives(final String type, final Function1<? super SerializedValue, ? extends A> deserializer) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public <V, TL extends SerialSegmentOps<V, TL>> TL resource(
+          final String name,
+          final Function1<? super List<Segment<SerializedValue>>, ? extends TL> deserializer)
+      {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public ExternalEvents events(final EventQuery query) {
+        throw new UnsupportedOperationException();
+      }
+    };
+    return new MerlinToProcedureSimulationResultsAdapter(results, false, plan);
+  }
+
+  /** The segments the adapter produced before converting profiles lazily. */
+  private static <D> List<Segment<SerializedValue>> eagerlyConverted(
+      final List<ProfileSegment<D>> profile,
+      final Function<D, SerializedValue> converter)
+  {
+    final var result = new ArrayList<Segment<SerializedValue>>();
+    var elapsed = Duration.ZERO;
+    for (final var segment : profile) {
+      result.add(new Segment<>(
+          Interval.betweenClosedOpen(elapsed, elapsed.plus(segment.extent())),
+          converter.apply(segment.dynamics())));
+      elapsed = elapsed.plus(segment.extent());
+    }
+    return result;
+  }
+
+  @Test
+  public void lazyRealProfilesMatchEagerConversion() {
+    final var adapter = adapter();
+    final var expected = Real.deserializer().invoke(eagerlyConverted(real, $ -> SerializedValue.of(Map.of(
+        "initial", SerializedValue.of($.initial),
+        "rate", SerializedValue.of($.rate)))));
+
+    for (final var opts : options) {
+      assertEquals(expected.collect(opts), adapter.resource("/real", Real.deserializer()).collect(opts));
+      assertEquals(expected.collect(opts), adapter.realResource("/real").collect(opts));
+    }
+  }
+
+  @Test
+  public void lazyDiscreteProfilesMatchEagerConversion() {
+    final var adapter = adapter();
+    final var expected = Numbers.deserializer().invoke(eagerlyConverted(discrete, $ -> $));
+
+    for (final var opts : options) {
+      assertEquals(expected.collect(opts), adapter.resource("/discrete", Numbers.deserializer()).collect(opts));
+    }
+  }
+
+  @Test
+  public void statelessDeserializersShareTimelines() {
+    final var adapter = adapter();
+    assertSame(adapter.resource("/discrete", Numbers.deserializer()), adapter.resource("/discrete", Numbers.deserializer()));
+    assertSame(adapter.realResource("/real"), adapter.realResource("/real"));
+  }
+
+  @Test
+  public void capturingDeserializersDoNotShareTimelines() {
+    final var adapter = adapter();
+    final var plusOne = adapter.resource("/discrete", Constants.deserializer($ -> $.value.asInt().get() + 1));
+    final var plusTwo = adapter.resource("/discrete", Constants.deserializer($ -> $.value.asInt().get() + 2));
+    assertNotSame(plusOne, plusTwo);
+    assertEquals(
+        List.of(2L, 3L, 4L),
+        plusOne.collect().stream().map($ -> $.value).toList());
+  }
+
+  @Test
+  public void otherDeserializersDoNotShareTimelines() {
+    final var adapter = adapter();
+    final Function1<List<Segment<SerializedValue>>, Numbers<Number>> deserializer = $ -> Numbers.deserializer().invoke($);
+    assertNotSame(adapter.resource("/discrete", deserializer), adapter.resource("/discrete", deserializer));
+  }
+
+  @Test
+  public void unknownResourcesAreRejected() {
+    final var adapter = adapter();
+    assertThrows(IllegalArgumentException.class, () -> adapter.resource("/missing", Real.deserializer()));
+    assertThrows(IllegalArgumentException.class, () -> adapter.realResource("/missing"));
+  }
+}
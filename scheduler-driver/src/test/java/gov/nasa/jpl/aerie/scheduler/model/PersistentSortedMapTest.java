@@ -0,0 +1,93 @@
+package gov.nasa.jpl.aerie.scheduler.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PersistentSortedMapTest {
+  private static List<Integer> toList(final Iterable<Integer> values) {
+    final var list = new ArrayList<Integer>();
+    values.forEach(list::add);
+    return list;
+  }
+
+  @Test
+  public void matchesTreeMap() {
+    final var random = new Random(1);
+    final var expected = new TreeMap<Integer, Integer>();
+    var map = PersistentSortedMap.<Integer, Integer>empty();
+    for (var i = 0; i < 10_000; i++) {
+      final var key = random.nextInt(1_000);
+      if (random.nextInt(3) == 0) {
+        expected.remove(key);
+        map = map.remove(key);
+      } else {
+        expected.put(key, i);
+        map = map.put(key, i);
+      }
+    }
+    assertEquals(expected.size(), map.size());
+    assertEquals(expected, map.asMap());
+    assertEquals(List.copyOf(expected.values()), toList(map.values()));
+    for (var key = -1; key <= 1_000; key++) {
+      assertEquals(expected.get(key), map.get(key));
+    }
+  }
+
+  @Test
+  public void rangeMatchesSubMap() {
+    final var random = new Random(2);
+    final var expected = new TreeMap<Integer, Integer>();
+    var map = PersistentSortedMap.<Integer, Integer>empty();
+    for (var i = 0; i < 500; i++) {
+      final var key = random.nextInt(1_000);
+      expected.put(key, key);
+      map = map.put(key, key);
+    }
+    for (var i = 0; i < 200; i++) {
+      final var lower = random.nextInt(1_000);
+      final var upper = lower + random.nextInt(200);
+      final var lowerInclusive = random.nextBoolean();
+      final var upperInclusive = random.nextBoolean();
+      assertEquals(
+          List.copyOf(expected.subMap(lower, lowerInclusive, upper, upperInclusive).values()),
+          toList(map.values(lower, lowerInclusive, upper, upperInclusive)));
+    }
+    assertEquals(List.copyOf(expected.headMap(500, true).values()), toList(map.values(null, false, 500, true)));
+    assertEquals(List.copyOf(expected.tailMap(500, false).values()), toList(map.values(500, false, null, false)));
+  }
+
+  @Test
+  public void modificationsLeaveOriginalUntouched() {
+    var original = PersistentSortedMap.<Integer, String>empty();
+    for (var i = 0; i < 100; i++) original = original.put(i, "v" + i);
+
+    final var modified = original.put(1_000, "new").remove(50).put(10, "replaced");
+
+    assertEquals(100, original.size());
+    assertEquals("v50", original.get(50));
+    assertEquals("v10", original.get(10));
+    assertNull(original.get(1_000));
+    assertEquals(100, modified.size());
+    assertNull(modified.get(50));
+    assertEquals("replaced", modified.get(10));
+    assertEquals("new", modified.get(1_000));
+  }
+
+  @Test
+  public void removingAbsentKeyReturnsSameMap() {
+    final var map = PersistentSortedMap.<Integer, Integer>empty().put(1, 1);
+    assertSame(map, map.remove(2));
+    assertTrue(map.remove(1).isEmpty());
+    assertEquals(Map.of(1, 1), map.asMap());
+  }
+}
@@ -0,0 +1,74 @@
+package gov.nasa.jpl.aerie.scheduler.simulation;
+
+import gov.nasa.jpl.aerie.merlin.driver.CachedSimulationEngine;
+import gov.nasa.jpl.aerie.merlin.driver.CheckpointSimulationDriver;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.types.ActivityDirective;
+import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MINUTE;
+
+/**
+ * Times the selection of the cached engine to resume a simulation from, for a large plan in which a few directives were
+ * moved and many were added since the engines were cached, and where a third of the directives are anchored to other
+ * directives.
+ */
+public class BestCachedEngineBenchmark {
+  public static void main(String[] args) {
+    final var nbDirectives = 10_000;
+    final var nbAddedDirectives = 1_000;
+    final var nbEngines = 5;
+    final var nbRuns = 20;
+    final var planDuration = Duration.of(100_000, MINUTE);
+    final var random = new Random(0);
+
+    final var cached = new HashMap<ActivityDirectiveId, ActivityDirective>();
+    for (var i = 0; i < nbDirectives; i++) {
+      final var arguments = Map.of(
+          "amount", SerializedValue.of(random.nextInt(100)),
+          "label", SerializedValue.of("directive-" + i),
+          "settings", SerializedValue.of(Map.of("rate", SerializedValue.of(random.nextDouble()))));
+      final var anchor = (i > 0 && random.nextInt(3) == 0) ? new ActivityDirectiveId(random.nextInt(i)) : null;
+      final var start = Duration.of(random.nextInt((anchor == null) ? 100_000 : 100), MINUTE);
+      cached.put(new ActivityDirectiveId(i), new ActivityDirective(start, "Type" + (i % 10), arguments, anchor, true));
+    }
+
+    // the plan holds copies of the same directives, with a few of them moved
+    final var schedule = new HashMap<ActivityDirectiveId, ActivityDirective>();
+    for (final var entry : cached.entrySet()) {
+      final var directive = entry.getValue();
+      var start = directive.startOffset();
+      if (directive.anchorId() == null && start.longerThan(Duration.of(10_000, MINUTE)) && random.nextInt(1_000) == 0) {
+        start = start.plus(MINUTE);
+      }
+      schedule.put(
+          entry.getKey(),
+          new ActivityDirective(start, directive.serializedActivity(), directive.anchorId(), directive.anchoredToStart()));
+    }
+    for (var i = 0; i < nbAddedDirectives; i++) {
+      schedule.put(
+          new ActivityDirectiveId(nbDirectives + i),
+          new ActivityDirective(Duration.of(50_000 + random.nextInt(50_000), MINUTE), "Added", Map.of(), null, true));
+    }
+
+    final var engines = new ArrayList<CachedSimulationEngine>();
+    for (var i = 1; i <= nbEngines; i++) {
+      engines.add(new CachedSimulationEngine(Duration.of(i * 1_000L, MINUTE), cached, null, null, null, null));
+    }
+
+    var total = 0L;
+    for (var i = 0; i < nbRuns; i++) {
+      final var before = System.nanoTime();
+      final var best = CheckpointSimulationDriver.bestCachedEngine(schedule, engines, planDuration);
+      total += System.nanoTime() - before;
+      if (i == 0) System.out.println("Selected engine ending at: " + best.map(b -> b.getKey().endsAt()).orElse(null));
+    }
+    System.out.println("Engine selection: " + (total / nbRuns) / 1_000_000.0 + " ms");
+  }
+}
@@ -1,8 +1,10 @@
 package gov.nasa.jpl.aerie.scheduler.server;
 
 import java.net.URI;
+import java.time.Duration;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import gov.nasa.jpl.aerie.permissions.AdminSecret;
 import gov.nasa.jpl.aerie.permissions.PermissionsService;
 import gov.nasa.jpl.aerie.permissions.gql.GraphQLPermissionsService;
 import gov.nasa.jpl.aerie.scheduler.server.config.AppConfiguration;
@@ -49,7 +51,10 @@ public final class SchedulerAppDriver {
     final var config = loadConfiguration();
 
     final var merlinDatabaseService = new GraphQLMerlinDatabaseService(config.merlinGraphqlURI(), config.hasuraGraphQlAdminSecret());
-    final var permissionsService = new PermissionsService(new GraphQLPermissionsService(config.merlinGraphqlURI(), config.hasuraGraphQlAdminSecret()));
+    final var permissionsService = new PermissionsService(
+        new GraphQLPermissionsService(config.merlinGraphqlURI(), config.hasuraGraphQlAdminSecret()),
+        Duration.ofMillis(config.permissionsCacheTtl()),
+        config.permissionsCacheSize());
 
     final var stores = loadStores(config);
 
@@ -66,7 +71,8 @@ public final class SchedulerAppDriver {
         schedulerService,
         scheduleAction,
         generateSchedulingLibAction,
-        permissionsService);
+        permissionsService,
+        new AdminSecret(config.hasuraGraphQlAdminSecret()));
 
     //default javalin jetty server has a QueuedThreadPool with maxThreads to 250
     final var server = new Server(new QueuedThreadPool(250));
@@ -149,7 +155,9 @@ public final class SchedulerAppDriver {
                           getEnv("SCHEDULER_DB_PASSWORD", ""),
                           "aerie"),
         URI.create(getEnv("MERLIN_GRAPHQL_URL", "http://localhost:8080/v1/graphql")),
-        getEnv("HASURA_GRAPHQL_ADMIN_SECRET", "")
+        getEnv("HASURA_GRAPHQL_ADMIN_SECRET", ""),
+        Math.max(0, Integer.parseInt(getEnv("PERMISSIONS_CACHE_TTL", "0"))),
+        Math.max(0, Integer.parseInt(getEnv("PERMISSIONS_CACHE_SIZE", "10000")))
     );
   }
 }
@@ -8,6 +8,8 @@ import java.util.Objects;
  * @param httpPort the network port on which the scheduler should listen for http requests
  * @param enableJavalinDevLogging controls the level of http access logging from javalin endpoints
  * @param merlinGraphqlURI endpoint of the merlin graphql service that should be used to fetch/store plan data
+ * @param permissionsCacheTtl number of milliseconds a permission decision may be reused, or 0 to disable caching
+ * @param permissionsCacheSize maximum number of entries held in each of the permission caches
  */
 //TODO: remove backdoor access to directly mounted merlinFileStore (eg via merlin endpoint for downloading mission jars)
 public record AppConfiguration(
@@ -15,7 +17,9 @@ public record AppConfiguration(
     boolean enableJavalinDevLogging,
     Store store,
     URI merlinGraphqlURI,
-    String hasuraGraphQlAdminSecret
+    String hasuraGraphQlAdminSecret,
+    int permissionsCacheTtl,
+    int permissionsCacheSize
 )
 {
   public AppConfiguration {
@@ -0,0 +1,18 @@
+package gov.nasa.jpl.aerie.scheduler.server.config;
+
+/**
+ * controls how the scheduling service uploads the contents of the simulation datasets it stores
+ */
+public enum SimulationResultsUploadMode {
+
+  /**
+   * send profiles, spans, topics and events to aerie through graphql mutations
+   */
+  GraphQL,
+
+  /**
+   * write profiles, spans, topics and events directly to the aerie database, using graphql only for dataset metadata
+   */
+  Postgres
+
+}
@@ -13,6 +13,8 @@ import static gov.nasa.jpl.aerie.scheduler.server.http.SchedulerParsers.hasuraSp
 import static io.javalin.apibuilder.ApiBuilder.*;
 import gov.nasa.jpl.aerie.json.JsonParser;
 import gov.nasa.jpl.aerie.permissions.Action;
+import gov.nasa.jpl.aerie.permissions.AdminSecret;
+import gov.nasa.jpl.aerie.permissions.MetricsSerializers;
 import gov.nasa.jpl.aerie.permissions.PermissionsService;
 import gov.nasa.jpl.aerie.permissions.exceptions.ExceptionSerializers;
 import gov.nasa.jpl.aerie.permissions.exceptions.NoSuchPlanException;
@@ -37,13 +39,15 @@ import org.slf4j.LoggerFactory;
  * @param scheduleAction action that initiates scheduling of a plan and collects results, possibly asynchronously
  * @param generateSchedulingLibAction
  * @param permissionsService service that authorizes action requests
+ * @param adminSecret secret that requests to administrative endpoints must present
  */
 public record SchedulerBindings(
     SpecificationService specificationService,
     SchedulerService schedulerService,
     ScheduleAction scheduleAction,
     GenerateSchedulingLibAction generateSchedulingLibAction,
-    PermissionsService permissionsService
+    PermissionsService permissionsService,
+    AdminSecret adminSecret
 ) implements Plugin {
   public SchedulerBindings {
     Objects.requireNonNull(specificationService);
@@ -51,6 +55,7 @@ public record SchedulerBindings(
     Objects.requireNonNull(scheduleAction);
     Objects.requireNonNull(generateSchedulingLibAction);
     Objects.requireNonNull(permissionsService);
+    Objects.requireNonNull(adminSecret);
   }
 
   private static final Logger log = LoggerFactory.getLogger(SchedulerBindings.class);
@@ -67,11 +72,26 @@ public record SchedulerBindings(
 
       path("schedule", () -> post(this::schedule));
       path("health", () -> get(ctx -> ctx.status(200)));
+      path("permissionsMetrics", () -> get(this::getPermissionsMetrics));
       path("schedulingDslTypescript", () -> post(this::getSchedulingDslTypescript));
       path("refreshSchedulingProcedureParameterTypes", () -> post(this::refreshSchedulingProcedureParameterTypes));
     });
   }
 
+  /**
+   * action bound to the /permissionsMetrics endpoint: reports the statistics of the permissions service,
+   * to requests presenting the Hasura admin secret
+   *
+   * @param ctx the http context of the request from which to read input or post results
+   */
+  private void getPermissionsMetrics(final Context ctx) {
+    if (!adminSecret.isPresentedBy(ctx.header(AdminSecret.HEADER))) {
+      ctx.status(403).result(Json.createObjectBuilder().add("message", "The Hasura admin secret is required").build().toString());
+      return;
+    }
+    ctx.result(MetricsSerializers.serializeMetrics(permissionsService.getMetrics()).toString());
+  }
+
   /**
    * action bound to the /schedule endpoint: runs the scheduler on the provided input plan and goals
    *
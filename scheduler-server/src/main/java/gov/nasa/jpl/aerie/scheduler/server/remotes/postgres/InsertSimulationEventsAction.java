@@ -0,0 +1,76 @@
+package gov.nasa.jpl.aerie.scheduler.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.merlin.driver.engine.EventRecord;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.EventGraph;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.scheduler.server.http.EventGraphFlattener;
+import org.intellij.lang.annotations.Language;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+import static gov.nasa.jpl.aerie.merlin.driver.json.SerializedValueJsonParser.serializedValueP;
+import static gov.nasa.jpl.aerie.scheduler.server.remotes.postgres.PreparedStatements.setDuration;
+
+/*package-local*/ final class InsertSimulationEventsAction implements AutoCloseable {
+  private static final @Language("SQL") String sql = """
+      insert into merlin.event (dataset_id, real_time, transaction_index, causal_time, topic_index, value, span_id)
+      values (?, ?::interval, ?, ?, ?, ?::jsonb, ?)
+    """;
+
+  private final PreparedStatement statement;
+  private final int batchSize;
+
+  public InsertSimulationEventsAction(final Connection connection, final int batchSize) throws SQLException {
+    this.statement = connection.prepareStatement(sql);
+    this.batchSize = batchSize;
+  }
+
+  public void apply(
+      final long datasetId,
+      final Map<Duration, List<EventGraph<EventRecord>>> eventPoints
+  ) throws SQLException {
+    var pendingRows = 0;
+    for (final var eventPoint : eventPoints.entrySet()) {
+      final var time = eventPoint.getKey();
+      final var transactions = eventPoint.getValue();
+      for (int transactionIndex = 0; transactionIndex < transactions.size(); transactionIndex++) {
+        final var flattenedEventGraph = EventGraphFlattener.flatten(transactions.get(transactionIndex));
+        for (final var entry : flattenedEventGraph) {
+          final var event = entry.getRight();
+          this.statement.setLong(1, datasetId);
+          setDuration(this.statement, 2, time);
+          this.statement.setInt(3, transactionIndex);
+          this.statement.setString(4, entry.getLeft());
+          this.statement.setInt(5, event.topicId());
+          this.statement.setString(6, serializedValueP.unparse(event.value()).toString());
+          this.statement.setObject(7, event.spanId().orElse(null), Types.BIGINT);
+          this.statement.addBatch();
+
+          if (++pendingRows >= this.batchSize) {
+            executeBatch();
+            pendingRows = 0;
+          }
+        }
+      }
+    }
+    if (pendingRows > 0) executeBatch();
+  }
+
+  private void executeBatch() throws SQLException {
+    final var results = this.statement.executeBatch();
+    for (final var result : results) {
+      if (result == Statement.EXECUTE_FAILED) throw new FailedInsertException("merlin.event");
+    }
+  }
+
+  @Override
+  public void close() throws SQLException {
+    this.statement.close();
+  }
+}
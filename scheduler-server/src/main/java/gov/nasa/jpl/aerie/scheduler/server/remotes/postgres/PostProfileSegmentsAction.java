@@ -0,0 +1,68 @@
+package gov.nasa.jpl.aerie.scheduler.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.json.JsonParser;
+import gov.nasa.jpl.aerie.merlin.driver.resources.ResourceProfile;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import org.intellij.lang.annotations.Language;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static gov.nasa.jpl.aerie.scheduler.server.remotes.postgres.PreparedStatements.setDuration;
+
+/*package-local*/ final class PostProfileSegmentsAction implements AutoCloseable {
+  private static final @Language("SQL") String sql = """
+      insert into merlin.profile_segment (dataset_id, profile_id, start_offset, dynamics, is_gap)
+      values (?, ?, ?::interval, ?::jsonb, false)
+    """;
+
+  private final PreparedStatement statement;
+  private final int batchSize;
+  private int pendingRows = 0;
+
+  public PostProfileSegmentsAction(final Connection connection, final int batchSize) throws SQLException {
+    this.statement = connection.prepareStatement(sql, Statement.NO_GENERATED_KEYS);
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Queue the segments of one profile, sending them to the database whenever a full batch has accumulated.
+   */
+  public <Dynamics> void apply(
+      final long datasetId,
+      final long profileId,
+      final ResourceProfile<Dynamics> profile,
+      final JsonParser<Dynamics> dynamicsP
+  ) throws SQLException {
+    var offset = Duration.ZERO;
+    for (final var segment : profile.segments()) {
+      this.statement.setLong(1, datasetId);
+      this.statement.setLong(2, profileId);
+      setDuration(this.statement, 3, offset);
+      this.statement.setString(4, dynamicsP.unparse(segment.dynamics()).toString());
+      this.statement.addBatch();
+      offset = offset.plus(segment.extent());
+
+      if (++this.pendingRows >= this.batchSize) flush();
+    }
+  }
+
+  /**
+   * Send any queued segments to the database.
+   */
+  public void flush() throws SQLException {
+    if (this.pendingRows == 0) return;
+    final var results = this.statement.executeBatch();
+    for (final var result : results) {
+      if (result == Statement.EXECUTE_FAILED) throw new FailedInsertException("merlin.profile_segment");
+    }
+    this.pendingRows = 0;
+  }
+
+  @Override
+  public void close() throws SQLException {
+    this.statement.close();
+  }
+}
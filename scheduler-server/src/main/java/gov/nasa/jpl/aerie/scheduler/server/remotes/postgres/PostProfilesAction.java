@@ -0,0 +1,75 @@
+package gov.nasa.jpl.aerie.scheduler.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import org.apache.commons.lang3.tuple.Pair;
+import org.intellij.lang.annotations.Language;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+import static gov.nasa.jpl.aerie.scheduler.server.graphql.GraphQLParsers.discreteProfileTypeP;
+import static gov.nasa.jpl.aerie.scheduler.server.graphql.GraphQLParsers.realProfileTypeP;
+import static gov.nasa.jpl.aerie.scheduler.server.remotes.postgres.PreparedStatements.setDuration;
+
+/*package-local*/ final class PostProfilesAction implements AutoCloseable {
+  private static final @Language("SQL") String sql = """
+      insert into merlin.profile (dataset_id, name, type, duration)
+      values (?, ?, ?::jsonb, ?::interval)
+    """;
+
+  private final PreparedStatement statement;
+
+  public PostProfilesAction(final Connection connection) throws SQLException {
+    this.statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+  }
+
+  /**
+   * Insert the given profiles, returning the id assigned to each profile name.
+   *
+   * This method takes advantage of the fact that we're using the Postgres JDBC,
+   * which returns all columns when executing batches with `getGeneratedKeys`.
+   *
+   * @param profiles the type ("real" or "discrete" with its schema) and total duration of each profile, by name
+   */
+  public Map<String, Long> apply(
+      final long datasetId,
+      final Map<String, Pair<Pair<String, ValueSchema>, Duration>> profiles
+  ) throws SQLException {
+    for (final var entry : profiles.entrySet()) {
+      final var type = entry.getValue().getLeft();
+      final var typeP = switch (type.getLeft()) {
+        case "real" -> realProfileTypeP;
+        case "discrete" -> discreteProfileTypeP;
+        default -> throw new Error("Unrecognized profile type " + type.getLeft());
+      };
+      this.statement.setLong(1, datasetId);
+      this.statement.setString(2, entry.getKey());
+      this.statement.setString(3, typeP.unparse(type).toString());
+      setDuration(this.statement, 4, entry.getValue().getRight());
+      this.statement.addBatch();
+    }
+
+    final var results = this.statement.executeBatch();
+    for (final var result : results) {
+      if (result == Statement.EXECUTE_FAILED) throw new FailedInsertException("merlin.profile");
+    }
+
+    final var profileIds = new HashMap<String, Long>(profiles.size());
+    try (final var resultSet = this.statement.getGeneratedKeys()) {
+      while (resultSet.next()) {
+        profileIds.put(resultSet.getString("name"), resultSet.getLong("id"));
+      }
+    }
+    return profileIds;
+  }
+
+  @Override
+  public void close() throws SQLException {
+    this.statement.close();
+  }
+}
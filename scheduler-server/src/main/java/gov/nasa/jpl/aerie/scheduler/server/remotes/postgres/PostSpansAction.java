@@ -0,0 +1,82 @@
+package gov.nasa.jpl.aerie.scheduler.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.scheduler.server.models.ActivityAttributesRecord;
+import org.intellij.lang.annotations.Language;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Optional;
+
+import static gov.nasa.jpl.aerie.scheduler.server.graphql.GraphQLParsers.activityAttributesP;
+import static gov.nasa.jpl.aerie.scheduler.server.remotes.postgres.PreparedStatements.setDuration;
+
+/*package-local*/ final class PostSpansAction implements AutoCloseable {
+  private static final @Language("SQL") String sql = """
+      insert into merlin.span (span_id, dataset_id, parent_id, start_offset, duration, type, attributes)
+      values (?, ?, ?, ?::interval, ?::interval, ?, ?::jsonb)
+    """;
+
+  private final PreparedStatement statement;
+  private final int batchSize;
+  private int pendingRows = 0;
+
+  public PostSpansAction(final Connection connection, final int batchSize) throws SQLException {
+    this.statement = connection.prepareStatement(sql, Statement.NO_GENERATED_KEYS);
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Queue one span, sending queued spans to the database whenever a full batch has accumulated.
+   *
+   * A span's parent must have been applied before the span itself, as the parent is referenced by foreign key.
+   */
+  public void apply(
+      final long datasetId,
+      final long spanId,
+      final Optional<Long> parentId,
+      final Duration startOffset,
+      final Optional<Duration> duration,
+      final String type,
+      final ActivityAttributesRecord attributes
+  ) throws SQLException {
+    this.statement.setLong(1, spanId);
+    this.statement.setLong(2, datasetId);
+    if (parentId.isPresent()) {
+      this.statement.setLong(3, parentId.get());
+    } else {
+      this.statement.setNull(3, Types.BIGINT);
+    }
+    setDuration(this.statement, 4, startOffset);
+    if (duration.isPresent()) {
+      setDuration(this.statement, 5, duration.get());
+    } else {
+      this.statement.setNull(5, Types.VARCHAR);
+    }
+    this.statement.setString(6, type);
+    this.statement.setString(7, activityAttributesP.unparse(attributes).toString());
+    this.statement.addBatch();
+
+    if (++this.pendingRows >= this.batchSize) flush();
+  }
+
+  /**
+   * Send any queued spans to the database.
+   */
+  public void flush() throws SQLException {
+    if (this.pendingRows == 0) return;
+    final var results = this.statement.executeBatch();
+    for (final var result : results) {
+      if (result == Statement.EXECUTE_FAILED) throw new FailedInsertException("merlin.span");
+    }
+    this.pendingRows = 0;
+  }
+
+  @Override
+  public void close() throws SQLException {
+    this.statement.close();
+  }
+}
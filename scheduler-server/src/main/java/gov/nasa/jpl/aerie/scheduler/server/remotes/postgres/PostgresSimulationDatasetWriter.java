@@ -0,0 +1,169 @@
+package gov.nasa.jpl.aerie.scheduler.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.merlin.driver.ParentFirstOrder;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
+import gov.nasa.jpl.aerie.merlin.driver.resources.ResourceProfile;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import gov.nasa.jpl.aerie.scheduler.server.models.ActivityAttributesRecord;
+import gov.nasa.jpl.aerie.scheduler.server.models.DatasetId;
+import gov.nasa.jpl.aerie.scheduler.server.services.SimulationDatasetWriter;
+import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
+import gov.nasa.jpl.aerie.types.ActivityInstanceId;
+import org.apache.commons.lang3.tuple.Pair;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static gov.nasa.jpl.aerie.merlin.driver.json.SerializedValueJsonParser.serializedValueP;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MICROSECOND;
+import static gov.nasa.jpl.aerie.scheduler.server.graphql.GraphQLParsers.realDynamicsP;
+
+/**
+ * writes simulation datasets directly to postgres over jdbc, in batched inserts within a single transaction
+ *
+ * this mirrors how the merlin worker stores its own simulation results, and avoids serializing the whole
+ * dataset into graphql mutation documents
+ */
+public final class PostgresSimulationDatasetWriter implements SimulationDatasetWriter {
+  /**
+   * number of rows sent to the database per batch when writing profile segments, spans and events
+   */
+  public static final int DEFAULT_BATCH_SIZE = 10_000;
+
+  private final DataSource dataSource;
+  private final int batchSize;
+
+  public PostgresSimulationDatasetWriter(final DataSource dataSource) {
+    this(dataSource, DEFAULT_BATCH_SIZE);
+  }
+
+  public PostgresSimulationDatasetWriter(final DataSource dataSource, final int batchSize) {
+    this.dataSource = dataSource;
+    this.batchSize = batchSize;
+  }
+
+  @Override
+  public void writeSimulationDataset(
+      final DatasetId datasetId,
+      final SimulationResults results,
+      final Map<ActivityDirectiveId, ActivityDirectiveId> uploadIdMap
+  ) {
+    try (final var connection = this.dataSource.getConnection()) {
+      final var autoCommit = connection.getAutoCommit();
+      connection.setAutoCommit(false);
+      try {
+        postProfiles(connection, datasetId.id(), results);
+        postSpans(connection, datasetId.id(), results, uploadIdMap);
+        try (final var insertSimulationTopicsAction = new InsertSimulationTopicsAction(connection)) {
+          insertSimulationTopicsAction.apply(datasetId.id(), results.topics);
+        }
+        try (final var insertSimulationEventsAction = new InsertSimulationEventsAction(connection, this.batchSize)) {
+          insertSimulationEventsAction.apply(datasetId.id(), results.events);
+        }
+        connection.commit();
+      } catch (final SQLException | RuntimeException ex) {
+        connection.rollback();
+        throw ex;
+      } finally {
+        connection.setAutoCommit(autoCommit);
+      }
+    } catch (final SQLException ex) {
+      throw new DatabaseException("Failed to write simulation dataset %d".formatted(datasetId.id()), ex);
+    }
+  }
+
+  private void postProfiles(final Connection connection, final long datasetId, final SimulationResults results)
+  throws SQLException
+  {
+    final var profiles = new HashMap<String, Pair<Pair<String, ValueSchema>, Duration>>();
+    results.realProfiles.forEach((name, profile) ->
+        profiles.put(name, Pair.of(Pair.of("real", profile.schema()), totalDuration(profile))));
+    results.discreteProfiles.forEach((name, profile) ->
+        profiles.put(name, Pair.of(Pair.of("discrete", profile.schema()), totalDuration(profile))));
+    if (profiles.isEmpty()) return;
+
+    final Map<String, Long> profileIds;
+    try (final var postProfilesAction = new PostProfilesAction(connection)) {
+      profileIds = postProfilesAction.apply(datasetId, profiles);
+    }
+
+    try (final var postProfileSegmentsAction = new PostProfileSegmentsAction(connection, this.batchSize)) {
+      for (final var entry : results.realProfiles.entrySet()) {
+        postProfileSegmentsAction.apply(datasetId, profileIds.get(entry.getKey()), entry.getValue(), realDynamicsP);
+      }
+      for (final var entry : results.discreteProfiles.entrySet()) {
+        postProfileSegmentsAction.apply(datasetId, profileIds.get(entry.getKey()), entry.getValue(), serializedValueP);
+      }
+      postProfileSegmentsAction.flush();
+    }
+  }
+
+  private void postSpans(
+      final Connection connection,
+      final long datasetId,
+      final SimulationResults results,
+      final Map<ActivityDirectiveId, ActivityDirectiveId> uploadIdMap
+  ) throws SQLException
+  {
+    final var spans = new HashMap<Long, SpanRow>(results.simulatedActivities.size() + results.unfinishedActivities.size());
+    results.unfinishedActivities.forEach((id, activity) -> spans.put(id.id(), new SpanRow(
+        activity.type(),
+        activity.start(),
+        Optional.empty(),
+        Optional.ofNullable(activity.parentId()).map(ActivityInstanceId::id),
+        new ActivityAttributesRecord(
+            activity.directiveId().map($ -> uploadIdMap.get($).id()),
+            activity.arguments(),
+            Optional.empty()))));
+    results.simulatedActivities.forEach((id, activity) -> spans.put(id.id(), new SpanRow(
+        activity.type(),
+        activity.start(),
+        Optional.of(activity.duration()),
+        Optional.ofNullable(activity.parentId()).map(ActivityInstanceId::id),
+        new ActivityAttributesRecord(
+            activity.directiveId().map($ -> uploadIdMap.get($).id()),
+            activity.arguments(),
+            Optional.of(activity.computedAttributes())))));
+
+    try (final var postSpansAction = new PostSpansAction(connection, this.batchSize)) {
+      // Parents are posted before their children to satisfy the "span_has_parent_span" foreign key constraint.
+      for (final var id : ParentFirstOrder.of(results.simulatedActivities, results.unfinishedActivities)) {
+        final var span = spans.get(id.id());
+        postSpansAction.apply(
+            datasetId,
+            id.id(),
+            span.parentId(),
+            durationBetween(results.startTime, span.start()),
+            span.duration(),
+            span.type(),
+            span.attributes());
+      }
+      postSpansAction.flush();
+    }
+  }
+
+  private static <Dynamics> Duration totalDuration(final ResourceProfile<Dynamics> profile) {
+    var total = Duration.ZERO;
+    for (final var segment : profile.segments()) total = total.plus(segment.extent());
+    return total;
+  }
+
+  private static Duration durationBetween(final Instant start, final Instant end) {
+    return Duration.of(Math.floorDiv(java.time.Duration.between(start, end).toNanos(), 1000), MICROSECOND);
+  }
+
+  private record SpanRow(
+      String type,
+      Instant start,
+      Optional<Duration> duration,
+      Optional<Long> parentId,
+      ActivityAttributesRecord attributes
+  ) {}
+}
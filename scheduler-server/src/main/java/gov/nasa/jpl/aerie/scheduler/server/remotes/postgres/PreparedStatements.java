@@ -1,6 +1,7 @@
 package gov.nasa.jpl.aerie.scheduler.server.remotes.postgres;
 
 import javax.json.Json;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 import gov.nasa.jpl.aerie.scheduler.server.http.SchedulerParsers;
 import gov.nasa.jpl.aerie.scheduler.server.services.ScheduleFailure;
 
@@ -22,6 +23,13 @@ public final class PreparedStatements {
         SchedulerParsers.scheduleFailureP.unparse(reason).toString());
   }
 
+  public static void setDuration(final PreparedStatement statement, final int parameter, final Duration argument)
+  throws SQLException
+  {
+    final var micros = argument.in(Duration.MICROSECONDS);
+    statement.setString(parameter, "PT%d.%06dS".formatted(micros / 1_000_000, micros % 1_000_000));
+  }
+
   public static Optional<ScheduleFailure> getFailureReason(final ResultSet results, final String columnLabel)
   throws SQLException
   {
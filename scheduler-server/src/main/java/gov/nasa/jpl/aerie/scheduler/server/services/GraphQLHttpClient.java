@@ -0,0 +1,160 @@
+package gov.nasa.jpl.aerie.scheduler.server.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * long-lived http client shared by every graphql request a service issues to hasura
+ *
+ * the underlying client prefers HTTP/2 so that concurrent requests are multiplexed over one connection (falling back
+ * to pooled keep-alive HTTP/1.1 connections when the server does not upgrade), and the number of in-flight requests
+ * is bounded so that concurrent readers cannot overwhelm hasura
+ *
+ * latency of every request is recorded under the name of the graphql operation that was sent
+ */
+public final class GraphQLHttpClient {
+  /**
+   * number of graphql requests allowed in flight at once when no explicit limit is configured
+   */
+  public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 8;
+
+  /**
+   * matches the operation name of a graphql document, or the first root field if the operation is anonymous
+   */
+  private static final Pattern OPERATION_NAME = Pattern.compile(
+      "^\\s*(?:(?:query|mutation|subscription)\\s*([_A-Za-z][_0-9A-Za-z]*)?[^{]*)?\\{\\s*([_A-Za-z][_0-9A-Za-z]*)");
+
+  private final HttpClient httpClient;
+  private final Semaphore requestPermits;
+  private final Map<String, OperationStats> operationStats = new ConcurrentHashMap<>();
+
+  public GraphQLHttpClient(final int maxConcurrentRequests, final java.time.Duration connectTimeout) {
+    if (maxConcurrentRequests < 1) {
+      throw new IllegalArgumentException("maxConcurrentRequests must be at least 1, got " + maxConcurrentRequests);
+    }
+    final var threadCount = new AtomicInteger();
+    this.httpClient = HttpClient
+        .newBuilder()
+        .version(HttpClient.Version.HTTP_2)
+        .connectTimeout(connectTimeout)
+        .executor(Executors.newFixedThreadPool(maxConcurrentRequests, r -> {
+          final var thread = new Thread(r, "graphql-http-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        }))
+        .build();
+    this.requestPermits = new Semaphore(maxConcurrentRequests, true);
+  }
+
+  /**
+   * reads the response to a graphql request, whose body is streamed from hasura while it is read
+   */
+  @FunctionalInterface
+  public interface ResponseReader<T> {
+    T read(HttpResponse<InputStream> response) throws IOException;
+  }
+
+  /**
+   * send a graphql request, blocking while the maximum number of requests are already in flight
+   *
+   * the request keeps its permit until the reader returns, and the response body is closed afterwards, so that a
+   * response which is still being streamed counts against the limit
+   *
+   * @param query the graphql document carried by the request, used to name the operation in the metrics
+   * @param request the fully built http request
+   * @param reader reads the http response, whatever its status
+   * @return the result of the reader
+   */
+  public <T> T send(final String query, final HttpRequest request, final ResponseReader<T> reader)
+  throws IOException, InterruptedException
+  {
+    final var stats = this.operationStats.computeIfAbsent(operationName(query), $ -> new OperationStats());
+    this.requestPermits.acquire();
+    final var start = System.nanoTime();
+    var succeeded = false;
+    try {
+      final var response = this.httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+      try (final var body = response.body()) {
+        final var result = reader.read(response);
+        succeeded = response.statusCode() == 200;
+        return result;
+      }
+    } finally {
+      this.requestPermits.release();
+      stats.record(System.nanoTime() - start, succeeded);
+    }
+  }
+
+  /**
+   * @return a snapshot of the request metrics recorded so far, keyed by graphql operation name
+   */
+  public Map<String, OperationMetrics> metrics() {
+    final var snapshot = new TreeMap<String, OperationMetrics>();
+    this.operationStats.forEach((name, stats) -> snapshot.put(name, stats.snapshot()));
+    return snapshot;
+  }
+
+  /**
+   * @return a human-readable, one-line-per-operation summary of the request metrics recorded so far
+   */
+  public String metricsSummary() {
+    final var summary = new StringBuilder("GraphQL request latency by operation:");
+    this.metrics().forEach((name, metrics) -> summary.append("%n  %s: %s".formatted(name, metrics)));
+    return summary.toString();
+  }
+
+  /**
+   * discard all recorded request metrics
+   */
+  public void resetMetrics() {
+    this.operationStats.clear();
+  }
+
+  static String operationName(final String query) {
+    final var matcher = OPERATION_NAME.matcher(query);
+    if (!matcher.find()) return "unknown";
+    return (matcher.group(1) != null) ? matcher.group(1) : matcher.group(2);
+  }
+
+  public record OperationMetrics(long count, long failures, long totalNanos, long maxNanos) {
+    public double meanMillis() {
+      return (count == 0) ? 0 : (totalNanos / 1e6) / count;
+    }
+
+    @Override
+    public String toString() {
+      return "count=%d failures=%d mean=%.1fms max=%.1fms total=%.1fms".formatted(
+          count, failures, meanMillis(), maxNanos / 1e6, totalNanos / 1e6);
+    }
+  }
+
+  private static final class OperationStats {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    void record(final long nanos, final boolean succeeded) {
+      this.count.increment();
+      if (!succeeded) this.failures.increment();
+      this.totalNanos.add(nanos);
+      this.maxNanos.accumulate(nanos);
+    }
+
+    OperationMetrics snapshot() {
+      return new OperationMetrics(this.count.sum(), this.failures.sum(), this.totalNanos.sum(), this.maxNanos.get());
+    }
+  }
+}
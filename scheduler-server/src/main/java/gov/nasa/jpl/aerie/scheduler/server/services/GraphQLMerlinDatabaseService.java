@@ -57,9 +57,7 @@ import javax.json.JsonObject;
 import javax.json.JsonValue;
 import java.io.IOException;
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -93,14 +91,45 @@ import static gov.nasa.jpl.aerie.scheduler.server.graphql.ProfileParsers.realVal
  * {@inheritDoc}
  *
  * @param merlinGraphqlURI endpoint of the merlin graphql service that should be used to access all plan data
+ * @param httpClient long-lived client shared by every request this service issues, which also records request metrics
+ * @param simulationDatasetWriter writer used for the bulk contents of stored simulation datasets, if any; when empty,
+ *     the contents are sent through graphql mutations along with the dataset metadata
  */
-public record GraphQLMerlinDatabaseService(URI merlinGraphqlURI, String hasuraGraphQlAdminSecret) implements MerlinDatabaseService.OwnerRole {
+public record GraphQLMerlinDatabaseService(
+    URI merlinGraphqlURI,
+    String hasuraGraphQlAdminSecret,
+    GraphQLHttpClient httpClient,
+    Optional<SimulationDatasetWriter> simulationDatasetWriter
+) implements MerlinDatabaseService.OwnerRole {
 
   /**
    * timeout for http graphql requests issued to aerie
    */
   private static final java.time.Duration httpTimeout = java.time.Duration.ofSeconds(60);
 
+  public GraphQLMerlinDatabaseService(final URI merlinGraphqlURI, final String hasuraGraphQlAdminSecret) {
+    this(merlinGraphqlURI, hasuraGraphQlAdminSecret, GraphQLHttpClient.DEFAULT_MAX_CONCURRENT_REQUESTS);
+  }
+
+  public GraphQLMerlinDatabaseService(
+      final URI merlinGraphqlURI,
+      final String hasuraGraphQlAdminSecret,
+      final int maxConcurrentRequests)
+  {
+    this(
+        merlinGraphqlURI,
+        hasuraGraphQlAdminSecret,
+        new GraphQLHttpClient(maxConcurrentRequests, httpTimeout),
+        Optional.empty());
+  }
+
+  /**
+   * @return a copy of this service that writes the bulk contents of simulation datasets through the given writer
+   */
+  public GraphQLMerlinDatabaseService withSimulationDatasetWriter(final SimulationDatasetWriter writer) {
+    return new GraphQLMerlinDatabaseService(merlinGraphqlURI, hasuraGraphQlAdminSecret, httpClient, Optional.of(writer));
+  }
+
   public record DatasetMetadata(DatasetId datasetId, Duration offsetFromPlanStart){}
 
   private record SimulationId(long id){}
@@ -136,46 +165,25 @@ public record GraphQLMerlinDatabaseService(URI merlinGraphqlURI, String hasuraGr
    * @return the json response returned by aerie, or an empty optional in case of io errors
    */
   protected Optional<JsonObject> postRequest(final String gqlStr) throws IOException, MerlinServiceException {
-    try {
-      //TODO: (mem optimization) use streams here to avoid several copies of strings
-      final var reqBody = Json.createObjectBuilder().add("query", gqlStr).build();
-      final var httpReq = HttpRequest
-          .newBuilder().uri(merlinGraphqlURI).timeout(httpTimeout)
-          .header("Content-Type", "application/json")
-          .header("Accept", "application/json")
-          .header("Origin", merlinGraphqlURI.toString())
-          .header("x-hasura-admin-secret", hasuraGraphQlAdminSecret)
-          .POST(HttpRequest.BodyPublishers.ofString(reqBody.toString()))
-          .build();
-      //TODO: (net optimization) gzip compress the request body if large enough (eg for createAllActs)
-      final var httpResp = HttpClient
-          .newHttpClient().send(httpReq, HttpResponse.BodyHandlers.ofInputStream());
-      if (httpResp.statusCode() != 200) {
-        //TODO: how severely to error out if aerie cannot be reached or has a 500 error or json is garbled etc etc?
-        return Optional.empty();
-      }
-      final var respBody = Json.createReader(httpResp.body()).readObject();
-      if (respBody.containsKey("errors")) {
-        throw new MerlinServiceException(respBody.toString());
-      }
-      return Optional.of(respBody);
-    } catch (final InterruptedException e) {
-      //TODO: maybe retry if interrupted? but depends on semantics (eg don't duplicate mutation if not idempotent)
-      return Optional.empty();
-    } catch (final JsonException e) { // or also JsonParsingException
-      throw new IOException("json parse error on graphql response:" + e.getMessage(), e);
-    }
+    //TODO: (mem optimization) use streams here to avoid several copies of strings
+    final var reqBody = Json.createObjectBuilder().add("query", gqlStr).build();
+    return sendRequest(gqlStr, reqBody);
   }
 
   protected Optional<JsonObject> postRequest(final String query, final JsonObject variables)
+  throws IOException, MerlinServiceException {
+    //TODO: (mem optimization) use streams here to avoid several copies of strings
+    final var reqBody = Json
+        .createObjectBuilder()
+        .add("query", query)
+        .add("variables", variables)
+        .build();
+    return sendRequest(query, reqBody);
+  }
+
+  private Optional<JsonObject> sendRequest(final String query, final JsonObject reqBody)
   throws IOException, MerlinServiceException {
     try {
-      //TODO: (mem optimization) use streams here to avoid several copies of strings
-      final var reqBody = Json
-          .createObjectBuilder()
-          .add("query", query)
-          .add("variables", variables)
-          .build();
       final var httpReq = HttpRequest
           .newBuilder().uri(merlinGraphqlURI).timeout(httpTimeout)
           .header("Content-Type", "application/json")
@@ -185,17 +193,19 @@ public record GraphQLMerlinDatabaseService(URI merlinGraphqlURI, String hasuraGr
           .POST(HttpRequest.BodyPublishers.ofString(reqBody.toString()))
           .build();
       //TODO: (net optimization) gzip compress the request body if large enough (eg for createAllActs)
-      final var httpResp = HttpClient
-          .newHttpClient().send(httpReq, HttpResponse.BodyHandlers.ofInputStream());
-      if (httpResp.statusCode() != 200) {
-        //TODO: how severely to error out if aerie cannot be reached or has a 500 error or json is garbled etc etc?
-        return Optional.empty();
-      }
-      final var respBody = Json.createReader(httpResp.body()).readObject();
-      if (respBody.containsKey("errors")) {
-        throw new MerlinServiceException(respBody.toString());
+      final var respBody = httpClient.send(query, httpReq, httpResp -> {
+        if (httpResp.statusCode() != 200) {
+          //TODO: how severely to error out if aerie cannot be reached or has a 500 error or json is garbled etc etc?
+          return Optional.<JsonObject>empty();
+        }
+        try (final var reader = Json.createReader(httpResp.body())) {
+          return Optional.of(reader.readObject());
+        }
+      });
+      if (respBody.isPresent() && respBody.get().containsKey("errors")) {
+        throw new MerlinServiceException(respBody.get().toString());
       }
-      return Optional.of(respBody);
+      return respBody;
     } catch (final InterruptedException e) {
       //TODO: maybe retry if interrupted? but depends on semantics (eg don't duplicate mutation if not idempotent)
       return Optional.empty();
@@ -819,15 +829,19 @@ public record GraphQLMerlinDatabaseService(URI merlinGraphqlURI, String hasuraGr
   ) throws MerlinServiceException, IOException {
     final var simulationId = getSimulationId(planMetadata.planId());
     final var datasetIds = createSimulationDataset(simulationId, planMetadata);
-    final var profileSet = ProfileSet.of(results.realProfiles, results.discreteProfiles);
-    final var profileRecords = postResourceProfiles(
-        datasetIds.datasetId(),
-        profileSet.realProfiles(),
-        profileSet.discreteProfiles());
-    postProfileSegments(datasetIds.datasetId(), profileRecords, profileSet);
-    postActivities(datasetIds.datasetId(), results.simulatedActivities, results.unfinishedActivities, results.startTime, uploadIdMap);
-    insertSimulationTopics(datasetIds.datasetId(), results.topics);
-    insertSimulationEvents(datasetIds.datasetId(), results.events);
+    if (simulationDatasetWriter.isPresent()) {
+      simulationDatasetWriter.get().writeSimulationDataset(datasetIds.datasetId(), results, uploadIdMap);
+    } else {
+      final var profileSet = ProfileSet.of(results.realProfiles, results.discreteProfiles);
+      final var profileRecords = postResourceProfiles(
+          datasetIds.datasetId(),
+          profileSet.realProfiles(),
+          profileSet.discreteProfiles());
+      postProfileSegments(datasetIds.datasetId(), profileRecords, profileSet);
+      postActivities(datasetIds.datasetId(), results.simulatedActivities, results.unfinishedActivities, results.startTime, uploadIdMap);
+      insertSimulationTopics(datasetIds.datasetId(), results.topics);
+      insertSimulationEvents(datasetIds.datasetId(), results.events);
+    }
     setSimulationDatasetStatus(datasetIds.simulationDatasetId(), SimulationStateRecord.success());
     return datasetIds.datasetId();
   }
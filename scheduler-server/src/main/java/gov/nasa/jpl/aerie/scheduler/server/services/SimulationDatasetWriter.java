@@ -0,0 +1,25 @@
+package gov.nasa.jpl.aerie.scheduler.server.services;
+
+import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
+import gov.nasa.jpl.aerie.scheduler.server.models.DatasetId;
+import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
+
+import java.util.Map;
+
+/**
+ * writes the bulk contents of a simulation (profiles, spans, topics and events) into an already created dataset
+ *
+ * the dataset itself and its status are managed by the caller, typically through the merlin graphql service
+ */
+public interface SimulationDatasetWriter {
+  /**
+   * @param datasetId the dataset to write into
+   * @param results the simulation results to write
+   * @param uploadIdMap mapping from the directive ids referenced by the results to the directive ids stored in aerie
+   */
+  void writeSimulationDataset(
+      DatasetId datasetId,
+      SimulationResults results,
+      Map<ActivityDirectiveId, ActivityDirectiveId> uploadIdMap
+  );
+}
@@ -0,0 +1,159 @@
+package gov.nasa.jpl.aerie.scheduler.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
+import gov.nasa.jpl.aerie.merlin.driver.UnfinishedActivity;
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.driver.resources.ResourceProfile;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import gov.nasa.jpl.aerie.scheduler.server.models.DatasetId;
+import gov.nasa.jpl.aerie.types.ActivityInstance;
+import gov.nasa.jpl.aerie.types.ActivityInstanceId;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class PostgresSimulationDatasetWriterTest {
+  private static final DatasetId DATASET = new DatasetId(1);
+  private static final int BATCH_SIZE = 10;
+
+  @Test
+  void profileSegmentsAreSentInBatchesAcrossProfiles() {
+    final var realProfiles = new HashMap<String, ResourceProfile<RealDynamics>>();
+    for (final var name : List.of("a", "b")) {
+      final var segments = new ArrayList<ProfileSegment<RealDynamics>>();
+      for (var i = 0; i < 15; i++) segments.add(new ProfileSegment<>(Duration.SECOND, RealDynamics.constant(i)));
+      realProfiles.put(name, ResourceProfile.of(ValueSchema.REAL, segments));
+    }
+    final var discreteProfiles = Map.of(
+        "c", ResourceProfile.of(ValueSchema.BOOLEAN, List.of(
+            new ProfileSegment<>(Duration.SECOND, SerializedValue.of(true)))));
+
+    final var recording = new RecordingDataSource();
+    write(recording, results(realProfiles, discreteProfiles, Map.of(), Map.of()));
+
+    assertEquals(List.of(3), recording.batchSizes("merlin.profile"));
+    assertEquals(List.of(10, 10, 10, 1), recording.batchSizes("merlin.profile_segment"));
+
+    // every segment references the id generated for its own profile, which are generated in insertion order
+    final var profileIds = new HashMap<Object, Object>();
+    final var profiles = recording.rows("merlin.profile");
+    for (var i = 0; i < profiles.size(); i++) profileIds.put(profiles.get(i).get(2), (long) (i + 1));
+    final var segmentsPerProfile = new HashMap<Object, Integer>();
+    for (final var row : recording.rows("merlin.profile_segment")) segmentsPerProfile.merge(row.get(2), 1, Integer::sum);
+    assertEquals(
+        Map.of(profileIds.get("a"), 15, profileIds.get("b"), 15, profileIds.get("c"), 1),
+        segmentsPerProfile);
+    assertEquals(1, recording.commits());
+  }
+
+  @Test
+  void spansAreSentInBatchesWithParentsFirst() {
+    // every span is the parent of the span with the next lower id, so id order would violate the parent foreign key
+    final var simulatedActivities = new HashMap<ActivityInstanceId, ActivityInstance>();
+    final var unfinishedActivities = new HashMap<ActivityInstanceId, UnfinishedActivity>();
+    for (var i = 0; i < 25; i++) {
+      final var parentId = (i == 24) ? null : new ActivityInstanceId(i + 1);
+      if (i % 2 == 0) {
+        simulatedActivities.put(new ActivityInstanceId(i), activity(parentId));
+      } else {
+        unfinishedActivities.put(new ActivityInstanceId(i), unfinishedActivity(parentId));
+      }
+    }
+
+    final var recording = new RecordingDataSource();
+    write(recording, results(Map.of(), Map.of(), simulatedActivities, unfinishedActivities));
+
+    assertEquals(List.of(10, 10, 5), recording.batchSizes("merlin.span"));
+    final var posted = new HashSet<Object>();
+    for (final var row : recording.rows("merlin.span")) {
+      final var parentId = row.get(3);
+      assertTrue(parentId == null || posted.contains(parentId), "span %s was posted before its parent".formatted(row.get(1)));
+      posted.add(row.get(1));
+    }
+    assertEquals(25, posted.size());
+    assertEquals(1, recording.commits());
+    assertTrue(recording.autoCommit());
+  }
+
+  @Test
+  void spansWithMissingParentsAreStillPosted() {
+    final var recording = new RecordingDataSource();
+    write(recording, results(
+        Map.of(),
+        Map.of(),
+        Map.of(
+            new ActivityInstanceId(1), activity(new ActivityInstanceId(42)),
+            new ActivityInstanceId(2), activity(new ActivityInstanceId(1))),
+        Map.of()));
+
+    final var rows = recording.rows("merlin.span");
+    assertEquals(List.of(1L, 2L), rows.stream().map($ -> $.get(1)).toList());
+    assertEquals(42L, rows.getFirst().get(3));
+    assertEquals(1, recording.commits());
+  }
+
+  @Test
+  void cyclicSpansRollBackTheWholeDataset() {
+    final var realProfiles = Map.of(
+        "a", ResourceProfile.of(ValueSchema.REAL, List.of(
+            new ProfileSegment<>(Duration.SECOND, RealDynamics.constant(0)))));
+
+    final var recording = new RecordingDataSource();
+    assertThrows(IllegalArgumentException.class, () -> write(recording, results(
+        realProfiles,
+        Map.of(),
+        Map.of(
+            new ActivityInstanceId(1), activity(new ActivityInstanceId(2)),
+            new ActivityInstanceId(2), activity(new ActivityInstanceId(1))),
+        Map.of())));
+
+    assertEquals(0, recording.commits());
+    assertEquals(1, recording.rollbacks());
+    assertTrue(recording.autoCommit());
+    assertEquals(List.of(), recording.rows("merlin.span"));
+  }
+
+  private static void write(final RecordingDataSource recording, final SimulationResults results) {
+    new PostgresSimulationDatasetWriter(recording.dataSource(), BATCH_SIZE).writeSimulationDataset(DATASET, results, Map.of());
+  }
+
+  private static SimulationResults results(
+      final Map<String, ResourceProfile<RealDynamics>> realProfiles,
+      final Map<String, ResourceProfile<SerializedValue>> discreteProfiles,
+      final Map<ActivityInstanceId, ActivityInstance> simulatedActivities,
+      final Map<ActivityInstanceId, UnfinishedActivity> unfinishedActivities)
+  {
+    return new SimulationResults(
+        realProfiles,
+        discreteProfiles,
+        simulatedActivities,
+        unfinishedActivities,
+        Instant.EPOCH,
+        Duration.HOUR,
+        List.of(),
+        new TreeMap<>());
+  }
+
+  private static ActivityInstance activity(final ActivityInstanceId parentId) {
+    return new ActivityInstance(
+        "activity", Map.of(), Instant.EPOCH, Duration.SECOND, parentId, List.of(), Optional.empty(), SerializedValue.NULL);
+  }
+
+  private static UnfinishedActivity unfinishedActivity(final ActivityInstanceId parentId) {
+    return new UnfinishedActivity("activity", Map.of(), Instant.EPOCH, parentId, List.of(), Optional.empty());
+  }
+}
@@ -0,0 +1,132 @@
+package gov.nasa.jpl.aerie.scheduler.server.remotes.postgres;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A data source whose connections record the batches executed on their prepared statements
+ * and the outcome of their transactions, instead of sending anything to a database.
+ *
+ * Batches are recorded by the table they insert into, as lists of rows mapping parameter indices to bound values.
+ * The generated keys of a batch hold the bound second parameter as "name", and a fresh number as "id".
+ */
+/*package-local*/ final class RecordingDataSource {
+  private final Map<String, List<List<Map<Integer, Object>>>> batches = new HashMap<>();
+  private boolean autoCommit = true;
+  private int commits = 0;
+  private int rollbacks = 0;
+  private long nextGeneratedId = 1;
+
+  public List<Integer> batchSizes(final String table) {
+    return this.batches.getOrDefault(table, List.of()).stream().map(List::size).toList();
+  }
+
+  public List<Map<Integer, Object>> rows(final String table) {
+    return this.batches.getOrDefault(table, List.of()).stream().flatMap(List::stream).toList();
+  }
+
+  public boolean autoCommit() {
+    return this.autoCommit;
+  }
+
+  public int commits() {
+    return this.commits;
+  }
+
+  public int rollbacks() {
+    return this.rollbacks;
+  }
+
+  public DataSource dataSource() {
+    return (DataSource) Proxy.newProxyInstance(
+        DataSource.class.getClassLoader(),
+        new Class<?>[] {DataSource.class},
+        (proxy, method, args) -> switch (method.getName()) {
+          case "getConnection" -> connection();
+          default -> throw new UnsupportedOperationException(method.getName());
+        });
+  }
+
+  private Connection connection() {
+    return (Connection) Proxy.newProxyInstance(
+        Connection.class.getClassLoader(),
+        new Class<?>[] {Connection.class},
+        (proxy, method, args) -> switch (method.getName()) {
+          // statements are of the form "insert into <table> ..."
+          case "prepareStatement" -> statement(((String) args[0]).strip().split("\\s+")[2]);
+          case "getAutoCommit" -> this.autoCommit;
+          case "setAutoCommit" -> {
+            this.autoCommit = (Boolean) args[0];
+            yield null;
+          }
+          case "commit" -> {
+            this.commits++;
+            yield null;
+          }
+          case "rollback" -> {
+            this.rollbacks++;
+            yield null;
+          }
+          case "close" -> null;
+          default -> throw new UnsupportedOperationException(method.getName());
+        });
+  }
+
+  private PreparedStatement statement(final String table) {
+    final var row = new HashMap<Integer, Object>();
+    final var pending = new ArrayList<Map<Integer, Object>>();
+    final var executed = this.batches.computeIfAbsent(table, $ -> new ArrayList<>());
+    return (PreparedStatement) Proxy.newProxyInstance(
+        PreparedStatement.class.getClassLoader(),
+        new Class<?>[] {PreparedStatement.class},
+        (proxy, method, args) -> {
+          final var name = method.getName();
+          if (name.startsWith("set")) {
+            row.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            return null;
+          }
+          return switch (name) {
+            case "addBatch" -> {
+              pending.add(new HashMap<>(row));
+              row.clear();
+              yield null;
+            }
+            case "executeBatch" -> {
+              executed.add(List.copyOf(pending));
+              pending.clear();
+              final var results = new int[executed.getLast().size()];
+              Arrays.fill(results, 1);
+              yield results;
+            }
+            case "getGeneratedKeys" -> generatedKeys(executed.getLast());
+            case "close" -> null;
+            default -> throw new UnsupportedOperationException(name);
+          };
+        });
+  }
+
+  private ResultSet generatedKeys(final List<Map<Integer, Object>> rows) {
+    final var iterator = rows.iterator();
+    final var current = new Object() { Map<String, Object> key = null; };
+    return (ResultSet) Proxy.newProxyInstance(
+        ResultSet.class.getClassLoader(),
+        new Class<?>[] {ResultSet.class},
+        (proxy, method, args) -> switch (method.getName()) {
+          case "next" -> {
+            current.key = iterator.hasNext() ? Map.of("name", iterator.next().get(2), "id", this.nextGeneratedId++) : null;
+            yield current.key != null;
+          }
+          case "getString", "getLong" -> current.key.get((String) args[0]);
+          case "close" -> null;
+          default -> throw new UnsupportedOperationException(method.getName());
+        });
+  }
+}
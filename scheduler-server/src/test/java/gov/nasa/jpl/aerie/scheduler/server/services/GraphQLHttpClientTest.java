@@ -0,0 +1,104 @@
+package gov.nasa.jpl.aerie.scheduler.server.services;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class GraphQLHttpClientTest {
+
+  @Test
+  void testNamedOperation() {
+    assertEquals("GetPlanRevision", GraphQLHttpClient.operationName("""
+        query GetPlanRevision($id: Int!) {
+          plan_by_pk(id: $id) {
+            revision
+          }
+        }
+        """));
+    assertEquals("getPlanMetadata", GraphQLHttpClient.operationName("query getPlanMetadata { plan_by_pk( id: 1 ) { id } }"));
+  }
+
+  @Test
+  void testAnonymousOperationUsesRootField() {
+    assertEquals("plan_by_pk", GraphQLHttpClient.operationName("query { plan_by_pk(id:1) { activity_directives { id } } }"));
+    assertEquals("insert_plan_one", GraphQLHttpClient.operationName("mutation { insert_plan_one(object: {}) { id } }"));
+    assertEquals("plan_dataset", GraphQLHttpClient.operationName("{ plan_dataset { dataset_id } }"));
+  }
+
+  @Test
+  void testUnparseableOperation() {
+    assertEquals("unknown", GraphQLHttpClient.operationName("not graphql"));
+  }
+
+  @Test
+  void testPermitIsHeldUntilTheResponseIsRead() throws Exception {
+    final var requests = new AtomicInteger();
+    final var server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/", exchange -> {
+      requests.incrementAndGet();
+      final var body = "{}".getBytes(StandardCharsets.UTF_8);
+      exchange.sendResponseHeaders(200, body.length);
+      try (final var out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    });
+    server.start();
+    try {
+      final var client = new GraphQLHttpClient(1, Duration.ofSeconds(5));
+      final var request = HttpRequest
+          .newBuilder(URI.create("http://localhost:%d/".formatted(server.getAddress().getPort())))
+          .POST(HttpRequest.BodyPublishers.ofString("{}"))
+          .build();
+      final var reading = new CountDownLatch(1);
+      final var finishReading = new CountDownLatch(1);
+
+      final var first = Thread.startVirtualThread(() -> send(client, request, () -> {
+        reading.countDown();
+        finishReading.await();
+      }));
+      reading.await();
+      final var second = Thread.startVirtualThread(() -> send(client, request, () -> {}));
+
+      // the second request waits for the first response to be read
+      second.join(Duration.ofMillis(200));
+      assertEquals(1, requests.get());
+
+      finishReading.countDown();
+      first.join();
+      second.join();
+      assertEquals(2, requests.get());
+      assertEquals(2, client.metrics().get("unknown").count());
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  private interface Step {
+    void run() throws InterruptedException;
+  }
+
+  private static void send(final GraphQLHttpClient client, final HttpRequest request, final Step whileReading) {
+    try {
+      client.send("not graphql", request, response -> {
+        try {
+          whileReading.run();
+        } catch (final InterruptedException e) {
+          throw new IOException(e);
+        }
+        return response.body().readAllBytes();
+      });
+    } catch (final IOException | InterruptedException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
@@ -9,14 +9,18 @@ import java.util.concurrent.TimeUnit;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.LiveCells;
 import gov.nasa.jpl.aerie.scheduler.server.ResultsProtocol;
 import gov.nasa.jpl.aerie.scheduler.server.config.PlanOutputMode;
 import gov.nasa.jpl.aerie.scheduler.server.config.PostgresStore;
+import gov.nasa.jpl.aerie.scheduler.server.config.SimulationResultsUploadMode;
 import gov.nasa.jpl.aerie.scheduler.server.config.Store;
 import gov.nasa.jpl.aerie.scheduler.server.models.SpecificationId;
 import gov.nasa.jpl.aerie.scheduler.server.remotes.postgres.PostgresResultsCellRepository;
+import gov.nasa.jpl.aerie.scheduler.server.remotes.postgres.PostgresSimulationDatasetWriter;
 import gov.nasa.jpl.aerie.scheduler.server.remotes.postgres.PostgresSpecificationRepository;
 import gov.nasa.jpl.aerie.scheduler.server.remotes.postgres.SpecificationRevisionData;
+import gov.nasa.jpl.aerie.scheduler.server.services.GraphQLHttpClient;
 import gov.nasa.jpl.aerie.scheduler.server.services.GraphQLMerlinDatabaseService;
 import gov.nasa.jpl.aerie.scheduler.server.services.ScheduleRequest;
 import gov.nasa.jpl.aerie.scheduler.server.services.SpecificationService;
@@ -34,8 +38,6 @@ public final class SchedulerWorkerAppDriver {
   public static void main(String[] args) throws Exception {
     final var config = loadConfiguration();
 
-    final var merlinDatabaseService = new GraphQLMerlinDatabaseService(config.merlinGraphqlURI(), config.hasuraGraphQlAdminSecret());
-
     final SchedulingDSLCompilationService schedulingDSLCompilationService;
     try {
       schedulingDSLCompilationService = new SchedulingDSLCompilationService();
@@ -55,6 +57,7 @@ public final class SchedulerWorkerAppDriver {
     hikariConfig.addDataSourceProperty("portNumber", postgresStore.port());
     hikariConfig.addDataSourceProperty("databaseName", postgresStore.database());
     hikariConfig.addDataSourceProperty("applicationName", "Scheduler Worker");
+    hikariConfig.addDataSourceProperty("reWriteBatchedInserts", true);
     hikariConfig.setUsername(postgresStore.user());
     hikariConfig.setPassword(postgresStore.password());
     hikariConfig.setMaximumPoolSize(2);
@@ -63,6 +66,16 @@ public final class SchedulerWorkerAppDriver {
 
     final var hikariDataSource = new HikariDataSource(hikariConfig);
 
+    final var graphQLMerlinDatabaseService = new GraphQLMerlinDatabaseService(
+        config.merlinGraphqlURI(),
+        config.hasuraGraphQlAdminSecret(),
+        config.maxConcurrentGraphqlRequests());
+    final var merlinDatabaseService = switch (config.simulationResultsUploadMode()) {
+      case GraphQL -> graphQLMerlinDatabaseService;
+      case Postgres -> graphQLMerlinDatabaseService.withSimulationDatasetWriter(
+          new PostgresSimulationDatasetWriter(hikariDataSource));
+    };
+
     final var stores = new Stores(
       new PostgresSpecificationRepository(hikariDataSource),
       new PostgresResultsCellRepository(hikariDataSource));
@@ -72,7 +85,10 @@ public final class SchedulerWorkerAppDriver {
         merlinDatabaseService,
         config.merlinFileStore(),
         config.outputMode(),
-        schedulingDSLCompilationService);
+        schedulingDSLCompilationService,
+        config.proceduralTimelineCacheSize(),
+        config.cellSnapshotInterval(),
+        config.analysisConcurrency());
 
     final var notificationQueue = new LinkedBlockingQueue<PostgresSchedulingRequestNotificationPayload>();
     final var listenAction = new ListenSchedulerCapability(hikariDataSource, notificationQueue);
@@ -116,6 +132,8 @@ public final class SchedulerWorkerAppDriver {
         }
         finally {
           canceledListener.unregister();
+          logger.info(merlinDatabaseService.httpClient().metricsSummary());
+          merlinDatabaseService.httpClient().resetMetrics();
         }
       }
     } finally {
@@ -135,6 +153,31 @@ public final class SchedulerWorkerAppDriver {
       logger.warn("MAX_NB_CACHED_SIMULATION_ENGINES is " + maxNbCachedSimulationEngine + " but minimum is 1. Setting to 1.");
       maxNbCachedSimulationEngine = 1;
     }
+    int maxConcurrentGraphqlRequests = Integer.parseInt(getEnv(
+        "MERLIN_GRAPHQL_MAX_CONCURRENT_REQUESTS",
+        String.valueOf(GraphQLHttpClient.DEFAULT_MAX_CONCURRENT_REQUESTS)));
+    if (maxConcurrentGraphqlRequests < 1) {
+      logger.warn("MERLIN_GRAPHQL_MAX_CONCURRENT_REQUESTS is " + maxConcurrentGraphqlRequests + " but minimum is 1. Setting to 1.");
+      maxConcurrentGraphqlRequests = 1;
+    }
+    int proceduralTimelineCacheSize = Integer.parseInt(getEnv("SCHEDULER_PROCEDURAL_TIMELINE_CACHE_SIZE", "0"));
+    if (proceduralTimelineCacheSize < 0) {
+      logger.warn("SCHEDULER_PROCEDURAL_TIMELINE_CACHE_SIZE is " + proceduralTimelineCacheSize + " but minimum is 0. Setting to 0.");
+      proceduralTimelineCacheSize = 0;
+    }
+    int cellSnapshotInterval = Integer.parseInt(getEnv(
+        "SCHEDULER_CELL_SNAPSHOT_INTERVAL",
+        String.valueOf(LiveCells.DEFAULT_SNAPSHOT_INTERVAL)));
+    if (cellSnapshotInterval < 1 || cellSnapshotInterval > LiveCells.MAX_SNAPSHOT_INTERVAL) {
+      final var clamped = Math.clamp(cellSnapshotInterval, 1, LiveCells.MAX_SNAPSHOT_INTERVAL);
+      logger.warn("SCHEDULER_CELL_SNAPSHOT_INTERVAL is " + cellSnapshotInterval + " but must be between 1 and " + LiveCells.MAX_SNAPSHOT_INTERVAL + ". Setting to " + clamped + ".");
+      cellSnapshotInterval = clamped;
+    }
+    int analysisConcurrency = Integer.parseInt(getEnv("SCHEDULER_ANALYSIS_CONCURRENCY", "1"));
+    if (analysisConcurrency < 1) {
+      logger.warn("SCHEDULER_ANALYSIS_CONCURRENCY is " + analysisConcurrency + " but minimum is 1. Setting to 1.");
+      analysisConcurrency = 1;
+    }
     return new WorkerAppConfiguration(
         new PostgresStore(getEnv("AERIE_DB_HOST", "postgres"),
                           getEnv("SCHEDULER_DB_USER", ""),
@@ -145,7 +188,12 @@ public final class SchedulerWorkerAppDriver {
         Path.of(getEnv("MERLIN_LOCAL_STORE", "/usr/src/app/merlin_file_store")),
         PlanOutputMode.valueOf((getEnv("SCHEDULER_OUTPUT_MODE", "CreateNewOutputPlan"))),
         getEnv("HASURA_GRAPHQL_ADMIN_SECRET", ""),
-        maxNbCachedSimulationEngine
+        maxNbCachedSimulationEngine,
+        maxConcurrentGraphqlRequests,
+        SimulationResultsUploadMode.valueOf(getEnv("SCHEDULER_SIMULATION_RESULTS_UPLOAD_MODE", "GraphQL")),
+        proceduralTimelineCacheSize,
+        cellSnapshotInterval,
+        analysisConcurrency
     );
   }
 }
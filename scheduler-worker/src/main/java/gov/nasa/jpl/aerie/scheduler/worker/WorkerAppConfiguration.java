@@ -3,6 +3,7 @@ package gov.nasa.jpl.aerie.scheduler.worker;
 import java.net.URI;
 import java.nio.file.Path;
 import gov.nasa.jpl.aerie.scheduler.server.config.PlanOutputMode;
+import gov.nasa.jpl.aerie.scheduler.server.config.SimulationResultsUploadMode;
 import gov.nasa.jpl.aerie.scheduler.server.config.Store;
 
 public record WorkerAppConfiguration(
@@ -11,5 +12,10 @@ public record WorkerAppConfiguration(
     Path merlinFileStore,
     PlanOutputMode outputMode,
     String hasuraGraphQlAdminSecret,
-    int maxCachedSimulationEngines
+    int maxCachedSimulationEngines,
+    int maxConcurrentGraphqlRequests,
+    SimulationResultsUploadMode simulationResultsUploadMode,
+    int proceduralTimelineCacheSize,
+    int cellSnapshotInterval,
+    int analysisConcurrency
 ) { }
@@ -54,16 +54,26 @@ public class SchedulingDSLCompilationService {
   public SchedulingDSLCompilationResult<SchedulingDSL.ConditionSpecifier> compileGlobalSchedulingCondition(final MerlinDatabaseService.ReaderRole merlinDatabaseService, final PlanId planId, final String conditionTypescript, final
                                                                                                            Collection<ResourceType> additionalResourceTypes) {
     try{
-      final var missionModelTypes = merlinDatabaseService.getMissionModelTypes(planId);
-      final var aggregatedResourceTypes = new ArrayList<>(missionModelTypes.resourceTypes());
-      aggregatedResourceTypes.addAll(additionalResourceTypes);
-      final var planTypes = new MerlinDatabaseService.MissionModelTypes(missionModelTypes.activityTypes(), aggregatedResourceTypes);
-      return compile(planTypes,  conditionTypescript, SchedulingDSL.conditionSpecifierP, "GlobalSchedulingCondition");
+      return compileGlobalSchedulingCondition(merlinDatabaseService.getMissionModelTypes(planId), conditionTypescript, additionalResourceTypes);
     } catch (IOException | MerlinServiceException e) {
         throw new Error(e);
     }
   }
 
+  /**
+   * compile a global scheduling condition against mission model types that were already fetched by the caller
+   */
+  public SchedulingDSLCompilationResult<SchedulingDSL.ConditionSpecifier> compileGlobalSchedulingCondition(
+      final MerlinDatabaseService.MissionModelTypes missionModelTypes,
+      final String conditionTypescript,
+      final Collection<ResourceType> additionalResourceTypes)
+  {
+    final var aggregatedResourceTypes = new ArrayList<>(missionModelTypes.resourceTypes());
+    aggregatedResourceTypes.addAll(additionalResourceTypes);
+    final var planTypes = new MerlinDatabaseService.MissionModelTypes(missionModelTypes.activityTypes(), aggregatedResourceTypes);
+    return compile(planTypes,  conditionTypescript, SchedulingDSL.conditionSpecifierP, "GlobalSchedulingCondition");
+  }
+
   public SchedulingDSLCompilationResult<SchedulingDSL.GoalSpecifier> compileSchedulingGoalDSL(
       final MerlinDatabaseService.ReaderRole merlinDatabaseService,
       final PlanId planId,
@@ -81,16 +91,28 @@ public class SchedulingDSLCompilationService {
       final Collection<ResourceType> additionalResourceTypes)
   {
     try {
-      final var missionModelTypes = merlinDatabaseService.getMissionModelTypes(planId);
-      final var aggregatedResourceTypes = new ArrayList<>(missionModelTypes.resourceTypes());
-      aggregatedResourceTypes.addAll(additionalResourceTypes);
-      final var augmentedMissionModelTypes = new MerlinDatabaseService.MissionModelTypes(missionModelTypes.activityTypes(), aggregatedResourceTypes);
-      return compile(augmentedMissionModelTypes, goalTypescript, SchedulingDSL.schedulingJsonP(augmentedMissionModelTypes), "Goal");
+      return compileSchedulingGoalDSL(merlinDatabaseService.getMissionModelTypes(planId), goalTypescript, additionalResourceTypes);
     } catch (IOException | MerlinServiceException e) {
       throw new Error(e);
     }
   }
 
+  /**
+   * compile a scheduling goal against mission model types that were already fetched by the caller
+   *
+   * NOTE: This method is not re-entrant (assumes only one call to this method is running at any given time)
+   */
+  public SchedulingDSLCompilationResult<SchedulingDSL.GoalSpecifier> compileSchedulingGoalDSL(
+      final MerlinDatabaseService.MissionModelTypes missionModelTypes,
+      final String goalTypescript,
+      final Collection<ResourceType> additionalResourceTypes)
+  {
+    final var aggregatedResourceTypes = new ArrayList<>(missionModelTypes.resourceTypes());
+    aggregatedResourceTypes.addAll(additionalResourceTypes);
+    final var augmentedMissionModelTypes = new MerlinDatabaseService.MissionModelTypes(missionModelTypes.activityTypes(), aggregatedResourceTypes);
+    return compile(augmentedMissionModelTypes, goalTypescript, SchedulingDSL.schedulingJsonP(augmentedMissionModelTypes), "Goal");
+  }
+
   private <T> SchedulingDSLCompilationResult<T> compile(
       final MerlinDatabaseService.MissionModelTypes missionModelTypes,
       final String goalTypescript,
@@ -17,6 +17,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Supplier;
 import java.util.jar.JarFile;
 import java.util.stream.Collectors;
@@ -26,6 +29,7 @@ import gov.nasa.jpl.aerie.merlin.driver.MissionModel;
 import gov.nasa.jpl.aerie.merlin.driver.MissionModelLoader;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationEngineConfiguration;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.LiveCells;
 import gov.nasa.jpl.aerie.merlin.protocol.model.SchedulerModel;
 import gov.nasa.jpl.aerie.merlin.protocol.model.SchedulerPlugin;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
@@ -84,6 +88,9 @@ import org.slf4j.LoggerFactory;
  * @param merlinDatabaseService interface for querying plan and mission model details from merlin
  * @param modelJarsDir path to parent directory for mission model jars (interim backdoor jar file access)
  * @param outputMode how the scheduling output should be returned to aerie (eg overwrite or new container)
+ * @param proceduralTimelineCacheSize number of timeline objects procedural goals may keep cached, or 0 to disable
+ * @param cellSnapshotInterval how many layers of duplicated simulation engines may pass between retained cell copies
+ * @param analysisConcurrency maximum number of goals evaluated concurrently by analysis-only requests
  */
 //TODO: will eventually need scheduling goal service arg to pull goals from scheduler's own data store
 public record SynchronousSchedulerAgent(
@@ -91,18 +98,44 @@ public record SynchronousSchedulerAgent(
     MerlinDatabaseService.OwnerRole merlinDatabaseService,
     Path modelJarsDir,
     PlanOutputMode outputMode,
-    SchedulingDSLCompilationService schedulingDSLCompilationService
+    SchedulingDSLCompilationService schedulingDSLCompilationService,
+    int proceduralTimelineCacheSize,
+    int cellSnapshotInterval,
+    int analysisConcurrency
 )
     implements SchedulerAgent
 {
   private static final Logger LOGGER = LoggerFactory.getLogger(SynchronousSchedulerAgent.class);
 
+  /**
+   * number of reads issued concurrently to aerie while loading the inputs of a scheduling request
+   */
+  private static final int INITIAL_LOAD_CONCURRENCY = 6;
+
   public SynchronousSchedulerAgent {
     Objects.requireNonNull(merlinDatabaseService);
     Objects.requireNonNull(modelJarsDir);
     Objects.requireNonNull(schedulingDSLCompilationService);
   }
 
+  public SynchronousSchedulerAgent(
+      SpecificationService specificationService,
+      MerlinDatabaseService.OwnerRole merlinDatabaseService,
+      Path modelJarsDir,
+      PlanOutputMode outputMode,
+      SchedulingDSLCompilationService schedulingDSLCompilationService
+  ) {
+    this(
+        specificationService,
+        merlinDatabaseService,
+        modelJarsDir,
+        outputMode,
+        schedulingDSLCompilationService,
+        0,
+        LiveCells.DEFAULT_SNAPSHOT_INTERVAL,
+        1);
+  }
+
   /**
    * {@inheritDoc}
    *
@@ -126,118 +159,152 @@ public record SynchronousSchedulerAgent(
       final var planMetadata = merlinDatabaseService.getPlanMetadata(specification.planId());
       ensurePlanRevisionMatch(specification, planMetadata.planRev());
       ensureRequestIsCurrent(specification, request);
-      //create scheduler problem seeded with initial plan
-      final var schedulerMissionModel = loadMissionModel(planMetadata);
+      //issue the independent reads concurrently: they only depend on the plan metadata
+      final var needsMissionModelTypes = !specification.schedulingConditions().isEmpty()
+          || specification.goalsByPriority().stream().anyMatch($ -> $.type() instanceof GoalType.EDSL);
       final var planningHorizon = new PlanningHorizon(
           specification.horizonStartTimestamp().toInstant(),
           specification.horizonEndTimestamp().toInstant()
       );
-      final var simulationFacade = new CheckpointSimulationFacade(
-          schedulerMissionModel.missionModel(),
-          schedulerMissionModel.schedulerModel(),
-          cachedEngineStore,
-          planningHorizon,
-          new SimulationEngineConfiguration(
-              planMetadata.modelConfiguration(),
-              planMetadata.horizon().getStartInstant(),
-              new MissionModelId(planMetadata.modelId())),
-          canceledListener);
-        final var problem = new Problem(
+      final SchedulerMissionModel schedulerMissionModel;
+      final CheckpointSimulationFacade simulationFacade;
+      final Problem problem;
+      final ExternalProfiles externalProfiles;
+      final Map<String, List<ExternalEvent>> externalEventsByDerivationGroup;
+      final Optional<Pair<SimulationResults, DatasetId>> initialSimulationResultsAndDatasetId;
+      final PlanComponents loadedPlanComponents;
+      final Optional<MerlinDatabaseService.MissionModelTypes> missionModelTypes;
+      try (final var loaderPool = Executors.newFixedThreadPool(INITIAL_LOAD_CONCURRENCY)) {
+        final var futureMissionModel = loaderPool.submit(() -> loadMissionModel(planMetadata));
+        final var futureExternalProfiles = loaderPool.submit(() -> loadExternalProfiles(planMetadata.planId()));
+        final var futureExternalEvents = loaderPool.submit(() -> loadExternalEvents(
+            planMetadata.planId(),
+            planMetadata.horizon().getStartInstant()));
+        final var futureSimulationResults = loaderPool.submit(() -> loadSimulationResults(planMetadata));
+        final var futureMissionModelTypes = needsMissionModelTypes
+            ? Optional.of(loaderPool.submit(() -> merlinDatabaseService.getMissionModelTypes(planMetadata.planId())))
+            : Optional.<Future<MerlinDatabaseService.MissionModelTypes>>empty();
+
+        //create scheduler problem seeded with initial plan
+        schedulerMissionModel = awaitLoad(futureMissionModel);
+        simulationFacade = new CheckpointSimulationFacade(
+            schedulerMissionModel.missionModel(),
+            schedulerMissionModel.schedulerModel(),
+            cachedEngineStore,
+            planningHorizon,
+            new SimulationEngineConfiguration(
+                planMetadata.modelConfiguration(),
+                planMetadata.horizon().getStartInstant(),
+                new MissionModelId(planMetadata.modelId()),
+                cellSnapshotInterval),
+            canceledListener);
+        problem = new Problem(
             schedulerMissionModel.missionModel(),
             planningHorizon,
             simulationFacade,
             schedulerMissionModel.schedulerModel()
         );
-        final var externalProfiles = loadExternalProfiles(planMetadata.planId());
-        final var externalEventsByDerivationGroup = loadExternalEvents(planMetadata.planId(), planMetadata.horizon().getStartInstant());
-        final var initialSimulationResultsAndDatasetId = loadSimulationResults(planMetadata);
+        //directives are parsed against the mission model's activity types, so they can only be fetched now
+        final var futureMerlinPlan = loaderPool.submit(() -> loadMerlinPlan(planMetadata, problem));
+
+        externalProfiles = awaitLoad(futureExternalProfiles);
+        externalEventsByDerivationGroup = awaitLoad(futureExternalEvents);
+        initialSimulationResultsAndDatasetId = awaitLoad(futureSimulationResults);
+        missionModelTypes = futureMissionModelTypes.isPresent()
+            ? Optional.of(awaitLoad(futureMissionModelTypes.get()))
+            : Optional.empty();
         //seed the problem with the initial plan contents
-        final var loadedPlanComponents = loadInitialPlan(planMetadata, problem,
-                                                         initialSimulationResultsAndDatasetId.map(Pair::getKey));
-        problem.setInitialPlan(loadedPlanComponents.schedulerPlan(), initialSimulationResultsAndDatasetId.map(Pair::getKey));
-        problem.setExternalProfile(externalProfiles.realProfiles(), externalProfiles.discreteProfiles());
-        problem.setEventsByDerivationGroup(externalEventsByDerivationGroup);
-        //apply constraints/goals to the problem
-        final var compiledGlobalSchedulingConditions = new ArrayList<SchedulingCondition>();
-        final var failedGlobalSchedulingConditions = new ArrayList<List<SchedulingCompilationError.UserCodeError>>();
-        specification.schedulingConditions().forEach($ -> {
-          final var result = schedulingDSLCompilationService.compileGlobalSchedulingCondition(
-              merlinDatabaseService,
-              planMetadata.planId(),
-              $.source().source(),
-              externalProfiles.resourceTypes());
-          if (result instanceof SchedulingDSLCompilationService.SchedulingDSLCompilationResult.Success<SchedulingDSL.ConditionSpecifier> r) {
-            compiledGlobalSchedulingConditions.addAll(conditionBuilder(r.value(), problem));
-          } else if (result instanceof SchedulingDSLCompilationService.SchedulingDSLCompilationResult.Error<SchedulingDSL.ConditionSpecifier> r) {
-            failedGlobalSchedulingConditions.add(r.errors());
-          } else {
-            throw new Error("Unhandled variant of %s: %s".formatted(
-                SchedulingDSLCompilationService.SchedulingDSLCompilationResult.class.getSimpleName(),
-                result));
-          }
-        });
-
-        if (!failedGlobalSchedulingConditions.isEmpty()) {
-          writer.failWith(b -> b
-              .type("GLOBAL_SCHEDULING_CONDITIONS_FAILED")
-              .message("Global scheduling condition%s failed".formatted(failedGlobalSchedulingConditions.size() > 1
-                                                                            ? "s"
-                                                                            : ""))
-              .data(ResponseSerializers.serializeFailedGlobalSchedulingConditions(failedGlobalSchedulingConditions)));
-          return;
+        loadedPlanComponents = loadInitialPlan(
+            awaitLoad(futureMerlinPlan),
+            problem,
+            initialSimulationResultsAndDatasetId.map(Pair::getKey));
+      }
+      problem.setInitialPlan(loadedPlanComponents.schedulerPlan(), initialSimulationResultsAndDatasetId.map(Pair::getKey));
+      problem.setExternalProfile(externalProfiles.realProfiles(), externalProfiles.discreteProfiles());
+      problem.setEventsByDerivationGroup(externalEventsByDerivationGroup);
+      //apply constraints/goals to the problem
+      final var compiledGlobalSchedulingConditions = new ArrayList<SchedulingCondition>();
+      final var failedGlobalSchedulingConditions = new ArrayList<List<SchedulingCompilationError.UserCodeError>>();
+      specification.schedulingConditions().forEach($ -> {
+        final var result = schedulingDSLCompilationService.compileGlobalSchedulingCondition(
+            missionModelTypes.orElseThrow(),
+            $.source().source(),
+            externalProfiles.resourceTypes());
+        if (result instanceof SchedulingDSLCompilationService.SchedulingDSLCompilationResult.Success<SchedulingDSL.ConditionSpecifier> r) {
+          compiledGlobalSchedulingConditions.addAll(conditionBuilder(r.value(), problem));
+        } else if (result instanceof SchedulingDSLCompilationService.SchedulingDSLCompilationResult.Error<SchedulingDSL.ConditionSpecifier> r) {
+          failedGlobalSchedulingConditions.add(r.errors());
+        } else {
+          throw new Error("Unhandled variant of %s: %s".formatted(
+              SchedulingDSLCompilationService.SchedulingDSLCompilationResult.class.getSimpleName(),
+              result));
         }
+      });
+
+      if (!failedGlobalSchedulingConditions.isEmpty()) {
+        writer.failWith(b -> b
+            .type("GLOBAL_SCHEDULING_CONDITIONS_FAILED")
+            .message("Global scheduling condition%s failed".formatted(failedGlobalSchedulingConditions.size() > 1
+                                                                          ? "s"
+                                                                          : ""))
+            .data(ResponseSerializers.serializeFailedGlobalSchedulingConditions(failedGlobalSchedulingConditions)));
+        return;
+      }
 
-        compiledGlobalSchedulingConditions.forEach(problem::add);
-
-        final var orderedGoals = new ArrayList<Goal>();
-        final var goals = new HashMap<Goal, GoalId>();
-        final var compiledGoals = new ArrayList<Pair<GoalInvocationRecord, SchedulingDSL.GoalSpecifier>>();
-        final var failedGoals = new ArrayList<Pair<GoalId, List<SchedulingCompilationError.UserCodeError>>>();
-        for (final var goalRecord : specification.goalsByPriority()) {
-          switch (goalRecord.type()) {
-            case GoalType.EDSL edsl -> {
-              final var result = compileGoalDefinition(
-                  merlinDatabaseService,
-                  planMetadata.planId(),
-                  edsl.source(),
-                  schedulingDSLCompilationService,
-                  externalProfiles.resourceTypes());
-              if (result instanceof SchedulingDSLCompilationService.SchedulingDSLCompilationResult.Success<SchedulingDSL.GoalSpecifier> r) {
-                compiledGoals.add(Pair.of(goalRecord, r.value()));
-              } else if (result instanceof SchedulingDSLCompilationService.SchedulingDSLCompilationResult.Error<SchedulingDSL.GoalSpecifier> r) {
-                failedGoals.add(Pair.of(goalRecord.id(), r.errors()));
-              } else {
-                throw new Error("Unhandled variant of %s: %s".formatted(
-                    SchedulingDSLCompilationService.SchedulingDSLCompilationResult.class.getSimpleName(),
-                    result));
-              }
-            }
-            case GoalType.JAR jar -> {
-              compiledGoals.add(Pair.of(goalRecord, new SchedulingDSL.GoalSpecifier.Procedure(modelJarsDir.resolve(jar.path()), goalRecord.args())));
+      compiledGlobalSchedulingConditions.forEach(problem::add);
+
+      final var orderedGoals = new ArrayList<Goal>();
+      final var goals = new HashMap<Goal, GoalId>();
+      final var compiledGoals = new ArrayList<Pair<GoalInvocationRecord, SchedulingDSL.GoalSpecifier>>();
+      final var failedGoals = new ArrayList<Pair<GoalId, List<SchedulingCompilationError.UserCodeError>>>();
+      for (final var goalRecord : specification.goalsByPriority()) {
+        switch (goalRecord.type()) {
+          case GoalType.EDSL edsl -> {
+            final var result = compileGoalDefinition(
+                missionModelTypes.orElseThrow(),
+                edsl.source(),
+                schedulingDSLCompilationService,
+                externalProfiles.resourceTypes());
+            if (result instanceof SchedulingDSLCompilationService.SchedulingDSLCompilationResult.Success<SchedulingDSL.GoalSpecifier> r) {
+              compiledGoals.add(Pair.of(goalRecord, r.value()));
+            } else if (result instanceof SchedulingDSLCompilationService.SchedulingDSLCompilationResult.Error<SchedulingDSL.GoalSpecifier> r) {
+              failedGoals.add(Pair.of(goalRecord.id(), r.errors()));
+            } else {
+              throw new Error("Unhandled variant of %s: %s".formatted(
+                  SchedulingDSLCompilationService.SchedulingDSLCompilationResult.class.getSimpleName(),
+                  result));
             }
           }
+          case GoalType.JAR jar -> {
+            compiledGoals.add(Pair.of(goalRecord, new SchedulingDSL.GoalSpecifier.Procedure(modelJarsDir.resolve(jar.path()), goalRecord.args())));
+          }
         }
-        if (!failedGoals.isEmpty()) {
-          writer.failWith(b -> b
-              .type("SCHEDULING_GOALS_FAILED")
-              .message("Scheduling goal%s failed".formatted(failedGoals.size() > 1 ? "s" : ""))
-              .data(ResponseSerializers.serializeFailedGoals(failedGoals)));
-          return;
-        }
-        for (final var compiledGoal : compiledGoals) {
-          final var goal = GoalBuilder
-              .goalOfGoalSpecifier(
-                  compiledGoal.getValue(),
-                  specification.horizonStartTimestamp(),
-                  specification.horizonEndTimestamp(),
-                  problem::getActivityType,
-                  compiledGoal.getKey().simulateAfter());
-          orderedGoals.add(goal);
-          goals.put(goal, compiledGoal.getKey().id());
-        }
-        problem.setGoals(orderedGoals);
+      }
+      if (!failedGoals.isEmpty()) {
+        writer.failWith(b -> b
+            .type("SCHEDULING_GOALS_FAILED")
+            .message("Scheduling goal%s failed".formatted(failedGoals.size() > 1 ? "s" : ""))
+            .data(ResponseSerializers.serializeFailedGoals(failedGoals)));
+        return;
+      }
+      for (final var compiledGoal : compiledGoals) {
+        final var goal = GoalBuilder
+            .goalOfGoalSpecifier(
+                compiledGoal.getValue(),
+                specification.horizonStartTimestamp(),
+                specification.horizonEndTimestamp(),
+                problem::getActivityType,
+                compiledGoal.getKey().simulateAfter());
+        orderedGoals.add(goal);
+        goals.put(goal, compiledGoal.getKey().id());
+      }
+      problem.setGoals(orderedGoals);
 
-      final var scheduler = new PrioritySolver(problem, specification.analysisOnly());
+      final var scheduler = new PrioritySolver(
+          problem,
+          specification.analysisOnly(),
+          analysisConcurrency,
+          proceduralTimelineCacheSize);
       //run the scheduler to find a solution to the posed problem, if any
       final var solutionPlan = scheduler.getNextSolution().orElseThrow(
           () -> new ResultsProtocolFailure("scheduler returned no solution"));
@@ -336,6 +403,26 @@ public record SynchronousSchedulerAgent(
     }
   }
 
+  /**
+   * wait for a concurrently issued load, rethrowing the failure of the load itself rather than its wrapper
+   */
+  private static <T> T awaitLoad(final Future<T> load) throws MerlinServiceException, IOException {
+    try {
+      return load.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ResultsProtocolFailure(e);
+    } catch (final ExecutionException e) {
+      switch (e.getCause()) {
+        case MerlinServiceException cause -> throw cause;
+        case IOException cause -> throw cause;
+        case RuntimeException cause -> throw cause;
+        case Error cause -> throw cause;
+        default -> throw new ResultsProtocolFailure(e.getCause());
+      }
+    }
+  }
+
   private ExternalProfiles loadExternalProfiles(final PlanId planId)
   throws MerlinServiceException, IOException
   {
@@ -358,15 +445,13 @@ public record SynchronousSchedulerAgent(
   }
 
   private static SchedulingDSLCompilationService.SchedulingDSLCompilationResult<SchedulingDSL.GoalSpecifier> compileGoalDefinition(
-      final MerlinDatabaseService.ReaderRole merlinDatabaseService,
-      final PlanId planId,
+      final MerlinDatabaseService.MissionModelTypes missionModelTypes,
       final GoalSource source,
       final SchedulingDSLCompilationService schedulingDSLCompilationService,
       final Collection<ResourceType> additionalResourceTypes)
   {
     return schedulingDSLCompilationService.compileSchedulingGoalDSL(
-        merlinDatabaseService,
-        planId,
+        missionModelTypes,
         source.source(),
         additionalResourceTypes
     );
@@ -407,22 +492,37 @@ public record SynchronousSchedulerAgent(
   }
 
   /**
-   * load the activity instance content of the specified merlin plan into scheduler-ready objects
+   * fetch the activity directives of the specified merlin plan
    *
    * @param planMetadata metadata of plan container to load from
    * @param problem the problem that the plan adheres to
-   * @param initialSimulationResults initial simulation results (optional)
-   * @return a plan with all activity instances loaded from the target merlin plan container
+   * @return the activity directives of the target merlin plan container
    * @throws ResultsProtocolFailure when the requested plan cannot be loaded, or the target plan revision has
    *     changed, or aerie could not be reached
    */
+  private MerlinPlan loadMerlinPlan(final PlanMetadata planMetadata, final Problem problem) {
+    //TODO: maybe paranoid check if plan rev has changed since original metadata?
+    try {
+      return merlinDatabaseService.getPlanActivityDirectives(planMetadata, problem);
+    } catch (Exception e) {
+      throw new ResultsProtocolFailure(e);
+    }
+  }
+
+  /**
+   * load the activity instance content of the specified merlin plan into scheduler-ready objects
+   *
+   * @param merlinPlan activity directives of the plan container to load from
+   * @param problem the problem that the plan adheres to
+   * @param initialSimulationResults initial simulation results (optional)
+   * @return a plan with all activity instances loaded from the target merlin plan container
+   * @throws ResultsProtocolFailure when the activity directives do not match the mission model
+   */
   private PlanComponents loadInitialPlan(
-      final PlanMetadata planMetadata,
+      final MerlinPlan merlinPlan,
       final Problem problem,
       final Optional<SimulationResults> initialSimulationResults) {
-    //TODO: maybe paranoid check if plan rev has changed since original metadata?
     try {
-      final var merlinPlan =  merlinDatabaseService.getPlanActivityDirectives(planMetadata, problem);
       final var plan = new PlanInMemory();
       final var activityTypes = problem.getActivityTypes().stream().collect(Collectors.toMap(ActivityType::getName, at -> at));
       for(final var elem : merlinPlan.getActivitiesById().entrySet()){
@@ -0,0 +1,217 @@
+package gov.nasa.jpl.aerie.stateless;
+
+import gov.nasa.jpl.aerie.merlin.driver.MissionModelLoader;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationDriver;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationException;
+import gov.nasa.jpl.aerie.merlin.driver.resources.StreamingSimulationResourceManager;
+import gov.nasa.jpl.aerie.merlin.protocol.model.ModelType;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.orchestration.PlanJsonParser;
+import gov.nasa.jpl.aerie.orchestration.simulation.CanceledListener;
+import gov.nasa.jpl.aerie.orchestration.simulation.ResourceFileStreamer;
+import gov.nasa.jpl.aerie.orchestration.simulation.SimulationExtentConsumer;
+import gov.nasa.jpl.aerie.orchestration.simulation.SimulationResultsWriter;
+import gov.nasa.jpl.aerie.orchestration.simulation.SimulationUtility;
+
+import javax.json.Json;
+import javax.json.stream.JsonGenerator;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Simulates every plan listed in a batch manifest using a single loaded mission model.
+ *
+ * The mission model JAR is loaded once, so every simulation shares its classes and their JIT-compiled code,
+ * while the model itself is instantiated separately for each plan, from that plan's start time and configuration.
+ * Simulations run concurrently on a bounded pool of threads, and the results of each plan are written to their own file.
+ */
+public class BatchSimulation {
+  /**
+   * A plan to simulate, as listed in a batch manifest.
+   * @param planPath Path to the plan JSON.
+   * @param simConfigPath Path to the simulation configuration JSON, if any.
+   * @param outputFilePath Path to write the simulation results to.
+   */
+  public record Entry(Path planPath, Optional<Path> simConfigPath, Path outputFilePath) {}
+
+  private record Outcome(Entry entry, boolean succeeded) {}
+
+  private final ModelType<?, ?> modelType;
+  private final List<Entry> entries;
+  private final int concurrency;
+  private final boolean verbose;
+  private final CanceledListener canceledListener = new CanceledListener();
+
+  public BatchSimulation(ModelType<?, ?> modelType, List<Entry> entries, int concurrency, boolean verbose) {
+    if (concurrency < 1) throw new IllegalArgumentException("Concurrency must be at least 1, was " + concurrency);
+    this.modelType = modelType;
+    this.entries = entries;
+    this.concurrency = concurrency;
+    this.verbose = verbose;
+  }
+
+  /**
+   * Parses a batch manifest, a JSON array where each object describes a plan to simulate:
+   * <pre>
+   * [
+   *   { "plan": "plan.json", "sim_config": "config.json", "output": "results.json" }
+   * ]
+   * </pre>
+   * "sim_config" and "output" are optional. Plan and configuration paths are resolved against the manifest's directory,
+   * and output paths against the output directory. Results are written to "[plan name]-results.json" by default.
+   * A manifest in which two entries would write to the same output file is rejected.
+   *
+   * @param manifestPath Path to the manifest JSON.
+   * @param outputDirectory Directory to write the simulation results to.
+   */
+  public static List<Entry> parseManifest(final Path manifestPath, final Path outputDirectory) {
+    final var manifestDirectory = Optional.ofNullable(manifestPath.toAbsolutePath().getParent()).orElse(Path.of("."));
+    final var entries = new ArrayList<Entry>();
+    try (final var reader = Json.createReader(new FileReader(manifestPath.toString()))) {
+      for (final var value : reader.readArray()) {
+        final var entry = value.asJsonObject();
+        final var planPath = manifestDirectory.resolve(entry.getString("plan"));
+        final var simConfigPath = entry.containsKey("sim_config")
+            ? Optional.of(manifestDirectory.resolve(entry.getString("sim_config")))
+            : Optional.<Path>empty();
+        final var outputFileName = entry.containsKey("output")
+            ? entry.getString("output")
+            : planPath.getFileName().toString().replaceFirst("\\.json$", "") + "-results.json";
+        entries.add(new Entry(planPath, simConfigPath, outputDirectory.resolve(outputFileName)));
+      }
+    } catch (final FileNotFoundException e) {
+      throw new RuntimeException("Specified batch manifest JSON file does not exist: " + manifestPath);
+    } catch (final Exception e) {
+      throw new RuntimeException("Error while reading batch manifest JSON file: " + manifestPath, e);
+    }
+
+    final var outputIndices = new HashMap<Path, Integer>();
+    for (var i = 0; i < entries.size(); i++) {
+      final var outputFilePath = entries.get(i).outputFilePath();
+      final var previous = outputIndices.putIfAbsent(outputFilePath.toAbsolutePath().normalize(), i);
+      if (previous != null) {
+        throw new IllegalArgumentException(
+            "Entries %d and %d of the batch manifest both write their results to %s; give one of them a distinct \"output\""
+                .formatted(previous, i, outputFilePath));
+      }
+    }
+    return entries;
+  }
+
+  /**
+   * Simulate every plan of the batch, then report the throughput of the batch.
+   * A plan that fails to parse or simulate is reported on std.err without interrupting the rest of the batch.
+   * @return The number of plans that could not be simulated.
+   */
+  public int run() {
+    final var start = System.nanoTime();
+    final var outcomes = new ArrayList<Outcome>(entries.size());
+
+    // Cancel all simulations on SIGINT, and wait for each of them to write its partial results
+    final var finished = new CountDownLatch(1);
+    final var shutdownHook = new Thread(() -> {
+      canceledListener.cancel();
+      try {
+        finished.await();
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    Runtime.getRuntime().addShutdownHook(shutdownHook);
+    try (final var executor = Executors.newFixedThreadPool(concurrency)) {
+      final var futures = new ArrayList<Future<Outcome>>(entries.size());
+      for (final var entry : entries) {
+        futures.add(executor.submit(() -> new Outcome(entry, simulate(entry))));
+      }
+      for (final var future : futures) {
+        outcomes.add(future.get());
+      }
+    } catch (InterruptedException | ExecutionException e) {
+      throw new RuntimeException(e);
+    } finally {
+      finished.countDown();
+      // Try-catch wrapping in case this is executed while the shutdown hook is running.
+      try { Runtime.getRuntime().removeShutdownHook(shutdownHook); }
+      catch (IllegalStateException ise) {}
+    }
+
+    final var elapsedMinutes = (System.nanoTime() - start) / 60e9;
+    final var succeeded = outcomes.stream().filter(Outcome::succeeded).count();
+    System.out.printf(
+        "Simulated %d of %d plans in %.3f s with up to %d concurrent simulations (%.2f simulations/minute)%n",
+        succeeded,
+        outcomes.size(),
+        elapsedMinutes * 60,
+        concurrency,
+        succeeded / elapsedMinutes);
+    return (int) (outcomes.size() - succeeded);
+  }
+
+  private boolean simulate(final Entry entry) {
+    try {
+      if (verbose) { System.out.println("Simulating plan " + entry.planPath() + "..."); }
+      final var plan = PlanJsonParser.parsePlan(entry.planPath());
+      entry.simConfigPath().ifPresent(path -> PlanJsonParser.parseSimulationConfiguration(path, plan));
+
+      final var model = MissionModelLoader.loadMissionModel(
+          plan.simulationStartTimestamp.toInstant(),
+          SerializedValue.of(plan.simulationConfiguration()),
+          modelType);
+
+      // Simulate on this pool thread, rather than handing off to a SimulationUtility executor and waiting on it,
+      // so that a batch uses no more threads than its concurrency.
+      final var rfs = new ResourceFileStreamer();
+      try (final var extentConsumer = new SimulationExtentConsumer()) {
+        final var results = SimulationDriver.simulate(
+            model,
+            plan.activityDirectives(),
+            plan.simulationStartTimestamp.toInstant(),
+            Duration.of(plan.simulationStartTimestamp.microsUntil(plan.simulationEndTimestamp), Duration.MICROSECOND),
+            plan.planStartInstant(),
+            plan.duration(),
+            canceledListener,
+            extentConsumer,
+            new StreamingSimulationResourceManager(rfs));
+        Files.createDirectories(entry.outputFilePath().toAbsolutePath().getParent());
+        new SimulationResultsWriter(results, plan, rfs).writeResults(canceledListener, entry.outputFilePath());
+      }
+      if (verbose) { System.out.println("Wrote results of plan " + entry.planPath() + " to " + entry.outputFilePath()); }
+      return true;
+    } catch (SimulationException e) {
+      // Write Formatted Sim Exception to std.err, without closing std.err for the rest of the batch
+      final Map<String,String> config = Map.of(JsonGenerator.PRETTY_PRINTING, "");
+      final var stringWriter = new StringWriter();
+      try (final var jsonWriter = Json.createWriterFactory(config).createWriter(stringWriter)) {
+        jsonWriter.writeObject(SimulationUtility.formatSimulationException(e));
+      }
+      synchronized (System.err) {
+        System.err.println("Simulation of plan " + entry.planPath() + " failed:");
+        System.err.println(stringWriter);
+      }
+      return false;
+    } catch (IOException | RuntimeException e) {
+      reportFailure(entry, e);
+      return false;
+    }
+  }
+
+  private static void reportFailure(final Entry entry, final Throwable cause) {
+    synchronized (System.err) {
+      System.err.println("Simulation of plan " + entry.planPath() + " failed: " + cause);
+    }
+  }
+}
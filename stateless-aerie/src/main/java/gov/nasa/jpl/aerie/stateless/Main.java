@@ -8,8 +8,10 @@ import gov.nasa.jpl.aerie.orchestration.simulation.SimulationResultsWriter;
 import gov.nasa.jpl.aerie.merlin.driver.MissionModel;
 import gov.nasa.jpl.aerie.merlin.driver.MissionModelLoader;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationException;
+import gov.nasa.jpl.aerie.merlin.protocol.model.ModelType;
 
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
@@ -35,6 +37,13 @@ public class Main {
         Optional<Path> outputFilePath,
         long extentUpdatePeriod
     ) implements Arguments {}
+
+    record BatchArguments(
+        ModelType<?, ?> modelType,
+        List<BatchSimulation.Entry> entries,
+        int concurrency,
+        boolean verbose
+    ) implements Arguments {}
   }
 
   public static void main(String[] args) {
@@ -50,6 +59,10 @@ public class Main {
         simulate(parseSimulationArgs(args));
         break;
       }
+      case "batch": {
+        batch(parseBatchArgs(args));
+        break;
+      }
       case "-h":
       case "--help":
       default:
@@ -118,6 +131,76 @@ public class Main {
     }
   }
 
+  private static Arguments.BatchArguments parseBatchArgs(String[] args) {
+    final Path modelJarPath;
+    final Path manifestPath;
+    final Path outputDirectory;
+    final boolean verbose;
+    final int jobs;
+    final long runMemory;
+
+    // Parse the command line arguments
+    final Options batchOptions = createBatchOptions();
+    try {
+      checkForHelp(args, batchOptions, "batch", "Simulate a batch of plans using the specified model");
+
+      final CommandLineParser parser = new DefaultParser();
+      final CommandLine cmd = parser.parse(batchOptions, args);
+
+      modelJarPath = cmd.getParsedOptionValue('m');
+      manifestPath = cmd.getParsedOptionValue('b');
+      verbose = cmd.hasOption("verbose");
+      // Parser sets unused fields to 'null'
+      outputDirectory = cmd.getParsedOptionValue('o', Path.of("."));
+      jobs = cmd.getParsedOptionValue('j', Runtime.getRuntime().availableProcessors());
+      runMemory = cmd.getParsedOptionValue('r', 0L);
+    } catch (ParseException e) {
+      batchOptions.addOption(HELP_OPTION);
+      new HelpFormatter().printHelp(
+          "stateless-aerie batch",
+          "Simulate a batch of plans using the specified model",
+          batchOptions,
+          FOOTER,
+          true);
+      System.exit(2);
+      // The below is included as java doesn't recognize System.exit() as stopping the method,
+      // which causes compilation methods when trying to use the values assigned above
+      throw new RuntimeException(e);
+    }
+
+    // Only run as many simulations at once as fit in the heap
+    var concurrency = Math.max(1, jobs);
+    if (runMemory > 0) {
+      final var maxConcurrentRuns = Runtime.getRuntime().maxMemory() / (runMemory * 1024 * 1024);
+      concurrency = (int) Math.max(1, Math.min(concurrency, maxConcurrentRuns));
+    }
+
+    if (verbose) { System.out.println("Parsing batch manifest "+manifestPath+"..."); }
+    final var entries = BatchSimulation.parseManifest(manifestPath, outputDirectory);
+
+    // Load the mission model once for the whole batch
+    try {
+      if (verbose) { System.out.println("Loading mission model "+modelJarPath+"..."); }
+      final var modelType = MissionModelLoader.loadModelType(modelJarPath, modelJarPath.getFileName().toString(), "");
+      return new Arguments.BatchArguments(modelType, entries, concurrency, verbose);
+    } catch (MissionModelLoader.MissionModelLoadException e) {
+      throw new RuntimeException("Error while loading mission model: "+modelJarPath, e);
+    }
+  }
+
+  private static void batch(Arguments.BatchArguments batchArgs) {
+    if (batchArgs.verbose()) {
+      System.out.println("Simulating "+batchArgs.entries().size()+" plans, "+batchArgs.concurrency()+" at a time...");
+    }
+    final var failures = new BatchSimulation(
+        batchArgs.modelType(),
+        batchArgs.entries(),
+        batchArgs.concurrency(),
+        batchArgs.verbose()
+    ).run();
+    if (failures > 0) System.exit(1);
+  }
+
   private static void simulate(Arguments.SimulationArguments<?> simArgs) {
     if (simArgs.verbose()) { System.out.println("Simulating Plan..."); }
 
@@ -202,6 +285,7 @@ public class Main {
 
     Available commands:
      - simulate: Simulate a plan using the specified model and configuration
+     - batch: Simulate a batch of plans using the specified model
     %s
     %n""", FOOTER);
   }
@@ -245,6 +329,44 @@ public class Main {
     return simulationOptions;
   }
 
+  /**
+   * Build the parser options for the "batch" command.
+   */
+  private static Options createBatchOptions() {
+    // Required Args
+    final Option modelPath = new Option("m", "model", true, "path to model jar");
+    modelPath.setRequired(true);
+    modelPath.setConverter(Path::of);
+
+    final Option manifestPath = new Option("b", "batch", true, "path to batch manifest json");
+    manifestPath.setRequired(true);
+    manifestPath.setConverter(Path::of);
+
+    // Optional Args
+    final Option outputDirectory = new Option("o", "output_dir", true, "directory to write results to");
+    outputDirectory.setRequired(false);
+    outputDirectory.setConverter(Path::of);
+
+    final Option jobs = new Option("j", "jobs", true, "maximum number of concurrent simulations, defaults to the number of processors");
+    jobs.setRequired(false);
+    jobs.setConverter(Integer::parseInt);
+
+    final Option runMemory = new Option("r", "run_memory", true, "heap needed by each simulation, in megabytes; limits the number of concurrent simulations to fit in the heap");
+    runMemory.setRequired(false);
+    runMemory.setConverter(Long::parseLong);
+
+    final Option verbose = new Option("v", "verbose", false, "verbosity of simulation");
+
+    final Options batchOptions = new Options();
+    batchOptions.addOption(verbose);
+    batchOptions.addOption(modelPath);
+    batchOptions.addOption(manifestPath);
+    batchOptions.addOption(outputDirectory);
+    batchOptions.addOption(jobs);
+    batchOptions.addOption(runMemory);
+    return batchOptions;
+  }
+
   /**
    * Check if the "help" option was passed for a given command
    *   and, if so, print the command's help message and exit the program with status code 0.
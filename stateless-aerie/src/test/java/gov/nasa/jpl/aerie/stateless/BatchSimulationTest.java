@@ -0,0 +1,66 @@
+package gov.nasa.jpl.aerie.stateless;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchSimulationTest {
+  @TempDir
+  Path directory;
+
+  private Path manifest(final String contents) throws IOException {
+    return Files.writeString(directory.resolve("manifest.json"), contents);
+  }
+
+  @Test
+  public void testManifestEntriesAreResolved() throws IOException {
+    final var manifestPath = manifest("""
+        [
+          { "plan": "a.json", "sim_config": "config.json" },
+          { "plan": "b.json", "output": "b-out.json" }
+        ]
+        """);
+    final var outputDirectory = directory.resolve("out");
+
+    assertEquals(
+        List.of(
+            new BatchSimulation.Entry(
+                directory.resolve("a.json"),
+                Optional.of(directory.resolve("config.json")),
+                outputDirectory.resolve("a-results.json")),
+            new BatchSimulation.Entry(
+                directory.resolve("b.json"),
+                Optional.empty(),
+                outputDirectory.resolve("b-out.json"))),
+        BatchSimulation.parseManifest(manifestPath, outputDirectory));
+  }
+
+  @Test
+  public void testCollidingOutputsAreRejected() throws IOException {
+    final var manifestPath = manifest("""
+        [
+          { "plan": "a.json" },
+          { "plan": "b.json", "output": "a-results.json" }
+        ]
+        """);
+
+    final var e = assertThrows(
+        IllegalArgumentException.class,
+        () -> BatchSimulation.parseManifest(manifestPath, directory.resolve("out")));
+    assertTrue(e.getMessage().startsWith("Entries 0 and 1 of the batch manifest"));
+  }
+
+  @Test
+  public void testUnreadableManifestIsReported() throws IOException {
+    final var manifestPath = manifest("[ { \"output\": \"a-results.json\" } ]");
+
+    assertThrows(RuntimeException.class, () -> BatchSimulation.parseManifest(manifestPath, directory.resolve("out")));
+  }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import javax.json.Json;
 import java.io.BufferedReader;
@@ -15,7 +16,10 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -60,6 +64,7 @@ public class CLIArgumentsTest {
 
     Available commands:
      - simulate: Simulate a plan using the specified model and configuration
+     - batch: Simulate a batch of plans using the specified model
 
     Stateless Aerie v""";
 
@@ -299,4 +304,91 @@ public class CLIArgumentsTest {
       }
     }
   }
+
+  @Nested
+  public class BatchArguments {
+    /** Subcommand help message appears if the '-h' or '--help' flag is passed after the subcommand. */
+    @Test
+    void batchHelp() {
+      final var helpString =
+       """
+       usage: stateless-aerie batch -b <arg> [-h] [-j <arg>] -m <arg> [-o <arg>]
+              [-r <arg>] [-v]
+       Simulate a batch of plans using the specified model
+        -b,--batch <arg>        path to batch manifest json
+        -h,--help               display this message and exit
+        -j,--jobs <arg>         maximum number of concurrent simulations,
+                                defaults to the number of processors
+        -m,--model <arg>        path to model jar
+        -o,--output_dir <arg>   directory to write results to
+        -r,--run_memory <arg>   heap needed by each simulation, in megabytes;
+                                limits the number of concurrent simulations to
+                                fit in the heap
+        -v,--verbose            verbosity of simulation
+
+       Stateless Aerie v""";
+
+      final var helpArgs = new String[][] {{"batch", "-h"}, {"batch", "--help"},
+                                           {"batch", "-b", "manifest.json", "-h"}};
+
+      BlockExitSecurityManager.install();
+      for (final var args : helpArgs) {
+        final var sysExit = assertThrows(SystemExit.class, () -> Main.main(args));
+        assertEquals(0, sysExit.getStatusCode());
+
+        outputStream.flush();
+        assertTrue(out.toString().contains(helpString));
+        assertTrue(err.toString().isBlank());
+        out.reset();
+        err.reset();
+      }
+      BlockExitSecurityManager.uninstall();
+    }
+
+    /** An exception is thrown if a batch is run for a manifest that doesn't exist. */
+    @Test
+    void badManifest() {
+      final var missingFileError = assertThrows(RuntimeException.class,
+                                      () -> Main.main(new String[]{
+                                          "batch",
+                                          "-m", "../examples/foo-missionmodel/build/libs/foo-missionmodel.jar",
+                                          "-b", "src/test/resources/fake_manifest.json"}));
+      assertEquals("Specified batch manifest JSON file does not exist: src/test/resources/fake_manifest.json",
+                   missingFileError.getMessage());
+    }
+
+    /**
+     * Each plan of the batch is written to its own results file, matching the results of simulating it alone.
+     * A plan failing to simulate does not stop the rest of the batch, but is reported through the exit code.
+     */
+    @Test
+    void batchResults(@TempDir Path outputDirectory) throws IOException {
+      BlockExitSecurityManager.install();
+      final var sysExit = assertThrows(SystemExit.class,
+                                       () -> Main.main(new String[]{
+                                           "batch",
+                                           "-m", "../examples/foo-missionmodel/build/libs/foo-missionmodel.jar",
+                                           "-b", "src/test/resources/fooBatchManifest.json",
+                                           "-o", outputDirectory.toString(),
+                                           "-j", "2"}));
+      assertEquals(1, sysExit.getStatusCode());
+      BlockExitSecurityManager.uninstall();
+
+      outputStream.flush();
+      assertTrue(out.toString().startsWith("Simulated 2 of 3 plans"));
+      assertTrue(out.toString().contains("simulations/minute"));
+      assertTrue(err.toString().contains("SIMULATION_EXCEPTION"));
+      assertFalse(Files.exists(outputDirectory.resolve("exceptionFooPlan-results.json")));
+
+      final var expectedResults = Map.of(
+          "simpleFooPlan-results.json", "src/test/resources/simpleFooPlanResults.json",
+          "subsetFooPlan-results.json", "src/test/resources/subsetFooPlanResults.json");
+      for (final var expected : expectedResults.entrySet()) {
+        try(final var fileReader = Json.createReader(new FileReader(expected.getValue()));
+            final var outputReader = Json.createReader(new FileReader(outputDirectory.resolve(expected.getKey()).toFile()))) {
+          assertEquals(fileReader.readObject(), outputReader.readObject());
+        }
+      }
+    }
+  }
 }